@@ -1,36 +1,131 @@
 package com.slang;
 
 import com.slang.codegen.CodeGen;
+import com.slang.lexer.CodeAxis;
+import com.slang.lexer.IncludeGraph;
+import com.slang.lexer.TokenCache;
 import com.slang.lexer.TokenStream;
+import com.slang.parser.GeneratedParser;
+import com.slang.parser.ParallelParser;
+import com.slang.parser.Parser;
+import com.slang.parser.PredictTable;
 import com.slang.parser.RdScanner;
+import com.slang.parser.SyntaxChecker;
+import com.slang.parser.generator.ParserGenerator;
 import com.slang.parser.generator.PredictTableGenerator;
 import com.slang.parser.generator.ProductionsGenerator;
 import com.slang.semantic.ast.AstBuilder;
 import com.slang.semantic.ast.AstHelper;
+import com.slang.semantic.ast.AstParser;
 import com.slang.semantic.ast.node.Node;
+import com.slang.utils.Panic;
 import gnu.getopt.Getopt;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 enum MODE {
     COMPILE,
     PRINT_AST,
-    PRINT_PARSE_TABLE
+    PRINT_PARSE_TABLE,
+    GENERATE_PARSE_TABLE,
+    GENERATE_PARSER,
+    SYNTAX_CHECK
 }
 
 public class Main {
+    private static final String[] GRAMMARS = {"grammars/SLang.slg", "grammars/Expression.slg", "grammars/Statement.slg"};
+    private static final String PARSE_TABLE = "grammars/SLang.tbl";
+
+    /**
+     * 读取所有文法文件的内容
+     */
+    private static ArrayList<byte[]> readGrammars(ClassLoader classLoader) {
+        ArrayList<byte[]> grammars = new ArrayList<>();
+        for (String grammar : Main.GRAMMARS) {
+            try (InputStream inputStream = classLoader.getResourceAsStream(grammar)) {
+                if (inputStream == null) {
+                    Panic panic = new Panic(String.format("parser: Grammar %s not found", grammar), new CodeAxis());
+                    panic.show();
+                }
+                grammars.add(inputStream.readAllBytes());
+            } catch (IOException e) {
+                Panic panic = new Panic(String.format("parser: Can not read grammar %s", grammar), new CodeAxis());
+                panic.show();
+            }
+        }
+        return grammars;
+    }
+
+    /**
+     * 根据文法生成预测分析表
+     * @param reportConflicts 是否以警告的形式输出文法中的LL(1)冲突
+     */
+    private static PredictTable generatePredictTable(ArrayList<byte[]> grammars, boolean reportConflicts) {
+        ArrayList<InputStream> grammarStreams = new ArrayList<>();
+        for (byte[] grammar : grammars) {
+            grammarStreams.add(new ByteArrayInputStream(grammar));
+        }
+        ProductionsGenerator productionsGenerator = new ProductionsGenerator(grammarStreams);
+        PredictTableGenerator predictTableGenerator = new PredictTableGenerator(productionsGenerator);
+        if (reportConflicts) {
+            for (String conflict : predictTableGenerator.getConflicts()) {
+                Panic panic = new Panic(String.format("parser: LL(1) conflict %s", conflict), new CodeAxis());
+                panic.setErrorLevel(Panic.ErrorLevel.WARNING);
+                panic.show();
+            }
+        }
+        return predictTableGenerator.getPredictTable();
+    }
+
+    /**
+     * 获取预测分析表
+     * 优先读取预先生成的预测分析表，没有预先生成的表或者表不是由当前文法生成时，根据文法重新生成
+     */
+    private static PredictTable loadPredictTable(ClassLoader classLoader, ArrayList<byte[]> grammars) {
+        InputStream inputStream = classLoader.getResourceAsStream(Main.PARSE_TABLE);
+        if (inputStream != null) {
+            PredictTable predictTable = PredictTable.load(inputStream, PredictTable.hash(grammars));
+            if (predictTable != null) {
+                return predictTable;
+            }
+        }
+        return Main.generatePredictTable(grammars, false);
+    }
+
     /*
      * slang -c <path> [-i <path>] -- Compile file to SVM IR code
      * slang -a <path> -- Print AST Tree
+     * slang -s <path> [<path>...] -- Check the syntax of files only
      * slang -t -- Print Parse Table
+     * slang -g <path> -- Generate the parse table file
+     * slang -p <path> -- Generate the recursive-descent parser source
+     * slang -r -- Parse with the generated recursive-descent parser (use with -c, -a)
+     * slang -o -- Build the AST in one pass without the parse tree (use with -c, -a)
+     * slang -j -- Parse top-level functions in parallel (use with -c, -a)
+     * slang -l -- Parse included function bodies on first call (use with -c, implies -o)
+     * slang -d <dir> -- Cache lexed modules in the directory
+     * slang -I <dir> -- Add the directory to the include search path
      */
     public static void main(String[] args) {
-        Getopt getopt = new Getopt("slang", args, "c:a:t:i:h");
+        Getopt getopt = new Getopt("slang", args, "c:a:s:t:g:p:rojli:d:I:h");
         int ch;
         String path = "./prog.sl";
         String outputPath = "./out.sli";
         MODE mode = MODE.COMPILE;
+        boolean generatedParser = false;
+        boolean onePass = false;
+        boolean parallelParser = false;
+        boolean lazyLibraries = false;
+        ArrayList<String> searchPath = new ArrayList<>();
         while ((ch = getopt.getopt()) != -1) {
             switch (ch) {
                 case 'c':
@@ -41,36 +136,129 @@ public class Main {
                     path = getopt.getOptarg();
                     mode = MODE.PRINT_AST;
                     break;
+                case 's':
+                    path = getopt.getOptarg();
+                    mode = MODE.SYNTAX_CHECK;
+                    break;
                 case 't':
                     mode = MODE.PRINT_PARSE_TABLE;
                     break;
+                case 'g':
+                    outputPath = getopt.getOptarg();
+                    mode = MODE.GENERATE_PARSE_TABLE;
+                    break;
+                case 'p':
+                    outputPath = getopt.getOptarg();
+                    mode = MODE.GENERATE_PARSER;
+                    break;
+                case 'r':
+                    generatedParser = true;
+                    break;
+                case 'o':
+                    onePass = true;
+                    break;
+                case 'j':
+                    parallelParser = true;
+                    break;
+                case 'l':
+                    onePass = true;
+                    lazyLibraries = true;
+                    break;
                 case 'i':
                     outputPath = getopt.getOptarg();
                     break;
+                case 'd':
+                    TokenCache.setDirectory(getopt.getOptarg());
+                    break;
+                case 'I':
+                    searchPath.add(getopt.getOptarg());
+                    break;
                 case 'h':
                 default:
                     System.out.println("\n" +
                             "$ slang -c <path> [-i <path>] -- Compile file to SVM IR code\n" +
                             "$ slang -a <path> -- Print AST Tree\n" +
-                            "$ slang -t -- Print Parse Table\n");
+                            "$ slang -s <path> [<path>...] -- Check the syntax of files only\n" +
+                            "$ slang -t -- Print Parse Table\n" +
+                            "$ slang -g <path> -- Generate the parse table file\n" +
+                            "$ slang -p <path> -- Generate the recursive-descent parser source\n" +
+                            "$ slang -r -- Parse with the generated recursive-descent parser (use with -c, -a)\n" +
+                            "$ slang -o -- Build the AST in one pass without the parse tree (use with -c, -a)\n" +
+                            "$ slang -j -- Parse top-level functions in parallel (use with -c, -a)\n" +
+                            "$ slang -l -- Parse included function bodies on first call (use with -c, implies -o)\n" +
+                            "$ slang -d <dir> -- Cache lexed modules in the directory\n" +
+                            "$ slang -I <dir> -- Add the directory to the include search path\n");
                     return;
             }
         }
         ClassLoader classLoader = Main.class.getClassLoader();
-        ArrayList<InputStream> grammars = new ArrayList<>();
-        grammars.add(classLoader.getResourceAsStream("grammars/SLang.slg"));
-        grammars.add(classLoader.getResourceAsStream("grammars/Expression.slg"));
-        grammars.add(classLoader.getResourceAsStream("grammars/Statement.slg"));
-        ProductionsGenerator productionsGenerator = new ProductionsGenerator(grammars);
-        PredictTableGenerator predictTableGenerator = new PredictTableGenerator(productionsGenerator);
+        ArrayList<byte[]> grammars = Main.readGrammars(classLoader);
+        if (mode == MODE.GENERATE_PARSE_TABLE) {
+            try (OutputStream outputStream = new FileOutputStream(outputPath)) {
+                Main.generatePredictTable(grammars, true).save(outputStream, PredictTable.hash(grammars));
+            } catch (IOException e) {
+                Panic panic = new Panic("Can not generate parse table due to IO Error", new CodeAxis(outputPath));
+                panic.show();
+            }
+            System.out.println("Done");
+            return;
+        }
+        PredictTable predictTable = Main.loadPredictTable(classLoader, grammars);
         if (mode == MODE.PRINT_PARSE_TABLE) {
-            predictTableGenerator.printParseTable();
+            predictTable.printParseTable();
+            return;
+        }
+        if (mode == MODE.GENERATE_PARSER) {
+            ParserGenerator parserGenerator = new ParserGenerator(predictTable, PredictTable.hash(grammars));
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8)) {
+                writer.write(parserGenerator.generate("com.slang.parser", "GeneratedParser"));
+            } catch (IOException e) {
+                Panic panic = new Panic("Can not generate parser due to IO Error", new CodeAxis(outputPath));
+                panic.show();
+            }
+            System.out.println("Done");
             return;
         }
-        TokenStream tokenStream = new TokenStream(path);
-        RdScanner rdScanner = new RdScanner(tokenStream, predictTableGenerator);
-        AstBuilder ast = new AstBuilder();
-        Node root = ast.invokeAstBuilderMethod(rdScanner.buildParseTree());
+        if (mode == MODE.SYNTAX_CHECK) {
+            // -s之后的其余参数都是要检查的文件
+            ArrayList<String> paths = new ArrayList<>();
+            paths.add(path);
+            paths.addAll(Arrays.asList(args).subList(getopt.getOptind(), args.length));
+            SyntaxChecker syntaxChecker = new SyntaxChecker(predictTable);
+            for (String directory : searchPath) {
+                syntaxChecker.addSearchPath(directory);
+            }
+            if (syntaxChecker.checkAll(paths) > 0) {
+                System.exit(1);
+            }
+            return;
+        }
+        IncludeGraph includeGraph = new IncludeGraph(path);
+        for (String directory : searchPath) {
+            includeGraph.addSearchPath(directory);
+        }
+        TokenStream tokenStream = new TokenStream(includeGraph, false);
+        Node root;
+        if (onePass) {
+            // 打印AST时需要完整的函数体，只在编译时延迟分析
+            root = new AstParser(tokenStream, predictTable, lazyLibraries && mode == MODE.COMPILE).build();
+        } else {
+            Parser parser;
+            if (parallelParser) {
+                parser = new ParallelParser(tokenStream, predictTable);
+            } else if (generatedParser && GeneratedParser.GRAMMAR_HASH == PredictTable.hash(grammars)) {
+                parser = new GeneratedParser(tokenStream);
+            } else {
+                if (generatedParser) {
+                    Panic panic = new Panic("parser: The generated parser is out of date, falling back to the table-driven parser", new CodeAxis());
+                    panic.setErrorLevel(Panic.ErrorLevel.WARNING);
+                    panic.show();
+                }
+                parser = new RdScanner(tokenStream, predictTable);
+            }
+            AstBuilder ast = new AstBuilder(predictTable);
+            root = ast.invokeAstBuilderMethod(parser.buildParseTree());
+        }
         if (mode == MODE.PRINT_AST) {
             AstHelper.printAstTree(root);
             return;
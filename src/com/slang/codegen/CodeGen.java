@@ -2,11 +2,13 @@ package com.slang.codegen;
 
 import com.slang.lexer.CodeAxis;
 import com.slang.semantic.ast.node.Node;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.ast.node.expression.*;
 import com.slang.semantic.ast.node.statement.*;
 import com.slang.semantic.symbol.Symbol;
 import com.slang.semantic.type.BasicType;
 import com.slang.semantic.type.Type;
+import com.slang.utils.LongHashMap;
 import com.slang.utils.Pair;
 import com.slang.utils.Panic;
 
@@ -35,6 +37,8 @@ class FunctionAttribute {
     public ArrayList<Symbol> paramSymbols;
     public Statement body;
     public int headAddr = -1;
+    // 函数体可能尚未分析，生成函数时才分析
+    public FunctionDeclarationStatement declaration;
 
     public FunctionAttribute(String name, ArrayList<Symbol> paramSymbols, Statement body) {
         this.name = name;
@@ -47,28 +51,55 @@ class FunctionAttribute {
     }
 }
 
-public class CodeGen {
+class PooledConstant {
+    // 0为整数，1为浮点数（值为其位模式），2为字符
+    int type;
+    long value;
+    int refCount = 1;
+
+    public PooledConstant(int type, long value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public String getLiteral() {
+        if (this.type == 1) {
+            return Constant.formatFloat(Double.longBitsToDouble(this.value));
+        }
+        return Long.toString(this.value);
+    }
+}
+
+public class CodeGen implements NodeVisitor<Pair<Integer, Integer>> {
     private Statements ast;
     private HashMap<String, FunctionAttribute> functions = new HashMap<>();
     private Stack<Pair<String, Integer>> updateCallAddrRequestsStack = new Stack<>();
     private int addr = 0;
     private ArrayList<Instruction> instructions = new ArrayList<>();
-    private HashMap<Pair<Integer, String>, Pair<Integer, Integer>> constants = new HashMap<>();
-    private HashMap<String, Integer> globalVariablesNames = new HashMap<>();
-    private HashMap<String, Integer> localVariablesNames = new HashMap<>();
+    // 常量池，下标即常量地址；每种常量类型以值为键查找已有的常量地址
+    private ArrayList<PooledConstant> constants = new ArrayList<>();
+    private ArrayList<LongHashMap<Integer>> constantAddrs = new ArrayList<>() {{
+        add(new LongHashMap<>());
+        add(new LongHashMap<>());
+        add(new LongHashMap<>());
+    }};
+    // 以Symbol.getNameId()（标识符编号和作用域层级）为键
+    private LongHashMap<Integer> globalVariablesNames = new LongHashMap<>();
+    private LongHashMap<Integer> localVariablesNames = new LongHashMap<>();
     private Stack<UpdateFlowControlRequest> updateFlowControlRequests = new Stack<>();
     private Stack<LoopStatement> loopStatements = new Stack<>();
     private boolean inGlobalContext = true;
 
-    private int getConstantAddr(int type, String val) {
-        Pair<Integer, String> constant = new Pair<>(type, val);
-        if (this.constants.containsKey(constant)) {
-            Pair<Integer, Integer> o = this.constants.get(constant);
-            o.second++;
-            return o.first;
+    private int getConstantAddr(int type, long val) {
+        LongHashMap<Integer> addrs = this.constantAddrs.get(type);
+        Integer addr = addrs.get(val);
+        if (addr != null) {
+            this.constants.get(addr).refCount++;
+            return addr;
         }
-        int addr = this.constants.size();
-        this.constants.put(constant, new Pair<>(addr, 1));
+        addr = this.constants.size();
+        this.constants.add(new PooledConstant(type, val));
+        addrs.put(val, addr);
         return addr;
     }
 
@@ -80,7 +111,7 @@ public class CodeGen {
     public void generate() {
         // 分配全局变量空间 0
         this.newInstruction(InstructionCode.VMALLOC, this.globalVariablesNames.size());
-        this.genStatements(this.ast);
+        this.visitStatements(this.ast);
         this.newInstruction(InstructionCode.HALT);
         // 生成所有函数
         this.genFunctions();
@@ -99,10 +130,10 @@ public class CodeGen {
         codeContent.append(String.format("0 CMALLOC %s", this.constants.size())).append(conjunction);
         // 保存所有常量
         // type val
-        for (Pair<Integer, String> key : this.constants.keySet()) {
+        for (int addr = 0; addr < this.constants.size(); addr++) {
             // addr ref_cnt
-            Pair<Integer, Integer> val = this.constants.get(key);
-            codeContent.append(String.format("%s CONSTANT %s %s %s", val.first, key.first, key.second, val.second)).append(conjunction);
+            PooledConstant constant = this.constants.get(addr);
+            codeContent.append(String.format("%s CONSTANT %s %s %s", addr, constant.type, constant.getLiteral(), constant.refCount)).append(conjunction);
         }
         try {
             FileWriter fileWriter = new FileWriter(file);
@@ -208,7 +239,8 @@ public class CodeGen {
         new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genConstant(Constant constant) {
+    @Override
+    public Pair<Integer, Integer> visitConstant(Constant constant) {
         Integer addr = null;
         switch (constant.op) {
             case TRUE:
@@ -219,13 +251,13 @@ public class CodeGen {
                 break;
             case NUMBER_LITERAL:
                 if (constant.type.is(BasicType.FLOAT)) {
-                    addr = this.newInstruction(InstructionCode.LOAD_CONSTANT, this.getConstantAddr(1, constant.value));
+                    addr = this.newInstruction(InstructionCode.LOAD_CONSTANT, this.getConstantAddr(1, Double.doubleToRawLongBits(constant.floatValue)));
                 } else if (constant.type.is(BasicType.INT)) {
                     addr = this.newInstruction(InstructionCode.LOAD_CONSTANT, this.getConstantAddr(0, constant.value));
                 }
                 break;
             case CHAR_LITERAL:
-                addr = this.newInstruction(InstructionCode.LOAD_CONSTANT, this.getConstantAddr(2, String.valueOf((int) constant.value.charAt(0))));
+                addr = this.newInstruction(InstructionCode.LOAD_CONSTANT, this.getConstantAddr(2, constant.value));
                 break;
         }
         if (addr != null) {
@@ -234,7 +266,8 @@ public class CodeGen {
         return null;
     }
 
-    private Pair<Integer, Integer> genBinaryExpression(BinaryExpression expression) {
+    @Override
+    public Pair<Integer, Integer> visitBinaryExpression(BinaryExpression expression) {
         int op = -1;
         switch (expression.operator) {
             case SHL:
@@ -299,7 +332,8 @@ public class CodeGen {
         return new Pair<>(leftAddr.first, to);
     }
 
-    private Pair<Integer, Integer> genUnaryExpression(UnaryExpression expression) {
+    @Override
+    public Pair<Integer, Integer> visitUnaryExpression(UnaryExpression expression) {
         int op = -1;
         switch (expression.operator) {
             case NEGATIVE:
@@ -337,9 +371,10 @@ public class CodeGen {
         }
     }
 
-    private Pair<Integer, Integer> genIdentifier(Identifier identifier) {
+    @Override
+    public Pair<Integer, Integer> visitIdentifier(Identifier identifier) {
         InstructionCode ins;
-        String name = identifier.symbol.getName();
+        long name = identifier.symbol.getNameId();
         Integer source;
         if (this.inGlobalContext || this.globalVariablesNames.containsKey(name)) {
             ins = InstructionCode.LOAD_NAME_GLOBAL;
@@ -359,25 +394,37 @@ public class CodeGen {
     }
 
     private Pair<Integer, Integer> genExpression(Expression expression) {
-        if (expression instanceof BinaryExpression) {
-            return this.genBinaryExpression((BinaryExpression) expression);
-        } else if (expression instanceof Constant) {
-            return this.genConstant((Constant) expression);
-        } else if (expression instanceof UnaryExpression) {
-            return this.genUnaryExpression((UnaryExpression) expression);
-        } else if (expression instanceof Identifier) {
-            return this.genIdentifier((Identifier) expression);
-        } else if (expression instanceof AssignExpression) {
-            return this.genAssignExpression((AssignExpression) expression, true);
-        } else if (expression instanceof FunctionExpression) {
-            return this.genFunctionExpression((FunctionExpression) expression, false);
-        } else if (expression instanceof SizeOfExpression) {
-            return this.genSizeOfExpression((SizeOfExpression) expression);
+        if (expression == null) {
+            return null;
         }
+        return expression.accept(this);
+    }
+
+    @Override
+    public Pair<Integer, Integer> visitAssignExpression(AssignExpression assignExpression) {
+        return this.genAssignExpression(assignExpression, true);
+    }
+
+    @Override
+    public Pair<Integer, Integer> visitFunctionExpression(FunctionExpression functionExpression) {
+        return this.genFunctionExpression(functionExpression, false);
+    }
+
+    /*
+     * 数组初始化和数组下标需要知道目标的类型和维数，分别由genArrayExpression()和genArrayMember()生成，不单独作为表达式生成
+     */
+    @Override
+    public Pair<Integer, Integer> visitArrayExpression(ArrayExpression arrayExpression) {
+        return null;
+    }
+
+    @Override
+    public Pair<Integer, Integer> visitArrayMember(ArrayMember arrayMember) {
         return null;
     }
 
-    private Pair<Integer, Integer> genSizeOfExpression(SizeOfExpression sizeOfExpression) {
+    @Override
+    public Pair<Integer, Integer> visitSizeOfExpression(SizeOfExpression sizeOfExpression) {
         int from = Objects.requireNonNull(this.genExpression(sizeOfExpression.expression)).first;
         int to = this.newInstruction(InstructionCode.SIZE_OF);
         return new Pair<>(from, to);
@@ -436,7 +483,7 @@ public class CodeGen {
 
     private Pair<Integer, Integer> genAssignExpression(AssignExpression assignExpression, boolean noPop) {
         int from, to;
-        String name = assignExpression.leftHandSide.symbol.getName();
+        long name = assignExpression.leftHandSide.symbol.getNameId();
         InstructionCode loadNameIns;
         Integer source;
         InstructionCode storeNameIns;
@@ -482,7 +529,8 @@ public class CodeGen {
         return new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genWhileStatement(WhileStatement whileStatement) {
+    @Override
+    public Pair<Integer, Integer> visitWhileStatement(WhileStatement whileStatement) {
         int from, to;
         // 循环条件判断
         int jmpCond = from = Objects.requireNonNull(this.genExpression(whileStatement.condition)).first;
@@ -511,7 +559,8 @@ public class CodeGen {
         return new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genForStatement(ForStatement forStatement) {
+    @Override
+    public Pair<Integer, Integer> visitForStatement(ForStatement forStatement) {
         int from, to;
         // 循环起始赋值
         from = Objects.requireNonNull(this.genExpression(forStatement.begin)).first;
@@ -546,7 +595,8 @@ public class CodeGen {
         return new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genVariableDeclarationStatement(VariableDeclarationStatement variableDeclarationStatement) {
+    @Override
+    public Pair<Integer, Integer> visitVariableDeclarationStatement(VariableDeclarationStatement variableDeclarationStatement) {
         int from = -1, to = -1;
         for (Pair<Symbol, Expression> declaration : variableDeclarationStatement.declarations) {
             boolean useDefault = true;
@@ -599,8 +649,8 @@ public class CodeGen {
                     }
                     break;
             }
-            String name = declaration.first.getName();
-            HashMap<String, Integer> source = this.inGlobalContext ? this.globalVariablesNames : this.localVariablesNames;
+            long name = declaration.first.getNameId();
+            LongHashMap<Integer> source = this.inGlobalContext ? this.globalVariablesNames : this.localVariablesNames;
             int addr = source.size();
             source.put(name, addr);
             to = this.newInstruction(this.inGlobalContext ? InstructionCode.STORE_NAME_GLOBAL
@@ -626,7 +676,8 @@ public class CodeGen {
         return arrayElementType;
     }
 
-    private Pair<Integer, Integer> genIfStatement(IfStatement ifStatement) {
+    @Override
+    public Pair<Integer, Integer> visitIfStatement(IfStatement ifStatement) {
         Pair<Integer, Integer> conditionAddr = this.genExpression(ifStatement.condition);
         // 预留JMP_TRUE的位置，如果条件成立，直接跳到下面的IF部分
         this.newInstruction(InstructionCode.JMP_TRUE);
@@ -646,13 +697,15 @@ public class CodeGen {
         return new Pair<>(conditionAddr.first, ifAddr.second);
     }
 
-    private Pair<Integer, Integer> genPrintkStatement(PrintkStatement statement) {
+    @Override
+    public Pair<Integer, Integer> visitPrintkStatement(PrintkStatement statement) {
         int from = Objects.requireNonNull(this.genExpression(statement.expression)).first;
         int to = this.newInstruction(InstructionCode.PRINTK);
         return new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genExpressionStatement(ExpressionStatement expressionStatement) {
+    @Override
+    public Pair<Integer, Integer> visitExpressionStatement(ExpressionStatement expressionStatement) {
         // 要单独考虑赋值语句的情况，因为赋值语句右边需要弹栈，其他情况不需要
         if (expressionStatement.expression instanceof AssignExpression) {
             return this.genAssignExpression((AssignExpression) expressionStatement.expression, false);
@@ -664,7 +717,8 @@ public class CodeGen {
         return this.genExpression(expressionStatement.expression);
     }
 
-    private Pair<Integer, Integer> genFlowControlStatement(FlowControlStatement statement) {
+    @Override
+    public Pair<Integer, Integer> visitFlowControlStatement(FlowControlStatement statement) {
         int addr = this.newInstruction(InstructionCode.JMP);
         this.updateFlowControlRequests.add(new UpdateFlowControlRequest(this.loopStatements.peek(), this.getCurrentInstructionPos(), statement.type));
         return new Pair<>(addr, addr);
@@ -675,55 +729,39 @@ public class CodeGen {
             int addr = this.newInstruction(InstructionCode.NOOP);
             return new Pair<>(addr, addr);
         }
-        if (statement instanceof Statements) {
-            return this.genStatements((Statements) statement);
-        } else if (statement instanceof ExpressionStatement) {
-            return this.genExpressionStatement((ExpressionStatement) statement);
-        } else if (statement instanceof IfStatement) {
-            return this.genIfStatement((IfStatement) statement);
-        } else if (statement instanceof VariableDeclarationStatement) {
-            return this.genVariableDeclarationStatement((VariableDeclarationStatement) statement);
-        } else if (statement instanceof ForStatement) {
-            return this.genForStatement((ForStatement) statement);
-        } else if (statement instanceof PrintkStatement) {
-            return this.genPrintkStatement((PrintkStatement) statement);
-        } else if (statement instanceof FlowControlStatement) {
-            return this.genFlowControlStatement((FlowControlStatement) statement);
-        } else if (statement instanceof FunctionDeclarationStatement) {
-            FunctionDeclarationStatement functionDeclarationStatement = (FunctionDeclarationStatement) statement;
-            String functionName = functionDeclarationStatement.getFunctionName();
-            // 函数需要延迟生成，先加入函数集合中
-            if (!this.functions.containsKey(functionName)) {
-                // 如果当前不包含该函数（前向声明或直接定义）
-                FunctionAttribute functionAttribute = new FunctionAttribute(
-                        functionName,
-                        functionDeclarationStatement.paramIdentifiers,
-                        functionDeclarationStatement.body
-                );
-                this.functions.put(functionName, functionAttribute);
-            } else {
-                // 如果已经包含（实现定义或重写）
-                FunctionAttribute targetFunction = this.functions.get(functionName);
-                targetFunction.paramSymbols = functionDeclarationStatement.paramIdentifiers;
-                targetFunction.body = functionDeclarationStatement.body;
-            }
-            return null;
-        } else if (statement instanceof OpcodeStatement) {
-            return this.genOpcodeStatement((OpcodeStatement) statement);
-        } else if (statement instanceof ReturnStatement) {
-            return this.genReturnStatement((ReturnStatement) statement);
-        } else if (statement instanceof WhileStatement) {
-            return this.genWhileStatement((WhileStatement) statement);
+        return statement.accept(this);
+    }
+
+    @Override
+    public Pair<Integer, Integer> visitFunctionDeclarationStatement(FunctionDeclarationStatement functionDeclarationStatement) {
+        String functionName = functionDeclarationStatement.getFunctionName();
+        // 函数需要延迟生成，先加入函数集合中
+        if (!this.functions.containsKey(functionName)) {
+            // 如果当前不包含该函数（前向声明或直接定义）
+            FunctionAttribute functionAttribute = new FunctionAttribute(
+                    functionName,
+                    functionDeclarationStatement.paramIdentifiers,
+                    functionDeclarationStatement.body
+            );
+            functionAttribute.declaration = functionDeclarationStatement;
+            this.functions.put(functionName, functionAttribute);
+        } else {
+            // 如果已经包含（实现定义或重写）
+            FunctionAttribute targetFunction = this.functions.get(functionName);
+            targetFunction.paramSymbols = functionDeclarationStatement.paramIdentifiers;
+            targetFunction.body = functionDeclarationStatement.body;
+            targetFunction.declaration = functionDeclarationStatement;
         }
         return null;
     }
 
-    private Pair<Integer, Integer> genOpcodeStatement(OpcodeStatement opcodeStatement) {
+    @Override
+    public Pair<Integer, Integer> visitOpcodeStatement(OpcodeStatement opcodeStatement) {
         int pos;
         if (opcodeStatement.param != null) {
             pos = this.newInstruction(opcodeStatement.opcode, opcodeStatement.param);
         } else if (opcodeStatement.symbol != null) {
-            String name = opcodeStatement.symbol.getName();
+            long name = opcodeStatement.symbol.getNameId();
             int source;
             if (this.inGlobalContext || this.globalVariablesNames.containsKey(name)) {
                 source = this.globalVariablesNames.get(name);
@@ -756,6 +794,12 @@ public class CodeGen {
             Pair<String, Integer> request = this.updateCallAddrRequestsStack.pop();
             FunctionAttribute functionAttribute = this.functions.get(request.first);
             if (functionAttribute.headAddr == -1) {
+                // 被导入模块中的函数体可能被跳过了，第一次调用时才进行分析
+                if (functionAttribute.declaration.lazyBody != null) {
+                    functionAttribute.declaration.parseBody();
+                    functionAttribute.paramSymbols = functionAttribute.declaration.paramIdentifiers;
+                    functionAttribute.body = functionAttribute.declaration.body;
+                }
                 int addr = -1;
                 for (int i = 0; i < functionAttribute.paramSymbols.size(); i++) {
                     int cur = this.newInstruction(InstructionCode.LOAD_GLOBAL);
@@ -771,7 +815,7 @@ public class CodeGen {
                 this.localVariablesNames.clear();
                 for (Symbol symbol : functionAttribute.paramSymbols) {
                     int size = this.localVariablesNames.size();
-                    this.localVariablesNames.put(symbol.getName(), size);
+                    this.localVariablesNames.put(symbol.getNameId(), size);
                     this.newInstruction(InstructionCode.STORE_NAME, size);
                 }
                 this.genStatement(functionAttribute.body);
@@ -784,7 +828,8 @@ public class CodeGen {
         }
     }
 
-    private Pair<Integer, Integer> genReturnStatement(ReturnStatement returnStatement) {
+    @Override
+    public Pair<Integer, Integer> visitReturnStatement(ReturnStatement returnStatement) {
         int from = -1;
         if (returnStatement.expression != null) {
             from = Objects.requireNonNull(this.genExpression(returnStatement.expression)).first;
@@ -795,7 +840,8 @@ public class CodeGen {
         return new Pair<>(from, to);
     }
 
-    private Pair<Integer, Integer> genStatements(Statements statements) {
+    @Override
+    public Pair<Integer, Integer> visitStatements(Statements statements) {
         if (statements.statements.size() < 1) {
             int addr = this.newInstruction(InstructionCode.NOOP);
             return new Pair<>(addr, addr);
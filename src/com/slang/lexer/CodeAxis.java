@@ -1,6 +1,16 @@
 package com.slang.lexer;
 
+/**
+ * 代码坐标
+ * 编译过程中位置统一用一个64位整数表示，高32位为源文件编号，低32位为字节偏移，
+ * 只有在报错等需要展示时才通过源文件的行首索引换算为路径、行号和字符位置
+ */
 public class CodeAxis {
+    /**
+     * 没有位置信息
+     */
+    public static final long NO_POSITION = -1L;
+
     public String path = null;
     public int line = -1;
     public int charPos = -1;
@@ -16,4 +26,39 @@ public class CodeAxis {
         this.line = line;
         this.charPos = charPos;
     }
+
+    /**
+     * 把源文件编号和字节偏移打包为位置
+     * @param fileId 源文件编号
+     * @param offset 字节偏移
+     * @return 位置
+     */
+    public static long pack(int fileId, int offset) {
+        return ((long) fileId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    public static int getFileId(long position) {
+        return (int) (position >>> 32);
+    }
+
+    public static int getOffset(long position) {
+        return (int) position;
+    }
+
+    /**
+     * 把位置换算为代码坐标
+     * @param position 位置
+     * @return 代码坐标，源文件已经注销时为空坐标
+     */
+    public static CodeAxis of(long position) {
+        if (position == NO_POSITION) {
+            return new CodeAxis();
+        }
+        SourceFile source = SourceFile.get(CodeAxis.getFileId(position));
+        if (source == null) {
+            return new CodeAxis();
+        }
+        int offset = CodeAxis.getOffset(position);
+        return new CodeAxis(source.getPath(), source.getLine(offset), source.getCharPos(offset));
+    }
 }
@@ -0,0 +1,329 @@
+package com.slang.lexer;
+
+import com.slang.utils.Panic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 模块导入图
+ * 从入口文件开始，每个模块在词法分析时一旦发现模块导入，就立刻把被导入的模块提交到ForkJoinPool中并行分析，
+ * 相互独立的模块因此可以同时进行词法分析。
+ * 模块以规范路径（绝对路径，并解析了符号链接、.和..）标识，同一个文件无论以什么写法导入都只会分析一次。
+ * 导入路径先相对于当前目录查找，找不到时依次在搜索路径中查找，查找结果会被缓存。
+ * 分析结果由TokenStream按照逐层展开的顺序拼接，因此Token流的顺序与串行分析完全一致。
+ * 默认情况下入口文件由TokenStream按需进行词法分析，这里只预取被导入的模块，模块展开完毕后即被释放（见release()）；
+ * 增量语法分析需要反复展开同一组模块，此时保留所有模块，入口文件也在这里完成词法分析。
+ * 只有被导入的模块经过TokenCache，保留所有模块时不使用缓存，因为这些模块会被就地编辑；
+ * 此时标识符也不放入字符串池，否则编辑过程中输入的每个中间状态的标识符都会永久留在字符串池中。
+ * 语法树中的位置在展开完毕后仍然指向模块的源文件，因此模块的源文件直到close()时才归还给缓存或者注销
+ */
+public class IncludeGraph {
+    private ForkJoinPool pool;
+    /**
+     * 规范路径到模块的词法分析任务
+     */
+    private ConcurrentHashMap<String, ForkJoinTask<LexedModule>> modules = new ConcurrentHashMap<>();
+    /**
+     * 导入路径到规范路径的查找结果
+     */
+    private ConcurrentHashMap<String, String> resolvedPaths = new ConcurrentHashMap<>();
+    private Path workingDirectory;
+    private String entryPath;
+    /**
+     * 模块导入的搜索路径
+     */
+    private ArrayList<Path> searchPath = new ArrayList<>();
+    /**
+     * 是否保留已经展开完毕的模块
+     */
+    private boolean retainModules;
+    /**
+     * 被导入的模块是否经过TokenCache
+     */
+    private boolean useCache;
+    /**
+     * 词法分析时是否把标识符放入字符串池，见Lexer.setInternIdentifiers()，保留所有模块时默认不放入
+     */
+    private boolean internIdentifiers;
+    /**
+     * 已经完成词法分析的所有模块，关闭时归还或者注销
+     */
+    private ConcurrentLinkedQueue<LexedModule> acquiredModules = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已经释放的模块，占住位置以免再次提交
+     */
+    private static final ForkJoinTask<LexedModule> RELEASED = ForkJoinTask.adapt(() -> null);
+
+    static {
+        IncludeGraph.RELEASED.complete(null);
+    }
+
+    /**
+     * 对单个模块进行词法分析的任务
+     */
+    private class ModuleTask extends RecursiveTask<LexedModule> {
+        private static final long serialVersionUID = 1L;
+
+        private String canonicalPath;
+        private String path;
+
+        /**
+         * @param canonicalPath 规范路径
+         * @param path 报错时显示的路径
+         */
+        ModuleTask(String canonicalPath, String path) {
+            this.canonicalPath = canonicalPath;
+            this.path = path;
+        }
+
+        @Override
+        protected LexedModule compute() {
+            if (!Files.isRegularFile(Paths.get(this.canonicalPath))) {
+                return new LexedModule(this.path, null, null, new Panic("File not found", new CodeAxis(this.path)));
+            }
+            LexedModule module = IncludeGraph.this.useCache ? TokenCache.get(this.path, this::lex) : this.lex(this.path);
+            IncludeGraph.this.acquiredModules.add(module);
+            if (IncludeGraph.this.useCache) {
+                // 从缓存中取得的模块没有经过词法分析，需要在这里提交它导入的模块
+                TokenBuffer tokens = module.tokens;
+                for (int i = 0; i < tokens.size(); i++) {
+                    if (tokens.getKind(i) == TokenKind.INCLUDE) {
+                        IncludeGraph.this.submit(tokens.getValue(i));
+                    }
+                }
+            }
+            return module;
+        }
+
+        private LexedModule lex(String path) {
+            SourceFile source = new SourceFile(path);
+            Lexer lexer = new Lexer(source, true);
+            lexer.setInternIdentifiers(IncludeGraph.this.internIdentifiers);
+            TokenBuffer tokens = new TokenBuffer();
+            int kind;
+            do {
+                kind = lexer.next();
+                tokens.add(lexer);
+                if (kind == TokenKind.INCLUDE) {
+                    IncludeGraph.this.submit(lexer.getValue());
+                }
+            } while (kind != TokenKind.END_OF_FILE);
+            return new LexedModule(path, source, tokens, lexer.getError());
+        }
+    }
+
+    /**
+     * 建立模块导入图，入口文件由TokenStream按需进行词法分析
+     * @param entryPath 入口文件
+     */
+    public IncludeGraph(String entryPath) {
+        this(entryPath, false);
+    }
+
+    /**
+     * 建立模块导入图，只有不保留模块时才使用TokenCache
+     * @param entryPath 入口文件
+     * @param retainModules 为true时立刻开始对入口文件进行词法分析，保留所有模块，并且标识符不放入字符串池
+     */
+    public IncludeGraph(String entryPath, boolean retainModules) {
+        this(entryPath, retainModules, !retainModules);
+    }
+
+    /**
+     * 建立模块导入图
+     * @param entryPath 入口文件
+     * @param retainModules 为true时立刻开始对入口文件进行词法分析，并保留所有模块
+     * @param useCache 被导入的模块是否经过TokenCache，保留所有模块时必须为false
+     */
+    public IncludeGraph(String entryPath, boolean retainModules, boolean useCache) {
+        this(entryPath, retainModules, useCache, ForkJoinPool.commonPool());
+    }
+
+    public IncludeGraph(String entryPath, boolean retainModules, boolean useCache, ForkJoinPool pool) {
+        this(entryPath, retainModules, useCache, pool, new ArrayList<>());
+    }
+
+    /**
+     * 建立模块导入图
+     * 保留所有模块时入口文件在这里就开始词法分析，其中的模块导入随即被查找，因此搜索路径需要在这里给出
+     * @param entryPath 入口文件
+     * @param retainModules 为true时立刻开始对入口文件进行词法分析，并保留所有模块
+     * @param useCache 被导入的模块是否经过TokenCache，保留所有模块时必须为false
+     * @param pool 进行词法分析的线程池
+     * @param searchPath 模块导入的搜索路径
+     */
+    public IncludeGraph(String entryPath, boolean retainModules, boolean useCache, ForkJoinPool pool, List<String> searchPath) {
+        this.pool = pool;
+        this.entryPath = entryPath;
+        this.retainModules = retainModules;
+        this.useCache = useCache;
+        this.internIdentifiers = !retainModules;
+        for (String directory : searchPath) {
+            this.addSearchPath(directory);
+        }
+        try {
+            this.workingDirectory = Paths.get("").toRealPath();
+        } catch (IOException e) {
+            this.workingDirectory = Paths.get("").toAbsolutePath();
+        }
+        if (retainModules) {
+            // 入口文件按照给定的写法显示
+            String canonicalPath = this.resolve(entryPath);
+            this.modules.computeIfAbsent(canonicalPath, key -> this.pool.submit(new ModuleTask(key, entryPath)));
+        }
+    }
+
+    /**
+     * 添加模块导入的搜索路径，只能在开始读取Token流之前添加，查找结果会被缓存
+     * @param directory 目录
+     */
+    public void addSearchPath(String directory) {
+        this.searchPath.add(Paths.get(directory));
+    }
+
+    public String getEntryPath() {
+        return entryPath;
+    }
+
+    public boolean isRetainModules() {
+        return retainModules;
+    }
+
+    public boolean isInternIdentifiers() {
+        return internIdentifiers;
+    }
+
+    /**
+     * 设置词法分析时是否把标识符放入字符串池，只能在开始读取Token流之前设置，经过TokenCache时必须放入
+     * @param internIdentifiers 是否放入字符串池
+     */
+    public void setInternIdentifiers(boolean internIdentifiers) {
+        this.internIdentifiers = internIdentifiers;
+    }
+
+    /**
+     * 查找导入路径对应的文件
+     * @param path 导入路径
+     * @return 文件的规范路径，找不到时原样返回导入路径
+     */
+    public String resolve(String path) {
+        return this.resolvedPaths.computeIfAbsent(path, key -> {
+            Path candidate = Paths.get(key);
+            if (!Files.isRegularFile(candidate) && !candidate.isAbsolute()) {
+                for (Path directory : this.searchPath) {
+                    if (Files.isRegularFile(directory.resolve(key))) {
+                        candidate = directory.resolve(key);
+                        break;
+                    }
+                }
+            }
+            try {
+                return candidate.toRealPath().toString();
+            } catch (IOException e) {
+                return key;
+            }
+        });
+    }
+
+    /**
+     * 获取报错时显示的模块路径
+     * 同一个模块可能以不同的写法导入，为了报错信息稳定，当前目录下的文件显示相对路径，其余显示规范路径
+     * @param canonicalPath 规范路径
+     * @return 显示的路径
+     */
+    private String getDisplayPath(String canonicalPath) {
+        Path path = Paths.get(canonicalPath);
+        if (path.isAbsolute() && path.startsWith(this.workingDirectory)) {
+            return this.workingDirectory.relativize(path).toString();
+        }
+        return canonicalPath;
+    }
+
+    /**
+     * 提交一个模块的词法分析任务，已经提交过的模块会被忽略
+     * @param path 导入路径
+     */
+    private void submit(String path) {
+        this.modules.computeIfAbsent(this.resolve(path), key -> {
+            ModuleTask task = new ModuleTask(key, this.getDisplayPath(key));
+            // 在工作线程中发现的导入直接fork到当前线程的队列，空闲线程会窃取执行
+            return ForkJoinTask.inForkJoinPool() ? task.fork() : this.pool.submit(task);
+        });
+    }
+
+    /**
+     * 预取被导入的模块，在展开之前提前开始词法分析
+     * @param path 导入路径
+     */
+    public void prefetch(String path) {
+        this.submit(path);
+    }
+
+    /**
+     * 释放已经展开完毕的模块，之后不会再次提交，保留所有模块时不做任何事
+     * @param path 导入路径
+     */
+    public void release(String path) {
+        if (!this.retainModules) {
+            this.modules.put(this.resolve(path), IncludeGraph.RELEASED);
+        }
+    }
+
+    /**
+     * 关闭模块导入图，归还从缓存中取得的模块，注销其余模块的源文件
+     * 此后这些模块中的位置可能无法再换算为代码坐标，在需要报告错误的整个编译过程中不能关闭。
+     * 预取的模块可能还在分析中（例如语法错误使Token流提前结束），先等待它们完成
+     */
+    public void close() {
+        boolean pending = true;
+        while (pending) {
+            pending = false;
+            for (ForkJoinTask<LexedModule> task : this.modules.values()) {
+                if (!task.isDone()) {
+                    task.quietlyJoin();
+                    pending = true;
+                }
+            }
+        }
+        LexedModule module;
+        while ((module = this.acquiredModules.poll()) != null) {
+            if (this.useCache) {
+                TokenCache.release(module);
+            } else {
+                module.source.unregister();
+            }
+        }
+    }
+
+    /**
+     * 用编辑后的模块取代原来的模块，用于增量词法分析之后重新展开模块导入
+     * @param path 导入路径
+     * @param module 编辑后的模块
+     */
+    public void replaceModule(String path, LexedModule module) {
+        ForkJoinTask<LexedModule> task = ForkJoinTask.adapt(() -> module);
+        task.complete(module);
+        this.modules.put(this.resolve(path), task);
+    }
+
+    /**
+     * 获取模块的词法分析结果，尚未完成时等待其完成
+     * @param path 导入路径
+     * @return 模块
+     */
+    public LexedModule getModule(String path) {
+        this.submit(path);
+        return this.modules.get(this.resolve(path)).join();
+    }
+}
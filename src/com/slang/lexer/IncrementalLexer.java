@@ -0,0 +1,110 @@
+package com.slang.lexer;
+
+/**
+ * 增量词法分析
+ * 源代码被编辑后，只从编辑位置之前最近的安全重启点开始重新进行词法分析，
+ * 直到新产生的Token与原来编辑位置之后的某个Token（平移后）对齐为止，其后的Token直接平移复用。
+ * 词法分析器在每个Token开头处都处于初始状态，且只会向后多看一个字符，
+ * 因此结束位置在编辑位置之前（不相邻）的Token不受影响，最后一个这样的Token的结尾就是安全重启点；
+ * 同理，新Token的开头一旦与编辑区域之后某个原Token的开头对齐，之后的Token必然完全相同
+ */
+public class IncrementalLexer {
+    /**
+     * 对编辑后的模块进行增量词法分析
+     * 编辑前模块的Token缓冲区会被就地修改并交给返回的模块，调用者不能再使用编辑前的模块，
+     * 因此编辑前的模块不能来自TokenCache（缓存把同一个模块交给每个读取它的Token流），见IncludeGraph.isRetainModules()
+     * @param previous 编辑前的模块
+     * @param offset 编辑开始的字节偏移
+     * @param removedLength 删除的字节数
+     * @param insertedText 插入的文本
+     * @return 编辑后的模块
+     */
+    public static LexedModule relex(LexedModule previous, int offset, int removedLength, String insertedText) {
+        SourceFile source = previous.source.edit(offset, removedLength, insertedText);
+        return IncrementalLexer.relex(previous, source, offset, removedLength, source.size() - previous.source.size());
+    }
+
+    /**
+     * 对编辑后的源文件进行增量词法分析
+     * 编辑前模块的Token缓冲区会被就地修改并交给返回的模块，调用者不能再使用编辑前的模块，
+     * 因此编辑前的模块不能来自TokenCache（缓存把同一个模块交给每个读取它的Token流），见IncludeGraph.isRetainModules()
+     * @param previous 编辑前的模块
+     * @param source 编辑后的源文件
+     * @param offset 编辑开始的字节偏移
+     * @param removedLength 删除的字节数
+     * @param delta 编辑前后文件大小之差，编辑区域之后的Token的起始偏移按此平移
+     * @return 编辑后的模块
+     */
+    public static LexedModule relex(LexedModule previous, SourceFile source, int offset, int removedLength, int delta) {
+        TokenBuffer tokens = previous.tokens;
+        // 文件尾符号不参与重启点的查找和对齐
+        int oldCount = tokens.size() - 1;
+
+        // 安全重启点：最后一个结束位置严格小于编辑位置的Token，在它之后重新开始，没有这样的Token时从头开始
+        int reused = IncrementalLexer.firstAffected(previous, offset);
+        int restartPosition = reused > 0 ? tokens.getStart(reused - 1) + tokens.getLength(reused - 1) : 0;
+
+        Lexer lexer = new Lexer(source, restartPosition, true);
+        // 编辑中的标识符需要编号时才放入字符串池（见Token.getValueId()）
+        lexer.setInternIdentifiers(false);
+        TokenBuffer relexed = new TokenBuffer();
+        // 用于对齐的原Token
+        int next = reused;
+        int editEnd = offset + removedLength;
+        while (true) {
+            int kind = lexer.next();
+            if (kind == TokenKind.END_OF_FILE) {
+                relexed.add(lexer);
+                tokens.replace(reused, tokens.size(), relexed, delta, source);
+                return IncrementalLexer.replaced(new LexedModule(previous.path, source, tokens, lexer.getError()), reused, oldCount, relexed.size() - 1);
+            }
+            int start = lexer.getStart();
+            while (next < oldCount && (tokens.getStart(next) < editEnd || tokens.getStart(next) + delta < start)) {
+                next++;
+            }
+            if (next < oldCount && tokens.getStart(next) + delta == start && previous.error == null) {
+                // 已经与原Token对齐，其后的Token（包括文件尾符号）平移复用
+                tokens.replace(reused, next, relexed, delta, source);
+                return IncrementalLexer.replaced(new LexedModule(previous.path, source, tokens, null), reused, next, relexed.size());
+            }
+            relexed.add(lexer);
+        }
+    }
+
+    /**
+     * 获取编辑后第一个需要重新进行词法分析的Token，即安全重启点之后的第一个Token
+     * @param module 编辑前的模块
+     * @param offset 编辑开始的字节偏移
+     * @return Token下标，编辑位置之后没有Token时为文件尾符号的下标
+     */
+    public static int firstAffected(LexedModule module, int offset) {
+        return IncrementalLexer.findRestart(module.tokens, module.tokens.size() - 1, offset) + 1;
+    }
+
+    private static LexedModule replaced(LexedModule module, int from, int to, int count) {
+        module.replacedFrom = from;
+        module.replacedTo = to;
+        module.replacedCount = count;
+        return module;
+    }
+
+    /**
+     * 查找安全重启点
+     * @return 最后一个结束位置严格小于编辑位置的Token下标，没有时返回-1
+     */
+    private static int findRestart(TokenBuffer tokens, int count, int offset) {
+        int low = 0;
+        int high = count - 1;
+        int restart = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (tokens.getStart(middle) + tokens.getLength(middle) < offset) {
+                restart = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return restart;
+    }
+}
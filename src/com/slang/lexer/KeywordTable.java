@@ -0,0 +1,132 @@
+package com.slang.lexer;
+
+import com.slang.utils.Panic;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * 保留字的完美哈希表
+ * 类加载时为保留字集合寻找一个没有冲突的哈希种子，查找时只需要计算一次哈希并比较一个候选保留字，
+ * 可以直接在源文件的字节上进行，不需要先截取出标识符字符串
+ */
+class KeywordTable {
+    private static final int TABLE_SIZE = 64;
+    private static final int MAX_SEED = 1 << 16;
+
+    private static int seed;
+    private static byte[][] words = new byte[TABLE_SIZE][];
+    private static int[] kinds = new int[TABLE_SIZE];
+    private static BitSet keywordKinds = new BitSet();
+
+    static {
+        KeywordTable.build(LexerUtil.reservedWordKinds);
+    }
+
+    /**
+     * 寻找没有冲突的种子并填充哈希表
+     * @param reservedWordKinds 保留字及其Token种类
+     */
+    private static void build(Map<String, Integer> reservedWordKinds) {
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            byte[][] words = new byte[TABLE_SIZE][];
+            boolean perfect = true;
+            for (String word : reservedWordKinds.keySet()) {
+                int slot = KeywordTable.hash(seed, word);
+                if (words[slot] != null) {
+                    perfect = false;
+                    break;
+                }
+                words[slot] = word.getBytes();
+            }
+            if (!perfect) {
+                continue;
+            }
+            KeywordTable.seed = seed;
+            KeywordTable.words = words;
+            for (int i = 0; i < TABLE_SIZE; i++) {
+                if (words[i] != null) {
+                    int kind = reservedWordKinds.get(new String(words[i]));
+                    KeywordTable.kinds[i] = kind;
+                    KeywordTable.keywordKinds.set(kind);
+                }
+            }
+            return;
+        }
+        Panic panic = new Panic("lexer: Can not build the reserved word table", new CodeAxis());
+        panic.show();
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 15;
+        hash *= 0x2c1b3c6d;
+        hash ^= hash >>> 12;
+        return hash & (TABLE_SIZE - 1);
+    }
+
+    private static int hash(int seed, String word) {
+        int hash = seed;
+        for (int i = 0; i < word.length(); i++) {
+            hash = hash * 31 + word.charAt(i);
+        }
+        return KeywordTable.mix(hash);
+    }
+
+    private static int hash(int seed, SourceFile source, int start, int length) {
+        int hash = seed;
+        for (int i = start; i < start + length; i++) {
+            hash = hash * 31 + source.charAt(i);
+        }
+        return KeywordTable.mix(hash);
+    }
+
+    /**
+     * 判断源文件中的一个标识符是否为保留字
+     * @param source 源文件
+     * @param start 标识符的起始字节偏移
+     * @param length 标识符的字节长度
+     * @return 保留字对应的Token种类，不是保留字则返回ID
+     */
+    static int lookup(SourceFile source, int start, int length) {
+        if (length > LexerUtil.MAX_RESERVED_WORD_LENGTH) {
+            return TokenKind.ID;
+        }
+        int slot = KeywordTable.hash(KeywordTable.seed, source, start, length);
+        byte[] word = KeywordTable.words[slot];
+        if (word == null || word.length != length) {
+            return TokenKind.ID;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word[i] != (byte) source.charAt(start + i)) {
+                return TokenKind.ID;
+            }
+        }
+        return KeywordTable.kinds[slot];
+    }
+
+    /**
+     * 判断一个字符串是否为保留字
+     * @param identifier 标识符
+     * @return 保留字对应的Token种类，不是保留字则返回ID
+     */
+    static int lookup(String identifier) {
+        if (identifier.length() > LexerUtil.MAX_RESERVED_WORD_LENGTH) {
+            return TokenKind.ID;
+        }
+        int slot = KeywordTable.hash(KeywordTable.seed, identifier);
+        byte[] word = KeywordTable.words[slot];
+        if (word == null || !identifier.equals(new String(word))) {
+            return TokenKind.ID;
+        }
+        return KeywordTable.kinds[slot];
+    }
+
+    /**
+     * 判断一个Token种类是否为保留字
+     * @param kind Token种类
+     * @return 是保留字返回true，否则false
+     */
+    static boolean isKeywordKind(int kind) {
+        return KeywordTable.keywordKinds.get(kind);
+    }
+}
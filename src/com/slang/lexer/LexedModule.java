@@ -0,0 +1,34 @@
+package com.slang.lexer;
+
+import com.slang.utils.Panic;
+
+/**
+ * 完成词法分析的模块（一个源文件）
+ * 模块中的Token按原样保存，模块导入以INCLUDE Token的形式保留在原来的位置，由TokenStream展开
+ */
+public class LexedModule {
+    public String path;
+    public SourceFile source;
+    /**
+     * 模块中的Token，以文件尾符号$$结束
+     */
+    public TokenBuffer tokens;
+    /**
+     * 词法分析中遇到的错误，TokenStream读到该模块末尾时才报告，没有错误时为null
+     */
+    public Panic error;
+    /**
+     * 增量词法分析时被替换的Token范围：编辑前的[replacedFrom, replacedTo)被替换为编辑后的[replacedFrom, replacedFrom + replacedCount)，
+     * 不含文件尾符号，其余的Token只是平移。不是由增量词法分析得到的模块三者均为0
+     */
+    public int replacedFrom = 0;
+    public int replacedTo = 0;
+    public int replacedCount = 0;
+
+    public LexedModule(String path, SourceFile source, TokenBuffer tokens, Panic error) {
+        this.path = path;
+        this.source = source;
+        this.tokens = tokens;
+        this.error = error;
+    }
+}
@@ -0,0 +1,298 @@
+package com.slang.lexer;
+
+import com.slang.utils.Panic;
+
+/**
+ * 词法分析器
+ * 按需从源文件中扫描出下一个Token，不会预先对整个文件进行Token分解。
+ * 扫描时不创建Token对象，只记录当前Token的种类和位置，由调用者存入TokenBuffer
+ */
+public class Lexer {
+    private SourceFile source;
+    private String path;
+    private int currentPosition = 0;
+
+    private int kind;
+    private int start;
+    private int length;
+    private int valueId;
+    private long payload;
+
+    /**
+     * 是否推迟报告错误
+     * 推迟时遇到错误不立即终止，而是记录下来并返回文件尾符号，由调用者在合适的时候报告
+     */
+    private boolean deferErrors;
+    private Panic error = null;
+    /**
+     * 是否把标识符放入字符串池
+     * 只检查语法时不需要标识符的编号，不放入字符串池可以避免字符串池随检查的文件不断增长，标识符的值仍然可以从源文件中读取；
+     * 增量编辑时同样不放入，编辑过程中的标识符只有在构造AST需要编号时才由Token.getValueId()放入
+     */
+    private boolean internIdentifiers = true;
+
+    public Lexer(SourceFile source) {
+        this(source, false);
+    }
+
+    public Lexer(SourceFile source, boolean deferErrors) {
+        this(source, 0, deferErrors);
+    }
+
+    /**
+     * 从源文件的某个位置开始进行词法分析
+     * 该位置必须是某个Token的开头（或者Token之间的空白、注释的开头），否则结果没有意义
+     * @param source 源文件
+     * @param position 开始的字节偏移
+     * @param deferErrors 是否推迟报告错误
+     */
+    public Lexer(SourceFile source, int position, boolean deferErrors) {
+        this.source = source;
+        this.path = source.getPath();
+        this.currentPosition = position;
+        this.deferErrors = deferErrors;
+    }
+
+    public void setInternIdentifiers(boolean internIdentifiers) {
+        this.internIdentifiers = internIdentifiers;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public SourceFile getSource() {
+        return source;
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 获取当前Token的值在字符串池中的编号
+     * @return 编号，只有标识符有编号，其余为-1
+     */
+    public int getValueId() {
+        return valueId;
+    }
+
+    /**
+     * 获取当前Token在词法分析时解码出的字面量的值
+     * 整数字面量为其值，浮点数字面量为其值的IEEE 754位模式（Double.doubleToRawLongBits），
+     * 字符字面量为字符的编码，其余Token为0
+     * @return 字面量的值
+     */
+    public long getPayload() {
+        return payload;
+    }
+
+    /**
+     * 获取推迟报告的错误
+     * @return 错误，没有错误时为null
+     */
+    public Panic getError() {
+        return error;
+    }
+
+    /**
+     * 获取当前Token的值
+     * @return 当前Token的值
+     */
+    public String getValue() {
+        return LexerUtil.getTokenValue(this.kind, this.source, this.start, this.length);
+    }
+
+    /**
+     * 记录扫描出的Token
+     * @param kind Token种类
+     * @param start 起始字节偏移
+     * @return Token种类
+     */
+    private int emit(int kind, int start) {
+        this.kind = kind;
+        this.start = start;
+        this.length = this.currentPosition - start;
+        this.valueId = -1;
+        this.payload = 0;
+        return kind;
+    }
+
+    /**
+     * 报告词法错误
+     * 推迟报告错误时，记录错误并跳到文件末尾
+     * @param message 错误信息
+     * @param offset 出错的字节偏移
+     * @return 文件尾符号
+     */
+    private int fail(String message, int offset) {
+        Panic panic = new Panic(message, this.source.getPosition(offset));
+        if (!this.deferErrors) {
+            panic.show();
+        }
+        this.error = panic;
+        this.currentPosition = this.source.size();
+        return this.emit(TokenKind.END_OF_FILE, this.currentPosition);
+    }
+
+    /**
+     * 扫描下一个Token
+     * 根据当前字符的类别进入对应的状态，状态内部只查表，不会为每个字符分配对象。
+     * 到达文件末尾后总是返回文件尾符号$$
+     * @return 下一个Token的种类
+     */
+    public int next() {
+        int codeBufferSize = this.source.size();
+
+        while (this.currentPosition < codeBufferSize) {
+            char ch = this.source.charAt(this.currentPosition);
+            // 只记录字节偏移，行号和字符位置在报错时才通过行首索引计算
+            int tokenStart = this.currentPosition;
+
+            switch (LexerUtil.getCharClass(ch)) {
+                // 空白字符、注释和标识符往往成片出现，按字一次判断8个字节
+                case LexerUtil.CLASS_EMPTY:
+                    this.currentPosition = WordScanner.skipWhitespaces(this.source, this.currentPosition + 1);
+                    continue;
+
+                // #表示注释，一直读取到行尾
+                case LexerUtil.CLASS_COMMENT:
+                    this.currentPosition = WordScanner.findNewline(this.source, this.currentPosition + 1);
+                    continue;
+
+                // 字母a-z A-Z _，考虑标识符
+                case LexerUtil.CLASS_ALPHA:
+                    this.currentPosition = WordScanner.skipIdentifierParts(this.source, this.currentPosition + 1);
+                    int identifierKind = this.emit(KeywordTable.lookup(this.source, tokenStart, this.currentPosition - tokenStart), tokenStart);
+                    if (identifierKind == TokenKind.ID && this.internIdentifiers) {
+                        this.valueId = StringPool.intern(this.source, tokenStart, this.length);
+                    }
+                    return identifierKind;
+
+                // 数字，扫描的同时累加整数的值，含有小数点时为浮点数
+                case LexerUtil.CLASS_DIGIT:
+                    return this.scanNumber(tokenStart);
+
+                // 引号，字符串字面量只确定范围，转义在取值时才处理；字符字面量在这里解码
+                case LexerUtil.CLASS_QUOTE:
+                    if (!this.skipQuoted(ch, true)) {
+                        return this.fail("Unmatched quote", tokenStart);
+                    }
+                    if (ch == '"') {
+                        return this.emit(TokenKind.STRING_LITERAL, tokenStart);
+                    }
+                    int character = LexerUtil.decodeCharLiteral(this.source, tokenStart + 1, this.currentPosition - tokenStart - 2);
+                    if (character < 0) {
+                        return this.fail("Char literal must contain exactly one character", tokenStart);
+                    }
+                    this.emit(TokenKind.CHAR_LITERAL, tokenStart);
+                    this.payload = character;
+                    return TokenKind.CHAR_LITERAL;
+
+                // 模块导入，由TokenStream负责展开
+                case LexerUtil.CLASS_BACKTICK:
+                    if (!this.skipQuoted('`', false)) {
+                        return this.fail("Unmatched quote", tokenStart);
+                    }
+                    return this.emit(TokenKind.INCLUDE, tokenStart);
+
+                case LexerUtil.CLASS_SINGLE:
+                    this.currentPosition++;
+                    return this.emit(LexerUtil.singleCharKinds[ch], tokenStart);
+
+                // 运算符，查看下一个字符能否组成两个字符的运算符
+                case LexerUtil.CLASS_OPERATOR:
+                    int kind = LexerUtil.singleCharKinds[ch];
+                    this.currentPosition++;
+                    if (this.currentPosition < codeBufferSize) {
+                        char nextChar = this.source.charAt(this.currentPosition);
+                        if (nextChar < 128 && LexerUtil.operatorTransitions[ch][nextChar] != -1) {
+                            kind = LexerUtil.operatorTransitions[ch][nextChar];
+                            this.currentPosition++;
+                        }
+                    }
+                    return this.emit(kind, tokenStart);
+
+                default:
+                    break;
+            }
+
+            // 非法字符
+            String invalidCharacter = Character.toString(ch);
+            if (ch > 0x7F) {
+                int length = Math.min(LexerUtil.getUtf8SequenceLength(ch), codeBufferSize - this.currentPosition);
+                invalidCharacter = this.source.slice(this.currentPosition, length);
+            }
+            return this.fail(String.format("Invalid character %s", invalidCharacter), tokenStart);
+        }
+
+        return this.emit(TokenKind.END_OF_FILE, this.currentPosition);
+    }
+
+    /**
+     * 扫描数字字面量并解码它的值
+     * 只含数码的是整数字面量，超出long的范围时报错；含有一个小数点的是浮点数字面量，含有多个小数点时报错
+     * @param tokenStart 字面量的起始字节偏移
+     * @return Token种类
+     */
+    private int scanNumber(int tokenStart) {
+        this.currentPosition = WordScanner.skipNumberParts(this.source, tokenStart + 1);
+        long value = 0;
+        boolean overflow = false;
+        int dots = 0;
+        for (int i = tokenStart; i < this.currentPosition; i++) {
+            char ch = this.source.charAt(i);
+            if (ch == '.') {
+                dots++;
+                continue;
+            }
+            int digit = ch - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
+            }
+            value = value * 10 + digit;
+        }
+        if (dots > 1) {
+            return this.fail("Invalid number literal", tokenStart);
+        }
+        if (dots == 0) {
+            if (overflow) {
+                return this.fail("Number literal out of range", tokenStart);
+            }
+            this.emit(TokenKind.NUMBER_LITERAL, tokenStart);
+            this.payload = value;
+            return TokenKind.NUMBER_LITERAL;
+        }
+        this.emit(TokenKind.FLOAT_LITERAL, tokenStart);
+        this.payload = Double.doubleToRawLongBits(Double.parseDouble(this.source.slice(tokenStart, this.length)));
+        return TokenKind.FLOAT_LITERAL;
+    }
+
+    /**
+     * 跳过一段由引号包围的内容，结束后当前位置在右引号之后
+     * @param quote 引号
+     * @param escape 是否处理转义字符
+     * @return 找到右引号返回true，否则false
+     */
+    private boolean skipQuoted(char quote, boolean escape) {
+        int codeBufferSize = this.source.size();
+        this.currentPosition++;
+        while (this.currentPosition < codeBufferSize) {
+            char ch = this.source.charAt(this.currentPosition);
+            if (ch == quote) {
+                this.currentPosition++;
+                return true;
+            }
+            this.currentPosition += escape && ch == '\\' ? 2 : 1;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.slang.lexer;
+
+/**
+ * 词法分析器的吞吐量测试
+ * 分别以逐字节扫描和按字扫描（WordScanner）对给定的源文件反复进行词法分析，输出每秒处理的字节数。
+ * 用法：java -cp out com.slang.lexer.LexerBenchmark [-n 轮数] 源文件...
+ */
+public class LexerBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * 对源文件进行一次完整的词法分析
+     * @return Token个数
+     */
+    private static int lex(SourceFile source) {
+        Lexer lexer = new Lexer(source, true);
+        int count = 0;
+        while (lexer.next() != TokenKind.END_OF_FILE) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 测量一种扫描方式的吞吐量
+     * @return 每秒处理的字节数
+     */
+    private static double measure(SourceFile source, boolean wordScan, int rounds) {
+        WordScanner.enabled = wordScan;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            LexerBenchmark.lex(source);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            LexerBenchmark.lex(source);
+        }
+        long elapsed = System.nanoTime() - begin;
+        WordScanner.enabled = true;
+        return (double) source.size() * rounds / elapsed * 1e9;
+    }
+
+    public static void main(String[] args) {
+        int rounds = 20;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("-n")) {
+            rounds = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        for (int i = first; i < args.length; i++) {
+            SourceFile source = new SourceFile(args[i]);
+            int tokens = LexerBenchmark.lex(source);
+            double scalar = LexerBenchmark.measure(source, false, rounds);
+            double word = LexerBenchmark.measure(source, true, rounds);
+            System.out.println(String.format("%s: %d bytes, %d tokens", args[i], source.size(), tokens));
+            System.out.println(String.format("  byte by byte: %8.1f MB/s", scalar / 1e6));
+            System.out.println(String.format("  word scan:    %8.1f MB/s (%.2fx)", word / 1e6, word / scalar));
+        }
+    }
+}
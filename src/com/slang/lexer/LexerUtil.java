@@ -0,0 +1,309 @@
+package com.slang.lexer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 词法分析的相关定义和辅助工具
+ */
+class LexerUtil {
+    /**
+     * 定义保留字集合，以及保留字对应的Token种类
+     */
+    public static HashMap<String, Integer> reservedWordKinds = new HashMap<>() {{
+        put("printk", TokenKind.of("PRINTK"));
+        put("ref", TokenKind.of("REF"));
+        put("func", TokenKind.of("FUNC"));
+        put("ret", TokenKind.of("RET"));
+        put("var", TokenKind.of("VAR"));
+        put("while", TokenKind.of("WHILE"));
+        put("if", TokenKind.of("IF"));
+        put("call", TokenKind.of("CALL"));
+        put("else", TokenKind.of("ELSE"));
+        put("true", TokenKind.of("TRUE"));
+        put("false", TokenKind.of("FALSE"));
+        put("break", TokenKind.of("BREAK"));
+        put("continue", TokenKind.of("CONTINUE"));
+        put("for", TokenKind.of("FOR"));
+        put("sizeof", TokenKind.of("SIZEOF"));
+        put("__svm__", TokenKind.of("__SVM__"));
+    }};
+
+    /**
+     * 最长的保留字的长度，超过该长度的标识符不可能是保留字
+     */
+    public static final int MAX_RESERVED_WORD_LENGTH = 8;
+
+    /**
+     * 定义转义字符和对应的字符集合
+     */
+    public static HashMap<Character, Character> escapeCharacterMapping = new HashMap<>() {{
+        put('0', (char) 0);
+        put('a', (char) 7);
+        put('b', (char) 8);
+        put('f', (char) 12);
+        put('n', (char) 10);
+        put('r', (char) 13);
+        put('t', (char) 9);
+        put('v', (char) 11);
+        put('\'', (char) 39);
+        put('"', (char) 34);
+        put('\\', (char) 92);
+    }};
+
+    /**
+     * 定义基本的运算符的Token种类
+     */
+    public static HashMap<Character, Integer> basicOperatorKinds = new HashMap<>() {{
+        put('+', TokenKind.of("PLUS"));
+        put('-', TokenKind.of("SUB"));
+        put('*', TokenKind.of("PROD"));
+        put('/', TokenKind.of("DIV"));
+        put('&', TokenKind.of("AND"));
+        put('|', TokenKind.of("OR"));
+        put('^', TokenKind.of("XOR"));
+        put('!', TokenKind.of("NOT"));
+        put('=', TokenKind.of("EQ"));
+        put('<', TokenKind.of("LT"));
+        put('>', TokenKind.of("GT"));
+    }};
+
+    /**
+     * 定义由两个字符组成的运算符的Token种类
+     */
+    public static final int IS_EQ = TokenKind.of("IS_EQ");
+    public static final int IS_NEQ = TokenKind.of("IS_NEQ");
+    public static final int GTE = TokenKind.of("GTE");
+    public static final int LTE = TokenKind.of("LTE");
+    public static final int ANDL = TokenKind.of("ANDL");
+    public static final int ORL = TokenKind.of("ORL");
+    public static final int SHL = TokenKind.of("SHL");
+    public static final int SHR = TokenKind.of("SHR");
+
+    /**
+     * 定义单个字符组成的Token，Token名即为该字符
+     */
+    public static HashMap<Character, Integer> singleTokenKinds = new HashMap<>() {{
+        put('~', TokenKind.of("~"));
+        put('%', TokenKind.of("%"));
+        put('(', TokenKind.of("("));
+        put(')', TokenKind.of(")"));
+        put('[', TokenKind.of("["));
+        put(']', TokenKind.of("]"));
+        put('{', TokenKind.of("{"));
+        put('}', TokenKind.of("}"));
+        put(':', TokenKind.of(":"));
+        put(';', TokenKind.of(";"));
+        put('?', TokenKind.of("?"));
+        put(',', TokenKind.of(","));
+    }};
+
+    /**
+     * 字符类别，ASCII范围内的每个字符对应一个类别，词法分析器根据类别决定进入哪一个状态
+     */
+    public static final byte CLASS_INVALID = 0;
+    public static final byte CLASS_EMPTY = 1;
+    public static final byte CLASS_COMMENT = 2;
+    public static final byte CLASS_ALPHA = 3;
+    public static final byte CLASS_DIGIT = 4;
+    public static final byte CLASS_QUOTE = 5;
+    public static final byte CLASS_BACKTICK = 6;
+    public static final byte CLASS_SINGLE = 7;
+    public static final byte CLASS_OPERATOR = 8;
+    public static final byte CLASS_DOT = 9;
+
+    /**
+     * 字符类别表，非ASCII字符一律视为非法字符
+     */
+    public static final byte[] charClasses = new byte[128];
+
+    /**
+     * 单个字符组成的Token和基本运算符的Token种类表，下标为字符
+     */
+    public static final int[] singleCharKinds = new int[128];
+
+    /**
+     * 运算符的状态转移表
+     * operatorTransitions[第一个字符][第二个字符]为两个字符组成的运算符的Token种类，没有对应运算符时为-1
+     */
+    public static final int[][] operatorTransitions = new int[128][];
+
+    static {
+        for (char ch = 0; ch < 128; ch++) {
+            if (LexerUtil.isEmptyChar(ch)) {
+                LexerUtil.charClasses[ch] = CLASS_EMPTY;
+            } else if (LexerUtil.isAlpha(ch) || ch == '_') {
+                LexerUtil.charClasses[ch] = CLASS_ALPHA;
+            } else if (LexerUtil.isDigit(ch)) {
+                LexerUtil.charClasses[ch] = CLASS_DIGIT;
+            }
+        }
+        LexerUtil.charClasses['#'] = CLASS_COMMENT;
+        LexerUtil.charClasses['\''] = CLASS_QUOTE;
+        LexerUtil.charClasses['"'] = CLASS_QUOTE;
+        LexerUtil.charClasses['`'] = CLASS_BACKTICK;
+        LexerUtil.charClasses['.'] = CLASS_DOT;
+        for (Map.Entry<Character, Integer> entry : LexerUtil.singleTokenKinds.entrySet()) {
+            LexerUtil.charClasses[entry.getKey()] = CLASS_SINGLE;
+            LexerUtil.singleCharKinds[entry.getKey()] = entry.getValue();
+        }
+        for (Map.Entry<Character, Integer> entry : LexerUtil.basicOperatorKinds.entrySet()) {
+            LexerUtil.charClasses[entry.getKey()] = CLASS_OPERATOR;
+            LexerUtil.singleCharKinds[entry.getKey()] = entry.getValue();
+            LexerUtil.operatorTransitions[entry.getKey()] = new int[128];
+            Arrays.fill(LexerUtil.operatorTransitions[entry.getKey()], -1);
+        }
+        LexerUtil.operatorTransitions['=']['='] = IS_EQ;
+        LexerUtil.operatorTransitions['!']['='] = IS_NEQ;
+        LexerUtil.operatorTransitions['>']['='] = GTE;
+        LexerUtil.operatorTransitions['<']['='] = LTE;
+        LexerUtil.operatorTransitions['&']['&'] = ANDL;
+        LexerUtil.operatorTransitions['|']['|'] = ORL;
+        LexerUtil.operatorTransitions['<']['<'] = SHL;
+        LexerUtil.operatorTransitions['>']['>'] = SHR;
+    }
+
+    /**
+     * 获取字符的类别
+     * @param ch 字符
+     * @return 字符类别
+     */
+    public static byte getCharClass(char ch) {
+        return ch < 128 ? LexerUtil.charClasses[ch] : CLASS_INVALID;
+    }
+
+    /**
+     * 判断是否为标识符中除首字符外可以出现的字符
+     * @param ch 待判断的字符
+     * @return 是则返回true，否则返回false
+     */
+    public static boolean isIdentifierPart(char ch) {
+        byte charClass = LexerUtil.getCharClass(ch);
+        return charClass == CLASS_ALPHA || charClass == CLASS_DIGIT;
+    }
+
+    /**
+     * 判断是否为空字符
+     * @param ch 待判断的字符
+     * @return 字符是否为空，为空则返回true，否则返回false
+     */
+    public static boolean isEmptyChar(char ch) {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    /**
+     * 判断是否为字母
+     * @param ch 带判断的字符
+     * @return 是否为字母，如果是则返回true，否则返回false
+     */
+    public static boolean isAlpha(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    /**
+     * 判断是否为数码
+     * @param ch 带判断的字符
+     * @return 是否为数码，如果是则返回true，否则返回false
+     */
+    public static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * 根据UTF-8首字节获取该字符占用的字节数
+     * @param lead 首字节
+     * @return 字节数
+     */
+    public static int getUtf8SequenceLength(char lead) {
+        if (lead >= 0xF0) {
+            return 4;
+        }
+        if (lead >= 0xE0) {
+            return 3;
+        }
+        if (lead >= 0xC0) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * 获取假设标识符的真正Token种类
+     * 程序中会把标识符和保留字一律当作标识符识别，识别完毕后通过检查该"假设标识符"是否在
+     * 保留字列表中，来获得其真实的Token种类
+     * @param hypotheticalIdentifier 假设标识符
+     * @return 真实的Token种类。ID或者某个保留字对应的Token种类。
+     */
+    public static int getHypotheticalIdentifierKind(String hypotheticalIdentifier) {
+        return KeywordTable.lookup(hypotheticalIdentifier);
+    }
+
+    /**
+     * 从源文件中截取Token的值
+     * 标识符、保留字和数字字面量的值为其原文，字符串和字符字面量的值为去掉引号并处理转义后的内容，
+     * 模块导入的值为被导入的文件路径，其余Token没有值
+     * @param kind Token种类
+     * @param source 源文件
+     * @param start Token的起始字节偏移
+     * @param length Token的字节长度
+     * @return Token的值
+     */
+    public static String getTokenValue(int kind, SourceFile source, int start, int length) {
+        if (kind == TokenKind.STRING_LITERAL || kind == TokenKind.CHAR_LITERAL) {
+            return LexerUtil.decodeLiteral(source, start + 1, length - 2);
+        }
+        if (kind == TokenKind.INCLUDE) {
+            return source.slice(start + 1, length - 2);
+        }
+        if (kind == TokenKind.ID || kind == TokenKind.NUMBER_LITERAL || kind == TokenKind.FLOAT_LITERAL || KeywordTable.isKeywordKind(kind)) {
+            return source.slice(start, length);
+        }
+        return null;
+    }
+
+    /**
+     * 解码字符字面量
+     * @param source 源文件
+     * @param start 字面量内容（不含引号）的起始字节偏移
+     * @param length 字面量内容的字节长度
+     * @return 字符的编码，内容不是恰好一个字符时返回-1
+     */
+    public static int decodeCharLiteral(SourceFile source, int start, int length) {
+        if (length == 1 && source.charAt(start) < 0x80) {
+            return source.charAt(start);
+        }
+        String value = LexerUtil.decodeLiteral(source, start, length);
+        return value.length() == 1 ? value.charAt(0) : -1;
+    }
+
+    /**
+     * 处理字面量中的转义字符
+     * 字面量中可能含有UTF-8多字节字符，先按字节收集，最后统一解码
+     * @param source 源文件
+     * @param start 字面量内容（不含引号）的起始字节偏移
+     * @param length 字面量内容的字节长度
+     * @return 字面量的值
+     */
+    private static String decodeLiteral(SourceFile source, int start, int length) {
+        ByteArrayOutputStream literal = new ByteArrayOutputStream(length);
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            char ch = source.charAt(i);
+            if (ch != '\\') {
+                literal.write(ch);
+                continue;
+            }
+            char tmp = source.charAt(++i);
+            if (LexerUtil.escapeCharacterMapping.containsKey(tmp)) {
+                literal.write(LexerUtil.escapeCharacterMapping.get(tmp));
+            } else {
+                literal.write(ch);
+                literal.write(tmp);
+            }
+        }
+        return literal.toString(StandardCharsets.UTF_8);
+    }
+}
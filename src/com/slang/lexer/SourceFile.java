@@ -0,0 +1,313 @@
+package com.slang.lexer;
+
+import com.slang.utils.Panic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * 源代码文件
+ * 词法分析直接在源文件的字节（ASCII/UTF-8）上进行，不再复制到字符缓冲区。
+ * 较小的文件一次性读入大小恰好的缓冲区，较大的文件使用内存映射，
+ * 因此每个文件占用的堆内存约等于文件本身的大小，源文件也不再有大小上限（映射上限为2GB）。
+ * 每个源文件有一个全局唯一的编号，代码中的位置用编号和字节偏移表示（见CodeAxis）
+ */
+public class SourceFile {
+    /**
+     * 超过该大小的文件使用内存映射读取
+     */
+    private static final long MAP_THRESHOLD = 64 * 1024;
+
+    /**
+     * 所有已经读取、尚未注销的源文件，下标即为文件编号
+     */
+    private static final ArrayList<SourceFile> files = new ArrayList<>();
+
+    private int id;
+    private String path;
+    private ByteBuffer content;
+    private int size;
+
+    /**
+     * 行首索引，记录每一行第一个字节的偏移，第一次需要行号时才建立
+     */
+    private int[] lineStarts = null;
+    private int lineCount;
+
+    /**
+     * 被编辑后取代本版本的新版本，以及这次编辑的位置、删除的字节数和文件大小的变化，最新的版本next为null
+     */
+    private SourceFile next = null;
+    private int editOffset;
+    private int editRemoved;
+    private int editDelta;
+
+    /**
+     * 读取源代码文件
+     * 遇到文件不存在或者IO故障则会引发错误
+     *
+     * @param path 源代码文件路径
+     */
+    public SourceFile(String path) {
+        this.path = path;
+        this.register();
+        Path filePath = Paths.get(path);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                Panic panic = new Panic("File too large", new CodeAxis(path));
+                panic.show();
+            }
+            if (fileSize > MAP_THRESHOLD) {
+                this.content = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            } else {
+                this.content = ByteBuffer.wrap(Files.readAllBytes(filePath));
+            }
+            this.content.order(ByteOrder.LITTLE_ENDIAN);
+            this.size = this.content.limit();
+        } catch (NoSuchFileException e) {
+            Panic panic = new Panic("File not found", new CodeAxis(path));
+            panic.show();
+        } catch (IOException e) {
+            Panic panic = new Panic(String.format("File I/O Error: %s", e.getMessage()), new CodeAxis(path));
+            panic.show();
+        }
+    }
+
+    /**
+     * 使用内存中的内容创建源文件，用于编辑后的源代码
+     * @param path 源代码文件路径
+     * @param content 源代码内容
+     */
+    public SourceFile(String path, byte[] content) {
+        this.path = path;
+        this.register();
+        this.content = ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN);
+        this.size = content.length;
+    }
+
+    /**
+     * 创建源文件的新版本，新版本沿用原来的编号并在文件表中取代原来的版本
+     */
+    private SourceFile(SourceFile previous, byte[] content) {
+        this.path = previous.path;
+        this.id = previous.id;
+        this.content = ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN);
+        this.size = content.length;
+        synchronized (SourceFile.files) {
+            SourceFile.files.set(this.id, this);
+        }
+    }
+
+    /**
+     * 为源文件分配编号
+     */
+    private void register() {
+        synchronized (SourceFile.files) {
+            this.id = SourceFile.files.size();
+            SourceFile.files.add(this);
+        }
+    }
+
+    /**
+     * 注销源文件，不再使用的源文件注销后才能被回收，编号不会被复用
+     * 注销后仍然指向该文件的位置无法再换算为代码坐标
+     */
+    public void unregister() {
+        synchronized (SourceFile.files) {
+            SourceFile.files.set(this.id, null);
+        }
+    }
+
+    /**
+     * 对源代码进行一次编辑，得到新的源文件，只能编辑最新的版本
+     * 新的源文件沿用原来的编号，原来的版本不再持有内容，只记录这次编辑，
+     * 仍然引用它的Token（例如增量语法分析中复用的子树）的位置和值都换算到最新的版本上，因此反复编辑也不会积累旧版本的内容。
+     * 换算只对编辑区域之外的偏移有意义，编辑区域之内的Token已经被增量词法分析替换
+     * @param offset 编辑开始的字节偏移
+     * @param removedLength 删除的字节数
+     * @param insertedText 插入的文本
+     * @return 编辑后的源文件
+     */
+    public SourceFile edit(int offset, int removedLength, String insertedText) {
+        byte[] inserted = insertedText.getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[this.size - removedLength + inserted.length];
+        ByteBuffer view = this.content.duplicate();
+        view.position(0);
+        view.get(content, 0, offset);
+        System.arraycopy(inserted, 0, content, offset, inserted.length);
+        view.position(offset + removedLength);
+        view.get(content, offset + inserted.length, this.size - offset - removedLength);
+        SourceFile edited = new SourceFile(this, content);
+        this.editOffset = offset;
+        this.editRemoved = removedLength;
+        this.editDelta = edited.size - this.size;
+        this.next = edited;
+        this.content = null;
+        this.lineStarts = null;
+        return edited;
+    }
+
+    /**
+     * 获取源文件的最新版本
+     * @return 最新版本，本版本没有被编辑过时为自身
+     */
+    public SourceFile latest() {
+        SourceFile file = this;
+        while (file.next != null) {
+            file = file.next;
+        }
+        return file;
+    }
+
+    /**
+     * 把本版本中的偏移换算为最新版本中的偏移
+     * @param offset 字节偏移
+     * @return 最新版本中的字节偏移，落在被删除的区域中时为编辑开始的位置
+     */
+    public int translate(int offset) {
+        for (SourceFile file = this; file.next != null; file = file.next) {
+            if (offset >= file.editOffset + file.editRemoved) {
+                offset += file.editDelta;
+            } else if (offset > file.editOffset) {
+                offset = file.editOffset;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * 根据编号获取源文件
+     * @param id 文件编号
+     * @return 源文件，已经注销时为null
+     */
+    public static SourceFile get(int id) {
+        synchronized (SourceFile.files) {
+            return SourceFile.files.get(id);
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 获取源代码中某个偏移对应的位置，本版本已经被编辑时换算为最新版本中的位置
+     * @param offset 字节偏移
+     * @return 位置
+     */
+    public long getPosition(int offset) {
+        return CodeAxis.pack(this.id, this.next == null ? offset : this.translate(offset));
+    }
+
+    /**
+     * 建立行首索引
+     */
+    private synchronized void buildLineStarts() {
+        if (this.lineStarts != null) {
+            return;
+        }
+        int[] lineStarts = new int[16];
+        int lineCount = 1;
+        for (int i = 0; i < this.size; i++) {
+            if (this.content.get(i) == '\n') {
+                if (lineCount == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineCount << 1);
+                }
+                lineStarts[lineCount++] = i + 1;
+            }
+        }
+        this.lineCount = lineCount;
+        this.lineStarts = lineStarts;
+    }
+
+    /**
+     * 获取某个偏移所在的行号（从1开始）
+     * @param offset 字节偏移
+     * @return 行号
+     */
+    public int getLine(int offset) {
+        this.buildLineStarts();
+        int line = Arrays.binarySearch(this.lineStarts, 0, this.lineCount, offset);
+        // 没有恰好命中行首时，binarySearch返回-(插入点)-1，插入点的前一行即为所在行
+        return line >= 0 ? line + 1 : -line - 1;
+    }
+
+    /**
+     * 获取某个偏移在行内的字符位置（从1开始）
+     * 按字符而不是字节计数：UTF-8多字节字符的后续字节（10xxxxxx）不计数，
+     * 四字节的字符在Java中是两个char（代理对），计为2，与按char读取源文件时的位置一致
+     * @param offset 字节偏移
+     * @return 字符位置
+     */
+    public int getCharPos(int offset) {
+        int charPos = 1;
+        for (int i = this.lineStarts[this.getLine(offset) - 1]; i < offset; i++) {
+            int b = this.content.get(i) & 0xFF;
+            if (b >= 0xF0) {
+                charPos += 2;
+            } else if ((b & 0xC0) != 0x80) {
+                charPos++;
+            }
+        }
+        return charPos;
+    }
+
+    /**
+     * 获取源代码的字节数
+     * @return 字节数
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * 获取某个位置上的字节，按无符号值转换为字符
+     * ASCII字符与原字符一致，UTF-8多字节字符的每个字节都会大于0x7F
+     * @param offset 字节偏移
+     * @return 对应的字符
+     */
+    public char charAt(int offset) {
+        return (char) (this.content.get(offset) & 0xFF);
+    }
+
+    /**
+     * 获取从某个位置开始的8个字节，按小端序组成一个long，即第一个字节在最低位，供WordScanner按字扫描
+     * @param offset 字节偏移，之后至少还有8个字节
+     * @return 8个字节
+     */
+    long wordAt(int offset) {
+        return this.content.getLong(offset);
+    }
+
+    /**
+     * 按UTF-8解码源代码的一个片段
+     * @param offset 起始字节偏移
+     * @param length 字节长度
+     * @return 解码得到的字符串
+     */
+    public String slice(int offset, int length) {
+        if (this.content.hasArray()) {
+            return new String(this.content.array(), this.content.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.content.duplicate();
+        view.position(offset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
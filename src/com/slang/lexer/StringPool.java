@@ -0,0 +1,169 @@
+package com.slang.lexer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 字符串池
+ * 词法分析时把标识符放入字符串池，每个不同的字符串对应一个稠密的整数编号。
+ * 符号表和代码生成直接以编号作为键，不需要在每次查找时重新计算字符串的哈希并比较字符串。
+ * 字符串池在整个进程中共享，编号在进程内保持不变，因此缓存的Token可以在多次编译之间复用。
+ * 并行的词法分析大多命中已有的字符串，查找和get()都不加锁，只有插入新的字符串时才加锁：
+ * 写入时先把字符串放入数组，再写入哈希表的槽位，读到槽位的线程一定能读到对应的字符串；
+ * 扩容时在新的哈希表中放入全部字符串后再替换，仍在旧表上查找的线程最多找不到新字符串，会在加锁后重新查找
+ */
+public class StringPool {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Object lock = new Object();
+    /**
+     * 下标即为编号，只在加锁时写入
+     */
+    private static volatile String[] strings = new String[INITIAL_CAPACITY / 2];
+    private static volatile int size = 0;
+    /**
+     * 开放定址的哈希表，存放字符串的编号加1，0表示空槽位
+     */
+    private static volatile AtomicIntegerArray table = new AtomicIntegerArray(INITIAL_CAPACITY);
+
+    /**
+     * 在哈希表中查找源文件中的一段文本
+     * @return 编号，不存在时返回-1
+     */
+    private static int find(AtomicIntegerArray table, int hash, SourceFile source, int start, int length) {
+        int mask = table.length() - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = table.get(slot)) != 0) {
+            // 必须在读到槽位之后再读取数组，才能看到与槽位一起发布的字符串
+            String string = StringPool.strings[entry - 1];
+            if (string.hashCode() == hash && StringPool.matches(string, source, start, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 在哈希表中查找字符串
+     * @return 编号，不存在时返回-1
+     */
+    private static int find(AtomicIntegerArray table, String string) {
+        int mask = table.length() - 1;
+        int slot = string.hashCode() & mask;
+        int entry;
+        while ((entry = table.get(slot)) != 0) {
+            if (StringPool.strings[entry - 1].equals(string)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean matches(String string, SourceFile source, int start, int length) {
+        if (string.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把源文件中的一段ASCII文本放入字符串池
+     * 哈希值与String.hashCode()一致，已经在池中的文本不会创建新的字符串
+     * @param source 源文件
+     * @param start 起始字节偏移
+     * @param length 字节长度
+     * @return 编号
+     */
+    public static int intern(SourceFile source, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int id = StringPool.find(StringPool.table, hash, source, start, length);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (StringPool.lock) {
+            id = StringPool.find(StringPool.table, hash, source, start, length);
+            return id >= 0 ? id : StringPool.add(source.slice(start, length));
+        }
+    }
+
+    /**
+     * 把字符串放入字符串池
+     * @param string 字符串
+     * @return 编号
+     */
+    public static int intern(String string) {
+        int id = StringPool.find(StringPool.table, string);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (StringPool.lock) {
+            id = StringPool.find(StringPool.table, string);
+            return id >= 0 ? id : StringPool.add(string);
+        }
+    }
+
+    /**
+     * 加入新的字符串，必要时扩容，调用时必须持有锁
+     * @return 编号
+     */
+    private static int add(String string) {
+        int id = StringPool.size;
+        if (id == StringPool.strings.length) {
+            StringPool.strings = Arrays.copyOf(StringPool.strings, id << 1);
+        }
+        StringPool.strings[id] = string;
+        StringPool.size = id + 1;
+        // 装载因子超过1/2时扩容
+        if (StringPool.size * 2 > StringPool.table.length()) {
+            AtomicIntegerArray table = new AtomicIntegerArray(StringPool.table.length() << 1);
+            for (int i = 0; i < StringPool.size; i++) {
+                StringPool.place(table, StringPool.strings[i].hashCode(), i);
+            }
+            StringPool.table = table;
+        } else {
+            StringPool.place(StringPool.table, string.hashCode(), id);
+        }
+        return id;
+    }
+
+    /**
+     * 在哈希表中为编号找到空槽位并写入
+     */
+    private static void place(AtomicIntegerArray table, int hash, int id) {
+        int mask = table.length() - 1;
+        int slot = hash & mask;
+        while (table.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.set(slot, id + 1);
+    }
+
+    /**
+     * 获取编号对应的字符串
+     * 编号只能来自intern()，取得编号的线程一定能读到对应的字符串
+     * @param id 编号
+     * @return 字符串
+     */
+    public static String get(int id) {
+        return StringPool.strings[id];
+    }
+
+    /**
+     * 获取字符串池中字符串的个数
+     * @return 字符串个数
+     */
+    public static int size() {
+        return StringPool.size;
+    }
+}
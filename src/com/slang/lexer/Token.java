@@ -1,23 +1,87 @@
 package com.slang.lexer;
 
+/**
+ * Token视图
+ * 只记录Token在源文件中的位置，值在第一次访问时才生成
+ */
 public class Token {
-    public String name;
-    public String value = null;
-    public CodeAxis codeAxis;
+    public int kind;
+    private SourceFile source;
+    private int start;
+    private int length;
+    private int valueId;
+    private long payload;
+    private String value = null;
+    private boolean valueResolved = false;
 
-    public Token(String name, CodeAxis codeAxis) {
-        this.name = name;
-        this.codeAxis = codeAxis;
+    public Token(int kind, SourceFile source, int start, int length, int valueId, long payload) {
+        this.kind = kind;
+        this.source = source;
+        this.start = start;
+        this.length = length;
+        this.valueId = valueId;
+        this.payload = payload;
     }
 
-    public Token(String name, String value, CodeAxis codeAxis) {
-        this.name = name;
-        this.value = value;
-        this.codeAxis = codeAxis;
+    public String getName() {
+        return TokenKind.getName(this.kind);
+    }
+
+    /**
+     * 获取Token的值，没有值的Token返回null
+     * @return Token的值
+     */
+    public String getValue() {
+        if (!this.valueResolved) {
+            if (this.valueId >= 0) {
+                this.value = StringPool.get(this.valueId);
+            } else {
+                // 源文件在Token生成之后可能被编辑过，从最新的版本中读取
+                this.value = this.source == null ? null : LexerUtil.getTokenValue(this.kind, this.source.latest(), this.source.translate(this.start), this.length);
+            }
+            this.valueResolved = true;
+        }
+        return this.value;
+    }
+
+    /**
+     * 获取Token的值在字符串池中的编号
+     * 词法分析时没有放入字符串池的标识符（见Lexer.setInternIdentifiers()）在这里才放入
+     * @return 编号，只有标识符有编号，其余为-1
+     */
+    public int getValueId() {
+        if (this.valueId == -1 && this.kind == TokenKind.ID) {
+            this.valueId = StringPool.intern(this.getValue());
+        }
+        return this.valueId;
+    }
+
+    /**
+     * 获取整数字面量或字符字面量的值
+     * @return 整数字面量的值，字符字面量为字符的编码
+     */
+    public long getLongValue() {
+        return this.payload;
+    }
+
+    /**
+     * 获取浮点数字面量的值
+     * @return 浮点数字面量的值
+     */
+    public double getDoubleValue() {
+        return Double.longBitsToDouble(this.payload);
+    }
+
+    /**
+     * 获取Token的位置
+     * @return 位置，文件尾符号没有位置
+     */
+    public long getPosition() {
+        return this.source == null ? CodeAxis.NO_POSITION : this.source.getPosition(this.start);
     }
 
     @Override
     public String toString() {
-        return this.name;
+        return this.getName();
     }
 }
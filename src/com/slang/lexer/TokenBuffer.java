@@ -0,0 +1,297 @@
+package com.slang.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Token缓冲区
+ * Token按列存放在若干个平行的整数数组中（种类、起始偏移、长度、所在文件编号、值在字符串池中的编号、字面量的值），
+ * 不再为每个Token分配Token对象、值字符串和CodeAxis对象，Token的值只在真正需要时才从源文件中截取。
+ * 可以选择把这些数组放在堆外的直接缓冲区中，以减轻大量Token对GC的压力
+ */
+public class TokenBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean offHeap;
+    private IntBuffer kinds;
+    private IntBuffer starts;
+    private IntBuffer lengths;
+    private IntBuffer fileIds;
+    private IntBuffer valueIds;
+    /**
+     * 词法分析时解码的字面量的值，含义见Lexer.getPayload()
+     */
+    private LongBuffer payloads;
+    private int size = 0;
+
+    public TokenBuffer() {
+        this(false);
+    }
+
+    /**
+     * @param offHeap 是否把Token数组放在堆外
+     */
+    public TokenBuffer(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.kinds = this.allocate(INITIAL_CAPACITY);
+        this.starts = this.allocate(INITIAL_CAPACITY);
+        this.lengths = this.allocate(INITIAL_CAPACITY);
+        this.fileIds = this.allocate(INITIAL_CAPACITY);
+        this.valueIds = this.allocate(INITIAL_CAPACITY);
+        this.payloads = this.allocateLong(INITIAL_CAPACITY);
+    }
+
+    private IntBuffer allocate(int capacity) {
+        if (this.offHeap) {
+            return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return IntBuffer.allocate(capacity);
+    }
+
+    private LongBuffer allocateLong(int capacity) {
+        if (this.offHeap) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return LongBuffer.allocate(capacity);
+    }
+
+    private IntBuffer grow(IntBuffer buffer) {
+        return this.grow(buffer, buffer.capacity() << 1);
+    }
+
+    private IntBuffer grow(IntBuffer buffer, int capacity) {
+        IntBuffer newBuffer = this.allocate(capacity);
+        buffer.position(0).limit(this.size);
+        newBuffer.put(buffer);
+        newBuffer.clear();
+        return newBuffer;
+    }
+
+    private LongBuffer grow(LongBuffer buffer) {
+        return this.grow(buffer, buffer.capacity() << 1);
+    }
+
+    private LongBuffer grow(LongBuffer buffer, int capacity) {
+        LongBuffer newBuffer = this.allocateLong(capacity);
+        buffer.position(0).limit(this.size);
+        newBuffer.put(buffer);
+        newBuffer.clear();
+        return newBuffer;
+    }
+
+    /**
+     * 追加一个Token
+     * @param kind Token种类
+     * @param source 所在源文件，文件尾符号没有源文件
+     * @param start 起始字节偏移
+     * @param length 字节长度
+     * @param valueId 值在字符串池中的编号，没有编号时为-1
+     * @param payload 字面量的值
+     */
+    public void add(int kind, SourceFile source, int start, int length, int valueId, long payload) {
+        if (this.size == this.kinds.capacity()) {
+            this.kinds = this.grow(this.kinds);
+            this.starts = this.grow(this.starts);
+            this.lengths = this.grow(this.lengths);
+            this.fileIds = this.grow(this.fileIds);
+            this.valueIds = this.grow(this.valueIds);
+            this.payloads = this.grow(this.payloads);
+        }
+        this.kinds.put(this.size, kind);
+        this.starts.put(this.size, start);
+        this.lengths.put(this.size, length);
+        this.fileIds.put(this.size, source == null ? -1 : source.getId());
+        this.valueIds.put(this.size, valueId);
+        this.payloads.put(this.size, payload);
+        this.size++;
+    }
+
+    /**
+     * 把词法分析器刚刚扫描出的Token追加到缓冲区
+     * @param lexer 词法分析器
+     */
+    public void add(Lexer lexer) {
+        this.add(lexer.getKind(), lexer.getKind() == TokenKind.END_OF_FILE ? null : lexer.getSource(),
+                lexer.getStart(), lexer.getLength(), lexer.getValueId(), lexer.getPayload());
+    }
+
+    /**
+     * 保证缓冲区至少可以容纳capacity个Token
+     * @param capacity 容量
+     */
+    private void ensureCapacity(int capacity) {
+        int newCapacity = this.kinds.capacity();
+        if (capacity <= newCapacity) {
+            return;
+        }
+        while (capacity > newCapacity) {
+            newCapacity <<= 1;
+        }
+        this.kinds = this.grow(this.kinds, newCapacity);
+        this.starts = this.grow(this.starts, newCapacity);
+        this.lengths = this.grow(this.lengths, newCapacity);
+        this.fileIds = this.grow(this.fileIds, newCapacity);
+        this.valueIds = this.grow(this.valueIds, newCapacity);
+        this.payloads = this.grow(this.payloads, newCapacity);
+    }
+
+    /**
+     * 在同一个缓冲区内移动一段数据，源区间和目标区间可以重叠
+     */
+    private static void move(IntBuffer buffer, int from, int to, int count) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            System.arraycopy(buffer.array(), offset + from, buffer.array(), offset + to, count);
+        } else if (to < from) {
+            for (int i = 0; i < count; i++) {
+                buffer.put(to + i, buffer.get(from + i));
+            }
+        } else {
+            for (int i = count - 1; i >= 0; i--) {
+                buffer.put(to + i, buffer.get(from + i));
+            }
+        }
+    }
+
+    private static void move(LongBuffer buffer, int from, int to, int count) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            System.arraycopy(buffer.array(), offset + from, buffer.array(), offset + to, count);
+        } else if (to < from) {
+            for (int i = 0; i < count; i++) {
+                buffer.put(to + i, buffer.get(from + i));
+            }
+        } else {
+            for (int i = count - 1; i >= 0; i--) {
+                buffer.put(to + i, buffer.get(from + i));
+            }
+        }
+    }
+
+    /**
+     * 就地把下标在[from, to)的Token替换为另一个缓冲区中的所有Token，用于增量词法分析
+     * 被替换区间之后的Token起始偏移统一加上delta，缓冲区中所有Token的所在文件改为source（文件尾符号除外）
+     * @param from 被替换区间的开始下标
+     * @param to 被替换区间的结束下标（不含）
+     * @param replacement 替换成的Token
+     * @param delta 被替换区间之后的Token起始偏移的增量
+     * @param source 所在源文件
+     */
+    public void replace(int from, int to, TokenBuffer replacement, int delta, SourceFile source) {
+        int count = replacement.size;
+        int tail = this.size - to;
+        int newSize = from + count + tail;
+        this.ensureCapacity(newSize);
+        TokenBuffer.move(this.kinds, to, from + count, tail);
+        TokenBuffer.move(this.starts, to, from + count, tail);
+        TokenBuffer.move(this.lengths, to, from + count, tail);
+        TokenBuffer.move(this.fileIds, to, from + count, tail);
+        TokenBuffer.move(this.valueIds, to, from + count, tail);
+        TokenBuffer.move(this.payloads, to, from + count, tail);
+        for (int i = 0; i < count; i++) {
+            this.kinds.put(from + i, replacement.kinds.get(i));
+            this.starts.put(from + i, replacement.starts.get(i));
+            this.lengths.put(from + i, replacement.lengths.get(i));
+            this.fileIds.put(from + i, replacement.fileIds.get(i));
+            this.valueIds.put(from + i, replacement.valueIds.get(i));
+            this.payloads.put(from + i, replacement.payloads.get(i));
+        }
+        this.size = newSize;
+
+        int sourceId = source.getId();
+        if (this.starts.hasArray() && this.fileIds.hasArray()) {
+            int[] starts = this.starts.array();
+            int[] fileIds = this.fileIds.array();
+            int startsOffset = this.starts.arrayOffset();
+            int fileIdsOffset = this.fileIds.arrayOffset();
+            for (int i = from + count; i < newSize; i++) {
+                starts[startsOffset + i] += delta;
+            }
+            for (int i = 0; i < newSize; i++) {
+                if (fileIds[fileIdsOffset + i] >= 0) {
+                    fileIds[fileIdsOffset + i] = sourceId;
+                }
+            }
+        } else {
+            for (int i = from + count; i < newSize; i++) {
+                this.starts.put(i, this.starts.get(i) + delta);
+            }
+            for (int i = 0; i < newSize; i++) {
+                if (this.fileIds.get(i) >= 0) {
+                    this.fileIds.put(i, sourceId);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * 清空缓冲区，已经分配的空间会被复用
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    public int getKind(int index) {
+        return this.kinds.get(index);
+    }
+
+    public int getStart(int index) {
+        return this.starts.get(index);
+    }
+
+    public int getLength(int index) {
+        return this.lengths.get(index);
+    }
+
+    public int getValueId(int index) {
+        return this.valueIds.get(index);
+    }
+
+    public long getPayload(int index) {
+        return this.payloads.get(index);
+    }
+
+    public SourceFile getSource(int index) {
+        int fileId = this.fileIds.get(index);
+        return fileId < 0 ? null : SourceFile.get(fileId);
+    }
+
+    /**
+     * 获取某个Token的值
+     * @param index Token下标
+     * @return Token的值，没有值的Token返回null
+     */
+    public String getValue(int index) {
+        int valueId = this.getValueId(index);
+        if (valueId >= 0) {
+            return StringPool.get(valueId);
+        }
+        SourceFile source = this.getSource(index);
+        return source == null ? null : LexerUtil.getTokenValue(this.getKind(index), source, this.getStart(index), this.getLength(index));
+    }
+
+    /**
+     * 获取某个Token的位置
+     * @param index Token下标
+     * @return 位置，文件尾符号没有位置
+     */
+    public long getPosition(int index) {
+        int fileId = this.fileIds.get(index);
+        return fileId < 0 ? CodeAxis.NO_POSITION : CodeAxis.pack(fileId, this.starts.get(index));
+    }
+
+    /**
+     * 获取某个Token的视图，值在第一次访问时才生成
+     * @param index Token下标
+     * @return Token
+     */
+    public Token getToken(int index) {
+        return new Token(this.getKind(index), this.getSource(index), this.getStart(index), this.getLength(index), this.getValueId(index), this.getPayload(index));
+    }
+}
@@ -0,0 +1,277 @@
+package com.slang.lexer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * 被导入模块的词法分析结果缓存
+ * 以模块的规范路径为键，文件的修改时间和大小没有变化时直接复用上一次的Token，跳过词法分析。
+ * 缓存保存在进程内，也可以指定缓存目录，以紧凑的二进制形式保存到磁盘上供以后的编译使用。
+ * 缓存失效（文件被修改、缓存文件损坏等）时总是退回到重新进行词法分析。
+ * 进程内的缓存按源文件的总大小限制容量，超出时淘汰最久没有使用的模块并注销其源文件；
+ * 正在被某次编译使用（由get()取得、尚未release()）的模块不会被淘汰，因为语法树中的位置仍然指向它的源文件
+ */
+public class TokenCache {
+    private static final int MAGIC = 0x534c544b;
+    private static final int VERSION = 2;
+    /**
+     * 进程内缓存的源文件总大小上限（字节）
+     */
+    private static final long MAX_CACHED_SIZE = 32 * 1024 * 1024;
+
+    /**
+     * 缓存项，记录缓存时文件的修改时间和大小，以及正在使用它的编译个数
+     */
+    private static class Entry {
+        long modifiedTime;
+        long size;
+        LexedModule module;
+        int pins = 0;
+        /**
+         * 是否仍在缓存中，被新版本取代或者失效后为false
+         */
+        boolean cached = true;
+
+        Entry(long modifiedTime, long size, LexedModule module) {
+            this.modifiedTime = modifiedTime;
+            this.size = size;
+            this.module = module;
+        }
+    }
+
+    /**
+     * 规范路径到缓存项，按最近使用的顺序排列
+     */
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * 源文件编号到正在使用的缓存项，包括已经不在缓存中的
+     */
+    private static final HashMap<Integer, Entry> pinnedEntries = new HashMap<>();
+    private static long cachedSize = 0;
+    private static Path directory = null;
+
+    /**
+     * 设置磁盘缓存目录，为null时只在进程内缓存
+     * @param directory 缓存目录
+     */
+    public static void setDirectory(String directory) {
+        TokenCache.directory = directory == null ? null : Paths.get(directory);
+    }
+
+    /**
+     * 获取模块的词法分析结果，缓存中没有或者已经失效时对模块进行词法分析
+     * 取得的模块用完后必须调用release()归还
+     * @param path 模块路径
+     * @param lexer 对模块进行词法分析的方法
+     * @return 模块
+     */
+    public static LexedModule get(String path, Function<String, LexedModule> lexer) {
+        String canonicalPath;
+        BasicFileAttributes attributes;
+        try {
+            Path filePath = Paths.get(path);
+            canonicalPath = filePath.toRealPath().toString();
+            attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return lexer.apply(path);
+        }
+        long modifiedTime = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        synchronized (TokenCache.entries) {
+            Entry entry = TokenCache.entries.get(canonicalPath);
+            if (entry != null && entry.modifiedTime == modifiedTime && entry.size == size) {
+                TokenCache.pin(entry);
+                return TokenCache.rename(entry.module, path);
+            }
+        }
+        LexedModule module = TokenCache.load(canonicalPath, path, modifiedTime, size);
+        if (module == null) {
+            module = lexer.apply(path);
+            if (module.error != null) {
+                return module;
+            }
+            TokenCache.store(canonicalPath, module, modifiedTime, size);
+        }
+        synchronized (TokenCache.entries) {
+            Entry entry = new Entry(modifiedTime, size, module);
+            TokenCache.pin(entry);
+            TokenCache.retire(TokenCache.entries.put(canonicalPath, entry));
+            TokenCache.cachedSize += size;
+            TokenCache.evict();
+        }
+        return module;
+    }
+
+    /**
+     * 归还由get()取得的模块
+     * 不在缓存中的模块（词法分析出错、已经失效或者被淘汰）不再被使用时注销其源文件
+     * @param module 模块
+     */
+    public static void release(LexedModule module) {
+        synchronized (TokenCache.entries) {
+            Entry entry = TokenCache.pinnedEntries.get(module.source.getId());
+            if (entry == null) {
+                module.source.unregister();
+                return;
+            }
+            if (--entry.pins == 0) {
+                TokenCache.pinnedEntries.remove(module.source.getId());
+                if (!entry.cached) {
+                    entry.module.source.unregister();
+                }
+            }
+            TokenCache.evict();
+        }
+    }
+
+    private static void pin(Entry entry) {
+        if (entry.pins++ == 0) {
+            TokenCache.pinnedEntries.put(entry.module.source.getId(), entry);
+        }
+    }
+
+    /**
+     * 处理离开缓存的缓存项，没有被使用时注销其源文件，否则等到最后一次归还时再注销
+     * @param entry 缓存项，可以为null
+     */
+    private static void retire(Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.cached = false;
+        TokenCache.cachedSize -= entry.size;
+        if (entry.pins == 0) {
+            entry.module.source.unregister();
+        }
+    }
+
+    /**
+     * 超出容量时按最久没有使用的顺序淘汰没有被使用的模块
+     */
+    private static void evict() {
+        Iterator<Entry> iterator = TokenCache.entries.values().iterator();
+        while (TokenCache.cachedSize > MAX_CACHED_SIZE && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.pins == 0) {
+                iterator.remove();
+                TokenCache.retire(entry);
+            }
+        }
+    }
+
+    /**
+     * 同一个文件可能以不同的路径被导入，返回的模块需要保留本次使用的路径
+     */
+    private static LexedModule rename(LexedModule module, String path) {
+        if (module.path.equals(path)) {
+            return module;
+        }
+        return new LexedModule(path, module.source, module.tokens, module.error);
+    }
+
+    private static Path getCacheFile(String canonicalPath) {
+        return TokenCache.directory.resolve(String.format("%08x%08x.tok", canonicalPath.hashCode(), canonicalPath.length()));
+    }
+
+    /**
+     * 从磁盘缓存中读取模块
+     * Token种类的编号在每次运行时可能不同，因此缓存文件中保存Token名，读取时重新映射为本次运行的编号
+     * @return 模块，没有有效的缓存时返回null
+     */
+    private static LexedModule load(String canonicalPath, String path, long modifiedTime, long size) {
+        if (TokenCache.directory == null) {
+            return null;
+        }
+        Path cacheFile = TokenCache.getCacheFile(canonicalPath);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION
+                    || !input.readUTF().equals(canonicalPath)
+                    || input.readLong() != modifiedTime || input.readLong() != size) {
+                return null;
+            }
+            int[] kinds = new int[input.readInt()];
+            for (int i = 0; i < kinds.length; i++) {
+                kinds[i] = TokenKind.of(input.readUTF());
+            }
+            SourceFile source = new SourceFile(path);
+            TokenBuffer tokens = new TokenBuffer();
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                int kind = kinds[input.readInt()];
+                int start = input.readInt();
+                int length = input.readInt();
+                long payload = input.readLong();
+                // 字符串池的编号只在进程内有效，读取时重新放入字符串池
+                int valueId = kind == TokenKind.ID ? StringPool.intern(source, start, length) : -1;
+                tokens.add(kind, kind == TokenKind.END_OF_FILE ? null : source, start, length, valueId, payload);
+            }
+            return new LexedModule(path, source, tokens, null);
+        } catch (IOException | RuntimeException e) {
+            // 缓存文件损坏时忽略缓存
+            return null;
+        }
+    }
+
+    /**
+     * 把模块写入磁盘缓存
+     * 先写入临时文件再替换，避免并发的编译读到写了一半的缓存文件
+     */
+    private static void store(String canonicalPath, LexedModule module, long modifiedTime, long size) {
+        if (TokenCache.directory == null) {
+            return;
+        }
+        TokenBuffer tokens = module.tokens;
+        HashMap<Integer, Integer> kindIndexes = new HashMap<>();
+        ArrayList<String> kindNames = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            int kind = tokens.getKind(i);
+            if (!kindIndexes.containsKey(kind)) {
+                kindIndexes.put(kind, kindNames.size());
+                kindNames.add(TokenKind.getName(kind));
+            }
+        }
+        try {
+            Files.createDirectories(TokenCache.directory);
+            Path cacheFile = TokenCache.getCacheFile(canonicalPath);
+            Path temporaryFile = Files.createTempFile(TokenCache.directory, "tok", ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(canonicalPath);
+                output.writeLong(modifiedTime);
+                output.writeLong(size);
+                output.writeInt(kindNames.size());
+                for (String name : kindNames) {
+                    output.writeUTF(name);
+                }
+                output.writeInt(tokens.size());
+                for (int i = 0; i < tokens.size(); i++) {
+                    output.writeInt(kindIndexes.get(tokens.getKind(i)));
+                    output.writeInt(tokens.getStart(i));
+                    output.writeInt(tokens.getLength(i));
+                    output.writeLong(tokens.getPayload(i));
+                }
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 缓存只是加速手段，写入失败不影响编译
+        }
+    }
+}
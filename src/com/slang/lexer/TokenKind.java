@@ -0,0 +1,60 @@
+package com.slang.lexer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Token种类
+ * 每个Token名（同时也是文法中终结符的名字）对应一个稠密的整数编号，
+ * 词法分析器产生编号，语法分析器直接比较编号，避免在每个Token上进行字符串哈希和比较
+ */
+public class TokenKind {
+    private static ArrayList<String> names = new ArrayList<>();
+    private static HashMap<String, Integer> kinds = new HashMap<>();
+
+    public static final int ID = TokenKind.of("ID");
+    /**
+     * 整数字面量和浮点数字面量，它们的值在词法分析时就被解码，随Token一起保存
+     */
+    public static final int NUMBER_LITERAL = TokenKind.of("NUMBER_LITERAL");
+    public static final int FLOAT_LITERAL = TokenKind.of("FLOAT_LITERAL");
+    public static final int STRING_LITERAL = TokenKind.of("STRING_LITERAL");
+    public static final int CHAR_LITERAL = TokenKind.of("CHAR_LITERAL");
+    public static final int END_OF_FILE = TokenKind.of("$$");
+    /**
+     * 模块导入，该Token的值为被导入的文件路径，由TokenStream负责展开，不会进入语法分析
+     */
+    public static final int INCLUDE = TokenKind.of("INCLUDE");
+
+    /**
+     * 获取Token名对应的编号，首次出现的Token名会被分配一个新的编号
+     * @param name Token名
+     * @return 编号
+     */
+    public static synchronized int of(String name) {
+        Integer kind = TokenKind.kinds.get(name);
+        if (kind == null) {
+            kind = TokenKind.names.size();
+            TokenKind.names.add(name);
+            TokenKind.kinds.put(name, kind);
+        }
+        return kind;
+    }
+
+    /**
+     * 获取编号对应的Token名
+     * @param kind 编号
+     * @return Token名
+     */
+    public static synchronized String getName(int kind) {
+        return TokenKind.names.get(kind);
+    }
+
+    /**
+     * 获取目前已经分配的编号个数
+     * @return 编号个数
+     */
+    public static synchronized int count() {
+        return TokenKind.names.size();
+    }
+}
@@ -2,399 +2,299 @@ package com.slang.lexer;
 
 import com.slang.utils.Panic;
 
-import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Stack;
 
 /**
- * 词法分析的相关定义和辅助工具
+ * Token流
+ * 入口文件按需进行词法分析，它导入的模块由IncludeGraph在ForkJoinPool中预取，Token流按顺序从各模块的Token中拉取，
+ * 模块导入（`path`）在拉取到时才展开，整个编译过程中每个模块（按规范路径判断）只会被展开一次，展开完毕后模块的Token即被释放。
+ * 向前看的Token以紧凑的形式暂存在TokenBuffer中，缓冲区中的Token全部被语法分析器取走后，缓冲区的空间会被复用。
  */
-class LexerUtil {
+public class TokenStream {
     /**
-     * 定义保留字集合
+     * 正在读取的模块
+     * 栈顶为当前正在读取的模块，栈底为入口文件。
+     * 入口文件通常直接由词法分析器按需读取，被导入的模块则从预取完成的Token中读取
      */
-    public static HashSet<String> reservedWords = new HashSet<>() {{
-        add("printk");
-        add("ref");
-        add("func");
-        add("ret");
-        add("var");
-        add("while");
-        add("if");
-        add("call");
-        add("else");
-        add("true");
-        add("false");
-        add("break");
-        add("continue");
-        add("for");
-        add("sizeof");
-        add("__svm__");
-    }};
+    private class Frame {
+        String path;
+        LexedModule module;
+        int index = 0;
+        Lexer lexer;
+        /**
+         * 入口文件中连续出现、已经提交预取但尚未展开的模块导入
+         */
+        ArrayDeque<String> includes;
+        /**
+         * 词法分析器当前的Token尚未进入Token流
+         */
+        boolean pending = false;
+
+        Frame(String path) {
+            this.path = path;
+            this.module = TokenStream.this.includeGraph.getModule(path);
+            if (this.module.tokens == null) {
+                this.module.error.show();
+            }
+        }
 
-    /**
-     * 定义转义字符和对应的字符集合
-     */
-    public static HashMap<Character, Character> escapeCharacterMapping = new HashMap<>() {{
-        put('0', (char) 0);
-        put('a', (char) 7);
-        put('b', (char) 8);
-        put('f', (char) 12);
-        put('n', (char) 10);
-        put('r', (char) 13);
-        put('t', (char) 9);
-        put('v', (char) 11);
-        put('\'', (char) 39);
-        put('"', (char) 34);
-        put('\\', (char) 92);
-    }};
+        Frame(String path, Lexer lexer) {
+            this.path = path;
+            this.lexer = lexer;
+            this.includes = new ArrayDeque<>();
+        }
+    }
 
+    private IncludeGraph includeGraph;
+    private Stack<Frame> frames = new Stack<>();
     /**
-     * 定义基本的运算符的Token名
+     * 已经展开过的模块的规范路径，包括入口文件
      */
-    public static HashMap<Character, String> basicOperatorName = new HashMap<>() {{
-        put('+', "PLUS");
-        put('-', "SUB");
-        put('*', "PROD");
-        put('/', "DIV");
-        put('&', "AND");
-        put('|', "OR");
-        put('^', "XOR");
-        put('!', "NOT");
-        put('=', "EQ");
-        put('<', "LT");
-        put('>', "GT");
-    }};
-
+    private HashSet<String> visitedPaths = new HashSet<>();
     /**
-     * 判断是否为空字符
-     * @param ch 待判断的字符
-     * @return 字符是否为空，为空则返回true，否则返回false
+     * 按展开顺序排列的被导入模块
      */
-    public static boolean isEmptyChar(char ch) {
-        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    private ArrayList<String> includedPaths = new ArrayList<>();
+    private TokenBuffer buffer;
+    private int bufferHead = 0;
+
+    public ArrayList<String> getIncludedPaths() {
+        return includedPaths;
     }
 
     /**
-     * 判断是否为字母
-     * @param ch 带判断的字符
-     * @return 是否为字母，如果是则返回true，否则返回false
+     * 初始化Token流
+     * 遇到文件不存在或者IO故障则会引发错误
+     *
+     * @param path 源代码文件
      */
-    public static boolean isAlpha(char ch) {
-        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    public TokenStream(String path) {
+        this(path, false);
     }
 
     /**
-     * 判断是否为数码
-     * @param ch 带判断的字符
-     * @return 是否为数码，如果是则返回true，否则返回false
+     * 初始化Token流
+     * 遇到文件不存在或者IO故障则会引发错误
+     *
+     * @param path 源代码文件
+     * @param offHeap 向前看缓冲区是否放在堆外
      */
-    public static boolean isDigit(char ch) {
-        return ch >= '0' && ch <= '9';
+    public TokenStream(String path, boolean offHeap) {
+        this(new IncludeGraph(path), offHeap);
     }
 
     /**
-     * 获取假设标识符的真正Token名
-     * 程序中会把标识符和保留字一律当作标识符识别，识别完毕后通过检查该"假设标识符"是否在
-     * 保留字列表中，来获得其真实的Token名称
-     * @param hypotheticalIdentifier 假设标识符
-     * @return 真实的Token名称。ID或者某个保留字对应的Token名称。
+     * 在模块导入图上初始化Token流
+     * 保留所有模块的导入图（见IncludeGraph.isRetainModules()）中已经完成词法分析的模块直接复用，用于增量语法分析
+     *
+     * @param includeGraph 模块导入图
+     * @param offHeap 向前看缓冲区是否放在堆外
      */
-    public static String getHypotheticalIdentifierName(String hypotheticalIdentifier) {
-        if (LexerUtil.reservedWords.contains(hypotheticalIdentifier)) {
-            return hypotheticalIdentifier.toUpperCase();
+    public TokenStream(IncludeGraph includeGraph, boolean offHeap) {
+        this.includeGraph = includeGraph;
+        String entryPath = includeGraph.getEntryPath();
+        this.visitedPaths.add(this.includeGraph.resolve(entryPath));
+        if (includeGraph.isRetainModules()) {
+            this.frames.push(new Frame(entryPath));
+        } else {
+            if (!Files.isRegularFile(Paths.get(entryPath))) {
+                new Panic("File not found", new CodeAxis(entryPath)).show();
+            }
+            Lexer lexer = new Lexer(new SourceFile(entryPath), true);
+            lexer.setInternIdentifiers(includeGraph.isInternIdentifiers());
+            this.frames.push(new Frame(entryPath, lexer));
         }
-        return "ID";
+        this.buffer = new TokenBuffer(offHeap);
     }
-}
 
-/**
- * Token流
- */
-public class TokenStream {
-    private int MAX_CODE_BUFFER_SIZE = 104857600;
-    private char[] code = new char[MAX_CODE_BUFFER_SIZE];
-    private ArrayList<Token> tokens = new ArrayList<>();
-    private String path;
-    private int codeBufferSize;
-    private int tokenPointer = 0;
-    private ArrayList<String> includedPaths = new ArrayList<>();
-
-    public ArrayList<String> getIncludedPaths() {
-        return includedPaths;
+    /**
+     * 在已经取出的全部Token上建立Token流，各个Token流之间只读共享同一个缓冲区，可以在不同的线程中使用
+     * 用于并行的语法分析，语法分析器最多向前看一个Token，不会越过结尾的文件尾符号
+     *
+     * @param tokens 以文件尾符号结尾的全部Token，见readAll()
+     * @param index 开始的下标
+     */
+    public TokenStream(TokenBuffer tokens, int index) {
+        this.buffer = tokens;
+        this.bufferHead = index;
     }
 
     /**
-     * 初始化Token流
-     * 遇到文件不存在或者IO故障则会引发错误
-     *
-     * @param path 源代码文件
+     * 关闭Token流，注销入口文件和被导入模块的源文件（见IncludeGraph.close()）
+     * 此后Token流中的位置可能无法再换算为代码坐标，只有在不再需要报告错误时才能关闭
      */
-    public TokenStream(String path) {
-        File file = new File(path);
-        this.path = path;
-        try {
-            InputStream inputStream = new FileInputStream(file);
-            InputStreamReader inputStreamReader = new InputStreamReader(inputStream);
-            while (true) {
-                int ch = inputStreamReader.read();
-                if (ch == -1) {
-                    break;
-                }
-                code[codeBufferSize++] = (char) ch;
-            }
-            inputStream.close();
-        } catch (FileNotFoundException e) {
-            Panic panic = new Panic("File not found", new CodeAxis(path));
-            panic.show();
-        } catch (IOException e) {
-            Panic panic = new Panic(String.format("File I/O Error: %s", e.getMessage()), new CodeAxis(path));
-            panic.show();
+    public void close() {
+        if (this.includeGraph == null) {
+            return;
+        }
+        Frame entry = this.frames.firstElement();
+        if (entry.lexer != null) {
+            entry.lexer.getSource().unregister();
         }
-        this.tokenize();
+        this.includeGraph.close();
     }
 
     /**
-     * 产生Token的代码坐标
-     * @param line 行号
-     * @param charPos 位置
-     * @return 代码坐标类
+     * 取出剩余的全部Token，展开所有的模块导入，但不取走它们
+     * 全部Token都会留在缓冲区中，直到不再使用返回的缓冲区为止
+     * @return 缓冲区，剩余的Token从getIndex()开始，以文件尾符号结尾
      */
-    private CodeAxis getCodeAxis(int line, int charPos) {
-        return new CodeAxis(this.path, line, charPos);
+    public TokenBuffer readAll() {
+        int distance = 0;
+        while (this.lookAheadKind(distance) != TokenKind.END_OF_FILE) {
+            distance++;
+        }
+        return this.buffer;
     }
 
     /**
-     * 对源代码进行Token分解
-     * 将分解后的结果放入到tokens列表中
+     * 获取下一个Token在缓冲区中的下标
+     * 按需拉取的Token流在缓冲区中的Token全部被取走后会复用缓冲区，下标随之从0重新开始，见isFullyBuffered()
+     * @return 下标
      */
-    private void tokenize() {
-        int currentPosition = 0;
-        int currentLine = 1;
-        int currentCharPos;
-        int lastCharInLinePosition = -1;
-
-        while (currentPosition < codeBufferSize) {
-            char ch = code[currentPosition];
-
-            // 行和字符位置的统计
-            if (ch == '\n') {
-                currentLine++;
-                lastCharInLinePosition = currentPosition;
-            }
-            currentCharPos = currentPosition - lastCharInLinePosition;
-            CodeAxis codeAxis = this.getCodeAxis(currentLine, currentCharPos);
+    public int getIndex() {
+        return this.bufferHead;
+    }
 
-            // 如果当前字符是空字符
-            if (LexerUtil.isEmptyChar(ch)) {
-                currentPosition++;
-                continue;
-            }
+    /**
+     * 获取Token流是否建立在已经取出的全部Token上（见TokenStream(TokenBuffer, int)）
+     * 只有这时getIndex()在整个分析过程中都指向同一个缓冲区中的同一个位置，可以用来记录Token的位置
+     * @return 建立在全部Token上时返回true，按需拉取时返回false
+     */
+    public boolean isFullyBuffered() {
+        return this.includeGraph == null;
+    }
 
-            // 如果当前字符是#，表示注释，一直读取到行尾
-            if (ch == '#') {
-                while (ch != '\n') {
-                    // 如果已经到达最后了，不能继续往后扫描
-                    if (currentPosition >= codeBufferSize - 1) {
-                        currentPosition++;
-                        break;
-                    }
-                    ch = code[++currentPosition];
-                }
-                continue;
+    /**
+     * 跳过从向前看的Token开始、开闭符号配对的一段Token，例如花括号括起的函数体
+     * 这段Token直接在被导入模块自身的Token中查找，不经过缓冲区，也不复制，只有以下情况才能跳过：
+     * 向前看的Token是开符号，来自被导入的模块，并且是缓冲区中唯一尚未取走的Token；
+     * 这段Token全部位于该模块中，中间没有模块导入。
+     * 返回的Token流引用着整个模块的Token，模块展开完毕后仍会保留到这段Token被重新读取为止
+     * @param openKind 开符号
+     * @param closeKind 闭符号
+     * @return 在模块的Token上重新读取这段Token的Token流，不能跳过时返回null，Token流保持不变
+     */
+    public TokenStream skipBlock(int openKind, int closeKind) {
+        if (this.lookAheadKind() != openKind || this.frames.size() < 2 || this.buffer.size() - this.bufferHead != 1) {
+            return null;
+        }
+        Frame frame = this.frames.peek();
+        TokenBuffer tokens = frame.module.tokens;
+        int begin = frame.index - 1;
+        int depth = 0;
+        for (int index = begin; ; index++) {
+            int kind = tokens.getKind(index);
+            if (kind == openKind) {
+                depth++;
+            } else if (kind == closeKind && --depth == 0) {
+                frame.index = index + 1;
+                this.bufferHead++;
+                return new TokenStream(tokens, begin);
+            } else if (kind == TokenKind.INCLUDE || kind == TokenKind.END_OF_FILE) {
+                return null;
             }
+        }
+    }
 
-            // 如果当前字符是字母a-z A-Z _，考虑标识符
-            if (LexerUtil.isAlpha((ch)) || ch == '_') {
-                StringBuilder identifier = new StringBuilder();
-                while (LexerUtil.isAlpha(ch)
-                        || LexerUtil.isDigit(ch)
-                        || ch == '_') {
-                    identifier.append(ch);
-                    // 如果已经到达最后了，不能继续往后扫描
-                    if (currentPosition >= codeBufferSize - 1) {
-                        currentPosition++;
-                        break;
-                    }
-                    ch = code[++currentPosition];
+    /**
+     * 从当前模块中拉取下一个Token追加到缓冲区，遇到模块导入时展开
+     * 已经展开过的模块（包括以不同写法导入的同一个文件、菱形依赖和循环导入）再次导入时会被忽略
+     */
+    private void pull() {
+        while (true) {
+            Frame frame = this.frames.peek();
+            if (frame.lexer != null) {
+                if (this.pullFromLexer(frame)) {
+                    return;
                 }
-                String identifierString = identifier.toString();
-                tokens.add(new Token(LexerUtil.getHypotheticalIdentifierName(identifierString), identifierString, codeAxis));
                 continue;
             }
-
-            // 如果当前字符是引号
-            if (ch == '\'' || ch == '"') {
-                char quote = ch;
-                StringBuilder literal = new StringBuilder();
-                // 如果已经到达最后了，不能继续往后扫描
-                if (currentPosition >= codeBufferSize - 1) {
-                    Panic panic = new Panic("Unmatched quote", codeAxis);
-                    panic.show();
-                }
-                ch = code[++currentPosition];
-                while (ch != quote) {
-                    if (ch != '\\') {
-                        literal.append(ch);
-                    } else {
-                        char tmp = code[++currentPosition];
-                        if (LexerUtil.escapeCharacterMapping.containsKey(tmp)) {
-                            literal.append(LexerUtil.escapeCharacterMapping.get(tmp));
-                        } else {
-                            literal.append(ch);
-                            literal.append(tmp);
-                        }
-                    }
-                    // 如果已经到达最后了，不能继续往后扫描
-                    if (currentPosition >= codeBufferSize - 1) {
-                        Panic panic = new Panic("Unmatched quote", codeAxis);
-                        panic.show();
-                    }
-                    ch = code[++currentPosition];
-                }
-                currentPosition++;
-                tokens.add(new Token(quote == '"' ? "STRING_LITERAL" : "CHAR_LITERAL", literal.toString(), codeAxis));
+            TokenBuffer tokens = frame.module.tokens;
+            int index = frame.index;
+            int kind = tokens.getKind(index);
+            if (kind == TokenKind.INCLUDE) {
+                frame.index++;
+                this.expand(tokens.getValue(index));
                 continue;
             }
-
-            // 递归处理模块导入展开
-            if (ch == '`') {
-                StringBuilder path = new StringBuilder();
-                // 如果已经到达最后了，不能继续往后扫描
-                if (currentPosition >= codeBufferSize - 1) {
-                    Panic panic = new Panic("Unmatched quote", codeAxis);
-                    panic.show();
-                }
-                ch = code[++currentPosition];
-                while (ch != '`') {
-                    path.append(ch);
-                    // 如果已经到达最后了，不能继续往后扫描
-                    if (currentPosition >= codeBufferSize - 1) {
-                        Panic panic = new Panic("Unmatched quote", codeAxis);
-                        panic.show();
-                    }
-                    ch = code[++currentPosition];
+            if (kind == TokenKind.END_OF_FILE) {
+                if (frame.module.error != null) {
+                    frame.module.error.show();
                 }
-                currentPosition++;
-                String pathStr = path.toString();
-                if (this.includedPaths.contains(pathStr)) {
+                if (this.frames.size() > 1) {
+                    // 被导入文件的文件尾符号$$不进入Token流
+                    this.frames.pop();
+                    this.includeGraph.release(frame.path);
                     continue;
                 }
-                TokenStream includedFileTokenStream = new TokenStream(pathStr);
-                tokens.addAll(includedFileTokenStream.getTokens());
-                // 需要删除最后一个文件尾符号 $$
-                tokens.remove(tokens.size() - 1);
-                // 包含文件加入
-                includedPaths.add(pathStr);
-                includedPaths.addAll(includedFileTokenStream.getIncludedPaths());
-                continue;
-            }
-
-            // 如果当前字符是数字
-            if (LexerUtil.isDigit(ch)) {
-                StringBuilder literal = new StringBuilder();
-                while (LexerUtil.isDigit(ch) || ch == '.') {
-                    literal.append(ch);
-                    // 如果已经到达最后了，不能继续往后扫描
-                    if (currentPosition >= codeBufferSize - 1) {
-                        currentPosition++;
-                        break;
-                    }
-                    ch = code[++currentPosition];
-                }
-                tokens.add(new Token("NUMBER_LITERAL", literal.toString(), codeAxis));
-                continue;
-            }
-
-            // 如果当前字符是单个字符
-            HashSet<Character> singleTokens = new HashSet<>() {{
-                add('~');
-                add('%');
-                add('(');
-                add(')');
-                add('[');
-                add(']');
-                add('{');
-                add('}');
-                add(':');
-                add(';');
-                add('?');
-                add(',');
-            }};
-            if (singleTokens.contains(ch)) {
-                tokens.add(new Token(Character.toString(ch), codeAxis));
-                currentPosition++;
-                continue;
-            }
-
-            // 基本运算符
-            if (LexerUtil.basicOperatorName.containsKey(ch)) {
-                String name = LexerUtil.basicOperatorName.get(ch);
-                String nameFinal = name;
-                if (currentPosition < codeBufferSize - 1) {
-                    char nextChar = code[currentPosition + 1];
-                    if (nextChar == '=') {
-                        if (ch == '=') {
-                            currentPosition++;
-                            nameFinal = "IS_EQ";
-                        } else if (ch == '>') {
-                            currentPosition++;
-                            nameFinal = "GTE";
-                        } else if (ch == '<') {
-                            currentPosition++;
-                            nameFinal = "LTE";
-                        } else if (ch == '!') {
-                            currentPosition++;
-                            nameFinal = "IS_NEQ";
-                        }
-                    } else {
-                        if (nextChar == ch) {
-                            if (ch == '&' || ch == '|') {
-                                currentPosition++;
-                                nameFinal = name + "L";
-                            } else if (ch == '<') {
-                                currentPosition++;
-                                nameFinal = "SHL";
-                            } else if (ch == '>') {
-                                currentPosition++;
-                                nameFinal = "SHR";
-                            }
-                        }
-                    }
-                }
-                tokens.add(new Token(nameFinal, codeAxis));
-                currentPosition++;
-                continue;
+            } else {
+                frame.index++;
             }
-
-            // 非法字符
-            Panic panic = new Panic(String.format("Invalid character %s", ch), codeAxis);
-            panic.show();
+            this.buffer.add(kind, tokens.getSource(index), tokens.getStart(index), tokens.getLength(index), tokens.getValueId(index), tokens.getPayload(index));
+            return;
         }
+    }
 
-        tokens.add(new Token("$$", new CodeAxis()));
+    /**
+     * 从词法分析器中拉取下一个Token
+     * 连续出现的模块导入先全部提交预取，再依次展开，它们之后的第一个Token留在词法分析器中，展开完毕后再进入Token流
+     * @param frame 由词法分析器读取的模块
+     * @return 有Token追加到缓冲区时返回true，展开了模块导入时返回false
+     */
+    private boolean pullFromLexer(Frame frame) {
+        if (!frame.includes.isEmpty()) {
+            this.expand(frame.includes.poll());
+            return false;
+        }
+        Lexer lexer = frame.lexer;
+        int kind = frame.pending ? lexer.getKind() : lexer.next();
+        frame.pending = false;
+        if (kind == TokenKind.INCLUDE) {
+            do {
+                frame.includes.add(lexer.getValue());
+                this.includeGraph.prefetch(lexer.getValue());
+            } while (lexer.next() == TokenKind.INCLUDE);
+            frame.pending = true;
+            return false;
+        }
+        if (kind == TokenKind.END_OF_FILE && lexer.getError() != null) {
+            lexer.getError().show();
+        }
+        this.buffer.add(lexer);
+        return true;
     }
 
     /**
-     * 获取所有Token
-     * @return 所有的Token
+     * 展开模块导入，已经展开过的模块会被忽略
+     * @param includePath 导入路径
      */
-    public ArrayList<Token> getTokens() {
-        return this.tokens;
+    private void expand(String includePath) {
+        String canonicalPath = this.includeGraph.resolve(includePath);
+        if (this.visitedPaths.add(canonicalPath)) {
+            this.includedPaths.add(canonicalPath);
+            this.frames.push(new Frame(includePath));
+        }
     }
 
     /**
-     * 用于调试，把tokens转换为字符串，用于输出
-     * @return 所有Token的字符串形式
+     * 保证缓冲区中至少有count个尚未取走的Token
+     * @param count Token个数
      */
-    @Override
-    public String toString() {
-        StringBuilder str = new StringBuilder();
-        for (Token token : this.tokens) {
-            str.append(String.format("(%s, %s)\n", token.name, token.value));
+    private void fill(int count) {
+        if (this.bufferHead == this.buffer.size()) {
+            // 缓冲区中的Token已经全部被取走，复用缓冲区的空间
+            this.buffer.clear();
+            this.bufferHead = 0;
+        }
+        while (this.buffer.size() - this.bufferHead < count) {
+            this.pull();
         }
-        return str.toString();
     }
 
     /**
@@ -403,7 +303,17 @@ public class TokenStream {
      */
     public boolean isFinished() {
         // 注意结尾的文末符号$$不纳入计算范围
-        return this.tokenPointer >= this.tokens.size() - 1;
+        return this.lookAheadKind() == TokenKind.END_OF_FILE;
+    }
+
+    /**
+     * 跳过下一个token
+     * 文件尾符号$$不会被跳过
+     */
+    public void skip() {
+        if (this.lookAheadKind() != TokenKind.END_OF_FILE) {
+            this.bufferHead++;
+        }
     }
 
     /**
@@ -411,30 +321,44 @@ public class TokenStream {
      * @return 下一个Token
      */
     public Token next() {
-        return this.tokens.get(this.tokenPointer++);
+        Token token = this.lookAhead();
+        this.skip();
+        return token;
     }
 
     /**
-     * 获取向前看Token的值
-     * @return 向前看token的值
+     * 获取向前看Token的种类，不会生成Token对象
+     * @return 向前看token的种类
      */
-    public Token lookAhead() {
-        return this.tokens.get(this.tokenPointer);
+    public int lookAheadKind() {
+        return this.lookAheadKind(0);
     }
 
     /**
-     * 获取当前指针位置
-     * @return 指针位置
+     * 获取向前看第distance个Token的种类，不会生成Token对象
+     * @param distance 向前看的距离，0表示下一个Token
+     * @return 向前看token的种类
      */
-    public int getTokenPointer() {
-        return this.tokenPointer;
+    public int lookAheadKind(int distance) {
+        this.fill(distance + 1);
+        return this.buffer.getKind(this.bufferHead + distance);
     }
 
     /**
-     * 设定当前指针位置
-     * @param tokenPointer 设定的指针位置
+     * 获取向前看Token的值
+     * @return 向前看token的值
+     */
+    public Token lookAhead() {
+        return this.lookAhead(0);
+    }
+
+    /**
+     * 获取向前看第distance个Token的值
+     * @param distance 向前看的距离，0表示下一个Token
+     * @return 向前看token的值
      */
-    public void setTokenPointer(int tokenPointer) {
-        this.tokenPointer = tokenPointer;
+    public Token lookAhead(int distance) {
+        this.fill(distance + 1);
+        return this.buffer.getToken(this.bufferHead + distance);
     }
 }
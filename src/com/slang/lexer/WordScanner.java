@@ -0,0 +1,168 @@
+package com.slang.lexer;
+
+/**
+ * 按字扫描源文件
+ * 一次从源文件中读取8个字节组成一个long（SWAR，SIMD within a register），用位运算同时判断8个字节的类别，
+ * 用于快速跳过空白字符、查找注释结尾的换行符、查找标识符和数字的结尾。
+ * 所有判断只对ASCII字节成立，大于0x7F的字节（UTF-8多字节字符）一律视为不属于任何类别。
+ * 剩余不足8个字节时退回到逐字节扫描
+ */
+class WordScanner {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * 是否按字扫描，为false时全部逐字节扫描，用于对比测试
+     */
+    static boolean enabled = true;
+
+    /**
+     * 把一个字节复制到long的每个字节上
+     */
+    private static long broadcast(int value) {
+        return ONES * value;
+    }
+
+    /**
+     * 找出等于某个值的字节
+     * @param word 8个字节
+     * @param value 复制到每个字节上的值
+     * @return 等于该值的字节最高位为1，其余位为0
+     */
+    private static long equal(long word, long value) {
+        long x = word ^ value;
+        return ~(((x & LOWS) + LOWS) | x | LOWS);
+    }
+
+    /**
+     * 找出在[low, high]范围内的ASCII字节
+     * 先去掉每个字节的最高位，加法不会在字节之间产生进位
+     * @return 在范围内的字节最高位为1，其余位为0
+     */
+    private static long between(long word, int low, int high) {
+        long x = word & LOWS;
+        long notLess = x + WordScanner.broadcast(0x80 - low);
+        long notGreater = ~(x + WordScanner.broadcast(0x7F - high));
+        return notLess & notGreater & ~word & HIGHS;
+    }
+
+    /**
+     * 第一个最高位为1的字节在long中的下标（小端序，即在源文件中的先后顺序）
+     */
+    private static int firstByte(long mask) {
+        return Long.numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    private static long whitespaces(long word) {
+        return WordScanner.equal(word, WordScanner.broadcast(' ')) | WordScanner.equal(word, WordScanner.broadcast('\n'))
+                | WordScanner.equal(word, WordScanner.broadcast('\t')) | WordScanner.equal(word, WordScanner.broadcast('\r'));
+    }
+
+    private static long identifierParts(long word) {
+        // 大写字母或上0x20后恰好落入小写字母的范围
+        return WordScanner.between(word | WordScanner.broadcast(0x20), 'a', 'z') | WordScanner.between(word, '0', '9')
+                | WordScanner.equal(word, WordScanner.broadcast('_'));
+    }
+
+    private static long numberParts(long word) {
+        return WordScanner.between(word, '0', '9') | WordScanner.equal(word, WordScanner.broadcast('.'));
+    }
+
+    /**
+     * 跳过空白字符
+     * @param source 源文件
+     * @param position 开始的字节偏移
+     * @return 第一个不是空白字符的字节偏移，没有时为文件大小
+     */
+    static int skipWhitespaces(SourceFile source, int position) {
+        int size = source.size();
+        // Token之间通常只有一个空白字符，先逐字节判断一次，避免为此读取整个字
+        if (position < size && !LexerUtil.isEmptyChar(source.charAt(position))) {
+            return position;
+        }
+        if (WordScanner.enabled) {
+            while (position + Long.BYTES <= size) {
+                long others = ~WordScanner.whitespaces(source.wordAt(position)) & HIGHS;
+                if (others != 0) {
+                    return position + WordScanner.firstByte(others);
+                }
+                position += Long.BYTES;
+            }
+        }
+        while (position < size && LexerUtil.isEmptyChar(source.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * 查找换行符
+     * @param source 源文件
+     * @param position 开始的字节偏移
+     * @return 第一个换行符的字节偏移，没有时为文件大小
+     */
+    static int findNewline(SourceFile source, int position) {
+        int size = source.size();
+        if (WordScanner.enabled) {
+            long newlines = WordScanner.broadcast('\n');
+            while (position + Long.BYTES <= size) {
+                long found = WordScanner.equal(source.wordAt(position), newlines);
+                if (found != 0) {
+                    return position + WordScanner.firstByte(found);
+                }
+                position += Long.BYTES;
+            }
+        }
+        while (position < size && source.charAt(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * 查找标识符的结尾
+     * @param source 源文件
+     * @param position 开始的字节偏移
+     * @return 第一个不能出现在标识符中的字节偏移，没有时为文件大小
+     */
+    static int skipIdentifierParts(SourceFile source, int position) {
+        int size = source.size();
+        if (WordScanner.enabled) {
+            while (position + Long.BYTES <= size) {
+                long others = ~WordScanner.identifierParts(source.wordAt(position)) & HIGHS;
+                if (others != 0) {
+                    return position + WordScanner.firstByte(others);
+                }
+                position += Long.BYTES;
+            }
+        }
+        while (position < size && LexerUtil.isIdentifierPart(source.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * 查找数字字面量的结尾
+     * @param source 源文件
+     * @param position 开始的字节偏移
+     * @return 第一个不是数码或小数点的字节偏移，没有时为文件大小
+     */
+    static int skipNumberParts(SourceFile source, int position) {
+        int size = source.size();
+        if (WordScanner.enabled) {
+            while (position + Long.BYTES <= size) {
+                long others = ~WordScanner.numberParts(source.wordAt(position)) & HIGHS;
+                if (others != 0) {
+                    return position + WordScanner.firstByte(others);
+                }
+                position += Long.BYTES;
+            }
+        }
+        while (position < size && (LexerUtil.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+            position++;
+        }
+        return position;
+    }
+}
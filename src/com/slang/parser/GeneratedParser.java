@@ -0,0 +1,1978 @@
+package com.slang.parser;
+
+import com.slang.lexer.TokenStream;
+import com.slang.parser.symbol.*;
+
+/**
+ * 由ParserGenerator根据文法生成的递归下降语法分析器，不要手动修改
+ * 修改文法之后需要使用-p重新生成
+ */
+public class GeneratedParser extends RecursiveDescentParser {
+    public static final long GRAMMAR_HASH = 0xf4fb9f604ab4d7a8L;
+
+    private static final String[] TERMINAL_NAMES = {
+        "FUNC",
+        "ID",
+        "(",
+        ")",
+        ",",
+        ";",
+        "NUMBER_LITERAL",
+        "FLOAT_LITERAL",
+        "STRING_LITERAL",
+        "CHAR_LITERAL",
+        "TRUE",
+        "FALSE",
+        "[",
+        "]",
+        "SIZEOF",
+        "SUB",
+        "NOT",
+        "PROD",
+        "DIV",
+        "%",
+        "PLUS",
+        "SHL",
+        "SHR",
+        "LT",
+        "GT",
+        "LTE",
+        "GTE",
+        "IS_EQ",
+        "IS_NEQ",
+        "AND",
+        "XOR",
+        "OR",
+        "ANDL",
+        "ORL",
+        "EQ",
+        "{",
+        "}",
+        "VAR",
+        "IF",
+        "ELSE",
+        "FOR",
+        "WHILE",
+        "BREAK",
+        "CONTINUE",
+        "PRINTK",
+        "__SVM__",
+        "RET",
+        "$$"
+    };
+    private static final int[] TERMINALS = RecursiveDescentParser.mapTerminals(TERMINAL_NAMES);
+
+    private static final Epsilon SYMBOL_3 = GrammarSymbolFactory.epsilon();
+    private static final Terminal SYMBOL_5 = GrammarSymbolFactory.terminal("FUNC", false);
+    private static final Terminal SYMBOL_6 = GrammarSymbolFactory.terminal("ID", true);
+    private static final Terminal SYMBOL_7 = GrammarSymbolFactory.terminal("(", false);
+    private static final Terminal SYMBOL_9 = GrammarSymbolFactory.terminal(")", false);
+    private static final Terminal SYMBOL_13 = GrammarSymbolFactory.terminal(",", false);
+    private static final Terminal SYMBOL_15 = GrammarSymbolFactory.terminal(";", false);
+    private static final Terminal SYMBOL_16 = GrammarSymbolFactory.terminal("NUMBER_LITERAL", true);
+    private static final Terminal SYMBOL_17 = GrammarSymbolFactory.terminal("FLOAT_LITERAL", true);
+    private static final Terminal SYMBOL_18 = GrammarSymbolFactory.terminal("STRING_LITERAL", true);
+    private static final Terminal SYMBOL_19 = GrammarSymbolFactory.terminal("CHAR_LITERAL", true);
+    private static final Terminal SYMBOL_20 = GrammarSymbolFactory.terminal("TRUE", true);
+    private static final Terminal SYMBOL_21 = GrammarSymbolFactory.terminal("FALSE", true);
+    private static final Terminal SYMBOL_24 = GrammarSymbolFactory.terminal("[", true);
+    private static final Terminal SYMBOL_26 = GrammarSymbolFactory.terminal("]", false);
+    private static final Terminal SYMBOL_27 = GrammarSymbolFactory.terminal("SIZEOF", false);
+    private static final Terminal SYMBOL_30 = GrammarSymbolFactory.terminal("[", false);
+    private static final Terminal SYMBOL_32 = GrammarSymbolFactory.terminal("SUB", true);
+    private static final Terminal SYMBOL_34 = GrammarSymbolFactory.terminal("NOT", true);
+    private static final Terminal SYMBOL_36 = GrammarSymbolFactory.terminal("PROD", true);
+    private static final Terminal SYMBOL_37 = GrammarSymbolFactory.terminal("DIV", true);
+    private static final Terminal SYMBOL_38 = GrammarSymbolFactory.terminal("%", true);
+    private static final Terminal SYMBOL_41 = GrammarSymbolFactory.terminal("PLUS", true);
+    private static final Terminal SYMBOL_44 = GrammarSymbolFactory.terminal("SHL", true);
+    private static final Terminal SYMBOL_45 = GrammarSymbolFactory.terminal("SHR", true);
+    private static final Terminal SYMBOL_48 = GrammarSymbolFactory.terminal("LT", true);
+    private static final Terminal SYMBOL_49 = GrammarSymbolFactory.terminal("GT", true);
+    private static final Terminal SYMBOL_50 = GrammarSymbolFactory.terminal("LTE", true);
+    private static final Terminal SYMBOL_51 = GrammarSymbolFactory.terminal("GTE", true);
+    private static final Terminal SYMBOL_54 = GrammarSymbolFactory.terminal("IS_EQ", true);
+    private static final Terminal SYMBOL_55 = GrammarSymbolFactory.terminal("IS_NEQ", true);
+    private static final Terminal SYMBOL_58 = GrammarSymbolFactory.terminal("AND", true);
+    private static final Terminal SYMBOL_61 = GrammarSymbolFactory.terminal("XOR", true);
+    private static final Terminal SYMBOL_64 = GrammarSymbolFactory.terminal("OR", true);
+    private static final Terminal SYMBOL_67 = GrammarSymbolFactory.terminal("ANDL", true);
+    private static final Terminal SYMBOL_70 = GrammarSymbolFactory.terminal("ORL", true);
+    private static final Terminal SYMBOL_73 = GrammarSymbolFactory.terminal("EQ", true);
+    private static final Terminal SYMBOL_76 = GrammarSymbolFactory.terminal("{", false);
+    private static final Terminal SYMBOL_77 = GrammarSymbolFactory.terminal("}", false);
+    private static final Terminal SYMBOL_79 = GrammarSymbolFactory.terminal("VAR", false);
+    private static final Terminal SYMBOL_85 = GrammarSymbolFactory.terminal("EQ", false);
+    private static final Terminal SYMBOL_86 = GrammarSymbolFactory.terminal("IF", true);
+    private static final Terminal SYMBOL_88 = GrammarSymbolFactory.terminal("ELSE", false);
+    private static final Terminal SYMBOL_89 = GrammarSymbolFactory.terminal("FOR", false);
+    private static final Terminal SYMBOL_91 = GrammarSymbolFactory.terminal("WHILE", false);
+    private static final Terminal SYMBOL_92 = GrammarSymbolFactory.terminal("BREAK", true);
+    private static final Terminal SYMBOL_93 = GrammarSymbolFactory.terminal("CONTINUE", true);
+    private static final Terminal SYMBOL_94 = GrammarSymbolFactory.terminal("PRINTK", false);
+    private static final Terminal SYMBOL_95 = GrammarSymbolFactory.terminal("__SVM__", false);
+    private static final Terminal SYMBOL_97 = GrammarSymbolFactory.terminal("AND", false);
+    private static final Terminal SYMBOL_98 = GrammarSymbolFactory.terminal("RET", true);
+    private static final NonTerminal NON_TERMINAL_0 = GrammarSymbolFactory.nonTerminal("SLang");
+    private static final NonTerminal NON_TERMINAL_1 = GrammarSymbolFactory.nonTerminal("Program");
+    private static final NonTerminal NON_TERMINAL_2 = GrammarSymbolFactory.nonTerminal("Element");
+    private static final NonTerminal NON_TERMINAL_3 = GrammarSymbolFactory.nonTerminal("FormalParameterList");
+    private static final NonTerminal NON_TERMINAL_4 = GrammarSymbolFactory.nonTerminal("FormalParameterListSuffix");
+    private static final NonTerminal NON_TERMINAL_5 = GrammarSymbolFactory.nonTerminal("FormalParameterDeclarator");
+    private static final NonTerminal NON_TERMINAL_6 = GrammarSymbolFactory.nonTerminal("FunctionBody");
+    private static final NonTerminal NON_TERMINAL_7 = GrammarSymbolFactory.nonTerminal("PrimaryExpression");
+    private static final NonTerminal NON_TERMINAL_8 = GrammarSymbolFactory.nonTerminal("CommaSeparatedExpression");
+    private static final NonTerminal NON_TERMINAL_9 = GrammarSymbolFactory.nonTerminal("CommaSeparatedExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_10 = GrammarSymbolFactory.nonTerminal("MemberExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_11 = GrammarSymbolFactory.nonTerminal("ArrayMemberExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_12 = GrammarSymbolFactory.nonTerminal("UnaryExpression");
+    private static final NonTerminal NON_TERMINAL_13 = GrammarSymbolFactory.nonTerminal("MultiplyingExpression");
+    private static final NonTerminal NON_TERMINAL_14 = GrammarSymbolFactory.nonTerminal("MultiplyingExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_15 = GrammarSymbolFactory.nonTerminal("LinearExpression");
+    private static final NonTerminal NON_TERMINAL_16 = GrammarSymbolFactory.nonTerminal("LinearExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_17 = GrammarSymbolFactory.nonTerminal("ShiftExpression");
+    private static final NonTerminal NON_TERMINAL_18 = GrammarSymbolFactory.nonTerminal("ShiftExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_19 = GrammarSymbolFactory.nonTerminal("CompareExpression");
+    private static final NonTerminal NON_TERMINAL_20 = GrammarSymbolFactory.nonTerminal("CompareExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_21 = GrammarSymbolFactory.nonTerminal("EqualityExpression");
+    private static final NonTerminal NON_TERMINAL_22 = GrammarSymbolFactory.nonTerminal("EqualityExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_23 = GrammarSymbolFactory.nonTerminal("BitwiseAndExpression");
+    private static final NonTerminal NON_TERMINAL_24 = GrammarSymbolFactory.nonTerminal("BitwiseAndExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_25 = GrammarSymbolFactory.nonTerminal("BitwiseXorExpression");
+    private static final NonTerminal NON_TERMINAL_26 = GrammarSymbolFactory.nonTerminal("BitwiseXorExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_27 = GrammarSymbolFactory.nonTerminal("BitwiseOrExpression");
+    private static final NonTerminal NON_TERMINAL_28 = GrammarSymbolFactory.nonTerminal("BitwiseOrExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_29 = GrammarSymbolFactory.nonTerminal("BitwiseLogicalAndExpression");
+    private static final NonTerminal NON_TERMINAL_30 = GrammarSymbolFactory.nonTerminal("BitwiseLogicalAndExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_31 = GrammarSymbolFactory.nonTerminal("BitwiseLogicalOrExpression");
+    private static final NonTerminal NON_TERMINAL_32 = GrammarSymbolFactory.nonTerminal("BitwiseLogicalOrExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_33 = GrammarSymbolFactory.nonTerminal("AssignExpression");
+    private static final NonTerminal NON_TERMINAL_34 = GrammarSymbolFactory.nonTerminal("AssignExpressionSuffix");
+    private static final NonTerminal NON_TERMINAL_35 = GrammarSymbolFactory.nonTerminal("Expression");
+    private static final NonTerminal NON_TERMINAL_36 = GrammarSymbolFactory.nonTerminal("ExpressionOpt");
+    private static final NonTerminal NON_TERMINAL_37 = GrammarSymbolFactory.nonTerminal("Statements");
+    private static final NonTerminal NON_TERMINAL_38 = GrammarSymbolFactory.nonTerminal("CompoundStatement");
+    private static final NonTerminal NON_TERMINAL_39 = GrammarSymbolFactory.nonTerminal("Statement");
+    private static final NonTerminal NON_TERMINAL_40 = GrammarSymbolFactory.nonTerminal("VariableDeclaratorList");
+    private static final NonTerminal NON_TERMINAL_41 = GrammarSymbolFactory.nonTerminal("VariableDeclaratorListSuffix");
+    private static final NonTerminal NON_TERMINAL_42 = GrammarSymbolFactory.nonTerminal("VariableDeclarator");
+    private static final NonTerminal NON_TERMINAL_43 = GrammarSymbolFactory.nonTerminal("VariableArraySizeDeclarator");
+    private static final NonTerminal NON_TERMINAL_44 = GrammarSymbolFactory.nonTerminal("InitializerDeclarator");
+    private static final NonTerminal NON_TERMINAL_45 = GrammarSymbolFactory.nonTerminal("ArrayDimension");
+    private static final NonTerminal NON_TERMINAL_46 = GrammarSymbolFactory.nonTerminal("ElseStatement");
+    private static final NonTerminal NON_TERMINAL_47 = GrammarSymbolFactory.nonTerminal("OpcodeParam");
+    private static final NonTerminal NON_TERMINAL_48 = GrammarSymbolFactory.nonTerminal("ReturnValue");
+
+    public GeneratedParser(TokenStream tokenStream) {
+        super(tokenStream, TERMINALS);
+    }
+
+    @Override
+    public ParseTreeNode buildParseTree() {
+        ParseTreeNode root = null;
+        switch (this.lookAhead()) {
+            case 0: // FUNC
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+            case 35: // {
+            case 37: // VAR
+            case 38: // IF
+            case 40: // FOR
+            case 41: // WHILE
+            case 42: // BREAK
+            case 43: // CONTINUE
+            case 44: // PRINTK
+            case 45: // __SVM__
+            case 46: // RET
+            case 47: // $$
+                root = new ParseTreeNode(NON_TERMINAL_0, "Main", 0);
+                break;
+            default:
+                this.unexpected();
+        }
+        this.parseSLang(root);
+        this.finish();
+        return root;
+    }
+
+    /**
+     * <SLang>
+     */
+    private void parseSLang(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 0: // FUNC
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+            case 35: // {
+            case 37: // VAR
+            case 38: // IF
+            case 40: // FOR
+            case 41: // WHILE
+            case 42: // BREAK
+            case 43: // CONTINUE
+            case 44: // PRINTK
+            case 45: // __SVM__
+            case 46: // RET
+            case 47: // $$
+                node = new ParseTreeNode(NON_TERMINAL_0, "Main", 0);
+                parent.addChild(node);
+                this.parseProgram(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <Program>
+     */
+    private void parseProgram(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 0: // FUNC
+                case 1: // ID
+                case 2: // (
+                case 6: // NUMBER_LITERAL
+                case 7: // FLOAT_LITERAL
+                case 8: // STRING_LITERAL
+                case 9: // CHAR_LITERAL
+                case 10: // TRUE
+                case 11: // FALSE
+                case 12: // [
+                case 14: // SIZEOF
+                case 15: // SUB
+                case 16: // NOT
+                case 35: // {
+                case 37: // VAR
+                case 38: // IF
+                case 40: // FOR
+                case 41: // WHILE
+                case 42: // BREAK
+                case 43: // CONTINUE
+                case 44: // PRINTK
+                case 45: // __SVM__
+                case 46: // RET
+                    node = new ParseTreeNode(NON_TERMINAL_1, "Main", 1);
+                    parent.addChild(node);
+                    this.parseElement(node);
+                    parent = node;
+                    continue;
+                case 47: // $$
+                    node = new ParseTreeNode(NON_TERMINAL_1, "Epsilon", 2);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <Element>
+     */
+    private void parseElement(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+            case 35: // {
+            case 37: // VAR
+            case 38: // IF
+            case 40: // FOR
+            case 41: // WHILE
+            case 42: // BREAK
+            case 43: // CONTINUE
+            case 44: // PRINTK
+            case 45: // __SVM__
+            case 46: // RET
+                node = new ParseTreeNode(NON_TERMINAL_2, "Common", 3);
+                parent.addChild(node);
+                this.parseStatement(node);
+                return;
+            case 0: // FUNC
+                node = new ParseTreeNode(NON_TERMINAL_2, "FunctionDeclaration", 4);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.match(node, 1, SYMBOL_6); // ID
+                this.match(node, 1, SYMBOL_6); // ID
+                this.match(node, 2, SYMBOL_7); // (
+                this.parseFormalParameterList(node);
+                this.match(node, 3, SYMBOL_9); // )
+                this.parseFunctionBody(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <FormalParameterList>
+     */
+    private void parseFormalParameterList(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+                node = new ParseTreeNode(NON_TERMINAL_3, "Main", 5);
+                parent.addChild(node);
+                this.parseFormalParameterDeclarator(node);
+                this.parseFormalParameterListSuffix(node);
+                return;
+            case 3: // )
+                node = new ParseTreeNode(NON_TERMINAL_3, "Epsilon", 6);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <FormalParameterListSuffix>
+     */
+    private void parseFormalParameterListSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 4: // ,
+                    node = new ParseTreeNode(NON_TERMINAL_4, "Main", 7);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseFormalParameterDeclarator(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                    node = new ParseTreeNode(NON_TERMINAL_4, "Epsilon", 8);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <FormalParameterDeclarator>
+     */
+    private void parseFormalParameterDeclarator(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+                node = new ParseTreeNode(NON_TERMINAL_5, "Main", 9);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_6, this.tokenStream.next()));
+                this.match(node, 1, SYMBOL_6); // ID
+                this.parseVariableArraySizeDeclarator(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <FunctionBody>
+     */
+    private void parseFunctionBody(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+            case 35: // {
+            case 37: // VAR
+            case 38: // IF
+            case 40: // FOR
+            case 41: // WHILE
+            case 42: // BREAK
+            case 43: // CONTINUE
+            case 44: // PRINTK
+            case 45: // __SVM__
+            case 46: // RET
+                node = new ParseTreeNode(NON_TERMINAL_6, "Main", 10);
+                parent.addChild(node);
+                this.parseStatement(node);
+                return;
+            case 5: // ;
+                node = new ParseTreeNode(NON_TERMINAL_6, "Empty", 11);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <PrimaryExpression>
+     */
+    private void parsePrimaryExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 6: // NUMBER_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_7, "NumberLiteral", 12);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_16, this.tokenStream.next()));
+                return;
+            case 7: // FLOAT_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_7, "FloatLiteral", 13);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_17, this.tokenStream.next()));
+                return;
+            case 8: // STRING_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_7, "StringLiteral", 14);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_18, this.tokenStream.next()));
+                return;
+            case 9: // CHAR_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_7, "CharLiteral", 15);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_19, this.tokenStream.next()));
+                return;
+            case 10: // TRUE
+                node = new ParseTreeNode(NON_TERMINAL_7, "TrueLiteral", 16);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_20, this.tokenStream.next()));
+                return;
+            case 11: // FALSE
+                node = new ParseTreeNode(NON_TERMINAL_7, "FalseLiteral", 17);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_21, this.tokenStream.next()));
+                return;
+            case 1: // ID
+                node = new ParseTreeNode(NON_TERMINAL_7, "Identifier", 18);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_6, this.tokenStream.next()));
+                this.parseMemberExpressionSuffix(node);
+                return;
+            case 2: // (
+                node = new ParseTreeNode(NON_TERMINAL_7, "Brackets", 19);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseExpression(node);
+                this.match(node, 3, SYMBOL_9); // )
+                return;
+            case 12: // [
+                node = new ParseTreeNode(NON_TERMINAL_7, "Array", 20);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_24, this.tokenStream.next()));
+                this.parseCommaSeparatedExpression(node);
+                this.match(node, 13, SYMBOL_26); // ]
+                return;
+            case 14: // SIZEOF
+                node = new ParseTreeNode(NON_TERMINAL_7, "SizeOf", 21);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.match(node, 2, SYMBOL_7); // (
+                this.parsePrimaryExpression(node);
+                this.match(node, 3, SYMBOL_9); // )
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <CommaSeparatedExpression>
+     */
+    private void parseCommaSeparatedExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_8, "Main", 22);
+                parent.addChild(node);
+                this.parseExpression(node);
+                this.parseCommaSeparatedExpressionSuffix(node);
+                return;
+            case 3: // )
+            case 13: // ]
+                node = new ParseTreeNode(NON_TERMINAL_8, "Epsilon", 23);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <CommaSeparatedExpressionSuffix>
+     */
+    private void parseCommaSeparatedExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 4: // ,
+                    node = new ParseTreeNode(NON_TERMINAL_9, "Main", 24);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 13: // ]
+                    node = new ParseTreeNode(NON_TERMINAL_9, "Epsilon", 25);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <MemberExpressionSuffix>
+     */
+    private void parseMemberExpressionSuffix(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 3: // )
+            case 4: // ,
+            case 5: // ;
+            case 13: // ]
+            case 15: // SUB
+            case 17: // PROD
+            case 18: // DIV
+            case 19: // %
+            case 20: // PLUS
+            case 21: // SHL
+            case 22: // SHR
+            case 23: // LT
+            case 24: // GT
+            case 25: // LTE
+            case 26: // GTE
+            case 27: // IS_EQ
+            case 28: // IS_NEQ
+            case 29: // AND
+            case 30: // XOR
+            case 31: // OR
+            case 32: // ANDL
+            case 33: // ORL
+            case 34: // EQ
+                node = new ParseTreeNode(NON_TERMINAL_10, "Epsilon", 26);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            case 12: // [
+                node = new ParseTreeNode(NON_TERMINAL_10, "Array", 27);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseExpression(node);
+                this.match(node, 13, SYMBOL_26); // ]
+                this.parseArrayMemberExpressionSuffix(node);
+                return;
+            case 2: // (
+                node = new ParseTreeNode(NON_TERMINAL_10, "FunctionArgs", 28);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseCommaSeparatedExpression(node);
+                this.match(node, 3, SYMBOL_9); // )
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ArrayMemberExpressionSuffix>
+     */
+    private void parseArrayMemberExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 12: // [
+                    node = new ParseTreeNode(NON_TERMINAL_11, "Main", 29);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseExpression(node);
+                    this.match(node, 13, SYMBOL_26); // ]
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 15: // SUB
+                case 17: // PROD
+                case 18: // DIV
+                case 19: // %
+                case 20: // PLUS
+                case 21: // SHL
+                case 22: // SHR
+                case 23: // LT
+                case 24: // GT
+                case 25: // LTE
+                case 26: // GTE
+                case 27: // IS_EQ
+                case 28: // IS_NEQ
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_11, "Epsilon", 30);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <UnaryExpression>
+     */
+    private void parseUnaryExpression(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 1: // ID
+                case 2: // (
+                case 6: // NUMBER_LITERAL
+                case 7: // FLOAT_LITERAL
+                case 8: // STRING_LITERAL
+                case 9: // CHAR_LITERAL
+                case 10: // TRUE
+                case 11: // FALSE
+                case 12: // [
+                case 14: // SIZEOF
+                    node = new ParseTreeNode(NON_TERMINAL_12, "Primary", 31);
+                    parent.addChild(node);
+                    this.parsePrimaryExpression(node);
+                    return;
+                case 15: // SUB
+                    node = new ParseTreeNode(NON_TERMINAL_12, "Negative", 32);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_32, this.tokenStream.next()));
+                    parent = node;
+                    continue;
+                case 16: // NOT
+                    node = new ParseTreeNode(NON_TERMINAL_12, "Not", 33);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_34, this.tokenStream.next()));
+                    parent = node;
+                    continue;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <MultiplyingExpression>
+     */
+    private void parseMultiplyingExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_13, "Main", 34);
+                parent.addChild(node);
+                this.parseUnaryExpression(node);
+                this.parseMultiplyingExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <MultiplyingExpressionSuffix>
+     */
+    private void parseMultiplyingExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 17: // PROD
+                    node = new ParseTreeNode(NON_TERMINAL_14, "Product", 35);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_36, this.tokenStream.next()));
+                    this.parseUnaryExpression(node);
+                    parent = node;
+                    continue;
+                case 18: // DIV
+                    node = new ParseTreeNode(NON_TERMINAL_14, "Division", 36);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_37, this.tokenStream.next()));
+                    this.parseUnaryExpression(node);
+                    parent = node;
+                    continue;
+                case 19: // %
+                    node = new ParseTreeNode(NON_TERMINAL_14, "Mod", 37);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_38, this.tokenStream.next()));
+                    this.parseUnaryExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 15: // SUB
+                case 20: // PLUS
+                case 21: // SHL
+                case 22: // SHR
+                case 23: // LT
+                case 24: // GT
+                case 25: // LTE
+                case 26: // GTE
+                case 27: // IS_EQ
+                case 28: // IS_NEQ
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_14, "Epsilon", 38);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <LinearExpression>
+     */
+    private void parseLinearExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_15, "Main", 39);
+                parent.addChild(node);
+                this.parseMultiplyingExpression(node);
+                this.parseLinearExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <LinearExpressionSuffix>
+     */
+    private void parseLinearExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 20: // PLUS
+                    node = new ParseTreeNode(NON_TERMINAL_16, "Plus", 40);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_41, this.tokenStream.next()));
+                    this.parseMultiplyingExpression(node);
+                    parent = node;
+                    continue;
+                case 15: // SUB
+                    node = new ParseTreeNode(NON_TERMINAL_16, "Sub", 41);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_32, this.tokenStream.next()));
+                    this.parseMultiplyingExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 21: // SHL
+                case 22: // SHR
+                case 23: // LT
+                case 24: // GT
+                case 25: // LTE
+                case 26: // GTE
+                case 27: // IS_EQ
+                case 28: // IS_NEQ
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_16, "Epsilon", 42);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <ShiftExpression>
+     */
+    private void parseShiftExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_17, "Main", 43);
+                parent.addChild(node);
+                this.parseLinearExpression(node);
+                this.parseShiftExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ShiftExpressionSuffix>
+     */
+    private void parseShiftExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 21: // SHL
+                    node = new ParseTreeNode(NON_TERMINAL_18, "ShiftLeft", 44);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_44, this.tokenStream.next()));
+                    this.parseLinearExpression(node);
+                    parent = node;
+                    continue;
+                case 22: // SHR
+                    node = new ParseTreeNode(NON_TERMINAL_18, "ShiftRight", 45);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_45, this.tokenStream.next()));
+                    this.parseLinearExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 23: // LT
+                case 24: // GT
+                case 25: // LTE
+                case 26: // GTE
+                case 27: // IS_EQ
+                case 28: // IS_NEQ
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_18, "Epsilon", 46);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <CompareExpression>
+     */
+    private void parseCompareExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_19, "Main", 47);
+                parent.addChild(node);
+                this.parseShiftExpression(node);
+                this.parseCompareExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <CompareExpressionSuffix>
+     */
+    private void parseCompareExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 23: // LT
+                    node = new ParseTreeNode(NON_TERMINAL_20, "LessThan", 48);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_48, this.tokenStream.next()));
+                    this.parseShiftExpression(node);
+                    parent = node;
+                    continue;
+                case 24: // GT
+                    node = new ParseTreeNode(NON_TERMINAL_20, "GreaterThan", 49);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_49, this.tokenStream.next()));
+                    this.parseShiftExpression(node);
+                    parent = node;
+                    continue;
+                case 25: // LTE
+                    node = new ParseTreeNode(NON_TERMINAL_20, "LessThanOrEqual", 50);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_50, this.tokenStream.next()));
+                    this.parseShiftExpression(node);
+                    parent = node;
+                    continue;
+                case 26: // GTE
+                    node = new ParseTreeNode(NON_TERMINAL_20, "GreaterThanOrEqual", 51);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_51, this.tokenStream.next()));
+                    this.parseShiftExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 27: // IS_EQ
+                case 28: // IS_NEQ
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_20, "Epsilon", 52);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <EqualityExpression>
+     */
+    private void parseEqualityExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_21, "Main", 53);
+                parent.addChild(node);
+                this.parseCompareExpression(node);
+                this.parseEqualityExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <EqualityExpressionSuffix>
+     */
+    private void parseEqualityExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 27: // IS_EQ
+                    node = new ParseTreeNode(NON_TERMINAL_22, "IsEqual", 54);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_54, this.tokenStream.next()));
+                    this.parseCompareExpression(node);
+                    parent = node;
+                    continue;
+                case 28: // IS_NEQ
+                    node = new ParseTreeNode(NON_TERMINAL_22, "IsNotEqual", 55);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_55, this.tokenStream.next()));
+                    this.parseCompareExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 29: // AND
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_22, "Epsilon", 56);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <BitwiseAndExpression>
+     */
+    private void parseBitwiseAndExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_23, "Main", 57);
+                parent.addChild(node);
+                this.parseEqualityExpression(node);
+                this.parseBitwiseAndExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <BitwiseAndExpressionSuffix>
+     */
+    private void parseBitwiseAndExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 29: // AND
+                    node = new ParseTreeNode(NON_TERMINAL_24, "And", 58);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_58, this.tokenStream.next()));
+                    this.parseEqualityExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 30: // XOR
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_24, "Epsilon", 59);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <BitwiseXorExpression>
+     */
+    private void parseBitwiseXorExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_25, "Main", 60);
+                parent.addChild(node);
+                this.parseBitwiseAndExpression(node);
+                this.parseBitwiseXorExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <BitwiseXorExpressionSuffix>
+     */
+    private void parseBitwiseXorExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 30: // XOR
+                    node = new ParseTreeNode(NON_TERMINAL_26, "Xor", 61);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_61, this.tokenStream.next()));
+                    this.parseBitwiseAndExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 31: // OR
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_26, "Epsilon", 62);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <BitwiseOrExpression>
+     */
+    private void parseBitwiseOrExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_27, "Main", 63);
+                parent.addChild(node);
+                this.parseBitwiseXorExpression(node);
+                this.parseBitwiseOrExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <BitwiseOrExpressionSuffix>
+     */
+    private void parseBitwiseOrExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 31: // OR
+                    node = new ParseTreeNode(NON_TERMINAL_28, "Or", 64);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_64, this.tokenStream.next()));
+                    this.parseBitwiseXorExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 32: // ANDL
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_28, "Epsilon", 65);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <BitwiseLogicalAndExpression>
+     */
+    private void parseBitwiseLogicalAndExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_29, "Main", 66);
+                parent.addChild(node);
+                this.parseBitwiseOrExpression(node);
+                this.parseBitwiseLogicalAndExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <BitwiseLogicalAndExpressionSuffix>
+     */
+    private void parseBitwiseLogicalAndExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 32: // ANDL
+                    node = new ParseTreeNode(NON_TERMINAL_30, "LogicalAnd", 67);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_67, this.tokenStream.next()));
+                    this.parseBitwiseOrExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 33: // ORL
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_30, "Epsilon", 68);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <BitwiseLogicalOrExpression>
+     */
+    private void parseBitwiseLogicalOrExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_31, "Main", 69);
+                parent.addChild(node);
+                this.parseBitwiseLogicalAndExpression(node);
+                this.parseBitwiseLogicalOrExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <BitwiseLogicalOrExpressionSuffix>
+     */
+    private void parseBitwiseLogicalOrExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 33: // ORL
+                    node = new ParseTreeNode(NON_TERMINAL_32, "LogicalOr", 70);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_70, this.tokenStream.next()));
+                    this.parseBitwiseLogicalAndExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_32, "Epsilon", 71);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <AssignExpression>
+     */
+    private void parseAssignExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_33, "Main", 72);
+                parent.addChild(node);
+                this.parseBitwiseLogicalOrExpression(node);
+                this.parseAssignExpressionSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <AssignExpressionSuffix>
+     */
+    private void parseAssignExpressionSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_34, "Assign", 73);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_73, this.tokenStream.next()));
+                    this.parseBitwiseLogicalOrExpression(node);
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 13: // ]
+                    node = new ParseTreeNode(NON_TERMINAL_34, "Epsilon", 74);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <Expression>
+     */
+    private void parseExpression(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_35, "Main", 75);
+                parent.addChild(node);
+                this.parseAssignExpression(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ExpressionOpt>
+     */
+    private void parseExpressionOpt(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_36, "Main", 76);
+                parent.addChild(node);
+                this.parseExpression(node);
+                return;
+            case 3: // )
+            case 5: // ;
+                node = new ParseTreeNode(NON_TERMINAL_36, "Epsilon", 77);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <Statements>
+     */
+    private void parseStatements(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 1: // ID
+                case 2: // (
+                case 6: // NUMBER_LITERAL
+                case 7: // FLOAT_LITERAL
+                case 8: // STRING_LITERAL
+                case 9: // CHAR_LITERAL
+                case 10: // TRUE
+                case 11: // FALSE
+                case 12: // [
+                case 14: // SIZEOF
+                case 15: // SUB
+                case 16: // NOT
+                case 35: // {
+                case 37: // VAR
+                case 38: // IF
+                case 40: // FOR
+                case 41: // WHILE
+                case 42: // BREAK
+                case 43: // CONTINUE
+                case 44: // PRINTK
+                case 45: // __SVM__
+                case 46: // RET
+                    node = new ParseTreeNode(NON_TERMINAL_37, "Main", 78);
+                    parent.addChild(node);
+                    this.parseStatement(node);
+                    parent = node;
+                    continue;
+                case 36: // }
+                    node = new ParseTreeNode(NON_TERMINAL_37, "Epsilon", 79);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <CompoundStatement>
+     */
+    private void parseCompoundStatement(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 35: // {
+                node = new ParseTreeNode(NON_TERMINAL_38, "Main", 80);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseStatements(node);
+                this.match(node, 36, SYMBOL_77); // }
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <Statement>
+     */
+    private void parseStatement(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 35: // {
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Compound", 81);
+                    parent.addChild(node);
+                    this.parseCompoundStatement(node);
+                    return;
+                case 37: // VAR
+                    node = new ParseTreeNode(NON_TERMINAL_39, "VariableDeclaration", 82);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.match(node, 1, SYMBOL_6); // ID
+                    this.parseVariableDeclaratorList(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 38: // IF
+                    node = new ParseTreeNode(NON_TERMINAL_39, "If", 93);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_86, this.tokenStream.next()));
+                    this.match(node, 2, SYMBOL_7); // (
+                    this.parseExpression(node);
+                    this.match(node, 3, SYMBOL_9); // )
+                    this.parseStatement(node);
+                    this.parseElseStatement(node);
+                    return;
+                case 40: // FOR
+                    node = new ParseTreeNode(NON_TERMINAL_39, "For", 96);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.match(node, 2, SYMBOL_7); // (
+                    this.parseExpressionOpt(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    this.parseExpressionOpt(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    this.parseExpressionOpt(node);
+                    this.match(node, 3, SYMBOL_9); // )
+                    parent = node;
+                    continue;
+                case 41: // WHILE
+                    node = new ParseTreeNode(NON_TERMINAL_39, "While", 97);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.match(node, 2, SYMBOL_7); // (
+                    this.parseExpression(node);
+                    this.match(node, 3, SYMBOL_9); // )
+                    parent = node;
+                    continue;
+                case 42: // BREAK
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Break", 98);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_92, this.tokenStream.next()));
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 43: // CONTINUE
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Continue", 99);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_93, this.tokenStream.next()));
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 1: // ID
+                case 2: // (
+                case 6: // NUMBER_LITERAL
+                case 7: // FLOAT_LITERAL
+                case 8: // STRING_LITERAL
+                case 9: // CHAR_LITERAL
+                case 10: // TRUE
+                case 11: // FALSE
+                case 12: // [
+                case 14: // SIZEOF
+                case 15: // SUB
+                case 16: // NOT
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Expression", 100);
+                    parent.addChild(node);
+                    this.parseExpression(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 44: // PRINTK
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Printk", 101);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseExpression(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 45: // __SVM__
+                    node = new ParseTreeNode(NON_TERMINAL_39, "WriteOpcode", 102);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.match(node, 1, SYMBOL_6); // ID
+                    this.parseOpcodeParam(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                case 46: // RET
+                    node = new ParseTreeNode(NON_TERMINAL_39, "Return", 106);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_98, this.tokenStream.next()));
+                    this.parseReturnValue(node);
+                    this.match(node, 5, SYMBOL_15); // ;
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <VariableDeclaratorList>
+     */
+    private void parseVariableDeclaratorList(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+                node = new ParseTreeNode(NON_TERMINAL_40, "Main", 83);
+                parent.addChild(node);
+                this.parseVariableDeclarator(node);
+                this.parseVariableDeclaratorListSuffix(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <VariableDeclaratorListSuffix>
+     */
+    private void parseVariableDeclaratorListSuffix(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 4: // ,
+                    node = new ParseTreeNode(NON_TERMINAL_41, "Main", 84);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseVariableDeclarator(node);
+                    parent = node;
+                    continue;
+                case 5: // ;
+                    node = new ParseTreeNode(NON_TERMINAL_41, "Epsilon", 85);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <VariableDeclarator>
+     */
+    private void parseVariableDeclarator(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+                node = new ParseTreeNode(NON_TERMINAL_42, "Main", 86);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_6, this.tokenStream.next()));
+                this.parseVariableArraySizeDeclarator(node);
+                this.parseInitializerDeclarator(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <VariableArraySizeDeclarator>
+     */
+    private void parseVariableArraySizeDeclarator(ParseTreeNode parent) {
+        while (true) {
+            ParseTreeNode node;
+            switch (this.lookAhead()) {
+                case 12: // [
+                    node = new ParseTreeNode(NON_TERMINAL_43, "Main", 87);
+                    parent.addChild(node);
+                    this.tokenStream.skip();
+                    this.parseArrayDimension(node);
+                    this.match(node, 13, SYMBOL_26); // ]
+                    parent = node;
+                    continue;
+                case 3: // )
+                case 4: // ,
+                case 5: // ;
+                case 34: // EQ
+                    node = new ParseTreeNode(NON_TERMINAL_43, "Epsilon", 88);
+                    parent.addChild(node);
+                    node.addChild(new ParseTreeNode(SYMBOL_3));
+                    return;
+                default:
+                    this.unexpected();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * <InitializerDeclarator>
+     */
+    private void parseInitializerDeclarator(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 34: // EQ
+                node = new ParseTreeNode(NON_TERMINAL_44, "Main", 89);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseExpression(node);
+                return;
+            case 4: // ,
+            case 5: // ;
+                node = new ParseTreeNode(NON_TERMINAL_44, "Epsilon", 90);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ArrayDimension>
+     */
+    private void parseArrayDimension(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 6: // NUMBER_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_45, "Main", 91);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_16, this.tokenStream.next()));
+                return;
+            case 13: // ]
+                node = new ParseTreeNode(NON_TERMINAL_45, "Epsilon", 92);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ElseStatement>
+     */
+    private void parseElseStatement(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 0: // FUNC
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+            case 35: // {
+            case 36: // }
+            case 37: // VAR
+            case 38: // IF
+            case 40: // FOR
+            case 41: // WHILE
+            case 42: // BREAK
+            case 43: // CONTINUE
+            case 44: // PRINTK
+            case 45: // __SVM__
+            case 46: // RET
+            case 47: // $$
+                node = new ParseTreeNode(NON_TERMINAL_46, "Epsilon", 94);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            case 39: // ELSE
+                node = new ParseTreeNode(NON_TERMINAL_46, "Main", 95);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.parseStatement(node);
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <OpcodeParam>
+     */
+    private void parseOpcodeParam(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 6: // NUMBER_LITERAL
+                node = new ParseTreeNode(NON_TERMINAL_47, "Main", 103);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_16, this.tokenStream.next()));
+                return;
+            case 29: // AND
+                node = new ParseTreeNode(NON_TERMINAL_47, "GetAddr", 104);
+                parent.addChild(node);
+                this.tokenStream.skip();
+                this.match(node, 1, SYMBOL_6); // ID
+                return;
+            case 5: // ;
+                node = new ParseTreeNode(NON_TERMINAL_47, "Epsilon", 105);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+
+    /**
+     * <ReturnValue>
+     */
+    private void parseReturnValue(ParseTreeNode parent) {
+        ParseTreeNode node;
+        switch (this.lookAhead()) {
+            case 1: // ID
+            case 2: // (
+            case 6: // NUMBER_LITERAL
+            case 7: // FLOAT_LITERAL
+            case 8: // STRING_LITERAL
+            case 9: // CHAR_LITERAL
+            case 10: // TRUE
+            case 11: // FALSE
+            case 12: // [
+            case 14: // SIZEOF
+            case 15: // SUB
+            case 16: // NOT
+                node = new ParseTreeNode(NON_TERMINAL_48, "Main", 107);
+                parent.addChild(node);
+                this.parseExpression(node);
+                return;
+            case 5: // ;
+                node = new ParseTreeNode(NON_TERMINAL_48, "Epsilon", 108);
+                parent.addChild(node);
+                node.addChild(new ParseTreeNode(SYMBOL_3));
+                return;
+            default:
+                this.unexpected();
+                return;
+        }
+    }
+}
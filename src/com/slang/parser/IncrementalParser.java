@@ -0,0 +1,433 @@
+package com.slang.parser;
+
+import com.slang.lexer.CodeAxis;
+import com.slang.lexer.IncludeGraph;
+import com.slang.lexer.IncrementalLexer;
+import com.slang.lexer.LexedModule;
+import com.slang.lexer.TokenBuffer;
+import com.slang.lexer.TokenKind;
+import com.slang.lexer.TokenStream;
+import com.slang.parser.symbol.NonTerminal;
+import com.slang.utils.Panic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * 增量语法分析
+ * 保留上一次分析得到的语法树，入口文件被编辑后先进行增量词法分析，找出包含全部被替换Token的最小的<Statement>或<Element>，
+ * 用RdScanner只重新分析这一段Token，再把得到的子树替换到原来的语法树中，其余的结点原样保留。
+ * 每个结点记录它的第一个Token相对于父结点第一个Token的偏移，结点的范围由其后的兄弟结点（或父结点的结尾）确定，
+ * 替换子树时复制从根结点到该子树的路径上的结点，路径上各个结点之后的兄弟结点只复制结点本身并平移，其余结点原样共享，
+ * 编辑前的语法树中的结点都不会被修改，因此没有被修改的子树在编辑前后是同一个对象，包含被修改部分的结点则都是新的对象（IncrementalAstBuilder据此判断哪些结点可以复用）。
+ * 只有满足以下条件时才能在原处重新分析，否则依次扩大到外层的<Statement>或<Element>，都不满足时重新分析整个文件：
+ * 这一段中没有模块导入；第一个Token被替换时种类不变（外层结点预测产生式时看到的是它的种类，列表中的一项除外）；
+ * 重新分析没有错误，并且恰好在原来这一段之后的Token处结束。此时得到的语法树与重新分析整个文件完全相同。
+ * 插入或删除整个语句、函数定义时没有一项能容纳修改，此时从列表（<Program>或<Statements>）中的相应位置起逐项重新分析，
+ * 直到与原来的列表在修改之后的某一项对齐为止。
+ * 只有入口文件可以编辑，被导入的模块保持不变
+ */
+public class IncrementalParser {
+    private static final int KIND_INCLUDE = TokenKind.of("INCLUDE");
+    /**
+     * 列表及其中的一项，列表的产生式为 Main <列表> ::== <项> <列表> 和 Epsilon <列表> ::== $
+     */
+    private static final HashMap<String, String> LIST_ITEMS = new HashMap<>() {{
+        put("Program", "Element");
+        put("Statements", "Statement");
+    }};
+
+    private PredictTable predictTable;
+    private IncludeGraph includeGraph;
+    private LexedModule module;
+    private ParseTreeNode root;
+    /**
+     * 语法树覆盖的Token个数（展开模块导入之后，不含文件尾符号）
+     */
+    private int tokenCount;
+    /**
+     * 入口文件中各个模块导入的Token下标，以及展开得到的Token个数（重复导入的模块展开为空）
+     */
+    private ArrayList<Integer> includeIndices = new ArrayList<>();
+    private ArrayList<Integer> includeSizes = new ArrayList<>();
+
+    /**
+     * 对入口文件进行完整的语法分析
+     * @param path 入口文件
+     * @param predictTable 预测分析表
+     */
+    public IncrementalParser(String path, PredictTable predictTable) {
+        this.predictTable = predictTable;
+        this.includeGraph = new IncludeGraph(path, true);
+        this.parseAll();
+    }
+
+    public ParseTreeNode getRoot() {
+        return root;
+    }
+
+    public LexedModule getModule() {
+        return module;
+    }
+
+    /**
+     * 结束编辑，注销入口文件和被导入模块的源文件
+     */
+    public void close() {
+        this.includeGraph.close();
+    }
+
+    /**
+     * 重新分析整个文件，已经完成词法分析的模块直接复用
+     */
+    private void parseAll() {
+        TokenBuffer tokens = new TokenStream(this.includeGraph, false).readAll();
+        this.root = new RdScanner(new TokenStream(tokens, 0), this.predictTable).buildParseTree();
+        this.module = this.includeGraph.getModule(this.includeGraph.getEntryPath());
+        this.tokenCount = tokens.size() - 1;
+
+        // 入口文件的Token在展开后的Token中按顺序出现，每个模块导入之后直到下一个入口文件的Token为止都是展开得到的
+        this.includeIndices.clear();
+        this.includeSizes.clear();
+        int entryId = this.module.source.getId();
+        TokenBuffer moduleTokens = this.module.tokens;
+        int flat = 0;
+        for (int i = 0; i < moduleTokens.size() - 1; i++) {
+            if (moduleTokens.getKind(i) != KIND_INCLUDE) {
+                flat++;
+                continue;
+            }
+            int begin = flat;
+            while (flat < this.tokenCount && CodeAxis.getFileId(tokens.getPosition(flat)) != entryId) {
+                flat++;
+            }
+            this.includeIndices.add(i);
+            this.includeSizes.add(flat - begin);
+        }
+
+        IncrementalParser.toRelative(this.root, 0);
+        this.root.setTokenOffset(0);
+    }
+
+    /**
+     * 把子树中各个结点由RdScanner记录的Token下标换算为相对于父结点的偏移
+     * 语法树可能很深（例如<Program>的链），因此不使用递归
+     * @param node 子树的根结点
+     * @param index 根结点的第一个Token的下标
+     */
+    private static void toRelative(ParseTreeNode node, int index) {
+        ArrayList<ParseTreeNode> nodes = new ArrayList<>();
+        ArrayList<Integer> indices = new ArrayList<>();
+        nodes.add(node);
+        indices.add(index);
+        while (!nodes.isEmpty()) {
+            ParseTreeNode parent = nodes.remove(nodes.size() - 1);
+            int parentIndex = indices.remove(indices.size() - 1);
+            for (ParseTreeNode child : parent.getChildren()) {
+                int childIndex = child.getTokenOffset();
+                child.setTokenOffset(childIndex - parentIndex);
+                nodes.add(child);
+                indices.add(childIndex);
+            }
+        }
+    }
+
+    /**
+     * 入口文件中的Token下标换算为展开模块导入之后的下标
+     */
+    private int flatIndex(int moduleIndex) {
+        int flat = moduleIndex;
+        for (int i = 0; i < this.includeIndices.size() && this.includeIndices.get(i) < moduleIndex; i++) {
+            flat += this.includeSizes.get(i) - 1;
+        }
+        return flat;
+    }
+
+    /**
+     * 展开模块导入之后的下标换算为入口文件中的Token下标
+     * @return 下标，恰好是一个模块导入展开的开始时为该模块导入的下标，属于被导入的模块的其余位置为-1
+     */
+    private int moduleIndex(int flat) {
+        int shift = 0;
+        for (int i = 0; i < this.includeIndices.size(); i++) {
+            int includeBegin = this.includeIndices.get(i) + shift;
+            if (flat < includeBegin) {
+                break;
+            }
+            if (flat == includeBegin) {
+                return this.includeIndices.get(i);
+            }
+            if (flat < includeBegin + this.includeSizes.get(i)) {
+                return -1;
+            }
+            shift += this.includeSizes.get(i) - 1;
+        }
+        return flat - shift;
+    }
+
+    private boolean hasInclude(int begin, int end) {
+        for (int index : this.includeIndices) {
+            if (index >= begin && index < end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String nameOf(ParseTreeNode node) {
+        return node.getGrammarSymbol() instanceof NonTerminal ? ((NonTerminal) node.getGrammarSymbol()).name : null;
+    }
+
+    private boolean isCandidate(ParseTreeNode node) {
+        String name = this.nameOf(node);
+        return IncrementalParser.LIST_ITEMS.containsValue(name);
+    }
+
+    /**
+     * 对入口文件进行一次编辑，并更新语法树
+     * 遇到词法或语法错误则会引发错误（与重新分析整个文件时报告的错误相同）
+     * @param offset 编辑开始的字节偏移
+     * @param removedLength 删除的字节数
+     * @param insertedText 插入的文本
+     * @return 重新分析得到的子树，重新分析了整个文件时为新的根结点，没有Token被替换时为null
+     */
+    public ParseTreeNode edit(int offset, int removedLength, String insertedText) {
+        int firstAffected = IncrementalLexer.firstAffected(this.module, offset);
+        int firstKind = this.module.tokens.getKind(firstAffected);
+        LexedModule edited = IncrementalLexer.relex(this.module, offset, removedLength, insertedText);
+        this.module = edited;
+        this.includeGraph.replaceModule(this.includeGraph.getEntryPath(), edited);
+
+        int from = edited.replacedFrom;
+        int oldTo = edited.replacedTo;
+        int delta = edited.replacedCount - (oldTo - from);
+        if (oldTo == from && edited.replacedCount == 0 && edited.error == null) {
+            return null;
+        }
+        boolean includeReplaced = this.hasInclude(from, oldTo);
+        for (int i = from; i < from + edited.replacedCount; i++) {
+            includeReplaced |= edited.tokens.getKind(i) == KIND_INCLUDE;
+        }
+        if (edited.error != null || includeReplaced) {
+            this.parseAll();
+            return this.root;
+        }
+
+        // 从根结点向下，找出包含全部被替换Token的结点所在的路径
+        int flatFrom = this.flatIndex(from);
+        int flatTo = this.flatIndex(oldTo);
+        ArrayList<ParseTreeNode> path = new ArrayList<>();
+        ArrayList<Integer> childIndices = new ArrayList<>();
+        ArrayList<Integer> begins = new ArrayList<>();
+        ArrayList<Integer> ends = new ArrayList<>();
+        ParseTreeNode node = this.root;
+        int childIndex = -1;
+        int begin = 0;
+        int end = this.tokenCount;
+        while (node != null) {
+            path.add(node);
+            childIndices.add(childIndex);
+            begins.add(begin);
+            ends.add(end);
+            ArrayList<ParseTreeNode> children = node.getChildren();
+            ParseTreeNode next = null;
+            for (int i = 0; i < children.size(); i++) {
+                int childBegin = begin + children.get(i).getTokenOffset();
+                int childEnd = i + 1 < children.size() ? begin + children.get(i + 1).getTokenOffset() : end;
+                if (childBegin <= flatFrom && flatTo <= childEnd && childBegin < childEnd) {
+                    next = children.get(i);
+                    childIndex = i;
+                    begin = childBegin;
+                    end = childEnd;
+                    break;
+                }
+            }
+            node = next;
+        }
+
+        // 由内向外尝试重新分析
+        for (int level = path.size() - 1; level >= 1; level--) {
+            ParseTreeNode candidate = path.get(level);
+            int candidateOffset = candidate.getTokenOffset();
+            ParseTreeNode replacement = null;
+            if (this.isCandidate(candidate)) {
+                // 列表中的一项第一个Token的种类改变时，只要仍然能分析为一项，列表选择的产生式也不变
+                boolean kindChecked = !IncrementalParser.LIST_ITEMS.containsKey(this.nameOf(path.get(level - 1)));
+                if (kindChecked && this.moduleIndex(begins.get(level)) == from && (from != firstAffected || edited.tokens.getKind(from) != firstKind)) {
+                    continue;
+                }
+                replacement = this.reparse(candidate, begins.get(level), ends.get(level), edited.tokens, delta);
+            } else if (IncrementalParser.LIST_ITEMS.containsKey(this.nameOf(candidate))
+                    && (level == path.size() - 1 || childIndices.get(level + 1) == 0)) {
+                replacement = this.reparseList(candidate, begins.get(level), edited.tokens, oldTo, delta);
+            }
+            if (replacement == null) {
+                continue;
+            }
+
+            replacement.setTokenOffset(candidateOffset);
+            // 复制路径上的各个结点，路径之后的兄弟结点复制后平移，原来的语法树保持不变
+            ParseTreeNode child = replacement;
+            for (int i = level - 1; i >= 0; i--) {
+                ParseTreeNode parent = path.get(i);
+                ParseTreeNode copy = new ParseTreeNode(parent.getGrammarSymbol(), parent.getProductionName(), parent.getProductionId());
+                copy.setTokenOffset(parent.getTokenOffset());
+                ArrayList<ParseTreeNode> siblings = parent.getChildren();
+                for (int j = 0; j < siblings.size(); j++) {
+                    if (j < childIndices.get(i + 1)) {
+                        copy.addChild(siblings.get(j));
+                    } else if (j == childIndices.get(i + 1)) {
+                        copy.addChild(child);
+                    } else {
+                        copy.addChild(IncrementalParser.moved(siblings.get(j), siblings.get(j).getTokenOffset() + delta));
+                    }
+                }
+                child = copy;
+            }
+            this.root = child;
+            this.tokenCount += delta;
+            for (int i = 0; i < this.includeIndices.size(); i++) {
+                if (this.includeIndices.get(i) >= oldTo) {
+                    this.includeIndices.set(i, this.includeIndices.get(i) + delta);
+                }
+            }
+            return replacement;
+        }
+
+        this.parseAll();
+        return this.root;
+    }
+
+    /**
+     * 重新分析一个<Statement>或<Element>
+     * @param candidate 原来的结点
+     * @param begin 原来的第一个Token的下标（展开模块导入之后）
+     * @param end 原来的结尾（不含）
+     * @param tokens 编辑后入口文件的Token
+     * @param delta 编辑前后Token个数之差
+     * @return 新的结点，不能在原处重新分析时为null
+     */
+    private ParseTreeNode reparse(ParseTreeNode candidate, int begin, int end, TokenBuffer tokens, int delta) {
+        int moduleBegin = this.moduleIndex(begin);
+        int moduleEnd = this.moduleIndex(end - 1) + 1;
+        if (moduleBegin == -1 || moduleEnd == 0 || this.hasInclude(moduleBegin, moduleEnd)) {
+            return null;
+        }
+        TokenStream tokenStream = new TokenStream(tokens, moduleBegin);
+        ParseTreeNode holder = new ParseTreeNode(candidate.getGrammarSymbol());
+        boolean deferred = Panic.setDeferred(true);
+        try {
+            new RdScanner(tokenStream, this.predictTable).parse(holder, this.predictTable.getNonTerminalSymbol(this.nameOf(candidate)));
+        } catch (Panic.Deferred e) {
+            return null;
+        } finally {
+            Panic.setDeferred(deferred);
+        }
+        if (tokenStream.getIndex() != moduleEnd + delta) {
+            return null;
+        }
+        ParseTreeNode replacement = holder.getChildren().get(0);
+        IncrementalParser.toRelative(replacement, moduleBegin);
+        return replacement;
+    }
+
+    /**
+     * 从列表（<Program>或<Statements>）的一个结点开始逐项重新分析，直到与原来的列表在被替换的Token之后的某一项对齐，
+     * 用于插入或删除整个语句、函数定义等一项无法容纳修改的情况
+     * @param list 原来的列表结点
+     * @param begin 原来的第一个Token的下标（展开模块导入之后）
+     * @param tokens 编辑后入口文件的Token
+     * @param oldTo 编辑前被替换的Token的结尾（入口文件中的下标）
+     * @param delta 编辑前后Token个数之差
+     * @return 新的列表结点，不能对齐时为null
+     */
+    private ParseTreeNode reparseList(ParseTreeNode list, int begin, TokenBuffer tokens, int oldTo, int delta) {
+        int moduleBegin = this.moduleIndex(begin);
+        if (moduleBegin == -1) {
+            return null;
+        }
+        int listSymbol = this.predictTable.getNonTerminalSymbol(this.nameOf(list));
+        int itemSymbol = this.predictTable.getNonTerminalSymbol(IncrementalParser.LIST_ITEMS.get(this.nameOf(list)));
+        TokenStream tokenStream = new TokenStream(tokens, moduleBegin);
+        RdScanner scanner = new RdScanner(tokenStream, this.predictTable);
+        ArrayList<ParseTreeNode> lists = new ArrayList<>();
+        ArrayList<Integer> listBegins = new ArrayList<>();
+        // 原来的列表中尚未越过的结点及其开始位置
+        ParseTreeNode old = list;
+        int oldBegin = begin;
+        int matchedBegin;
+        boolean deferred = Panic.setDeferred(true);
+        try {
+            while (true) {
+                int index = tokenStream.getIndex();
+                matchedBegin = -1;
+                while (old != null) {
+                    int oldModuleBegin = this.moduleIndex(oldBegin);
+                    if (oldModuleBegin >= oldTo) {
+                        matchedBegin = oldModuleBegin + delta;
+                        if (matchedBegin >= index) {
+                            break;
+                        }
+                    }
+                    if (old.getChildren().size() < 2) {
+                        old = null;
+                        break;
+                    }
+                    old = old.getChildren().get(1);
+                    oldBegin += old.getTokenOffset();
+                }
+                if (old == null) {
+                    return null;
+                }
+                if (matchedBegin == index && !lists.isEmpty()) {
+                    break;
+                }
+                int production = this.predictTable.predict(this.predictTable.getSymbolIds()[listSymbol], tokenStream.lookAheadKind());
+                if (production == -1 || this.predictTable.getRightHandSide(production).length < 2) {
+                    return null;
+                }
+                ParseTreeNode node = new ParseTreeNode(this.predictTable.getSymbol(listSymbol), this.predictTable.getProduction(production).getName(), production);
+                scanner.parse(node, itemSymbol);
+                lists.add(node);
+                listBegins.add(index);
+            }
+        } catch (Panic.Deferred e) {
+            return null;
+        } finally {
+            Panic.setDeferred(deferred);
+        }
+
+        // 把新的各项依次连接起来，最后连接到原来列表中对齐的结点
+        for (int i = 0; i < lists.size(); i++) {
+            ParseTreeNode item = lists.get(i).getChildren().get(0);
+            IncrementalParser.toRelative(item, listBegins.get(i));
+            item.setTokenOffset(0);
+            ParseTreeNode next;
+            if (i + 1 < lists.size()) {
+                next = lists.get(i + 1);
+                next.setTokenOffset(listBegins.get(i + 1) - listBegins.get(i));
+            } else {
+                next = IncrementalParser.moved(old, matchedBegin - listBegins.get(i));
+            }
+            lists.get(i).addChild(next);
+        }
+        return lists.get(0);
+    }
+
+    /**
+     * 复制一个结点并设置新的偏移，子结点原样共享
+     * 原来的结点可能仍然属于编辑前的语法树（也可能就是被替换的结点本身），因此不能就地修改它的偏移
+     * @param node 原来的结点
+     * @param tokenOffset 新的偏移
+     * @return 新的结点
+     */
+    private static ParseTreeNode moved(ParseTreeNode node, int tokenOffset) {
+        ParseTreeNode copy = node.getToken() != null ? new ParseTreeNode(node.getGrammarSymbol(), node.getToken())
+                : new ParseTreeNode(node.getGrammarSymbol(), node.getProductionName(), node.getProductionId());
+        copy.setTokenOffset(tokenOffset);
+        for (ParseTreeNode child : node.getChildren()) {
+            copy.addChild(child);
+        }
+        return copy;
+    }
+}
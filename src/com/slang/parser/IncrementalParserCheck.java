@@ -0,0 +1,240 @@
+package com.slang.parser;
+
+import com.slang.lexer.CodeAxis;
+import com.slang.lexer.Token;
+import com.slang.lexer.TokenBuffer;
+import com.slang.lexer.TokenStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 增量语法分析的一致性检查
+ * 对给定的源文件反复进行随机的编辑，每次编辑之后都把IncrementalParser得到的语法树与重新分析整个编辑后的文件得到的语法树比较，
+ * 结点的文法符号、产生式、第一个Token的下标以及Token的种类、值和位置都必须相同。
+ * 编辑都不会引入语法错误：在语句开头插入另一个单行语句（包括列表的第一项），删除一个单行语句，插入空格，以及替换数字字面量。
+ * 用法：java -cp out com.slang.parser.IncrementalParserCheck [-n 编辑次数] [-r 随机数种子] 源文件...
+ */
+public class IncrementalParserCheck {
+    private static final Pattern STATEMENT_LINE = Pattern.compile("^[ \\t]*(?!else\\b)[A-Za-z][^{}\\n#]*;[ \\t]*$", Pattern.MULTILINE);
+    private static final Pattern NUMBER = Pattern.compile("(?<![A-Za-z_0-9.])\\d+(?![\\d.])");
+
+    private PredictTable predictTable;
+    private Random random;
+    private String text;
+    private Path referencePath;
+
+    public IncrementalParserCheck(PredictTable predictTable, long seed) {
+        this.predictTable = predictTable;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 对一个源文件进行检查
+     * @param path 源文件
+     * @param edits 编辑次数
+     * @return 第一处不一致的描述，没有不一致时返回null
+     */
+    public String check(String path, int edits) throws IOException {
+        this.text = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        this.referencePath = Files.createTempFile("slang", ".sl");
+        IncrementalParser parser = new IncrementalParser(path, this.predictTable);
+        try {
+            for (int i = 0; i < edits; i++) {
+                int[] edit = this.randomEdit();
+                if (edit == null) {
+                    return null;
+                }
+                String inserted = this.text.substring(edit[1], edit[2]);
+                int removedLength = edit[3];
+                int offset = this.byteOffset(edit[0]);
+                int removedBytes = this.byteOffset(edit[0] + removedLength) - offset;
+                this.text = this.text.substring(0, edit[0]) + inserted + this.text.substring(edit[0] + removedLength);
+                parser.edit(offset, removedBytes, inserted);
+                String difference = this.compare(parser.getRoot());
+                if (difference != null) {
+                    return String.format("edit %d (offset %d, removed %d, inserted \"%s\"): %s", i, offset, removedBytes,
+                            inserted.replace("\n", "\\n"), difference);
+                }
+            }
+            return null;
+        } finally {
+            parser.close();
+            Files.deleteIfExists(this.referencePath);
+        }
+    }
+
+    private int byteOffset(int index) {
+        return this.text.substring(0, index).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * 选择一次随机的编辑
+     * 插入的文本取自编辑前的文本，以便编辑前后都能在text中找到
+     * @return {开始位置, 插入的文本在text中的开始位置, 结尾, 删除的字符数}，没有可以进行的编辑时返回null
+     */
+    private int[] randomEdit() {
+        ArrayList<int[]> statements = this.findAll(IncrementalParserCheck.STATEMENT_LINE);
+        ArrayList<int[]> numbers = this.findAll(IncrementalParserCheck.NUMBER);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            switch (this.random.nextInt(4)) {
+                case 0:
+                    // 在一个单行语句之前插入另一个单行语句
+                    if (statements.isEmpty()) {
+                        continue;
+                    }
+                    int[] target = statements.get(this.random.nextInt(statements.size()));
+                    int[] source = statements.get(this.random.nextInt(statements.size()));
+                    return new int[]{target[0], source[0], source[1] + 1, 0};
+                case 1:
+                    // 删除一个单行语句，至少保留一个，以便之后还能插入
+                    if (statements.size() < 2) {
+                        continue;
+                    }
+                    int[] statement = statements.get(this.random.nextInt(statements.size()));
+                    return new int[]{statement[0], 0, 0, statement[1] + 1 - statement[0]};
+                case 2:
+                    int space = this.text.indexOf(' ', this.random.nextInt(this.text.length()));
+                    if (space == -1) {
+                        continue;
+                    }
+                    return new int[]{space, space, space + 1, 0};
+                default:
+                    if (numbers.isEmpty()) {
+                        continue;
+                    }
+                    int[] number = numbers.get(this.random.nextInt(numbers.size()));
+                    int[] replacement = numbers.get(this.random.nextInt(numbers.size()));
+                    return new int[]{number[0], replacement[0], replacement[1], number[1] - number[0]};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 找出所有匹配的位置，单行语句只保留结尾有换行符、并且前一行以语句结尾的行，保证在它之前插入或者删除它不会引入语法错误
+     */
+    private ArrayList<int[]> findAll(Pattern pattern) {
+        ArrayList<int[]> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(this.text);
+        while (matcher.find()) {
+            if (pattern == IncrementalParserCheck.STATEMENT_LINE && (matcher.end() >= this.text.length() || !this.isStatementStart(matcher.start()))) {
+                continue;
+            }
+            matches.add(new int[]{matcher.start(), matcher.end()});
+        }
+        return matches;
+    }
+
+    private boolean isStatementStart(int lineStart) {
+        int end = lineStart - 1;
+        while (end > 0) {
+            int begin = this.text.lastIndexOf('\n', end - 1) + 1;
+            String line = this.text.substring(begin, end).trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return line.endsWith(";") || line.endsWith("{") || line.endsWith("}");
+            }
+            end = begin - 1;
+        }
+        return true;
+    }
+
+    /**
+     * 把语法树与重新分析整个文件得到的语法树比较
+     * @return 第一处不一致的描述，完全相同时返回null
+     */
+    private String compare(ParseTreeNode root) throws IOException {
+        Files.write(this.referencePath, this.text.getBytes(StandardCharsets.UTF_8));
+        TokenStream tokenStream = new TokenStream(this.referencePath.toString());
+        try {
+            TokenBuffer tokens = tokenStream.readAll();
+            ParseTreeNode expected = new RdScanner(new TokenStream(tokens, 0), this.predictTable).buildParseTree();
+            // 语法树可能很深，因此不使用递归；增量语法分析的结点记录的是相对于父结点的偏移
+            ArrayDeque<ParseTreeNode> actualNodes = new ArrayDeque<>();
+            ArrayDeque<ParseTreeNode> expectedNodes = new ArrayDeque<>();
+            ArrayDeque<Integer> actualIndices = new ArrayDeque<>();
+            actualNodes.push(root);
+            expectedNodes.push(expected);
+            actualIndices.push(0);
+            while (!actualNodes.isEmpty()) {
+                ParseTreeNode actual = actualNodes.pop();
+                ParseTreeNode node = expectedNodes.pop();
+                int index = actualIndices.pop();
+                if (!actual.getGrammarSymbol().equals(node.getGrammarSymbol()) || actual.getProductionId() != node.getProductionId()
+                        || actual.getChildren().size() != node.getChildren().size()) {
+                    return String.format("%s at token %d differs from %s at token %d", actual.getGrammarSymbol(), index,
+                            node.getGrammarSymbol(), node.getTokenOffset());
+                }
+                if (index != node.getTokenOffset()) {
+                    return String.format("%s starts at token %d instead of %d", actual.getGrammarSymbol(), index, node.getTokenOffset());
+                }
+                if (!IncrementalParserCheck.sameToken(actual.getToken(), node.getToken())) {
+                    return String.format("token %s at %d differs from %s", actual.getToken(), index, node.getToken());
+                }
+                for (int i = 0; i < actual.getChildren().size(); i++) {
+                    ParseTreeNode child = actual.getChildren().get(i);
+                    actualNodes.push(child);
+                    expectedNodes.push(node.getChildren().get(i));
+                    actualIndices.push(index + child.getTokenOffset());
+                }
+            }
+            return null;
+        } finally {
+            tokenStream.close();
+        }
+    }
+
+    /**
+     * 两个Token的种类、值和在各自文件中的偏移相同
+     */
+    private static boolean sameToken(Token actual, Token expected) {
+        if (actual == null || expected == null) {
+            return actual == expected;
+        }
+        return actual.kind == expected.kind && Objects.equals(actual.getValue(), expected.getValue())
+                && CodeAxis.getOffset(actual.getPosition()) == CodeAxis.getOffset(expected.getPosition());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int edits = 200;
+        long seed = 0;
+        int first = 0;
+        while (first + 1 < args.length && args[first].startsWith("-")) {
+            if (args[first].equals("-n")) {
+                edits = Integer.parseInt(args[first + 1]);
+            } else if (args[first].equals("-r")) {
+                seed = Long.parseLong(args[first + 1]);
+            } else {
+                break;
+            }
+            first += 2;
+        }
+        InputStream inputStream = IncrementalParserCheck.class.getClassLoader().getResourceAsStream("grammars/SLang.tbl");
+        PredictTable predictTable = inputStream == null ? null : PredictTable.load(inputStream, GeneratedParser.GRAMMAR_HASH);
+        if (predictTable == null) {
+            System.out.println("The parse table does not match the grammar, regenerate it with -g");
+            System.exit(1);
+        }
+        int failed = 0;
+        for (int i = first; i < args.length; i++) {
+            String difference = new IncrementalParserCheck(predictTable, seed).check(args[i], edits);
+            if (difference != null) {
+                System.out.println(String.format("%s: %s", args[i], difference));
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}
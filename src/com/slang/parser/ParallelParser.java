@@ -0,0 +1,226 @@
+package com.slang.parser;
+
+import com.slang.lexer.CodeAxis;
+import com.slang.lexer.Token;
+import com.slang.lexer.TokenBuffer;
+import com.slang.lexer.TokenKind;
+import com.slang.lexer.TokenStream;
+import com.slang.parser.symbol.GrammarSymbolFactory;
+import com.slang.utils.Panic;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 并行的语法分析器
+ * 程序由顶层的Element依次组成，函数定义之间互不依赖，因此先取出全部Token，按花括号配对找出顶层的FUNC，
+ * 在这些位置把Token切分为若干段，每一段在单独的ForkJoin任务中用RdScanner分析，最后按顺序拼接成<Program>。
+ * 切分只是一种预测：每个任务的Token流在段尾之后仍然可以继续读取真实的Token，拼接时检查每一段是否恰好在下一段开始处结束，
+ * 不是时（例如花括号不配对）从实际结束的位置起顺序分析剩余部分，因此生成的语法树与RdScanner完全相同。
+ * 任务中的错误延迟到拼接时按顺序报告，报告的总是源文件中最靠前的语法错误；
+ * 词法错误（包括找不到导入的模块）在取出全部Token时即报告，可能先于其前面的语法错误
+ */
+public class ParallelParser implements Parser {
+    /**
+     * 每一段至少包含的Token个数，太小的段不足以抵消任务调度的开销
+     */
+    private static final int MIN_CHUNK_TOKENS = 4096;
+
+    private static final int KIND_FUNC = TokenKind.of("FUNC");
+    private static final int KIND_LEFT_BRACE = TokenKind.of("{");
+    private static final int KIND_RIGHT_BRACE = TokenKind.of("}");
+
+    private TokenStream tokenStream;
+    private PredictTable predictTable;
+    private int programSymbol;
+    private int elementSymbol;
+
+    /**
+     * 一段Token的分析结果
+     */
+    private static class Chunk {
+        int begin;
+        /**
+         * 分析实际结束的位置
+         */
+        int end;
+        /**
+         * 每个Element所在的<Program>结点，尚未连接其后的<Program>
+         */
+        ArrayList<ParseTreeNode> programs = new ArrayList<>();
+        Panic error = null;
+    }
+
+    private class ChunkTask extends RecursiveTask<Chunk> {
+        private static final long serialVersionUID = 1L;
+
+        private TokenBuffer tokens;
+        private int begin;
+        private int end;
+
+        ChunkTask(TokenBuffer tokens, int begin, int end) {
+            this.tokens = tokens;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            chunk.begin = this.begin;
+            boolean deferred = Panic.setDeferred(true);
+            try {
+                chunk.end = ParallelParser.this.parseElements(new TokenStream(this.tokens, this.begin), this.end, chunk.programs);
+            } catch (Panic.Deferred e) {
+                chunk.error = e.panic;
+            } finally {
+                Panic.setDeferred(deferred);
+            }
+            return chunk;
+        }
+    }
+
+    public ParallelParser(TokenStream tokenStream, PredictTable predictTable) {
+        this.tokenStream = tokenStream;
+        this.predictTable = predictTable;
+        this.programSymbol = predictTable.getNonTerminalSymbol("Program");
+        this.elementSymbol = predictTable.getNonTerminalSymbol("Element");
+        if (this.programSymbol == -1 || this.elementSymbol == -1) {
+            Panic panic = new Panic("parser: The grammar does not define <Program> and <Element>", new CodeAxis());
+            panic.show();
+        }
+    }
+
+    private boolean isEpsilon(int production) {
+        return this.predictTable.getSymbolTypes()[this.predictTable.getRightHandSide(production)[0]] == PredictTable.SYMBOL_EPSILON;
+    }
+
+    /**
+     * 选择产生式，与RdScanner的报错相同
+     */
+    private int predict(TokenStream tokenStream, int symbol) {
+        int production = this.predictTable.predict(this.predictTable.getSymbolIds()[symbol], tokenStream.lookAheadKind());
+        if (production == -1) {
+            Token lookAhead = tokenStream.lookAhead();
+            Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
+            panic.show();
+        }
+        return production;
+    }
+
+    /**
+     * 依次分析Element，直到越过给定的位置或者<Program>推导出空串
+     * Main <Program> ::== <Element> <Program>
+     * @param tokenStream Token流
+     * @param end 结束的位置
+     * @param programs 分析得到的<Program>结点，只包含Element，尚未连接其后的<Program>
+     * @return 实际结束的位置
+     */
+    private int parseElements(TokenStream tokenStream, int end, ArrayList<ParseTreeNode> programs) {
+        RdScanner scanner = new RdScanner(tokenStream, this.predictTable);
+        while (tokenStream.getIndex() < end) {
+            int production = this.predict(tokenStream, this.programSymbol);
+            if (this.isEpsilon(production)) {
+                break;
+            }
+            ParseTreeNode program = new ParseTreeNode(this.predictTable.getSymbol(this.programSymbol), this.predictTable.getProduction(production).getName(), production);
+            scanner.parse(program, this.elementSymbol);
+            programs.add(program);
+        }
+        return tokenStream.getIndex();
+    }
+
+    /**
+     * 在顶层的FUNC处切分Token
+     * @param tokens 全部Token
+     * @param begin 开始的下标
+     * @return 各段开始的下标，最后一个为文件尾符号的下标
+     */
+    private ArrayList<Integer> split(TokenBuffer tokens, int begin) {
+        ArrayList<Integer> boundaries = new ArrayList<>();
+        boundaries.add(begin);
+        int depth = 0;
+        int index = begin;
+        for (int kind = tokens.getKind(index); kind != TokenKind.END_OF_FILE; kind = tokens.getKind(++index)) {
+            if (kind == KIND_LEFT_BRACE) {
+                depth++;
+            } else if (kind == KIND_RIGHT_BRACE) {
+                depth = Math.max(depth - 1, 0);
+            } else if (kind == KIND_FUNC && depth == 0 && index - boundaries.get(boundaries.size() - 1) >= MIN_CHUNK_TOKENS) {
+                boundaries.add(index);
+            }
+        }
+        if (index > boundaries.get(boundaries.size() - 1)) {
+            boundaries.add(index);
+        }
+        return boundaries;
+    }
+
+    @Override
+    public ParseTreeNode buildParseTree() {
+        TokenBuffer tokens = this.tokenStream.readAll();
+        int begin = this.tokenStream.getIndex();
+        ArrayList<Integer> boundaries = this.split(tokens, begin);
+
+        ArrayList<ChunkTask> tasks = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.size(); i++) {
+            tasks.add(new ChunkTask(tokens, boundaries.get(i), boundaries.get(i + 1)));
+        }
+        // 第一段在当前线程中分析，其余的交给ForkJoin线程池
+        for (int i = 1; i < tasks.size(); i++) {
+            ForkJoinPool.commonPool().execute(tasks.get(i));
+        }
+
+        int startSymbol = this.predictTable.getStartSymbol();
+        int startProduction = this.predict(this.tokenStream, startSymbol);
+        ParseTreeNode rootNode = new ParseTreeNode(this.predictTable.getSymbol(startSymbol), this.predictTable.getProduction(startProduction).getName(), startProduction);
+
+        // 按顺序拼接各段，段内的错误只有在该段的开始位置正确时才报告
+        ArrayList<ParseTreeNode> programs = new ArrayList<>();
+        int position = begin;
+        for (int i = 0; i < tasks.size(); i++) {
+            Chunk chunk = i == 0 ? tasks.get(i).compute() : tasks.get(i).join();
+            if (chunk.begin != position) {
+                // 前一段越过了切分的位置，其后的切分都不可信，取消尚未开始的任务，顺序分析剩余部分
+                for (int j = i; j < tasks.size(); j++) {
+                    tasks.get(j).cancel(false);
+                }
+                position = this.parseElements(new TokenStream(tokens, position), Integer.MAX_VALUE, programs);
+                break;
+            }
+            if (chunk.error != null) {
+                chunk.error.show();
+            }
+            programs.addAll(chunk.programs);
+            position = chunk.end;
+        }
+        for (ChunkTask task : tasks) {
+            if (!task.isDone()) {
+                task.cancel(false);
+            }
+        }
+
+        TokenStream tail = new TokenStream(tokens, position);
+        int tailProduction = this.predict(tail, this.programSymbol);
+        ParseTreeNode program = new ParseTreeNode(this.predictTable.getSymbol(this.programSymbol), this.predictTable.getProduction(tailProduction).getName(), tailProduction);
+        program.addChild(new ParseTreeNode(GrammarSymbolFactory.epsilon()));
+        for (int i = programs.size() - 1; i >= 0; i--) {
+            programs.get(i).addChild(program);
+            program = programs.get(i);
+        }
+        // 与RdScanner相同，开始符号的结点之下还有一个开始符号的结点
+        ParseTreeNode startNode = new ParseTreeNode(this.predictTable.getSymbol(startSymbol), this.predictTable.getProduction(startProduction).getName(), startProduction);
+        startNode.addChild(program);
+        rootNode.addChild(startNode);
+
+        if (!tail.isFinished()) {
+            Token lastToken = tail.next();
+            while (!tail.isFinished()) lastToken = tail.next();
+            Panic panic = new Panic(String.format("Unexpected token %s at the end of the file", lastToken.toString()), lastToken.getPosition());
+            panic.show();
+        }
+
+        return rootNode;
+    }
+}
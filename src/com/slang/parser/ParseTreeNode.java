@@ -11,18 +11,33 @@ public class ParseTreeNode {
     private GrammarSymbol grammarSymbol;
     private ArrayList<ParseTreeNode> children = new ArrayList<>();
     private String productionName = null;
+    /**
+     * 结点所用的产生式在预测分析表中的编号，AstBuilder据此直接选择构造方法；终结符和ε的结点为-1
+     */
+    private int productionId = -1;
     private Token token = null;
-    private HashMap<String, Object> attributes = new HashMap<>();
+    /**
+     * 构造AST时传递的属性，只有少数结点需要，第一次设置时才创建
+     */
+    private HashMap<String, Object> attributes = null;
+    /**
+     * 结点的第一个Token的位置，RdScanner在建立在全部Token上的Token流中分析时（见TokenStream.isFullyBuffered()）记录为它在缓冲区中的下标，
+     * IncrementalParser把它换算为相对于父结点第一个Token的偏移；按需拉取Token时以及其他分析器生成的结点为0
+     */
+    private int tokenOffset = 0;
 
     public Object getAttribute(String key) {
-        return this.attributes.get(key);
+        return this.attributes == null ? null : this.attributes.get(key);
     }
 
     public Boolean hasAttribute(String key) {
-        return this.attributes.containsKey(key);
+        return this.attributes != null && this.attributes.containsKey(key);
     }
 
     public void setAttribute(String key, Object val) {
+        if (this.attributes == null) {
+            this.attributes = new HashMap<>();
+        }
         this.attributes.put(key, val);
     }
 
@@ -30,6 +45,10 @@ public class ParseTreeNode {
         return productionName;
     }
 
+    public int getProductionId() {
+        return productionId;
+    }
+
     public Token getToken() {
         return token;
     }
@@ -50,9 +69,18 @@ public class ParseTreeNode {
         this.token = token;
     }
 
-    public ParseTreeNode(GrammarSymbol grammarSymbol, String productionName) {
+    public ParseTreeNode(GrammarSymbol grammarSymbol, String productionName, int productionId) {
         this.grammarSymbol = grammarSymbol;
         this.productionName = productionName;
+        this.productionId = productionId;
+    }
+
+    public int getTokenOffset() {
+        return tokenOffset;
+    }
+
+    public void setTokenOffset(int tokenOffset) {
+        this.tokenOffset = tokenOffset;
     }
 
     public GrammarSymbol getGrammarSymbol() {
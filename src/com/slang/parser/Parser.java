@@ -0,0 +1,13 @@
+package com.slang.parser;
+
+/**
+ * 语法分析器
+ * 表驱动的RdScanner和由ParserGenerator生成的递归下降分析器生成完全相同的语法树
+ */
+public interface Parser {
+    /**
+     * 分析整个Token流，遇到语法错误时报错退出
+     * @return 语法树的根结点
+     */
+    ParseTreeNode buildParseTree();
+}
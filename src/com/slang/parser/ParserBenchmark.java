@@ -0,0 +1,82 @@
+package com.slang.parser;
+
+import com.slang.lexer.TokenStream;
+
+import java.io.InputStream;
+
+/**
+ * 语法分析器的吞吐量测试
+ * 分别以表驱动的RdScanner和生成的递归下降分析器GeneratedParser对给定的源文件反复进行语法分析。
+ * 每一轮都包括词法分析，因此同时测量只取走Token的耗时，两者之差即为语法分析本身的耗时。
+ * 用法：java -cp out com.slang.parser.ParserBenchmark [-n 轮数] 源文件...
+ */
+public class ParserBenchmark {
+    /**
+     * 生成的分析器方法较多，需要足够的预热才能全部被JIT编译，因此按时间而不是按轮数预热
+     */
+    private static final int WARMUP_ROUNDS = 5;
+    private static final long WARMUP_NANOS = 5_000_000_000L;
+
+    private static final int LEX_ONLY = 0;
+    private static final int TABLE_DRIVEN = 1;
+    private static final int GENERATED = 2;
+
+    /**
+     * 进行一轮分析
+     * @param parser LEX_ONLY只取走所有Token，不进行语法分析；TABLE_DRIVEN和GENERATED分别使用两种分析器
+     */
+    private static void run(String path, int parser, PredictTable predictTable) {
+        TokenStream tokenStream = new TokenStream(path);
+        if (parser == TABLE_DRIVEN) {
+            new RdScanner(tokenStream, predictTable).buildParseTree();
+        } else if (parser == GENERATED) {
+            new GeneratedParser(tokenStream).buildParseTree();
+        } else {
+            while (!tokenStream.isFinished()) {
+                tokenStream.skip();
+            }
+        }
+        tokenStream.close();
+    }
+
+    /**
+     * @return 每轮的平均耗时（纳秒）
+     */
+    private static double measure(String path, int parser, PredictTable predictTable, int rounds) {
+        long warmupBegin = System.nanoTime();
+        for (int i = 0; i < WARMUP_ROUNDS || System.nanoTime() - warmupBegin < WARMUP_NANOS; i++) {
+            ParserBenchmark.run(path, parser, predictTable);
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            ParserBenchmark.run(path, parser, predictTable);
+        }
+        return (double) (System.nanoTime() - begin) / rounds;
+    }
+
+    public static void main(String[] args) {
+        int rounds = 20;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("-n")) {
+            rounds = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        // 使用与生成的分析器相同文法的预测分析表，保证两者分析的是同一个文法
+        InputStream inputStream = ParserBenchmark.class.getClassLoader().getResourceAsStream("grammars/SLang.tbl");
+        PredictTable predictTable = inputStream == null ? null : PredictTable.load(inputStream, GeneratedParser.GRAMMAR_HASH);
+        if (predictTable == null) {
+            System.out.println("The parse table does not match the generated parser, regenerate them with -g and -p");
+            return;
+        }
+        for (int i = first; i < args.length; i++) {
+            double lex = ParserBenchmark.measure(args[i], LEX_ONLY, predictTable, rounds);
+            double table = ParserBenchmark.measure(args[i], TABLE_DRIVEN, predictTable, rounds);
+            double generated = ParserBenchmark.measure(args[i], GENERATED, predictTable, rounds);
+            System.out.println(String.format("%s:", args[i]));
+            System.out.println(String.format("  lexing only:      %8.2f ms", lex / 1e6));
+            System.out.println(String.format("  table-driven:     %8.2f ms (parsing %8.2f ms)", table / 1e6, (table - lex) / 1e6));
+            System.out.println(String.format("  generated parser: %8.2f ms (parsing %8.2f ms, %.2fx)", generated / 1e6, (generated - lex) / 1e6,
+                    (table - lex) / (generated - lex)));
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.slang.parser;
+
+import com.slang.lexer.TokenKind;
+import com.slang.parser.symbol.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 编译好的LL(1)预测分析表
+ * 预测分析表是稠密的二维整数数组：行为非终结符编号，列为终结符编号（即Token种类），值为产生式编号，没有产生式时为-1。
+ * 产生式右部预先编译为文法符号编号的数组，语法分析时每一步只需要查数组，不需要创建对象或计算哈希。
+ * 文法只随编译器本身变化，因此预测分析表可以预先生成并以紧凑的二进制形式保存，启动时直接读取，
+ * 不必每次都重新扫描文法、计算FIRST集和FOLLOW集。保存的表记录了生成它的文法的哈希，文法变化后旧的表不会被使用
+ */
+public class PredictTable {
+    private static final int MAGIC = 0x534c5054;
+    private static final int VERSION = 1;
+
+    /**
+     * 文法符号的类别
+     */
+    public static final byte SYMBOL_TERMINAL = 0;
+    public static final byte SYMBOL_NON_TERMINAL = 1;
+    public static final byte SYMBOL_EPSILON = 2;
+
+    private ArrayList<NonTerminal> nonTerminals;
+    /**
+     * 文法符号，下标即为文法符号编号
+     * 需要传递给AST构造器的终结符和不需要传递的终结符即使Token种类相同也是不同的文法符号
+     */
+    private GrammarSymbol[] symbols;
+    private byte[] symbolTypes;
+    /**
+     * 终结符为其Token种类，非终结符为其编号
+     */
+    private int[] symbolIds;
+    private boolean[] symbolPassToAstBuilder;
+    private int startSymbol;
+
+    /**
+     * 产生式及其右部的文法符号编号，下标即为产生式编号
+     */
+    private Production[] productions;
+    private int[][] rightHandSides;
+
+    private int[][] predictTable;
+
+    /**
+     * @param nonTerminals 非终结符，下标即为非终结符编号
+     * @param symbols 文法符号，下标即为文法符号编号
+     * @param startSymbol 开始符号的编号
+     * @param productions 产生式，下标即为产生式编号
+     * @param rightHandSides 产生式右部的文法符号编号
+     * @param predictTable 预测分析表
+     */
+    public PredictTable(ArrayList<NonTerminal> nonTerminals, GrammarSymbol[] symbols, int startSymbol,
+                        Production[] productions, int[][] rightHandSides, int[][] predictTable) {
+        this.nonTerminals = nonTerminals;
+        this.symbols = symbols;
+        this.startSymbol = startSymbol;
+        this.productions = productions;
+        this.rightHandSides = rightHandSides;
+        this.predictTable = predictTable;
+
+        this.symbolTypes = new byte[symbols.length];
+        this.symbolIds = new int[symbols.length];
+        this.symbolPassToAstBuilder = new boolean[symbols.length];
+        for (int code = 0; code < symbols.length; code++) {
+            GrammarSymbol symbol = symbols[code];
+            if (symbol instanceof Terminal) {
+                this.symbolTypes[code] = SYMBOL_TERMINAL;
+                this.symbolIds[code] = ((Terminal) symbol).id;
+                this.symbolPassToAstBuilder[code] = ((Terminal) symbol).passToAstBuilder;
+            } else if (symbol instanceof NonTerminal) {
+                this.symbolTypes[code] = SYMBOL_NON_TERMINAL;
+                this.symbolIds[code] = nonTerminals.indexOf(symbol);
+            } else {
+                this.symbolTypes[code] = SYMBOL_EPSILON;
+            }
+        }
+    }
+
+    /**
+     * 查找预测分析表
+     * @param nonTerminalId 非终结符编号
+     * @param kind 向前看Token的种类
+     * @return 产生式编号，没有可用的产生式时返回-1
+     */
+    public int predict(int nonTerminalId, int kind) {
+        int[] row = this.predictTable[nonTerminalId];
+        return kind < row.length ? row[kind] : -1;
+    }
+
+    public int getNonTerminalCount() {
+        return this.nonTerminals.size();
+    }
+
+    public NonTerminal getNonTerminal(int nonTerminalId) {
+        return this.nonTerminals.get(nonTerminalId);
+    }
+
+    public int getStartSymbol() {
+        return this.startSymbol;
+    }
+
+    /**
+     * 查找非终结符的文法符号编号
+     * @param name 非终结符名
+     * @return 文法符号编号，不存在时返回-1
+     */
+    public int getNonTerminalSymbol(String name) {
+        for (int code = 0; code < this.symbols.length; code++) {
+            if (this.symbolTypes[code] == SYMBOL_NON_TERMINAL && ((NonTerminal) this.symbols[code]).name.equals(name)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    public GrammarSymbol getSymbol(int code) {
+        return this.symbols[code];
+    }
+
+    public byte[] getSymbolTypes() {
+        return this.symbolTypes;
+    }
+
+    public int[] getSymbolIds() {
+        return this.symbolIds;
+    }
+
+    public boolean[] getSymbolPassToAstBuilder() {
+        return this.symbolPassToAstBuilder;
+    }
+
+    public int getSymbolCount() {
+        return this.symbols.length;
+    }
+
+    public int getProductionCount() {
+        return this.productions.length;
+    }
+
+    public Production getProduction(int production) {
+        return this.productions[production];
+    }
+
+    public int[] getRightHandSide(int production) {
+        return this.rightHandSides[production];
+    }
+
+    public void printParseTable() {
+        System.out.println("Parse table:");
+        for (int nonTerminalId = 0; nonTerminalId < this.predictTable.length; nonTerminalId++) {
+            int[] row = this.predictTable[nonTerminalId];
+            for (int kind = 0; kind < row.length; kind++) {
+                if (row[kind] != -1) {
+                    System.out.println(String.format("[%s, %s] %s", this.nonTerminals.get(nonTerminalId), TokenKind.getName(kind), this.productions[row[kind]]));
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算文法的哈希（64位FNV-1a）
+     * 只用于发现文法的变化，不需要抵抗刻意构造的冲突，因此不使用MessageDigest，避免在启动时初始化安全提供者
+     * @param grammars 各个文法文件的内容
+     * @return 哈希
+     */
+    public static long hash(List<byte[]> grammars) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte[] grammar : grammars) {
+            for (byte b : grammar) {
+                hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+            }
+            // 分隔各个文件，避免内容在文件之间移动时哈希不变
+            hash = (hash ^ 0xFF) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 以二进制形式保存预测分析表
+     * Token种类的编号在每次运行时可能不同，因此终结符以Token名保存
+     * @param outputStream 输出流
+     * @param grammarHash 生成该表的文法的哈希
+     */
+    public void save(OutputStream outputStream, long grammarHash) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(grammarHash);
+
+        output.writeInt(this.nonTerminals.size());
+        for (NonTerminal nonTerminal : this.nonTerminals) {
+            output.writeUTF(nonTerminal.name);
+        }
+        output.writeInt(this.symbols.length);
+        for (int code = 0; code < this.symbols.length; code++) {
+            output.writeByte(this.symbolTypes[code]);
+            if (this.symbolTypes[code] == SYMBOL_TERMINAL) {
+                output.writeUTF(((Terminal) this.symbols[code]).tokenName);
+                output.writeBoolean(this.symbolPassToAstBuilder[code]);
+            } else if (this.symbolTypes[code] == SYMBOL_NON_TERMINAL) {
+                output.writeInt(this.symbolIds[code]);
+            }
+        }
+        output.writeInt(this.startSymbol);
+        output.writeInt(this.productions.length);
+        for (int i = 0; i < this.productions.length; i++) {
+            output.writeUTF(this.productions[i].getName());
+            output.writeInt(this.nonTerminals.indexOf(this.productions[i].getLeftHandSide()));
+            output.writeInt(this.rightHandSides[i].length);
+            for (int code : this.rightHandSides[i]) {
+                output.writeInt(code);
+            }
+        }
+        // 预测分析表很稀疏，每一行只保存有产生式的格
+        for (int[] row : this.predictTable) {
+            int count = 0;
+            for (int production : row) {
+                if (production != -1) {
+                    count++;
+                }
+            }
+            output.writeInt(count);
+            for (int kind = 0; kind < row.length; kind++) {
+                if (row[kind] != -1) {
+                    output.writeUTF(TokenKind.getName(kind));
+                    output.writeInt(row[kind]);
+                }
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * 读取以二进制形式保存的预测分析表
+     * @param inputStream 输入流
+     * @param grammarHash 当前文法的哈希
+     * @return 预测分析表，表不是由当前文法生成或者已经损坏时返回null
+     */
+    public static PredictTable load(InputStream inputStream, long grammarHash) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readLong() != grammarHash) {
+                return null;
+            }
+
+            ArrayList<NonTerminal> nonTerminals = new ArrayList<>();
+            int nonTerminalCount = input.readInt();
+            for (int i = 0; i < nonTerminalCount; i++) {
+                nonTerminals.add(GrammarSymbolFactory.nonTerminal(input.readUTF()));
+            }
+            GrammarSymbol[] symbols = new GrammarSymbol[input.readInt()];
+            for (int code = 0; code < symbols.length; code++) {
+                byte type = input.readByte();
+                if (type == SYMBOL_TERMINAL) {
+                    String name = input.readUTF();
+                    symbols[code] = GrammarSymbolFactory.terminal(name, input.readBoolean());
+                } else if (type == SYMBOL_NON_TERMINAL) {
+                    symbols[code] = nonTerminals.get(input.readInt());
+                } else {
+                    symbols[code] = GrammarSymbolFactory.epsilon();
+                }
+            }
+            int startSymbol = input.readInt();
+            Production[] productions = new Production[input.readInt()];
+            int[][] rightHandSides = new int[productions.length][];
+            for (int i = 0; i < productions.length; i++) {
+                productions[i] = new Production(input.readUTF(), nonTerminals.get(input.readInt()));
+                rightHandSides[i] = new int[input.readInt()];
+                for (int j = 0; j < rightHandSides[i].length; j++) {
+                    rightHandSides[i][j] = input.readInt();
+                    productions[i].addRightHandSideSymbol(symbols[rightHandSides[i][j]]);
+                }
+            }
+            String[][] kindNames = new String[nonTerminalCount][];
+            int[][] cells = new int[nonTerminalCount][];
+            for (int i = 0; i < nonTerminalCount; i++) {
+                int count = input.readInt();
+                kindNames[i] = new String[count];
+                cells[i] = new int[count];
+                for (int j = 0; j < count; j++) {
+                    kindNames[i][j] = input.readUTF();
+                    cells[i][j] = input.readInt();
+                }
+            }
+            // 所有终结符都分配了Token种类之后才能确定表的宽度
+            int[][] kinds = new int[nonTerminalCount][];
+            for (int i = 0; i < nonTerminalCount; i++) {
+                kinds[i] = new int[kindNames[i].length];
+                for (int j = 0; j < kinds[i].length; j++) {
+                    kinds[i][j] = TokenKind.of(kindNames[i][j]);
+                }
+            }
+            int[][] predictTable = new int[nonTerminalCount][TokenKind.count()];
+            for (int i = 0; i < nonTerminalCount; i++) {
+                Arrays.fill(predictTable[i], -1);
+                for (int j = 0; j < kinds[i].length; j++) {
+                    predictTable[i][kinds[i][j]] = cells[i][j];
+                }
+            }
+            return new PredictTable(nonTerminals, symbols, startSymbol, productions, rightHandSides, predictTable);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -2,77 +2,182 @@ package com.slang.parser;
 
 import com.slang.lexer.Token;
 import com.slang.lexer.TokenStream;
-import com.slang.parser.generator.PredictTableGenerator;
-import com.slang.parser.symbol.*;
-import com.slang.utils.Pair;
 import com.slang.utils.Panic;
 
-import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Arrays;
+
+/**
+ * 表驱动的LL(1)语法分析器
+ * 分析栈和预测分析表都是整数数组，除了生成语法树结点之外，每一步分析不会创建对象
+ */
+public class RdScanner implements Parser {
+    private static final int INITIAL_STACK_CAPACITY = 64;
 
-public class RdScanner {
     private TokenStream tokenStream;
-    private PredictTableGenerator predictTableGenerator;
+    private PredictTable predictTable;
+    /**
+     * 是否记录结点的第一个Token的下标，只有Token流建立在全部Token上时下标才有意义
+     */
+    private boolean recordOffsets;
 
-    public RdScanner(TokenStream tokenStream, PredictTableGenerator predictTableGenerator) {
+    public RdScanner(TokenStream tokenStream, PredictTable predictTable) {
         this.tokenStream = tokenStream;
-        this.predictTableGenerator = predictTableGenerator;
+        this.predictTable = predictTable;
+        this.recordOffsets = tokenStream.isFullyBuffered();
     }
 
+    @Override
     public ParseTreeNode buildParseTree() {
-        Stack<Pair<GrammarSymbol, ParseTreeNode>> parseStack = new Stack<>();
-        NonTerminal startSymbol = GrammarSymbolFactory.start();
-        Token lookAhead = this.tokenStream.lookAhead();
-        Production useProduction = this.predictTableGenerator.getProduction(startSymbol, GrammarSymbolFactory.terminal(lookAhead.name, false));
-        ParseTreeNode rootNode = new ParseTreeNode(startSymbol, useProduction.getName());
-        parseStack.push(new Pair<>(startSymbol, rootNode));
-        while (!parseStack.empty()) {
-            lookAhead = this.tokenStream.lookAhead();
-            Pair<GrammarSymbol, ParseTreeNode> current = parseStack.peek();
-
-            if (current.first instanceof Terminal) {
-                Token token = this.tokenStream.next();
-                if (!token.name.equals(((Terminal) current.first).tokenName)) {
-                    Panic panic = new Panic(String.format("Unexpected token: %s, expected %s", token.name, ((Terminal) current.first).tokenName),
-                            token.codeAxis);
+        int startSymbol = this.predictTable.getStartSymbol();
+        int useProduction = this.predictTable.predict(this.predictTable.getSymbolIds()[startSymbol], this.tokenStream.lookAheadKind());
+        if (useProduction == -1) {
+            Token lookAhead = this.tokenStream.lookAhead();
+            Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
+            panic.show();
+        }
+        ParseTreeNode rootNode = new ParseTreeNode(this.predictTable.getSymbol(startSymbol), this.predictTable.getProduction(useProduction).getName(), useProduction);
+        this.parse(rootNode, startSymbol);
+        this.checkFinished();
+        return rootNode;
+    }
+
+    /**
+     * 分析完开始符号之后不能还有剩余的Token
+     */
+    private void checkFinished() {
+        if (!tokenStream.isFinished()) {
+            Token lastToken = tokenStream.next();
+            while (!tokenStream.isFinished()) lastToken = tokenStream.next();
+            Panic panic = new Panic(String.format("Unexpected token %s at the end of the file", lastToken.toString()), lastToken.getPosition());
+            panic.show();
+        }
+    }
+
+    /**
+     * 只识别Token流是否符合文法，不生成语法树，报告的错误与buildParseTree()相同
+     * 分析栈中只有文法符号，所有终结符都直接跳过，除了报错之外不创建任何对象
+     */
+    public void recognize() {
+        PredictTable table = this.predictTable;
+        byte[] symbolTypes = table.getSymbolTypes();
+        int[] symbolIds = table.getSymbolIds();
+
+        int[] symbolStack = new int[INITIAL_STACK_CAPACITY];
+        int top = 0;
+        symbolStack[top++] = table.getStartSymbol();
+        while (top > 0) {
+            int lookAheadKind = this.tokenStream.lookAheadKind();
+            int current = symbolStack[--top];
+
+            if (symbolTypes[current] == PredictTable.SYMBOL_TERMINAL) {
+                if (lookAheadKind != symbolIds[current]) {
+                    Token token = this.tokenStream.lookAhead();
+                    Panic panic = new Panic(String.format("Unexpected token: %s, expected %s", token.getName(), table.getSymbol(current)),
+                            token.getPosition());
                     panic.show();
                 }
-                if (((Terminal) current.first).passToAstBuilder) {
-                    current.second.addChild(new ParseTreeNode(current.first, token));
-                }
-                parseStack.pop();
+                this.tokenStream.skip();
                 continue;
-            } else if (current.first instanceof Epsilon) {
-                current.second.addChild(new ParseTreeNode(current.first));
-                parseStack.pop();
+            } else if (symbolTypes[current] == PredictTable.SYMBOL_EPSILON) {
                 continue;
             }
 
-            Terminal terminal = GrammarSymbolFactory.terminal(lookAhead.name, false);
-            assert current.first instanceof NonTerminal;
-            if (!this.predictTableGenerator.hasProduction((NonTerminal) current.first, terminal)) {
-                Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.name), lookAhead.codeAxis);
+            int useProduction = table.predict(symbolIds[current], lookAheadKind);
+            if (useProduction == -1) {
+                Token lookAhead = this.tokenStream.lookAhead();
+                Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
                 panic.show();
             }
 
-            useProduction = this.predictTableGenerator.getProduction((NonTerminal) current.first, terminal);
-            ParseTreeNode child = new ParseTreeNode(current.first, useProduction.getName());
-            current.second.addChild(child);
-            parseStack.pop();
-
-            ArrayList<GrammarSymbol> rightHandSide = useProduction.getRightHandSide();
-            for (int i = rightHandSide.size() - 1; i >= 0; i--) {
-                parseStack.add(new Pair<>(rightHandSide.get(i), child));
+            int[] rightHandSide = table.getRightHandSide(useProduction);
+            if (top + rightHandSide.length > symbolStack.length) {
+                symbolStack = Arrays.copyOf(symbolStack, Math.max(symbolStack.length << 1, top + rightHandSide.length));
+            }
+            for (int i = rightHandSide.length - 1; i >= 0; i--) {
+                symbolStack[top++] = rightHandSide[i];
             }
         }
+        this.checkFinished();
+    }
 
-        if (!tokenStream.isFinished()) {
-            Token lastToken = tokenStream.next();
-            while (!tokenStream.isFinished()) lastToken = tokenStream.next();
-            Panic panic = new Panic(String.format("Unexpected token %s at the end of the file", lastToken.toString()), lastToken.codeAxis);
-            panic.show();
-        }
+    /**
+     * 从Token流的当前位置分析一个非终结符
+     * @param parentNode 父结点，该非终结符的语法树作为它的子结点
+     * @param symbol 非终结符的文法符号编号
+     */
+    public void parse(ParseTreeNode parentNode, int symbol) {
+        PredictTable table = this.predictTable;
+        byte[] symbolTypes = table.getSymbolTypes();
+        int[] symbolIds = table.getSymbolIds();
+        boolean[] symbolPassToAstBuilder = table.getSymbolPassToAstBuilder();
 
-        return rootNode;
+        // 分析栈，文法符号以编号保存，与其父结点分别存放在两个平行的数组中
+        int[] symbolStack = new int[INITIAL_STACK_CAPACITY];
+        ParseTreeNode[] parentStack = new ParseTreeNode[INITIAL_STACK_CAPACITY];
+        int top = 0;
+
+        symbolStack[top] = symbol;
+        parentStack[top] = parentNode;
+        top++;
+        while (top > 0) {
+            int lookAheadKind = this.tokenStream.lookAheadKind();
+            int current = symbolStack[top - 1];
+            ParseTreeNode parent = parentStack[top - 1];
+
+            if (symbolTypes[current] == PredictTable.SYMBOL_TERMINAL) {
+                if (lookAheadKind != symbolIds[current]) {
+                    Token token = this.tokenStream.lookAhead();
+                    Panic panic = new Panic(String.format("Unexpected token: %s, expected %s", token.getName(), table.getSymbol(current)),
+                            token.getPosition());
+                    panic.show();
+                }
+                // 只有需要传递给AST构造器的终结符才生成Token对象
+                if (symbolPassToAstBuilder[current]) {
+                    ParseTreeNode leaf = new ParseTreeNode(table.getSymbol(current), this.tokenStream.next());
+                    if (this.recordOffsets) {
+                        leaf.setTokenOffset(this.tokenStream.getIndex() - 1);
+                    }
+                    parent.addChild(leaf);
+                } else {
+                    this.tokenStream.skip();
+                }
+                top--;
+                continue;
+            } else if (symbolTypes[current] == PredictTable.SYMBOL_EPSILON) {
+                ParseTreeNode leaf = new ParseTreeNode(table.getSymbol(current));
+                if (this.recordOffsets) {
+                    leaf.setTokenOffset(this.tokenStream.getIndex());
+                }
+                parent.addChild(leaf);
+                top--;
+                continue;
+            }
+
+            int useProduction = table.predict(symbolIds[current], lookAheadKind);
+            if (useProduction == -1) {
+                Token lookAhead = this.tokenStream.lookAhead();
+                Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
+                panic.show();
+            }
+
+            ParseTreeNode child = new ParseTreeNode(table.getSymbol(current), table.getProduction(useProduction).getName(), useProduction);
+            if (this.recordOffsets) {
+                child.setTokenOffset(this.tokenStream.getIndex());
+            }
+            parent.addChild(child);
+            top--;
+
+            int[] rightHandSide = table.getRightHandSide(useProduction);
+            if (top + rightHandSide.length > symbolStack.length) {
+                int capacity = Math.max(symbolStack.length << 1, top + rightHandSide.length);
+                symbolStack = Arrays.copyOf(symbolStack, capacity);
+                parentStack = Arrays.copyOf(parentStack, capacity);
+            }
+            for (int i = rightHandSide.length - 1; i >= 0; i--) {
+                symbolStack[top] = rightHandSide[i];
+                parentStack[top] = child;
+                top++;
+            }
+        }
     }
 }
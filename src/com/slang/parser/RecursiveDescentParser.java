@@ -0,0 +1,95 @@
+package com.slang.parser;
+
+import com.slang.lexer.Token;
+import com.slang.lexer.TokenKind;
+import com.slang.lexer.TokenStream;
+import com.slang.parser.symbol.Terminal;
+import com.slang.utils.Panic;
+
+import java.util.Arrays;
+
+/**
+ * 生成的递归下降语法分析器的基类
+ * 生成的分析器为每个非终结符生成一个方法，在向前看Token上switch选择产生式。
+ * Token种类在运行时才分配编号，不能直接作为case标签，因此生成的分析器为文法中的终结符按顺序编号，
+ * 分析时先把Token种类映射为终结符编号
+ */
+public abstract class RecursiveDescentParser implements Parser {
+    protected TokenStream tokenStream;
+    /**
+     * Token种类到终结符编号的映射，不在文法中的Token种类为-1
+     */
+    private final int[] terminals;
+
+    protected RecursiveDescentParser(TokenStream tokenStream, int[] terminals) {
+        this.tokenStream = tokenStream;
+        this.terminals = terminals;
+    }
+
+    /**
+     * 建立Token种类到终结符编号的映射
+     * @param terminalNames 终结符的Token名，下标即为终结符编号
+     * @return 映射
+     */
+    protected static int[] mapTerminals(String[] terminalNames) {
+        int[] kinds = new int[terminalNames.length];
+        for (int i = 0; i < terminalNames.length; i++) {
+            kinds[i] = TokenKind.of(terminalNames[i]);
+        }
+        int[] terminals = new int[TokenKind.count()];
+        Arrays.fill(terminals, -1);
+        for (int i = 0; i < kinds.length; i++) {
+            terminals[kinds[i]] = i;
+        }
+        return terminals;
+    }
+
+    /**
+     * 获取向前看Token的终结符编号
+     * @return 终结符编号，不在文法中的Token为-1
+     */
+    protected int lookAhead() {
+        int kind = this.tokenStream.lookAheadKind();
+        return kind < this.terminals.length ? this.terminals[kind] : -1;
+    }
+
+    /**
+     * 匹配一个终结符
+     * @param parent 父结点
+     * @param terminal 终结符编号
+     * @param symbol 终结符，只有需要传递给AST构造器的终结符才生成Token对象
+     */
+    protected void match(ParseTreeNode parent, int terminal, Terminal symbol) {
+        if (this.lookAhead() != terminal) {
+            Token token = this.tokenStream.lookAhead();
+            Panic panic = new Panic(String.format("Unexpected token: %s, expected %s", token.getName(), symbol), token.getPosition());
+            panic.show();
+        }
+        if (symbol.passToAstBuilder) {
+            parent.addChild(new ParseTreeNode(symbol, this.tokenStream.next()));
+        } else {
+            this.tokenStream.skip();
+        }
+    }
+
+    /**
+     * 向前看Token不能开始任何产生式
+     */
+    protected void unexpected() {
+        Token lookAhead = this.tokenStream.lookAhead();
+        Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
+        panic.show();
+    }
+
+    /**
+     * 检查Token流是否已经全部分析完
+     */
+    protected void finish() {
+        if (!this.tokenStream.isFinished()) {
+            Token lastToken = this.tokenStream.next();
+            while (!this.tokenStream.isFinished()) lastToken = this.tokenStream.next();
+            Panic panic = new Panic(String.format("Unexpected token %s at the end of the file", lastToken.toString()), lastToken.getPosition());
+            panic.show();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.slang.parser;
+
+import com.slang.lexer.IncludeGraph;
+import com.slang.lexer.TokenStream;
+import com.slang.utils.Panic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 语法检查
+ * 只让Token流经过LL(1)识别器（见RdScanner.recognize()），不生成语法树、AST和符号表，也不进行语义检查。
+ * 多个源文件在同一个进程中并行检查，共用预测分析表，同时进行的检查个数有上限，每个文件检查完毕后立即注销它的源文件，
+ * 因此检查大量文件时内存占用不随文件个数增长。检查不经过TokenCache，被导入的模块在每次检查中各自进行词法分析，
+ * 标识符也不放入字符串池。
+ * 每个文件只报告第一个错误，按给定文件的顺序输出；没有错误的文件不输出任何内容
+ */
+public class SyntaxChecker {
+    /**
+     * 同时进行的检查个数与并行度之比
+     */
+    private static final int TASKS_PER_THREAD = 2;
+
+    private PredictTable predictTable;
+    /**
+     * 模块导入的搜索路径，每次检查都添加到各自的模块导入图中
+     */
+    private ArrayList<String> searchPath = new ArrayList<>();
+
+    public SyntaxChecker(PredictTable predictTable) {
+        this.predictTable = predictTable;
+    }
+
+    /**
+     * 添加模块导入的搜索路径，只能在开始检查之前添加
+     * @param directory 目录
+     */
+    public void addSearchPath(String directory) {
+        this.searchPath.add(directory);
+    }
+
+    /**
+     * 检查一个源文件
+     * @return 第一个词法或语法错误，没有错误时返回null
+     */
+    public Panic check(String path) {
+        boolean deferred = Panic.setDeferred(true);
+        TokenStream tokenStream = null;
+        try {
+            IncludeGraph includeGraph = new IncludeGraph(path, false, false);
+            includeGraph.setInternIdentifiers(false);
+            for (String directory : this.searchPath) {
+                includeGraph.addSearchPath(directory);
+            }
+            tokenStream = new TokenStream(includeGraph, false);
+            new RdScanner(tokenStream, this.predictTable).recognize();
+            return null;
+        } catch (Panic.Deferred deferredPanic) {
+            // 源文件注销之前换算错误的位置
+            deferredPanic.panic.locate();
+            return deferredPanic.panic;
+        } finally {
+            if (tokenStream != null) {
+                tokenStream.close();
+            }
+            Panic.setDeferred(deferred);
+        }
+    }
+
+    /**
+     * 并行检查多个源文件，并按顺序输出其中的错误
+     * 最早提交的检查完成后才提交新的检查，同时进行的检查个数不超过并行度的TASKS_PER_THREAD倍
+     * @return 有错误的文件个数
+     */
+    public int checkAll(List<String> paths) {
+        int window = SyntaxChecker.TASKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism();
+        ArrayDeque<ForkJoinTask<Panic>> tasks = new ArrayDeque<>();
+        int failed = 0;
+        for (String path : paths) {
+            if (tasks.size() == window) {
+                failed += SyntaxChecker.report(tasks.poll());
+            }
+            tasks.add(ForkJoinPool.commonPool().submit(() -> this.check(path)));
+        }
+        while (!tasks.isEmpty()) {
+            failed += SyntaxChecker.report(tasks.poll());
+        }
+        return failed;
+    }
+
+    /**
+     * 等待检查完成并输出其中的错误
+     * @return 有错误时返回1，否则0
+     */
+    private static int report(ForkJoinTask<Panic> task) {
+        Panic panic = task.join();
+        if (panic == null) {
+            return 0;
+        }
+        panic.print();
+        return 1;
+    }
+}
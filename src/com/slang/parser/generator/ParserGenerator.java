@@ -0,0 +1,290 @@
+package com.slang.parser.generator;
+
+import com.slang.lexer.TokenKind;
+import com.slang.parser.PredictTable;
+import com.slang.parser.symbol.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * 递归下降语法分析器生成器
+ * 根据预测分析表生成Java源代码：每个非终结符对应一个方法，在向前看Token的终结符编号上switch选择产生式，
+ * 产生式右部展开为依次匹配终结符、调用非终结符方法的代码。右部最后一个符号是左部自身（如各种Suffix）时，
+ * 生成循环而不是递归调用，长的语句序列和表达式链不会让调用栈变深。
+ * 生成的分析器与RdScanner生成完全相同的语法树，但不需要在运行时查表和维护分析栈，JIT可以对每个方法单独内联和优化
+ */
+public class ParserGenerator {
+    private PredictTable predictTable;
+    private long grammarHash;
+
+    /**
+     * 文法中出现的终结符的Token名，下标即为生成的分析器中的终结符编号
+     */
+    private ArrayList<String> terminalNames = new ArrayList<>();
+    private HashMap<String, Integer> terminalIds = new HashMap<>();
+    private HashMap<NonTerminal, Integer> nonTerminalIds = new HashMap<>();
+    /**
+     * 每个非终结符（按编号）的每个产生式（按编号）预测的终结符编号
+     */
+    private ArrayList<HashMap<Integer, ArrayList<Integer>>> lookAheads = new ArrayList<>();
+
+    private StringBuilder out = new StringBuilder();
+
+    /**
+     * @param predictTable 预测分析表
+     * @param grammarHash 文法的哈希，生成的分析器据此判断是否与当前文法一致
+     */
+    public ParserGenerator(PredictTable predictTable, long grammarHash) {
+        this.predictTable = predictTable;
+        this.grammarHash = grammarHash;
+        this.numberTerminals();
+    }
+
+    /**
+     * 为终结符编号
+     * Token种类的编号与加载顺序有关，这里按文法符号编号的顺序为终结符编号，保证每次生成的代码都相同
+     */
+    private void numberTerminals() {
+        for (int code = 0; code < this.predictTable.getSymbolCount(); code++) {
+            GrammarSymbol symbol = this.predictTable.getSymbol(code);
+            if (symbol instanceof Terminal) {
+                this.getTerminalId(((Terminal) symbol).tokenName);
+            }
+        }
+        // 只出现在FOLLOW集中的终结符（如文件尾符号$$）
+        this.getTerminalId(GrammarSymbolFactory.endOfFile().tokenName);
+
+        for (int nonTerminalId = 0; nonTerminalId < this.predictTable.getNonTerminalCount(); nonTerminalId++) {
+            this.nonTerminalIds.put(this.predictTable.getNonTerminal(nonTerminalId), nonTerminalId);
+            HashMap<Integer, ArrayList<Integer>> productions = new HashMap<>();
+            for (int kind = 0; kind < TokenKind.count(); kind++) {
+                int production = this.predictTable.predict(nonTerminalId, kind);
+                if (production != -1) {
+                    productions.computeIfAbsent(production, k -> new ArrayList<>()).add(this.getTerminalId(TokenKind.getName(kind)));
+                }
+            }
+            for (ArrayList<Integer> terminals : productions.values()) {
+                Collections.sort(terminals);
+            }
+            this.lookAheads.add(productions);
+        }
+    }
+
+    private int getTerminalId(String name) {
+        Integer id = this.terminalIds.get(name);
+        if (id == null) {
+            id = this.terminalNames.size();
+            this.terminalNames.add(name);
+            this.terminalIds.put(name, id);
+        }
+        return id;
+    }
+
+    private static String quote(String value) {
+        return String.format("\"%s\"", value.replace("\\", "\\\\").replace("\"", "\\\""));
+    }
+
+    private String symbolField(int code) {
+        return String.format("SYMBOL_%d", code);
+    }
+
+    private void line(int indent, String format, Object... args) {
+        for (int i = 0; i < indent; i++) {
+            this.out.append("    ");
+        }
+        this.out.append(String.format(format, args)).append('\n');
+    }
+
+    /**
+     * 生成递归下降语法分析器的源代码
+     * @param packageName 包名
+     * @param className 类名
+     * @return Java源代码
+     */
+    public String generate(String packageName, String className) {
+        this.out.setLength(0);
+        this.line(0, "package %s;", packageName);
+        this.line(0, "");
+        this.line(0, "import com.slang.lexer.TokenStream;");
+        this.line(0, "import com.slang.parser.symbol.*;");
+        this.line(0, "");
+        this.line(0, "/**");
+        this.line(0, " * 由ParserGenerator根据文法生成的递归下降语法分析器，不要手动修改");
+        this.line(0, " * 修改文法之后需要使用-p重新生成");
+        this.line(0, " */");
+        this.line(0, "public class %s extends RecursiveDescentParser {", className);
+        this.line(1, "public static final long GRAMMAR_HASH = 0x%xL;", this.grammarHash);
+        this.line(0, "");
+        this.generateFields();
+        this.line(0, "");
+        this.line(1, "public %s(TokenStream tokenStream) {", className);
+        this.line(2, "super(tokenStream, TERMINALS);");
+        this.line(1, "}");
+        this.line(0, "");
+        this.generateEntry();
+        for (int nonTerminalId = 0; nonTerminalId < this.predictTable.getNonTerminalCount(); nonTerminalId++) {
+            this.line(0, "");
+            this.generateMethod(nonTerminalId);
+        }
+        this.line(0, "}");
+        return this.out.toString();
+    }
+
+    private void generateFields() {
+        this.line(1, "private static final String[] TERMINAL_NAMES = {");
+        for (int i = 0; i < this.terminalNames.size(); i++) {
+            this.line(2, "%s%s", ParserGenerator.quote(this.terminalNames.get(i)), i < this.terminalNames.size() - 1 ? "," : "");
+        }
+        this.line(1, "};");
+        this.line(1, "private static final int[] TERMINALS = RecursiveDescentParser.mapTerminals(TERMINAL_NAMES);");
+        this.line(0, "");
+        for (int code = 0; code < this.predictTable.getSymbolCount(); code++) {
+            GrammarSymbol symbol = this.predictTable.getSymbol(code);
+            if (symbol instanceof Terminal) {
+                Terminal terminal = (Terminal) symbol;
+                this.line(1, "private static final Terminal %s = GrammarSymbolFactory.terminal(%s, %b);",
+                        this.symbolField(code), ParserGenerator.quote(terminal.tokenName), terminal.passToAstBuilder);
+            } else if (symbol instanceof Epsilon) {
+                this.line(1, "private static final Epsilon %s = GrammarSymbolFactory.epsilon();", this.symbolField(code));
+            }
+        }
+        for (int nonTerminalId = 0; nonTerminalId < this.predictTable.getNonTerminalCount(); nonTerminalId++) {
+            this.line(1, "private static final NonTerminal %s = GrammarSymbolFactory.nonTerminal(%s);",
+                    this.nonTerminalField(nonTerminalId), ParserGenerator.quote(this.predictTable.getNonTerminal(nonTerminalId).name));
+        }
+    }
+
+    private String nonTerminalField(int nonTerminalId) {
+        return String.format("NON_TERMINAL_%d", nonTerminalId);
+    }
+
+    private String methodName(NonTerminal nonTerminal) {
+        return String.format("parse%s", nonTerminal.name);
+    }
+
+    /**
+     * 生成一组case标签
+     */
+    private void generateCases(int indent, ArrayList<Integer> terminals) {
+        for (int terminal : terminals) {
+            this.line(indent, "case %d: // %s", terminal, this.terminalNames.get(terminal));
+        }
+    }
+
+    /**
+     * 生成语法分析的入口
+     * 与RdScanner一致，根结点与其唯一的子结点都是开始符号
+     */
+    private void generateEntry() {
+        NonTerminal start = (NonTerminal) this.predictTable.getSymbol(this.predictTable.getStartSymbol());
+        int startId = this.nonTerminalIds.get(start);
+        HashMap<Integer, ArrayList<Integer>> productions = this.lookAheads.get(startId);
+        this.line(1, "@Override");
+        this.line(1, "public ParseTreeNode buildParseTree() {");
+        this.line(2, "ParseTreeNode root = null;");
+        this.line(2, "switch (this.lookAhead()) {");
+        for (int production = 0; production < this.predictTable.getProductionCount(); production++) {
+            if (!productions.containsKey(production)) {
+                continue;
+            }
+            this.generateCases(3, productions.get(production));
+            this.line(4, "root = new ParseTreeNode(%s, %s, %d);", this.nonTerminalField(startId),
+                    ParserGenerator.quote(this.predictTable.getProduction(production).getName()), production);
+            this.line(4, "break;");
+        }
+        this.line(3, "default:");
+        this.line(4, "this.unexpected();");
+        this.line(2, "}");
+        this.line(2, "this.%s(root);", this.methodName(start));
+        this.line(2, "this.finish();");
+        this.line(2, "return root;");
+        this.line(1, "}");
+    }
+
+    /**
+     * 产生式是否以某个非终结符结尾
+     */
+    private boolean endsWith(int production, int nonTerminalId) {
+        int[] rightHandSide = this.predictTable.getRightHandSide(production);
+        if (rightHandSide.length == 0) {
+            return false;
+        }
+        int last = rightHandSide[rightHandSide.length - 1];
+        return this.predictTable.getSymbolTypes()[last] == PredictTable.SYMBOL_NON_TERMINAL
+                && this.predictTable.getSymbolIds()[last] == nonTerminalId;
+    }
+
+    private void generateMethod(int nonTerminalId) {
+        NonTerminal nonTerminal = this.predictTable.getNonTerminal(nonTerminalId);
+        HashMap<Integer, ArrayList<Integer>> productions = this.lookAheads.get(nonTerminalId);
+        int[] symbolIds = this.predictTable.getSymbolIds();
+        byte[] symbolTypes = this.predictTable.getSymbolTypes();
+
+        // 有产生式以自身结尾时，整个方法包在循环中
+        boolean loop = false;
+        for (int production : productions.keySet()) {
+            loop |= this.endsWith(production, nonTerminalId);
+        }
+        int indent = loop ? 3 : 2;
+
+        this.line(1, "/**");
+        this.line(1, " * %s", nonTerminal);
+        this.line(1, " */");
+        this.line(1, "private void %s(ParseTreeNode parent) {", this.methodName(nonTerminal));
+        if (loop) {
+            this.line(2, "while (true) {");
+        }
+        this.line(indent, "ParseTreeNode node;");
+        this.line(indent, "switch (this.lookAhead()) {");
+        for (int production = 0; production < this.predictTable.getProductionCount(); production++) {
+            if (!productions.containsKey(production)) {
+                continue;
+            }
+            ArrayList<Integer> terminals = productions.get(production);
+            int[] rightHandSide = this.predictTable.getRightHandSide(production);
+            this.generateCases(indent + 1, terminals);
+            this.line(indent + 2, "node = new ParseTreeNode(%s, %s, %d);", this.nonTerminalField(nonTerminalId),
+                    ParserGenerator.quote(this.predictTable.getProduction(production).getName()), production);
+            this.line(indent + 2, "parent.addChild(node);");
+            for (int i = 0; i < rightHandSide.length; i++) {
+                int code = rightHandSide[i];
+                if (symbolTypes[code] == PredictTable.SYMBOL_TERMINAL) {
+                    Terminal terminal = (Terminal) this.predictTable.getSymbol(code);
+                    int terminalId = this.terminalIds.get(terminal.tokenName);
+                    if (i == 0 && terminals.size() == 1 && terminals.get(0) == terminalId) {
+                        // case标签已经保证了向前看Token就是该终结符，不需要再检查
+                        if (terminal.passToAstBuilder) {
+                            this.line(indent + 2, "node.addChild(new ParseTreeNode(%s, this.tokenStream.next()));", this.symbolField(code));
+                        } else {
+                            this.line(indent + 2, "this.tokenStream.skip();");
+                        }
+                    } else {
+                        this.line(indent + 2, "this.match(node, %d, %s); // %s", terminalId, this.symbolField(code), terminal.tokenName);
+                    }
+                } else if (symbolTypes[code] == PredictTable.SYMBOL_NON_TERMINAL) {
+                    if (i == rightHandSide.length - 1 && symbolIds[code] == nonTerminalId) {
+                        this.line(indent + 2, "parent = node;");
+                        this.line(indent + 2, "continue;");
+                        continue;
+                    }
+                    this.line(indent + 2, "this.%s(node);", this.methodName(this.predictTable.getNonTerminal(symbolIds[code])));
+                } else {
+                    this.line(indent + 2, "node.addChild(new ParseTreeNode(%s));", this.symbolField(code));
+                }
+            }
+            if (!this.endsWith(production, nonTerminalId)) {
+                this.line(indent + 2, "return;");
+            }
+        }
+        this.line(indent + 1, "default:");
+        this.line(indent + 2, "this.unexpected();");
+        this.line(indent + 2, "return;");
+        this.line(indent, "}");
+        if (loop) {
+            this.line(2, "}");
+        }
+        this.line(1, "}");
+    }
+}
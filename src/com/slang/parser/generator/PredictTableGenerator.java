@@ -1,183 +1,365 @@
 package com.slang.parser.generator;
 
+import com.slang.lexer.TokenKind;
+import com.slang.parser.PredictTable;
 import com.slang.parser.symbol.*;
-import com.slang.utils.Pair;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.IdentityHashMap;
 
+/**
+ * LL(1)预测分析表生成器
+ * 为非终结符、文法符号和产生式编号后，在编号上用BitSet计算可空性、FIRST集和FOLLOW集（集合的下标为Token种类），
+ * 生成编译好的预测分析表（见PredictTable）。
+ * 集合之间的包含关系（如A ::= B ...时FIRST[B]包含于FIRST[A]）预先整理为依赖边，某个集合变化时只重新传播它的后继，
+ * 生成时间与文法规模近似成线性关系
+ */
 public class PredictTableGenerator {
     private ProductionsGenerator productionsGenerator;
-    private HashMap<GrammarSymbol, HashSet<GrammarSymbol>> firstSet = new HashMap<>();
-    private HashMap<NonTerminal, HashSet<Terminal>> followSet = new HashMap<>();
-    private HashMap<Pair<NonTerminal, Terminal>, Production> parseTable = new HashMap<>();
+
+    /**
+     * 非终结符及其编号
+     */
+    private ArrayList<NonTerminal> nonTerminals = new ArrayList<>();
+    private HashMap<NonTerminal, Integer> nonTerminalIds = new HashMap<>();
+
+    /**
+     * 文法符号及其编号
+     * 需要传递给AST构造器的终结符和不需要传递的终结符即使Token种类相同也是不同的文法符号，因此按对象本身编号
+     */
+    private ArrayList<GrammarSymbol> symbols = new ArrayList<>();
+    private IdentityHashMap<GrammarSymbol, Integer> symbolCodes = new IdentityHashMap<>();
+
+    /**
+     * 产生式及其右部的文法符号编号
+     */
+    private Production[] productions;
+    private int[][] rightHandSides;
+
+    /**
+     * 可空的非终结符，以及每个非终结符的FIRST集和FOLLOW集，均按非终结符编号索引
+     */
+    private BitSet nullable = new BitSet();
+    private BitSet[] firstSets;
+    private BitSet[] followSets;
+
+    /**
+     * 生成预测分析表时发现的LL(1)冲突
+     */
+    private ArrayList<String> conflicts = new ArrayList<>();
+
+    private PredictTable predictTable;
 
     public PredictTableGenerator(ProductionsGenerator productionsGenerator) {
         this.productionsGenerator = productionsGenerator;
-        HashSet<GrammarSymbol> grammarSymbols = productionsGenerator.getSymbols();
-        for (GrammarSymbol grammarSymbol : grammarSymbols) {
-            this.getLeftHandSideFirstSet(grammarSymbol);
-        }
+        this.compileSymbols();
+        this.calculateNullable();
+        this.calculateFirstSet();
         this.calculateFollowSet();
         this.calculateParseTable();
     }
 
-    public void printFirstSet() {
-        System.out.println("First set:");
-        Set<GrammarSymbol> firstSetLeftHandSideGrammarSymbols = this.firstSet.keySet();
-        for (GrammarSymbol leftHandSideGrammarSymbol : firstSetLeftHandSideGrammarSymbols) {
-            System.out.print(String.format("FIRST[%s] = {", leftHandSideGrammarSymbol.toString()));
+    private void printSets(BitSet[] sets, String name) {
+        for (int nonTerminalId = 0; nonTerminalId < this.nonTerminals.size(); nonTerminalId++) {
             ArrayList<String> symbolStrings = new ArrayList<>();
-            for (GrammarSymbol rightHandSideGrammarSymbol : this.firstSet.get(leftHandSideGrammarSymbol)) {
-                symbolStrings.add(rightHandSideGrammarSymbol.toString());
+            BitSet set = sets[nonTerminalId];
+            for (int kind = set.nextSetBit(0); kind >= 0; kind = set.nextSetBit(kind + 1)) {
+                symbolStrings.add(TokenKind.getName(kind));
             }
-            System.out.println(String.format("%s}", String.join(", ", symbolStrings)));
+            if (name.equals("FIRST") && this.nullable.get(nonTerminalId)) {
+                symbolStrings.add(GrammarSymbolFactory.epsilon().toString());
+            }
+            System.out.println(String.format("%s[%s] = {%s}", name, this.nonTerminals.get(nonTerminalId), String.join(", ", symbolStrings)));
         }
     }
 
-    private HashSet<GrammarSymbol> getLeftHandSideFirstSet(GrammarSymbol leftHandSideGrammarSymbol) {
-        if (this.firstSet.containsKey(leftHandSideGrammarSymbol)) {
-            return this.firstSet.get(leftHandSideGrammarSymbol);
-        }
+    public void printFirstSet() {
+        System.out.println("First set:");
+        this.printSets(this.firstSets, "FIRST");
+    }
 
-        HashSet<GrammarSymbol> result = new HashSet<>();
-        if (leftHandSideGrammarSymbol instanceof Terminal || leftHandSideGrammarSymbol instanceof Epsilon) {
-            result.add(leftHandSideGrammarSymbol);
-        } else {
-            assert leftHandSideGrammarSymbol instanceof NonTerminal;
-            for (Production production : this.productionsGenerator.getProductions((NonTerminal) leftHandSideGrammarSymbol)) {
-                result.addAll(this.getRightHandSideFirstSet(production.getRightHandSide()));
-            }
-        }
-        this.firstSet.put(leftHandSideGrammarSymbol, result);
-        return result;
+    public void printFollowSet() {
+        System.out.println("Follow set:");
+        this.printSets(this.followSets, "FOLLOW");
     }
 
-    private HashSet<GrammarSymbol> getRightHandSideFirstSet(ArrayList<GrammarSymbol> rightHandSideGrammarSymbols) {
-        HashSet<GrammarSymbol> result = new HashSet<>();
-        boolean noEpsilon = false;
-        Epsilon epsilon = GrammarSymbolFactory.epsilon();
+    private boolean isTerminal(int code) {
+        return this.symbols.get(code) instanceof Terminal;
+    }
 
-        for (GrammarSymbol grammarSymbol : rightHandSideGrammarSymbols) {
-            HashSet<GrammarSymbol> firstSetOfCurrentGrammarSymbol = this.getLeftHandSideFirstSet(grammarSymbol);
-            if (firstSetOfCurrentGrammarSymbol.contains(epsilon)) {
-                HashSet<GrammarSymbol> firstSetOfCurrentGrammarSymbolWithoutEps = new HashSet<>(firstSetOfCurrentGrammarSymbol);
-                firstSetOfCurrentGrammarSymbolWithoutEps.remove(epsilon);
-                result.addAll(firstSetOfCurrentGrammarSymbolWithoutEps);
-                continue;
-            }
-            result.addAll(firstSetOfCurrentGrammarSymbol);
-            noEpsilon = true;
-            break;
-        }
+    private boolean isNonTerminal(int code) {
+        return this.symbols.get(code) instanceof NonTerminal;
+    }
 
-        if (!noEpsilon) {
-            result.add(epsilon);
-        }
+    private int getTerminalKind(int code) {
+        return ((Terminal) this.symbols.get(code)).id;
+    }
 
-        return result;
+    private int getNonTerminalId(int code) {
+        return this.nonTerminalIds.get((NonTerminal) this.symbols.get(code));
     }
 
-    public void printFollowSet() {
-        System.out.println("Follow set:");
-        Set<NonTerminal> followSetLeftHandSideSymbols = this.followSet.keySet();
-        for (NonTerminal leftHandSideSymbol : followSetLeftHandSideSymbols) {
-            System.out.print(String.format("FOLLOW[%s] = {", leftHandSideSymbol.toString()));
-            ArrayList<String> symbolStrings = new ArrayList<>();
-            for (GrammarSymbol rightHandSideGrammarSymbol : this.followSet.get(leftHandSideSymbol)) {
-                symbolStrings.add(rightHandSideGrammarSymbol.toString());
+    private ArrayList<ArrayList<Integer>> newAdjacencyList() {
+        ArrayList<ArrayList<Integer>> list = new ArrayList<>();
+        for (int i = 0; i < this.nonTerminals.size(); i++) {
+            list.add(new ArrayList<>());
+        }
+        return list;
+    }
+
+    /**
+     * 计算可空的非终结符
+     * 每个产生式记录右部尚未确定可空的文法符号个数，某个非终结符变为可空时，只更新右部含有它的产生式，
+     * 个数减为0的产生式的左部即为可空
+     */
+    private void calculateNullable() {
+        ArrayList<ArrayList<Integer>> occurrences = this.newAdjacencyList();
+        int[] remaining = new int[this.productions.length];
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        for (int i = 0; i < this.productions.length; i++) {
+            for (int code : this.rightHandSides[i]) {
+                if (this.isTerminal(code)) {
+                    // 含有终结符的产生式不可能为空
+                    remaining[i] = -1;
+                    break;
+                }
+                if (this.isNonTerminal(code)) {
+                    occurrences.get(this.getNonTerminalId(code)).add(i);
+                    remaining[i]++;
+                }
+            }
+            if (remaining[i] == 0) {
+                int leftHandSide = this.nonTerminalIds.get(this.productions[i].getLeftHandSide());
+                if (!this.nullable.get(leftHandSide)) {
+                    this.nullable.set(leftHandSide);
+                    worklist.add(leftHandSide);
+                }
+            }
+        }
+        while (!worklist.isEmpty()) {
+            for (int i : occurrences.get(worklist.poll())) {
+                if (remaining[i] > 0 && --remaining[i] == 0) {
+                    int leftHandSide = this.nonTerminalIds.get(this.productions[i].getLeftHandSide());
+                    if (!this.nullable.get(leftHandSide)) {
+                        this.nullable.set(leftHandSide);
+                        worklist.add(leftHandSide);
+                    }
+                }
             }
-            System.out.println(String.format("%s}", String.join(", ", symbolStrings)));
         }
     }
 
-    private void calculateFollowSet() {
-        HashMap<NonTerminal, HashSet<Terminal>> lastFollow = new HashMap<>();
-        HashSet<GrammarSymbol> grammarSymbols = this.productionsGenerator.getSymbols();
-        for (GrammarSymbol grammarSymbol : grammarSymbols) {
-            if (!(grammarSymbol instanceof NonTerminal)) {
-                continue;
+    /**
+     * 计算文法符号串的FIRST集（不含ε）
+     * @param rightHandSide 文法符号编号
+     * @param result 计算结果并入该集合
+     * @return 文法符号串是否可空
+     */
+    private boolean getSequenceFirstSet(int[] rightHandSide, BitSet result) {
+        for (int code : rightHandSide) {
+            if (this.isTerminal(code)) {
+                result.set(this.getTerminalKind(code));
+                return false;
             }
-            lastFollow.put((NonTerminal) grammarSymbol, new HashSet<>());
-            if (grammarSymbol.equals(GrammarSymbolFactory.start())) {
-                lastFollow.get(grammarSymbol).add(GrammarSymbolFactory.endOfFile());
+            if (this.isNonTerminal(code)) {
+                int nonTerminalId = this.getNonTerminalId(code);
+                result.or(this.firstSets[nonTerminalId]);
+                if (!this.nullable.get(nonTerminalId)) {
+                    return false;
+                }
             }
         }
+        return true;
+    }
 
-        while (true) {
-            HashMap<NonTerminal, HashSet<Terminal>> follow = new HashMap<>();
-            for (NonTerminal lastFollowKey : lastFollow.keySet()) {
-                follow.put(lastFollowKey, new HashSet<>(lastFollow.get(lastFollowKey)));
+    /**
+     * 沿依赖边传播集合直到不再变化
+     * @param sets 按非终结符编号索引的集合
+     * @param successors successors[B]中的每个A都满足sets[B]包含于sets[A]
+     */
+    private void propagate(BitSet[] sets, ArrayList<ArrayList<Integer>> successors) {
+        ArrayDeque<Integer> worklist = new ArrayDeque<>();
+        BitSet queued = new BitSet();
+        for (int nonTerminalId = 0; nonTerminalId < sets.length; nonTerminalId++) {
+            if (!sets[nonTerminalId].isEmpty()) {
+                worklist.add(nonTerminalId);
+                queued.set(nonTerminalId);
             }
-            for (GrammarSymbol grammarSymbol : grammarSymbols) {
-                if (!(grammarSymbol instanceof NonTerminal)) {
+        }
+        while (!worklist.isEmpty()) {
+            int from = worklist.poll();
+            queued.clear(from);
+            for (int to : successors.get(from)) {
+                BitSet added = (BitSet) sets[from].clone();
+                added.andNot(sets[to]);
+                if (added.isEmpty()) {
                     continue;
                 }
-                for (Pair<Production, GrammarSymbol> productionAndNextSymbol : this.productionsGenerator.getProductionsWith((NonTerminal) grammarSymbol)) {
-                    HashSet<GrammarSymbol> first = new HashSet<>();
-
-                    if (productionAndNextSymbol.second != null) {
-                        first = this.getLeftHandSideFirstSet(productionAndNextSymbol.second);
-                        HashSet<Terminal> firstOnlyTerminals = new HashSet<>();
-                        for (GrammarSymbol firstInRightHandSide : first) {
-                            if (!(firstInRightHandSide instanceof Terminal)) {
-                                continue;
-                            }
-                            firstOnlyTerminals.add((Terminal) firstInRightHandSide);
-                        }
-                        follow.get(grammarSymbol).addAll(firstOnlyTerminals);
+                sets[to].or(added);
+                if (!queued.get(to)) {
+                    worklist.add(to);
+                    queued.set(to);
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算FIRST集
+     * 对产生式A ::= X1 X2 ... Xn，X1...Xi-1都可空时，Xi为终结符则直接并入FIRST[A]，为非终结符则记录依赖边Xi -> A
+     */
+    private void calculateFirstSet() {
+        this.firstSets = new BitSet[this.nonTerminals.size()];
+        for (int i = 0; i < this.firstSets.length; i++) {
+            this.firstSets[i] = new BitSet();
+        }
+        ArrayList<ArrayList<Integer>> successors = this.newAdjacencyList();
+        for (int i = 0; i < this.productions.length; i++) {
+            int leftHandSide = this.nonTerminalIds.get(this.productions[i].getLeftHandSide());
+            for (int code : this.rightHandSides[i]) {
+                if (this.isTerminal(code)) {
+                    this.firstSets[leftHandSide].set(this.getTerminalKind(code));
+                    break;
+                }
+                if (this.isNonTerminal(code)) {
+                    int nonTerminalId = this.getNonTerminalId(code);
+                    if (nonTerminalId != leftHandSide) {
+                        successors.get(nonTerminalId).add(leftHandSide);
                     }
+                    if (!this.nullable.get(nonTerminalId)) {
+                        break;
+                    }
+                }
+            }
+        }
+        this.propagate(this.firstSets, successors);
+    }
 
-                    NonTerminal leftHandSideSymbol = productionAndNextSymbol.first.getLeftHandSide();
-                    if ((productionAndNextSymbol.second == null || first.contains(GrammarSymbolFactory.epsilon()))
-                    && (!leftHandSideSymbol.equals(grammarSymbol))) {
-                        follow.get(grammarSymbol).addAll(lastFollow.get(leftHandSideSymbol));
+    /**
+     * 计算FOLLOW集
+     * 对产生式A ::= ... B β，FIRST(β)直接并入FOLLOW[B]，β可空时记录依赖边A -> B。
+     * 从右向左扫描产生式右部，β的FIRST集和可空性可以逐步累积，不需要为每个位置重新计算
+     */
+    private void calculateFollowSet() {
+        this.followSets = new BitSet[this.nonTerminals.size()];
+        for (int i = 0; i < this.followSets.length; i++) {
+            this.followSets[i] = new BitSet();
+        }
+        this.followSets[this.nonTerminalIds.get(GrammarSymbolFactory.start())].set(GrammarSymbolFactory.endOfFile().id);
+        ArrayList<ArrayList<Integer>> successors = this.newAdjacencyList();
+        for (int i = 0; i < this.productions.length; i++) {
+            int leftHandSide = this.nonTerminalIds.get(this.productions[i].getLeftHandSide());
+            int[] rightHandSide = this.rightHandSides[i];
+            BitSet trailer = new BitSet();
+            boolean trailerNullable = true;
+            for (int j = rightHandSide.length - 1; j >= 0; j--) {
+                int code = rightHandSide[j];
+                if (this.isTerminal(code)) {
+                    trailer.clear();
+                    trailer.set(this.getTerminalKind(code));
+                    trailerNullable = false;
+                } else if (this.isNonTerminal(code)) {
+                    int nonTerminalId = this.getNonTerminalId(code);
+                    this.followSets[nonTerminalId].or(trailer);
+                    if (trailerNullable && nonTerminalId != leftHandSide) {
+                        successors.get(leftHandSide).add(nonTerminalId);
+                    }
+                    if (!this.nullable.get(nonTerminalId)) {
+                        trailer.clear();
+                        trailerNullable = false;
                     }
+                    trailer.or(this.firstSets[nonTerminalId]);
                 }
             }
+        }
+        this.propagate(this.followSets, successors);
+    }
 
-            if (follow.equals(lastFollow)) {
-                this.followSet = follow;
-                return;
+    /**
+     * 为非终结符、文法符号和产生式编号，并把产生式右部编译为文法符号编号的数组
+     */
+    private void compileSymbols() {
+        this.getSymbolCode(GrammarSymbolFactory.start());
+        ArrayList<Production> productions = this.productionsGenerator.getProductions();
+        this.productions = productions.toArray(new Production[0]);
+        this.rightHandSides = new int[this.productions.length][];
+        for (int i = 0; i < this.productions.length; i++) {
+            this.getNonTerminalId(this.productions[i].getLeftHandSide());
+            ArrayList<GrammarSymbol> rightHandSide = this.productions[i].getRightHandSide();
+            this.rightHandSides[i] = new int[rightHandSide.size()];
+            for (int j = 0; j < rightHandSide.size(); j++) {
+                this.rightHandSides[i][j] = this.getSymbolCode(rightHandSide.get(j));
+            }
+        }
+        // 只出现在右部而没有产生式的非终结符也需要编号
+        for (GrammarSymbol symbol : this.symbols) {
+            if (symbol instanceof NonTerminal) {
+                this.getNonTerminalId((NonTerminal) symbol);
             }
-            lastFollow = follow;
         }
     }
 
-    public void printParseTable() {
-        System.out.println("Parse table:");
-        for (Pair<NonTerminal, Terminal> predictionKey : this.parseTable.keySet()) {
-            System.out.println(String.format("[%s, %s] %s", predictionKey.first, predictionKey.second, this.parseTable.get(predictionKey)));
+    private int getNonTerminalId(NonTerminal nonTerminal) {
+        Integer id = this.nonTerminalIds.get(nonTerminal);
+        if (id == null) {
+            id = this.nonTerminals.size();
+            this.nonTerminals.add(nonTerminal);
+            this.nonTerminalIds.put(nonTerminal, id);
         }
+        return id;
     }
 
+    private int getSymbolCode(GrammarSymbol symbol) {
+        Integer code = this.symbolCodes.get(symbol);
+        if (code == null) {
+            code = this.symbols.size();
+            this.symbols.add(symbol);
+            this.symbolCodes.put(symbol, code);
+        }
+        return code;
+    }
+
+    /**
+     * 填充预测分析表
+     * 多个产生式预测同一格时，后出现的产生式覆盖先出现的，同时记录一个LL(1)冲突
+     */
     private void calculateParseTable() {
-        HashMap<Pair<NonTerminal, Terminal>, Production> parseTable = new HashMap<>();
-        Epsilon epsilon = GrammarSymbolFactory.epsilon();
-        for (Production production : this.productionsGenerator.getProductions()) {
-            NonTerminal productionLeftHandSide = production.getLeftHandSide();
-            HashSet<GrammarSymbol> first = this.getRightHandSideFirstSet(production.getRightHandSide());
-            HashSet<GrammarSymbol> firstWithoutEps = new HashSet<>(first);
-            firstWithoutEps.remove(epsilon);
-            for (GrammarSymbol lookAheadTerminal : firstWithoutEps) {
-                parseTable.put(new Pair<>(productionLeftHandSide, (Terminal) lookAheadTerminal), production);
+        int[][] predictTable = new int[this.nonTerminals.size()][TokenKind.count()];
+        for (int[] row : predictTable) {
+            Arrays.fill(row, -1);
+        }
+        for (int i = 0; i < this.productions.length; i++) {
+            int leftHandSide = this.nonTerminalIds.get(this.productions[i].getLeftHandSide());
+            BitSet lookAheads = new BitSet();
+            if (this.getSequenceFirstSet(this.rightHandSides[i], lookAheads)) {
+                lookAheads.or(this.followSets[leftHandSide]);
             }
-            if (first.contains(epsilon)) {
-                for (GrammarSymbol lookAheadTerminal : this.followSet.get(productionLeftHandSide)) {
-                    parseTable.put(new Pair<>(productionLeftHandSide, (Terminal) lookAheadTerminal), production);
+            int[] row = predictTable[leftHandSide];
+            for (int kind = lookAheads.nextSetBit(0); kind >= 0; kind = lookAheads.nextSetBit(kind + 1)) {
+                if (row[kind] != -1 && row[kind] != i) {
+                    this.conflicts.add(String.format("[%s, %s] %s overridden by %s", this.nonTerminals.get(leftHandSide),
+                            TokenKind.getName(kind), this.productions[row[kind]], this.productions[i]));
                 }
+                row[kind] = i;
             }
         }
-        this.parseTable = parseTable;
+        this.predictTable = new PredictTable(this.nonTerminals, this.symbols.toArray(new GrammarSymbol[0]),
+                this.symbolCodes.get(GrammarSymbolFactory.start()), this.productions, this.rightHandSides, predictTable);
     }
 
-    public Production getProduction(NonTerminal leftHandSide, Terminal lookAhead) {
-        return this.parseTable.get(new Pair<>(leftHandSide, lookAhead));
+    /**
+     * 获取生成预测分析表时发现的LL(1)冲突
+     * @return 冲突的描述，文法是LL(1)文法时为空
+     */
+    public ArrayList<String> getConflicts() {
+        return this.conflicts;
     }
 
-    public Boolean hasProduction(NonTerminal leftHandSide, Terminal lookAhead) {
-        return this.parseTable.containsKey(new Pair<>(leftHandSide, lookAhead));
+    public PredictTable getPredictTable() {
+        return this.predictTable;
     }
 }
@@ -7,11 +7,20 @@ import com.slang.utils.Pair;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 
 public class ProductionsGenerator {
     private ArrayList<Production> productions = new ArrayList<>();
     private HashSet<GrammarSymbol> usedGrammarSymbols = new HashSet<>();
+    /**
+     * 按左部索引的产生式
+     */
+    private HashMap<NonTerminal, ArrayList<Production>> productionsByLeftHandSide = new HashMap<>();
+    /**
+     * 按右部出现的非终结符索引的产生式及其后一个文法符号
+     */
+    private HashMap<NonTerminal, ArrayList<Pair<Production, GrammarSymbol>>> productionsByRightHandSide = new HashMap<>();
 
     public ProductionsGenerator(ArrayList<InputStream> grammarUrls) {
         for (InputStream inputStream : grammarUrls) {
@@ -21,10 +30,26 @@ public class ProductionsGenerator {
             for (Production production : productions) {
                 this.usedGrammarSymbols.add(production.getLeftHandSide());
                 this.usedGrammarSymbols.addAll(production.getRightHandSide());
+                this.index(production);
             }
         }
     }
 
+    private void index(Production production) {
+        this.productionsByLeftHandSide.computeIfAbsent(production.getLeftHandSide(), k -> new ArrayList<>()).add(production);
+        ArrayList<GrammarSymbol> rightHandSideGrammarSymbols = production.getRightHandSide();
+        int len = rightHandSideGrammarSymbols.size();
+        for (int i = 0; i < len; i++) {
+            GrammarSymbol rightHandSideGrammarSymbol = rightHandSideGrammarSymbols.get(i);
+            if (!(rightHandSideGrammarSymbol instanceof NonTerminal)) {
+                continue;
+            }
+            GrammarSymbol nextGrammarSymbol = (i < len - 1) ? rightHandSideGrammarSymbols.get(i + 1) : null;
+            this.productionsByRightHandSide.computeIfAbsent((NonTerminal) rightHandSideGrammarSymbol, k -> new ArrayList<>())
+                    .add(new Pair<>(production, nextGrammarSymbol));
+        }
+    }
+
     public HashSet<GrammarSymbol> getSymbols() {
         return this.usedGrammarSymbols;
     }
@@ -34,31 +59,10 @@ public class ProductionsGenerator {
     }
 
     public ArrayList<Production> getProductions(NonTerminal leftHandSideSymbol) {
-        ArrayList<Production> filteredProductions = new ArrayList<>();
-        for (Production production : this.productions) {
-            if (!production.getLeftHandSide().equals(leftHandSideSymbol)) {
-                continue;
-            }
-            filteredProductions.add(production);
-        }
-        return filteredProductions;
+        return this.productionsByLeftHandSide.getOrDefault(leftHandSideSymbol, new ArrayList<>());
     }
 
     public ArrayList<Pair<Production, GrammarSymbol>> getProductionsWith(NonTerminal rightHandSideNonTerminalSymbol) {
-        ArrayList<Pair<Production, GrammarSymbol>> filteredProductionsAndNextSymbols = new ArrayList<>();
-        for (Production production : this.productions) {
-            ArrayList<GrammarSymbol> rightHandSideGrammarSymbols = production.getRightHandSide();
-            int len = rightHandSideGrammarSymbols.size();
-            for (int i = 0; i < len; i++) {
-                GrammarSymbol rightHandSideGrammarSymbol = rightHandSideGrammarSymbols.get(i);
-                if (!(rightHandSideGrammarSymbol instanceof NonTerminal)
-                        || !rightHandSideGrammarSymbol.equals(rightHandSideNonTerminalSymbol)) {
-                    continue;
-                }
-                GrammarSymbol nextGrammarSymbol = (i < len - 1) ? rightHandSideGrammarSymbols.get(i + 1) : null;
-                filteredProductionsAndNextSymbols.add(new Pair<>(production, nextGrammarSymbol));
-            }
-        }
-        return filteredProductionsAndNextSymbols;
+        return this.productionsByRightHandSide.getOrDefault(rightHandSideNonTerminalSymbol, new ArrayList<>());
     }
 }
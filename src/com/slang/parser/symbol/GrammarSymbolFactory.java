@@ -1,10 +1,14 @@
 package com.slang.parser.symbol;
 
+import com.slang.lexer.TokenKind;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 
 public class GrammarSymbolFactory {
     private static HashMap<String, Terminal> meaningfulTerminals = new HashMap<>();
     private static HashMap<String, Terminal> literalTerminals = new HashMap<>();
+    private static ArrayList<Terminal> literalTerminalsByKind = new ArrayList<>();
     private static HashMap<String, NonTerminal> nonTerminals = new HashMap<>();
     private static Epsilon epsilonSymbol = new Epsilon();
 
@@ -23,11 +27,33 @@ public class GrammarSymbolFactory {
             entity = GrammarSymbolFactory.literalTerminals;
         }
         if (!entity.containsKey(name)) {
-            entity.put(name, new Terminal(name, passToSdtHandler));
+            Terminal terminal = new Terminal(name, passToSdtHandler);
+            entity.put(name, terminal);
+            if (!passToSdtHandler) {
+                while (GrammarSymbolFactory.literalTerminalsByKind.size() <= terminal.id) {
+                    GrammarSymbolFactory.literalTerminalsByKind.add(null);
+                }
+                GrammarSymbolFactory.literalTerminalsByKind.set(terminal.id, terminal);
+            }
         }
         return entity.get(name);
     }
 
+    /**
+     * 根据Token种类获取终结符，不需要对Token名进行哈希
+     * @param kind Token种类
+     * @return 终结符
+     */
+    public static Terminal terminal(int kind) {
+        if (kind < GrammarSymbolFactory.literalTerminalsByKind.size()) {
+            Terminal terminal = GrammarSymbolFactory.literalTerminalsByKind.get(kind);
+            if (terminal != null) {
+                return terminal;
+            }
+        }
+        return GrammarSymbolFactory.terminal(TokenKind.getName(kind), false);
+    }
+
     public static NonTerminal nonTerminal(String name) {
         if (!GrammarSymbolFactory.nonTerminals.containsKey(name)) {
             GrammarSymbolFactory.nonTerminals.put(name, new NonTerminal(name));
@@ -1,13 +1,15 @@
 package com.slang.parser.symbol;
 
-import java.util.Objects;
+import com.slang.lexer.TokenKind;
 
 public class Terminal implements GrammarSymbol {
     public String tokenName;
+    public int id;
     public boolean passToAstBuilder;
 
     public Terminal(String tokenName, boolean passToAstBuilder) {
         this.tokenName = tokenName;
+        this.id = TokenKind.of(tokenName);
         this.passToAstBuilder = passToAstBuilder;
     }
 
@@ -16,16 +18,16 @@ public class Terminal implements GrammarSymbol {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Terminal terminal = (Terminal) o;
-        return tokenName.equals(terminal.tokenName);
+        return id == terminal.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(tokenName);
+        return id;
     }
 
     @Override
     public String toString() {
         return this.tokenName;
     }
-}
\ No newline at end of file
+}
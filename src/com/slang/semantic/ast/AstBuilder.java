@@ -3,7 +3,9 @@ package com.slang.semantic.ast;
 import com.slang.lexer.CodeAxis;
 import com.slang.lexer.Token;
 import com.slang.parser.ParseTreeNode;
+import com.slang.parser.PredictTable;
 import com.slang.parser.symbol.NonTerminal;
+import com.slang.parser.symbol.Production;
 import com.slang.semantic.ast.node.Node;
 import com.slang.semantic.ast.node.expression.*;
 import com.slang.semantic.ast.node.statement.*;
@@ -17,10 +19,14 @@ import com.slang.semantic.type.TypeFactory;
 import com.slang.utils.Pair;
 import com.slang.utils.Panic;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Stack;
+import java.util.WeakHashMap;
 
 /**
  * 根据语法树构造抽象语法树
@@ -29,27 +35,90 @@ public class AstBuilder {
     private SymbolTableManager symbolTableManager = new SymbolTableManager();
     private Stack<LoopStatement> loopBodyStack = new Stack<>();
     private Type returnType = null;
-    
+
+    /**
+     * 各产生式的构造方法，下标为产生式在预测分析表中的编号，没有构造方法的产生式为null
+     * 每个预测分析表只在第一次创建AstBuilder时解析一次，构造AST时不再按名字反射查找
+     */
+    private MethodHandle[] builders;
+
+    /**
+     * 各预测分析表对应的构造方法，随预测分析表一起被回收
+     */
+    private static final Map<PredictTable, MethodHandle[]> buildersCache = new WeakHashMap<>();
+
+    /**
+     * @param predictTable 生成语法树的预测分析表，语法树结点的产生式编号据此对应到构造方法
+     */
+    public AstBuilder(PredictTable predictTable) {
+        synchronized (AstBuilder.buildersCache) {
+            this.builders = AstBuilder.buildersCache.computeIfAbsent(predictTable, AstBuilder::resolveBuilders);
+        }
+    }
+
+    /**
+     * 产生式<A> ::= ...的构造方法为"build" + 产生式名 + "A"
+     */
+    private static String builderName(String productionName, NonTerminal symbol) {
+        return "build" + productionName + symbol.name;
+    }
+
+    /**
+     * 根据预测分析表解析所有产生式的构造方法，并立即检查是否有缺失
+     * 只有一部分非终结符的结点交给构造方法，其余的由父结点的构造方法直接读取，
+     * 因此只要求有构造方法的非终结符的每个非ε产生式都有构造方法（ε产生式的结点总是由父结点用isFinal()判断）
+     */
+    private static MethodHandle[] resolveBuilders(PredictTable predictTable) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodType builderType = MethodType.methodType(Node.class, ParseTreeNode.class);
+        int productionCount = predictTable.getProductionCount();
+        MethodHandle[] builders = new MethodHandle[productionCount];
+        HashSet<String> builtSymbols = new HashSet<>();
+        for (int production = 0; production < productionCount; production++) {
+            Production current = predictTable.getProduction(production);
+            try {
+                builders[production] = lookup.findVirtual(AstBuilder.class, AstBuilder.builderName(current.getName(), current.getLeftHandSide()), builderType);
+                builtSymbols.add(current.getLeftHandSide().name);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // 是否缺失由下面的检查决定
+            }
+        }
+
+        byte[] symbolTypes = predictTable.getSymbolTypes();
+        for (int production = 0; production < productionCount; production++) {
+            Production current = predictTable.getProduction(production);
+            boolean epsilon = true;
+            for (int symbol : predictTable.getRightHandSide(production)) {
+                epsilon &= symbolTypes[symbol] == PredictTable.SYMBOL_EPSILON;
+            }
+            if (builders[production] == null && !epsilon && builtSymbols.contains(current.getLeftHandSide().name)) {
+                Panic panic = new Panic(String.format("AST: Node building method %s does not exist.",
+                        AstBuilder.builderName(current.getName(), current.getLeftHandSide())), new CodeAxis());
+                panic.show();
+            }
+        }
+        return builders;
+    }
+
     public Node invokeAstBuilderMethod(ParseTreeNode root) {
-        Method method = null;
-        NonTerminal symbol = (NonTerminal) root.getGrammarSymbol();
-        String builderName = String.format("%s%s", root.getProductionName(), symbol.name);
-        try {
-            method = this.getClass().getDeclaredMethod(String.format("build%s", builderName), ParseTreeNode.class);
-        } catch (NoSuchMethodException e) {
-            Panic panic = new Panic(String.format("AST: Node building method build%s does not exist.", builderName), new CodeAxis());
+        int productionId = root.getProductionId();
+        MethodHandle builder = productionId < 0 ? null : this.builders[productionId];
+        if (builder == null) {
+            Panic panic = new Panic(String.format("AST: Node building method %s does not exist.",
+                    AstBuilder.builderName(root.getProductionName(), (NonTerminal) root.getGrammarSymbol())), new CodeAxis());
             panic.show();
         }
-        Node createdNode = null;
         try {
-            assert method != null;
-            createdNode = (Node) method.invoke(this, root);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (Node) builder.invokeExact(this, root);
+        } catch (Panic.Deferred e) {
+            throw e;
+        } catch (Throwable e) {
             e.printStackTrace();
-            Panic panic = new Panic(String.format("AST: Can not invoke node building method build%s", builderName), new CodeAxis());
+            Panic panic = new Panic(String.format("AST: Can not invoke node building method %s",
+                    AstBuilder.builderName(root.getProductionName(), (NonTerminal) root.getGrammarSymbol())), new CodeAxis());
             panic.show();
+            return null;
         }
-        return createdNode;
     }
 
     /*
@@ -83,6 +152,11 @@ public class AstBuilder {
         return getBlockStatements(root);
     }
 
+    // 空文件
+    public Node buildEpsilonProgram(ParseTreeNode root) {
+        return new Statements();
+    }
+
     // 普通语句
     public Node buildCommonElement(ParseTreeNode root) {
         return this.invokeAstBuilderMethod(root.getChildren().get(0));
@@ -92,89 +166,36 @@ public class AstBuilder {
      * 函数定义
      */
     public Node buildFunctionDeclarationElement(ParseTreeNode root) {
-        // 函数名称
-        String identifier = root.getChildren().get(1).getToken().value;
-        // 函数返回值类型
-        String returnTypeIdentifier = root.getChildren().get(0).getToken().value;
-        if (!CodeTypeMapping.codeTypeMapping.containsKey(returnTypeIdentifier)) {
-            Panic panic = new Panic(String.format("Unknown return type identifier %s", returnTypeIdentifier), root.getChildren().get(1).getToken().codeAxis);
-            panic.show();
-        }
-        Type returnType = TypeFactory.type(CodeTypeMapping.codeTypeMapping.get(returnTypeIdentifier));
+        Token returnTypeToken = root.getChildren().get(0).getToken();
+        Token identifierToken = root.getChildren().get(1).getToken();
+        Type returnType = this.functionReturnType(returnTypeToken, identifierToken);
         // 形式参数列表
         ArrayList<Type> paramTypeList = new ArrayList<>();
-        ArrayList<String> paramIdentifiersList = new ArrayList<>();
+        ArrayList<Integer> paramIdentifiersList = new ArrayList<>();
         ParseTreeNode currentParameter = root.getChildren().get(2);
         while (!currentParameter.isFinal()) {
             ParseTreeNode declarator = currentParameter.getChildren().get(0);
-            Token declaratorToken = declarator.getChildren().get(0).getToken();
-            String typeIdentifier = declaratorToken.value;
-            CodeAxis declaratorCodeAxis = declaratorToken.codeAxis;
-            if (!CodeTypeMapping.codeTypeMapping.containsKey(typeIdentifier)) {
-                Panic panic = new Panic(String.format("Unknown function parameter type identifier %s", typeIdentifier), declaratorCodeAxis);
-                panic.show();
-            }
-            BasicType type = CodeTypeMapping.codeTypeMapping.get(typeIdentifier);
-            paramIdentifiersList.add(declarator.getChildren().get(1).getToken().value);
+            ArrayList<Token> dims = new ArrayList<>();
             ParseTreeNode currentArraySizeDeclarator = declarator.getChildren().get(2);
-            ArrayList<Integer> dim = new ArrayList<>();
-            boolean first = true;
             while (!currentArraySizeDeclarator.isFinal()) {
                 ParseTreeNode dimNode = currentArraySizeDeclarator.getChildren().get(0);
-                Integer currentDim = null;
-                if (!dimNode.isFinal()) {
-                    Token numToken = dimNode.getChildren().get(0).getToken();
-                    currentDim = Integer.parseInt(numToken.value);
-                    if (currentDim <= 0) {
-                        Panic panic = new Panic("Array dimension definition error in function parameters, number overflow", numToken.codeAxis);
-                        panic.show();
-                    }
-                }
-                if (!first) {
-                    if (currentDim == null) {
-                        Panic panic = new Panic("Only array 1d dimension can be ignored", declaratorCodeAxis);
-                        panic.show();
-                    }
-                } else {
-                    first = false;
-                }
-                // 函数第一个维度未定义的情况下直接设为1。传地址无所谓，只需要考虑其他维度计算
-                dim.add(currentDim == null ? 1 : currentDim);
+                dims.add(dimNode.isFinal() ? null : dimNode.getChildren().get(0).getToken());
                 currentArraySizeDeclarator = currentArraySizeDeclarator.getChildren().get(1);
             }
-            if (dim.size() == 0) {
-                paramTypeList.add(TypeFactory.type(type));
-            } else {
-                paramTypeList.add(TypeFactory.type(type, dim, false));
-            }
+            paramTypeList.add(this.parameterType(declarator.getChildren().get(0).getToken(), dims));
+            paramIdentifiersList.add(declarator.getChildren().get(1).getToken().getValueId());
             currentParameter = currentParameter.getChildren().get(1);
         }
         Type functionType = TypeFactory.type(paramTypeList);
-        Symbol symbol;
-        if (!this.symbolTableManager.hasSymbol(identifier)) {
-            ArrayList<Pair<Type, Type>> overloadableTypes = new ArrayList<>();
-            overloadableTypes.add(new Pair<>(functionType, returnType));
-            symbol = new Symbol(identifier, overloadableTypes);
-            this.symbolTableManager.addSymbol(identifier, symbol);
-        } else {
-            symbol = this.symbolTableManager.findSymbol(identifier, root.getChildren().get(0).getToken().codeAxis);
-            symbol.newOverload(functionType, returnType);
-        }
+        Symbol symbol = this.declareFunction(returnTypeToken, identifierToken, functionType, returnType);
         ParseTreeNode bodyNode = root.getChildren().get(3);
 
-        this.symbolTableManager.enterScope();
-        this.returnType = returnType;
-        assert paramTypeList.size() == paramIdentifiersList.size();
-        ArrayList<Symbol> paramIdentifersSymbols = new ArrayList<>();
-        for (int i = 0; i < paramTypeList.size(); i++) {
-            paramIdentifersSymbols.add(this.symbolTableManager.addSymbol(paramIdentifiersList.get(i), new Symbol(paramIdentifiersList.get(i), paramTypeList.get(i))));
-        }
+        ArrayList<Symbol> paramIdentifersSymbols = this.enterFunction(returnType, paramTypeList, paramIdentifiersList);
         Statement body = null;
         if (!bodyNode.isFinal()) {
             body = (Statement) this.invokeAstBuilderMethod(bodyNode.getChildren().get(0));
         }
-        this.symbolTableManager.leaveScope();
-        return new FunctionDeclarationStatement(identifier, symbol, functionType, returnType, body, paramIdentifersSymbols);
+        return this.leaveFunction(identifierToken, symbol, functionType, returnType, body, paramIdentifersSymbols);
     }
 
     /*
@@ -202,15 +223,10 @@ public class AstBuilder {
     }
     // 变量声明语句
     public Node buildVariableDeclarationStatement(ParseTreeNode root) {
-        String typeIdentifier = root.getChildren().get(0).getToken().value;
-        if (!CodeTypeMapping.codeTypeMapping.containsKey(typeIdentifier)) {
-            Panic panic = new Panic(String.format("Unsupported type %s", typeIdentifier), root.getChildren().get(1).getToken().codeAxis);
-            panic.show();
-        }
-        BasicType type = CodeTypeMapping.codeTypeMapping.get(typeIdentifier);
+        BasicType type = this.variableType(root.getChildren().get(0).getToken());
 
         /*
-         * VariableDeclaration <Statement> ::== VAR <VariableDeclaratorList> : [ID] ;
+         * VariableDeclaration <Statement> ::== VAR [ID] <VariableDeclaratorList> ;
          * Main <VariableDeclaratorList> ::== <VariableDeclarator> <VariableDeclaratorListSuffix>
          * Main <VariableDeclaratorListSuffix> ::== , <VariableDeclarator> <VariableDeclaratorListSuffix>
          * 先遍历VariableDeclaratorList，得到当前的VariableDeclarator
@@ -220,15 +236,11 @@ public class AstBuilder {
         while (!currentDeclaratorList.isFinal()) {
             ParseTreeNode currentDeclarator = currentDeclaratorList.getChildren().get(0);
             Token token = currentDeclarator.getChildren().get(0).getToken();
-            String identifier = token.value;
-            if (this.symbolTableManager.hasSymbolInCurrentScope(identifier)) {
-                Panic panic = new Panic(String.format("Identifier %s exists in current scope", identifier), token.codeAxis);
-                panic.show();
-            }
+            this.checkNewVariable(token);
 
             /*
              * Main <VariableDeclarator> ::== [ID] <VariableArraySizeDeclarator> <InitializerDeclarator>
-             * Main    <VariableArraySizeDeclarator> ::== [ [NUMBER_LITERAL] ] <VariableArraySizeDeclarator>
+             * Main    <VariableArraySizeDeclarator> ::== [ <ArrayDimension> ] <VariableArraySizeDeclarator>
              * Epsilon <VariableArraySizeDeclarator> ::== $
              * Main    <InitializerDeclarator> ::== EQ <Expression>
              * Epsilon <InitializerDeclarator> ::== $
@@ -238,24 +250,9 @@ public class AstBuilder {
             // 解析ArraySizeDeclarator，包含数组的维度和维数情况，存储在dim中，null则代表维度未定义（根据初始化推导）
             ArrayList<Integer> dim = new ArrayList<>();
             ParseTreeNode currentArraySizeDeclarator = currentDeclarator.getChildren().get(1);
-            boolean isArray = false;
-            boolean hasDimNull = false;
-
             while (!currentArraySizeDeclarator.isFinal()) {
-                isArray = true;
                 ParseTreeNode dimNode = currentArraySizeDeclarator.getChildren().get(0);
-                Integer currentDim = null;
-                if (!dimNode.isFinal()) {
-                    Token numToken = dimNode.getChildren().get(0).getToken();
-                    currentDim = Integer.parseInt(numToken.value);
-                    if (currentDim <= 0) {
-                        Panic panic = new Panic("Array dimension definition error, number overflow", numToken.codeAxis);
-                        panic.show();
-                    }
-                } else {
-                    hasDimNull = true;
-                }
-                dim.add(currentDim);
+                dim.add(dimNode.isFinal() ? null : this.arrayDimension(dimNode.getChildren().get(0).getToken()));
                 currentArraySizeDeclarator = currentArraySizeDeclarator.getChildren().get(1);
             }
 
@@ -266,85 +263,7 @@ public class AstBuilder {
                 initializerExpression = (Expression) this.invokeAstBuilderMethod(initializerNode.getChildren().get(0));
             }
 
-            Type complexType;
-            if (!isArray) {
-                complexType = TypeFactory.type(type);
-            } else {
-                complexType = TypeFactory.type(type, dim, false);
-            }
-
-            /*
-             * 类型为Array的时候，存在这些问题：
-             * 0、不存在右值的情况下，左值中存在null（直接报错）
-             * 1、右边不是数组表达式（直接报错）
-             * 2、左值的维度和右值的维度不一样（直接报错）
-             * 3、维度一样的情况下，右值存在比左值大的维数（直接报错）
-             * 4、维度一样的情况下，左值存在null维数（从右值推导）
-             */
-            if (isArray) {
-                // 0、不存在右值的情况下，左值中存在null
-                if (initializerExpression == null) {
-                    if (hasDimNull) {
-                        Panic panic = new Panic("Has null array dimension, but there are no initializer to refer", token.codeAxis);
-                        panic.show();
-                    }
-                } else {
-                    // 1、右边不是数组表达式
-                    if (!(initializerExpression instanceof ArrayExpression)) {
-                        Panic panic = new Panic("The initializer is not an array expression", token.codeAxis);
-                        panic.show();
-                    }
-                    assert initializerExpression instanceof ArrayExpression;
-                    ArrayExpression initializerArray = (ArrayExpression) initializerExpression;
-                    // 2、左值的维度和右值的维度不一样
-                    if (initializerArray.type.dim.size() != dim.size()) {
-                        Panic panic = new Panic(String.format("Array dimension definition (%s) not match the initializer (%s)", dim.size(), initializerArray.type.dim.size()), token.codeAxis);
-                        panic.show();
-                    }
-                    // 3、右值存在比左值大的维数（第一个维度不进行检查）  4、维度一样的情况下，左值存在null维数
-                    for (int i = 0; i < dim.size(); i++) {
-                        if (dim.get(i) != null) {
-                            if (i > 0) {
-                                if (initializerArray.type.dim.get(i) > dim.get(i)) {
-                                    Panic panic = new Panic("Array dimension definition not match the initializer", token.codeAxis);
-                                    panic.show();
-                                }
-                            }
-                        } else {
-                            dim.set(i, initializerArray.type.dim.get(i));
-                        }
-                        if (dim.get(i) < 1) {
-                            Panic panic = new Panic("Array dimension definition error, number overflow", token.codeAxis);
-                            panic.show();
-                        }
-                    }
-                }
-            }
-
-            // 初始化表达式需要进行类型检查
-            if (initializerExpression != null) {
-                if (!isArray) {
-                    if (!complexType.compatibleWith(initializerExpression.getType())) {
-                        Panic panic = new Panic(String.format("Type mismatch in initializer, expected %s, got %s", complexType.toString(), initializerExpression.getType().toString()), token.codeAxis);
-                        panic.show();
-                    }
-                } else {
-                    ArrayExpression initializerArray = ((ArrayExpression) initializerExpression);
-                    if (initializerArray.type.elementType != null) {
-                        if (!complexType.compatibleWith(initializerExpression.getType())) {
-                            Panic panic = new Panic(String.format("Type mismatch in initializer, expected %s, got %s", complexType.toString(), initializerExpression.getType().toString()), token.codeAxis);
-                            panic.show();
-                        }
-                    }
-                }
-            }
-
-            // 保存到符号表
-            Symbol symbol = new Symbol(identifier, complexType);
-            this.symbolTableManager.addSymbol(identifier, symbol);
-
-            // 初始化语句加入
-            variableDeclarationStatement.newDeclaration(symbol, initializerExpression);
+            this.declareVariable(variableDeclarationStatement, type, token, dim, initializerExpression);
 
             currentDeclaratorList = currentDeclaratorList.getChildren().get(1);
         }
@@ -355,42 +274,35 @@ public class AstBuilder {
     // return语句
     public Node buildReturnStatement(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
-        if (this.returnType == null) {
-            Panic panic = new Panic("Return statement must be inside a function body", token.codeAxis);
-            panic.show();
-        }
+        this.checkReturn(token);
         Expression expression = null;
         if (!root.getChildren().get(1).isFinal()) {
             expression = (Expression) this.invokeAstBuilderMethod(root.getChildren().get(1).getChildren().get(0));
-            if (!expression.getType().compatibleWith(this.returnType)) {
-                Panic panic = new Panic(String.format("Invalid return type, got %s, expected %s", expression.getType(), this.returnType), token.codeAxis);
-                panic.show();
-            }
         }
-        return new ReturnStatement(expression);
+        return this.returnStatement(token, expression);
     }
 
     // IF语句
     public Node buildIfStatement(ParseTreeNode root) {
         Expression condition = (Expression) this.invokeAstBuilderMethod(root.getChildren().get(1));
 
-        this.symbolTableManager.enterScope();
+        this.enterScope();
         Statement trueBlock = (Statement) this.invokeAstBuilderMethod(root.getChildren().get(2));
-        this.symbolTableManager.leaveScope();
+        this.leaveScope();
 
-        this.symbolTableManager.enterScope();
+        this.enterScope();
         Statement falseBlock = null;
         if (!root.getChildren().get(3).isFinal()) {
             falseBlock = (Statement) this.invokeAstBuilderMethod(root.getChildren().get(3).getChildren().get(0));
         }
-        this.symbolTableManager.leaveScope();
+        this.leaveScope();
 
-        return new IfStatement(condition, trueBlock, falseBlock, root.getChildren().get(0).getToken().codeAxis);
+        return new IfStatement(condition, trueBlock, falseBlock, root.getChildren().get(0).getToken().getPosition());
     }
 
     // 循环结构语句 For While Continue Break
     public Node buildForStatement(ParseTreeNode root) {
-        this.symbolTableManager.enterScope();
+        this.enterScope();
         Expression begin = null, condition = null, delta = null;
         ParseTreeNode beginExpression = root.getChildren().get(0);
         if (!beginExpression.isFinal()) {
@@ -405,37 +317,29 @@ public class AstBuilder {
             delta = (Expression) this.invokeAstBuilderMethod(deltaExpression.getChildren().get(0));
         }
         LoopStatement forStatement = new ForStatement(begin, condition, delta);
-        this.loopBodyStack.push(forStatement);
+        this.enterLoop(forStatement);
         forStatement.setLoopBody((Statement) this.invokeAstBuilderMethod(root.getChildren().get(3)));
-        this.loopBodyStack.pop();
-        this.symbolTableManager.leaveScope();
+        this.leaveLoop();
+        this.leaveScope();
         return forStatement;
     }
 
     public Node buildWhileStatement(ParseTreeNode root) {
-        this.symbolTableManager.enterScope();
+        this.enterScope();
         LoopStatement whileStatement = new WhileStatement((Expression) this.invokeAstBuilderMethod(root.getChildren().get(0)));
-        this.loopBodyStack.push(whileStatement);
+        this.enterLoop(whileStatement);
         whileStatement.setLoopBody((Statement) this.invokeAstBuilderMethod(root.getChildren().get(1)));
-        this.loopBodyStack.pop();
-        this.symbolTableManager.leaveScope();
+        this.leaveLoop();
+        this.leaveScope();
         return whileStatement;
     }
 
     public Node buildBreakStatement(ParseTreeNode root) {
-        if (this.loopBodyStack.empty()) {
-            Panic panic = new Panic("Unexpected break statement, it must be inside a loop body", root.getChildren().get(0).getToken().codeAxis);
-            panic.show();
-        }
-        return new FlowControlStatement(FlowControlType.BREAK, this.loopBodyStack.peek());
+        return this.flowControl(FlowControlType.BREAK, root.getChildren().get(0).getToken());
     }
 
     public Node buildContinueStatement(ParseTreeNode root) {
-        if (this.loopBodyStack.empty()) {
-            Panic panic = new Panic("Unexpected continue statement, it must be inside a loop body", root.getChildren().get(0).getToken().codeAxis);
-            panic.show();
-        }
-        return new FlowControlStatement(FlowControlType.CONTINUE, this.loopBodyStack.peek());
+        return this.flowControl(FlowControlType.CONTINUE, root.getChildren().get(0).getToken());
     }
 
     // 内核级输出语句
@@ -444,17 +348,17 @@ public class AstBuilder {
     }
 
     public Node buildWriteOpcodeStatement(ParseTreeNode root) {
-        String opcode = root.getChildren().get(0).getToken().value;
+        Token opcodeToken = root.getChildren().get(0).getToken();
         if (!root.getChildren().get(1).isFinal()) {
             Token token = root.getChildren().get(1).getChildren().get(0).getToken();
             switch (root.getChildren().get(1).getProductionName()) {
                 case "Main":
-                    return new OpcodeStatement(opcode, Integer.valueOf(token.value));
+                    return this.opcodeStatement(opcodeToken, token);
                 case "GetAddr":
-                    return new OpcodeStatement(opcode, this.symbolTableManager.findSymbol(token.value, token.codeAxis));
+                    return this.opcodeAddressStatement(opcodeToken, token);
             }
         }
-        return new OpcodeStatement(opcode);
+        return this.opcodeStatement(opcodeToken);
     }
 
     /*
@@ -469,12 +373,17 @@ public class AstBuilder {
      */
     public Node buildNumberLiteralPrimaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
-        return new Constant(ConstantOperator.NUMBER_LITERAL, token.value, token.codeAxis);
+        return new Constant(ConstantOperator.NUMBER_LITERAL, token.getLongValue(), token.getPosition());
+    }
+
+    public Node buildFloatLiteralPrimaryExpression(ParseTreeNode root) {
+        Token token = root.getChildren().get(0).getToken();
+        return new Constant(token.getDoubleValue(), token.getPosition());
     }
 
     public Node buildCharLiteralPrimaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
-        return new Constant(ConstantOperator.CHAR_LITERAL, token.value, token.codeAxis);
+        return new Constant(ConstantOperator.CHAR_LITERAL, token.getLongValue(), token.getPosition());
     }
 
     public Node buildSizeOfPrimaryExpression(ParseTreeNode root) {
@@ -482,14 +391,7 @@ public class AstBuilder {
     }
 
     public Node buildStringLiteralPrimaryExpression(ParseTreeNode root) {
-        Token token = root.getChildren().get(0).getToken();
-        ArrayList<Expression> constants = new ArrayList<>();
-        for (int i = 0; i < token.value.length(); i++) {
-            char character = token.value.charAt(i);
-            constants.add(new Constant(ConstantOperator.CHAR_LITERAL, Character.toString(character), token.codeAxis));
-        }
-        constants.add(new Constant(ConstantOperator.CHAR_LITERAL, "\0", token.codeAxis));
-        return new ArrayExpression(constants, token.codeAxis);
+        return this.stringLiteral(root.getChildren().get(0).getToken());
     }
     public Node buildArrayPrimaryExpression(ParseTreeNode root) {
         ParseTreeNode current = root.getChildren().get(1);
@@ -498,15 +400,15 @@ public class AstBuilder {
             expressions.add((Expression) this.invokeAstBuilderMethod(current.getChildren().get(0)));
             current = current.getChildren().get(1);
         }
-        return new ArrayExpression(expressions, root.getChildren().get(0).getToken().codeAxis);
+        return new ArrayExpression(expressions, root.getChildren().get(0).getToken().getPosition());
     }
     public Node buildTrueLiteralPrimaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
-        return new Constant(ConstantOperator.TRUE, "true", token.codeAxis);
+        return new Constant(ConstantOperator.TRUE, 1, token.getPosition());
     }
     public Node buildFalseLiteralPrimaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
-        return new Constant(ConstantOperator.FALSE, "false", token.codeAxis);
+        return new Constant(ConstantOperator.FALSE, 0, token.getPosition());
     }
     public Node buildBracketsPrimaryExpression(ParseTreeNode root) {
         return this.invokeAstBuilderMethod(root.getChildren().get(0));
@@ -522,64 +424,33 @@ public class AstBuilder {
      *
      */
     public Node buildEpsilonMemberExpressionSuffix(ParseTreeNode root) {
-        Token identifierToken = (Token) root.getAttribute("identifierToken");
-        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.value, identifierToken.codeAxis);
-        if (symbol.symbolType != SymbolType.VARIABLE) {
-            Panic panic = new Panic(String.format("Identifier %s does not refer to a variable", identifierToken.value), identifierToken.codeAxis);
-            panic.show();
-        }
-        return new Identifier(symbol);
+        return this.variable((Token) root.getAttribute("identifierToken"));
     }
     public Node buildArrayMemberExpressionSuffix(ParseTreeNode root) {
         Token identifierToken = (Token) root.getAttribute("identifierToken");
-        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.value, identifierToken.codeAxis);
-        if (symbol.symbolType != SymbolType.VARIABLE || !symbol.type.is(BasicType.ARRAY)) {
-            Panic panic = new Panic(String.format("Identifier %s does not refer to an array", identifierToken.value), identifierToken.codeAxis);
-            panic.show();
-        }
+        Symbol symbol = this.arraySymbol(identifierToken);
         ParseTreeNode current = root;
         ArrayList<Expression> expressions = new ArrayList<>();
         while (!current.isFinal()) {
             Expression expression = (Expression) this.invokeAstBuilderMethod(current.getChildren().get(0));
-            if (!expression.getType().is(BasicType.INT)) {
-                Panic panic = new Panic("Array index must be integers", identifierToken.codeAxis);
-                panic.show();
-            }
+            this.checkArrayIndex(identifierToken, expression);
             expressions.add(expression);
             current = current.getChildren().get(1);
         }
-        if (expressions.size() != symbol.type.dim.size()) {
-            Panic panic = new Panic("Array dimension not match", identifierToken.codeAxis);
-            panic.show();
-        }
-        return new Identifier(symbol, expressions);
+        return this.arrayMember(identifierToken, symbol, expressions);
     }
     public Node buildFunctionArgsMemberExpressionSuffix(ParseTreeNode root) {
         Token identifierToken = (Token) root.getAttribute("identifierToken");
-        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.value, identifierToken.codeAxis);
-        if (symbol.symbolType != SymbolType.FUNCTION) {
-            Panic panic = new Panic(String.format("Identifier %s does not refer to a function", identifierToken.value), identifierToken.codeAxis);
-            panic.show();
-        }
-        ArrayList<Type> types = new ArrayList<>();
+        Symbol symbol = this.functionSymbol(identifierToken);
         ArrayList<Expression> expressions = new ArrayList<>();
         if (!root.isFinal()) {
             ParseTreeNode current = root.getChildren().get(0);
             while (!current.isFinal()) {
-                Expression expression = (Expression) this.invokeAstBuilderMethod(current.getChildren().get(0));
-                types.add(expression.getType());
-                expressions.add(expression);
+                expressions.add((Expression) this.invokeAstBuilderMethod(current.getChildren().get(0)));
                 current = current.getChildren().get(1);
             }
         }
-        Type type = TypeFactory.type(types);
-        Pair<Type, Type> overload = symbol.getOverload(type);
-        if (overload == null) {
-            Panic panic = new Panic(String.format("Function %s does not have the overload %s", identifierToken.value, type), identifierToken.codeAxis);
-            panic.show();
-        }
-        assert overload != null;
-        return new FunctionExpression(symbol, overload.first, overload.second, expressions);
+        return this.functionCall(identifierToken, symbol, expressions);
     }
 
     /*
@@ -592,12 +463,12 @@ public class AstBuilder {
     public Node buildNegativeUnaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
         Expression operand = (Expression) this.invokeAstBuilderMethod(root.getChildren().get(1));
-        return new UnaryExpression(UnaryExpressionOperator.NEGATIVE, operand, token.codeAxis);
+        return new UnaryExpression(UnaryExpressionOperator.NEGATIVE, operand, token.getPosition());
     }
     public Node buildNotUnaryExpression(ParseTreeNode root) {
         Token token = root.getChildren().get(0).getToken();
         Expression operand = (Expression) this.invokeAstBuilderMethod(root.getChildren().get(1));
-        return new UnaryExpression(UnaryExpressionOperator.NOT, operand, token.codeAxis);
+        return new UnaryExpression(UnaryExpressionOperator.NOT, operand, token.getPosition());
     }
 
     /**
@@ -615,7 +486,7 @@ public class AstBuilder {
             rightOperand = children.get(2);
             assert root.getAttribute("leftOperandInLeft") instanceof Node;
             Expression leftOperandInLeft = (Expression) root.getAttribute("leftOperandInLeft");
-            combination = new BinaryExpression(operator, leftOperandInLeft, rightOperandInLeft, children.get(0).getToken().codeAxis);
+            combination = new BinaryExpression(operator, leftOperandInLeft, rightOperandInLeft, children.get(0).getToken().getPosition());
         } else {
             Expression leftOperand = (Expression) this.invokeAstBuilderMethod(children.get(0));
             rightOperand = children.get(1);
@@ -732,13 +603,9 @@ public class AstBuilder {
         if (rightHandSide.isFinal()) {
             return leftHandSide;
         }
-        CodeAxis operatorCodeAxis = root.getChildren().get(1).getChildren().get(0).getToken().codeAxis;
-        if (!(leftHandSide instanceof Identifier)) {
-            Panic panic = new Panic("The left hand side of assign expression must be an identifier.", operatorCodeAxis);
-            panic.show();
-        }
-        assert leftHandSide instanceof Identifier;
-        return new AssignExpression((Identifier) leftHandSide, (Expression) this.invokeAstBuilderMethod(rightHandSide), operatorCodeAxis);
+        long operatorPosition = root.getChildren().get(1).getChildren().get(0).getToken().getPosition();
+        this.checkAssignable(leftHandSide, operatorPosition);
+        return new AssignExpression((Identifier) leftHandSide, (Expression) this.invokeAstBuilderMethod(rightHandSide), operatorPosition);
     }
     public Node buildAssignAssignExpressionSuffix(ParseTreeNode root) {
         Node leftHandSide = this.invokeAstBuilderMethod(root.getChildren().get(1));
@@ -746,12 +613,400 @@ public class AstBuilder {
         if (rightHandSide.isFinal()) {
             return leftHandSide;
         }
-        CodeAxis operatorCodeAxis = root.getChildren().get(2).getChildren().get(0).getToken().codeAxis;
+        long operatorPosition = root.getChildren().get(2).getChildren().get(0).getToken().getPosition();
+        this.checkAssignable(leftHandSide, operatorPosition);
+        return new AssignExpression((Identifier) leftHandSide, (Expression) this.invokeAstBuilderMethod(rightHandSide), operatorPosition);
+    }
+
+    /*
+     * 语义动作
+     * 只接收Token和已经构造好的AST结点，不依赖语法树。
+     * 遍历语法树的构造器和一遍式的AstParser共用这些方法，保证两种方式进行的语义检查和构造的AST完全相同
+     */
+    public void enterScope() {
+        this.symbolTableManager.enterScope();
+    }
+
+    public void leaveScope() {
+        this.symbolTableManager.leaveScope();
+    }
+
+    public void enterLoop(LoopStatement loopStatement) {
+        this.loopBodyStack.push(loopStatement);
+    }
+
+    public void leaveLoop() {
+        this.loopBodyStack.pop();
+    }
+
+    // 函数返回值类型
+    public Type functionReturnType(Token returnTypeToken, Token identifierToken) {
+        String returnTypeIdentifier = returnTypeToken.getValue();
+        if (!CodeTypeMapping.codeTypeMapping.containsKey(returnTypeIdentifier)) {
+            Panic panic = new Panic(String.format("Unknown return type identifier %s", returnTypeIdentifier), identifierToken.getPosition());
+            panic.show();
+        }
+        return TypeFactory.type(CodeTypeMapping.codeTypeMapping.get(returnTypeIdentifier));
+    }
+
+    /**
+     * 形式参数的类型
+     * @param typeToken 类型标识符
+     * @param dims 各个维度的NUMBER_LITERAL，省略的维度为null，不是数组时为空
+     * @return 参数类型
+     */
+    public Type parameterType(Token typeToken, ArrayList<Token> dims) {
+        String typeIdentifier = typeToken.getValue();
+        long declaratorPosition = typeToken.getPosition();
+        if (!CodeTypeMapping.codeTypeMapping.containsKey(typeIdentifier)) {
+            Panic panic = new Panic(String.format("Unknown function parameter type identifier %s", typeIdentifier), declaratorPosition);
+            panic.show();
+        }
+        BasicType type = CodeTypeMapping.codeTypeMapping.get(typeIdentifier);
+        ArrayList<Integer> dim = new ArrayList<>();
+        boolean first = true;
+        for (Token numToken : dims) {
+            Integer currentDim = null;
+            if (numToken != null) {
+                long dimValue = numToken.getLongValue();
+                if (dimValue <= 0 || dimValue > Integer.MAX_VALUE) {
+                    Panic panic = new Panic("Array dimension definition error in function parameters, number overflow", numToken.getPosition());
+                    panic.show();
+                }
+                currentDim = (int) dimValue;
+            }
+            if (!first) {
+                if (currentDim == null) {
+                    Panic panic = new Panic("Only array 1d dimension can be ignored", declaratorPosition);
+                    panic.show();
+                }
+            } else {
+                first = false;
+            }
+            // 函数第一个维度未定义的情况下直接设为1。传地址无所谓，只需要考虑其他维度计算
+            dim.add(currentDim == null ? 1 : currentDim);
+        }
+        if (dim.size() == 0) {
+            return TypeFactory.type(type);
+        }
+        return TypeFactory.type(type, dim, false);
+    }
+
+    // 在符号表中声明函数（或者为已有的函数增加一个重载）
+    public Symbol declareFunction(Token returnTypeToken, Token identifierToken, Type functionType, Type returnType) {
+        int identifierId = identifierToken.getValueId();
+        Symbol symbol;
+        if (!this.symbolTableManager.hasSymbol(identifierId)) {
+            ArrayList<Pair<Type, Type>> overloadableTypes = new ArrayList<>();
+            overloadableTypes.add(new Pair<>(functionType, returnType));
+            symbol = new Symbol(identifierId, overloadableTypes);
+            this.symbolTableManager.addSymbol(identifierId, symbol);
+        } else {
+            symbol = this.symbolTableManager.findSymbol(identifierId, returnTypeToken.getPosition());
+            this.symbolTableManager.newOverload(symbol, functionType, returnType);
+        }
+        return symbol;
+    }
+
+    // 进入函数体，形式参数加入函数体的作用域
+    public ArrayList<Symbol> enterFunction(Type returnType, ArrayList<Type> paramTypeList, ArrayList<Integer> paramIdentifiersList) {
+        this.symbolTableManager.enterScope();
+        this.returnType = returnType;
+        assert paramTypeList.size() == paramIdentifiersList.size();
+        ArrayList<Symbol> paramIdentifersSymbols = new ArrayList<>();
+        for (int i = 0; i < paramTypeList.size(); i++) {
+            paramIdentifersSymbols.add(this.symbolTableManager.addSymbol(paramIdentifiersList.get(i), new Symbol(paramIdentifiersList.get(i), paramTypeList.get(i))));
+        }
+        return paramIdentifersSymbols;
+    }
+
+    public Node leaveFunction(Token identifierToken, Symbol symbol, Type functionType, Type returnType, Statement body, ArrayList<Symbol> paramIdentifersSymbols) {
+        this.symbolTableManager.leaveScope();
+        return new FunctionDeclarationStatement(identifierToken.getValue(), symbol, functionType, returnType, body, paramIdentifersSymbols);
+    }
+
+    /**
+     * 记录当前可见的全局符号，延迟分析函数体时恢复，见AstParser
+     * @return 下一个声明的顺序
+     */
+    public int visibleSymbols() {
+        return this.symbolTableManager.getOrder();
+    }
+
+    /**
+     * 只允许看到在给定顺序之前声明的全局符号
+     * @return 原来的设置
+     */
+    public int restrictSymbols(int order) {
+        return this.symbolTableManager.setVisibleOrder(order);
+    }
+
+    /**
+     * 重新声明已经构造好的顶层结点中的全局符号，用于增量构造时复用没有修改的结点，见IncrementalAstBuilder
+     * 函数第一次声明时沿用原来的Symbol，其重载从这次声明开始重新登记
+     * @param node 顶层结点
+     */
+    public void redeclare(Node node) {
+        if (node instanceof FunctionDeclarationStatement) {
+            FunctionDeclarationStatement declaration = (FunctionDeclarationStatement) node;
+            Symbol symbol = declaration.symbol;
+            if (!this.symbolTableManager.hasSymbol(symbol.identifierId)) {
+                symbol.overloadableTypes.clear();
+                symbol.overloadOrders.clear();
+                symbol.overloadableTypes.add(new Pair<>(declaration.types, declaration.returnType));
+                this.symbolTableManager.addSymbol(symbol.identifierId, symbol);
+            } else {
+                Symbol existing = this.symbolTableManager.findSymbol(symbol.identifierId, CodeAxis.NO_POSITION);
+                this.symbolTableManager.newOverload(existing, declaration.types, declaration.returnType);
+            }
+        } else if (node instanceof VariableDeclarationStatement) {
+            for (Pair<Symbol, Expression> declaration : ((VariableDeclarationStatement) node).declarations) {
+                this.symbolTableManager.addSymbol(declaration.first.identifierId, declaration.first);
+            }
+        }
+    }
+
+    // 变量类型
+    public BasicType variableType(Token typeToken) {
+        String typeIdentifier = typeToken.getValue();
+        if (!CodeTypeMapping.codeTypeMapping.containsKey(typeIdentifier)) {
+            Panic panic = new Panic(String.format("Unsupported type %s", typeIdentifier), typeToken.getPosition());
+            panic.show();
+        }
+        return CodeTypeMapping.codeTypeMapping.get(typeIdentifier);
+    }
+
+    // 当前作用域中不能有同名的标识符
+    public void checkNewVariable(Token identifierToken) {
+        if (this.symbolTableManager.hasSymbolInCurrentScope(identifierToken.getValueId())) {
+            Panic panic = new Panic(String.format("Identifier %s exists in current scope", identifierToken.getValue()), identifierToken.getPosition());
+            panic.show();
+        }
+    }
+
+    // 数组变量的一个维度
+    public Integer arrayDimension(Token numToken) {
+        long dimValue = numToken.getLongValue();
+        if (dimValue <= 0 || dimValue > Integer.MAX_VALUE) {
+            Panic panic = new Panic("Array dimension definition error, number overflow", numToken.getPosition());
+            panic.show();
+        }
+        return (int) dimValue;
+    }
+
+    /**
+     * 声明一个变量
+     * @param variableDeclarationStatement 变量所在的声明语句
+     * @param type 变量的基本类型
+     * @param token 变量名
+     * @param dim 数组的各个维度，null代表维度未定义（根据初始化推导），不是数组时为空
+     * @param initializerExpression 初始化表达式，没有时为null
+     */
+    public void declareVariable(VariableDeclarationStatement variableDeclarationStatement, BasicType type, Token token,
+                                ArrayList<Integer> dim, Expression initializerExpression) {
+        int identifierId = token.getValueId();
+        boolean isArray = dim.size() > 0;
+        boolean hasDimNull = dim.contains(null);
+
+        Type complexType;
+        if (!isArray) {
+            complexType = TypeFactory.type(type);
+        } else {
+            complexType = TypeFactory.type(type, dim, false);
+        }
+
+        /*
+         * 类型为Array的时候，存在这些问题：
+         * 0、不存在右值的情况下，左值中存在null（直接报错）
+         * 1、右边不是数组表达式（直接报错）
+         * 2、左值的维度和右值的维度不一样（直接报错）
+         * 3、维度一样的情况下，右值存在比左值大的维数（直接报错）
+         * 4、维度一样的情况下，左值存在null维数（从右值推导）
+         */
+        if (isArray) {
+            // 0、不存在右值的情况下，左值中存在null
+            if (initializerExpression == null) {
+                if (hasDimNull) {
+                    Panic panic = new Panic("Has null array dimension, but there are no initializer to refer", token.getPosition());
+                    panic.show();
+                }
+            } else {
+                // 1、右边不是数组表达式
+                if (!(initializerExpression instanceof ArrayExpression)) {
+                    Panic panic = new Panic("The initializer is not an array expression", token.getPosition());
+                    panic.show();
+                }
+                assert initializerExpression instanceof ArrayExpression;
+                ArrayExpression initializerArray = (ArrayExpression) initializerExpression;
+                // 2、左值的维度和右值的维度不一样
+                if (initializerArray.type.dim.size() != dim.size()) {
+                    Panic panic = new Panic(String.format("Array dimension definition (%s) not match the initializer (%s)", dim.size(), initializerArray.type.dim.size()), token.getPosition());
+                    panic.show();
+                }
+                // 3、右值存在比左值大的维数（第一个维度不进行检查）  4、维度一样的情况下，左值存在null维数
+                for (int i = 0; i < dim.size(); i++) {
+                    if (dim.get(i) != null) {
+                        if (i > 0) {
+                            if (initializerArray.type.dim.get(i) > dim.get(i)) {
+                                Panic panic = new Panic("Array dimension definition not match the initializer", token.getPosition());
+                                panic.show();
+                            }
+                        }
+                    } else {
+                        dim.set(i, initializerArray.type.dim.get(i));
+                    }
+                    if (dim.get(i) < 1) {
+                        Panic panic = new Panic("Array dimension definition error, number overflow", token.getPosition());
+                        panic.show();
+                    }
+                }
+            }
+        }
+
+        // 初始化表达式需要进行类型检查
+        if (initializerExpression != null) {
+            if (!isArray) {
+                if (!complexType.compatibleWith(initializerExpression.getType())) {
+                    Panic panic = new Panic(String.format("Type mismatch in initializer, expected %s, got %s", complexType.toString(), initializerExpression.getType().toString()), token.getPosition());
+                    panic.show();
+                }
+            } else {
+                ArrayExpression initializerArray = ((ArrayExpression) initializerExpression);
+                if (initializerArray.type.elementType != null) {
+                    if (!complexType.compatibleWith(initializerExpression.getType())) {
+                        Panic panic = new Panic(String.format("Type mismatch in initializer, expected %s, got %s", complexType.toString(), initializerExpression.getType().toString()), token.getPosition());
+                        panic.show();
+                    }
+                }
+            }
+        }
+
+        // 保存到符号表
+        Symbol symbol = new Symbol(identifierId, complexType);
+        this.symbolTableManager.addSymbol(identifierId, symbol);
+
+        // 初始化语句加入
+        variableDeclarationStatement.newDeclaration(symbol, initializerExpression);
+    }
+
+    // return语句必须在函数体中
+    public void checkReturn(Token token) {
+        if (this.returnType == null) {
+            Panic panic = new Panic("Return statement must be inside a function body", token.getPosition());
+            panic.show();
+        }
+    }
+
+    public Node returnStatement(Token token, Expression expression) {
+        if (expression != null && !expression.getType().compatibleWith(this.returnType)) {
+            Panic panic = new Panic(String.format("Invalid return type, got %s, expected %s", expression.getType(), this.returnType), token.getPosition());
+            panic.show();
+        }
+        return new ReturnStatement(expression);
+    }
+
+    // break和continue语句必须在循环体中
+    public Node flowControl(FlowControlType type, Token token) {
+        if (this.loopBodyStack.empty()) {
+            Panic panic = new Panic(String.format("Unexpected %s statement, it must be inside a loop body", type.name().toLowerCase()), token.getPosition());
+            panic.show();
+        }
+        return new FlowControlStatement(type, this.loopBodyStack.peek());
+    }
+
+    // 写入SVM指令
+    public Node opcodeStatement(Token opcodeToken) {
+        return new OpcodeStatement(opcodeToken.getValue());
+    }
+
+    public Node opcodeStatement(Token opcodeToken, Token token) {
+        if (token.getLongValue() > Integer.MAX_VALUE) {
+            Panic panic = new Panic("Opcode parameter out of range", token.getPosition());
+            panic.show();
+        }
+        return new OpcodeStatement(opcodeToken.getValue(), (int) token.getLongValue());
+    }
+
+    public Node opcodeAddressStatement(Token opcodeToken, Token identifierToken) {
+        return new OpcodeStatement(opcodeToken.getValue(), this.symbolTableManager.findSymbol(identifierToken.getValueId(), identifierToken.getPosition()));
+    }
+
+    // 字符串字面量即以0结尾的字符数组
+    public Node stringLiteral(Token token) {
+        ArrayList<Expression> constants = new ArrayList<>();
+        String value = token.getValue();
+        for (int i = 0; i < value.length(); i++) {
+            constants.add(new Constant(ConstantOperator.CHAR_LITERAL, value.charAt(i), token.getPosition()));
+        }
+        constants.add(new Constant(ConstantOperator.CHAR_LITERAL, 0, token.getPosition()));
+        return new ArrayExpression(constants, token.getPosition());
+    }
+
+    // 变量
+    public Node variable(Token identifierToken) {
+        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.getValueId(), identifierToken.getPosition());
+        if (symbol.symbolType != SymbolType.VARIABLE) {
+            Panic panic = new Panic(String.format("Identifier %s does not refer to a variable", identifierToken.getValue()), identifierToken.getPosition());
+            panic.show();
+        }
+        return new Identifier(symbol);
+    }
+
+    // 数组元素，先查找数组，再逐个检查下标，最后检查维数
+    public Symbol arraySymbol(Token identifierToken) {
+        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.getValueId(), identifierToken.getPosition());
+        if (symbol.symbolType != SymbolType.VARIABLE || !symbol.type.is(BasicType.ARRAY)) {
+            Panic panic = new Panic(String.format("Identifier %s does not refer to an array", identifierToken.getValue()), identifierToken.getPosition());
+            panic.show();
+        }
+        return symbol;
+    }
+
+    public void checkArrayIndex(Token identifierToken, Expression expression) {
+        if (!expression.getType().is(BasicType.INT)) {
+            Panic panic = new Panic("Array index must be integers", identifierToken.getPosition());
+            panic.show();
+        }
+    }
+
+    public Node arrayMember(Token identifierToken, Symbol symbol, ArrayList<Expression> expressions) {
+        if (expressions.size() != symbol.type.dim.size()) {
+            Panic panic = new Panic("Array dimension not match", identifierToken.getPosition());
+            panic.show();
+        }
+        return new Identifier(symbol, expressions);
+    }
+
+    // 函数调用，先查找函数，再根据实际参数的类型选择重载
+    public Symbol functionSymbol(Token identifierToken) {
+        Symbol symbol = this.symbolTableManager.findSymbol(identifierToken.getValueId(), identifierToken.getPosition());
+        if (symbol.symbolType != SymbolType.FUNCTION) {
+            Panic panic = new Panic(String.format("Identifier %s does not refer to a function", identifierToken.getValue()), identifierToken.getPosition());
+            panic.show();
+        }
+        return symbol;
+    }
+
+    public Node functionCall(Token identifierToken, Symbol symbol, ArrayList<Expression> expressions) {
+        ArrayList<Type> types = new ArrayList<>();
+        for (Expression expression : expressions) {
+            types.add(expression.getType());
+        }
+        Type type = TypeFactory.type(types);
+        Pair<Type, Type> overload = this.symbolTableManager.getOverload(symbol, type);
+        if (overload == null) {
+            Panic panic = new Panic(String.format("Function %s does not have the overload %s", identifierToken.getValue(), type), identifierToken.getPosition());
+            panic.show();
+        }
+        assert overload != null;
+        return new FunctionExpression(symbol, overload.first, overload.second, expressions);
+    }
+
+    // 赋值表达式的左值必须是标识符
+    public void checkAssignable(Node leftHandSide, long operatorPosition) {
         if (!(leftHandSide instanceof Identifier)) {
-            Panic panic = new Panic("The left hand side of assign expression must be an identifier.", operatorCodeAxis);
+            Panic panic = new Panic("The left hand side of assign expression must be an identifier.", operatorPosition);
             panic.show();
         }
-        assert leftHandSide instanceof Identifier;
-        return new AssignExpression((Identifier) leftHandSide, (Expression) this.invokeAstBuilderMethod(rightHandSide), operatorCodeAxis);
     }
 }
@@ -0,0 +1,835 @@
+package com.slang.semantic.ast;
+
+import com.slang.lexer.CodeAxis;
+import com.slang.lexer.Token;
+import com.slang.lexer.TokenKind;
+import com.slang.lexer.TokenStream;
+import com.slang.parser.PredictTable;
+import com.slang.parser.symbol.Production;
+import com.slang.semantic.ast.node.Node;
+import com.slang.semantic.ast.node.expression.*;
+import com.slang.semantic.ast.node.statement.*;
+import com.slang.semantic.symbol.Symbol;
+import com.slang.semantic.type.BasicType;
+import com.slang.semantic.type.Type;
+import com.slang.semantic.type.TypeFactory;
+import com.slang.utils.Panic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * 一遍式的AST构造器
+ * 在语法分析的同时直接调用AstBuilder的语义动作构造AST，不生成语法树。
+ * 每次选择产生式仍然查预测分析表，因此接受的语言以及语法错误的位置和提示都与RdScanner相同；
+ * 语义检查与遍历语法树时共用同一组方法，顺序也相同，构造的AST完全一致。
+ * 唯一的区别是语义错误在分析到该处时立即报告，可能先于其后的语法错误。
+ * 二元运算表达式不按文法中逐级的非终结符展开，而是根据运算符优先级表用优先级爬升法分析，
+ * 一个操作数只需要一次调用，不必经过全部十个优先级。
+ * 延迟分析被导入模块的函数体时，函数体按花括号配对跳过，只声明函数的签名，
+ * 函数体在代码生成第一次调用该函数时才分析，从未被调用的库函数不进行语法分析和语义检查
+ */
+public class AstParser {
+    /*
+     * 产生式对应的动作，同一个非终结符的各个产生式对应不同的动作
+     */
+    private static final int MAIN = 0;
+    private static final int EPSILON = 1;
+    private static final int COMMON = 2;
+    private static final int FUNCTION_DECLARATION = 3;
+    private static final int EMPTY = 4;
+    private static final int COMPOUND = 5;
+    private static final int VARIABLE_DECLARATION = 6;
+    private static final int IF = 7;
+    private static final int FOR = 8;
+    private static final int WHILE = 9;
+    private static final int BREAK = 10;
+    private static final int CONTINUE = 11;
+    private static final int EXPRESSION = 12;
+    private static final int PRINTK = 13;
+    private static final int WRITE_OPCODE = 14;
+    private static final int RETURN = 15;
+    private static final int GET_ADDR = 16;
+    private static final int NUMBER_LITERAL = 17;
+    private static final int FLOAT_LITERAL = 18;
+    private static final int STRING_LITERAL = 19;
+    private static final int CHAR_LITERAL = 20;
+    private static final int TRUE_LITERAL = 21;
+    private static final int FALSE_LITERAL = 22;
+    private static final int IDENTIFIER = 23;
+    private static final int BRACKETS = 24;
+    private static final int ARRAY = 25;
+    private static final int SIZE_OF = 26;
+    private static final int FUNCTION_ARGS = 27;
+    private static final int PRIMARY = 28;
+    private static final int NEGATIVE = 29;
+    private static final int NOT = 30;
+    private static final int BINARY = 31;
+    private static final int ASSIGN = 32;
+
+    private static final HashMap<String, Integer> actionMapping = new HashMap<String, Integer>() {{
+        put("Main", MAIN);
+        put("Epsilon", EPSILON);
+        put("Common", COMMON);
+        put("FunctionDeclaration", FUNCTION_DECLARATION);
+        put("Empty", EMPTY);
+        put("Compound", COMPOUND);
+        put("VariableDeclaration", VARIABLE_DECLARATION);
+        put("If", IF);
+        put("For", FOR);
+        put("While", WHILE);
+        put("Break", BREAK);
+        put("Continue", CONTINUE);
+        put("Expression", EXPRESSION);
+        put("Printk", PRINTK);
+        put("WriteOpcode", WRITE_OPCODE);
+        put("Return", RETURN);
+        put("GetAddr", GET_ADDR);
+        put("NumberLiteral", NUMBER_LITERAL);
+        put("FloatLiteral", FLOAT_LITERAL);
+        put("StringLiteral", STRING_LITERAL);
+        put("CharLiteral", CHAR_LITERAL);
+        put("TrueLiteral", TRUE_LITERAL);
+        put("FalseLiteral", FALSE_LITERAL);
+        put("Identifier", IDENTIFIER);
+        put("Brackets", BRACKETS);
+        put("Array", ARRAY);
+        put("SizeOf", SIZE_OF);
+        put("FunctionArgs", FUNCTION_ARGS);
+        put("Primary", PRIMARY);
+        put("Negative", NEGATIVE);
+        put("Not", NOT);
+        put("Assign", ASSIGN);
+    }};
+
+    /**
+     * 二元运算表达式的各个优先级，从高到低，每一级为表达式和后缀两个非终结符
+     * 运算符优先级表由这些后缀的产生式生成：产生式右部的第一个终结符即为该优先级的运算符
+     */
+    private static final String[][] binaryExpressions = {
+            {"MultiplyingExpression", "MultiplyingExpressionSuffix"},
+            {"LinearExpression", "LinearExpressionSuffix"},
+            {"ShiftExpression", "ShiftExpressionSuffix"},
+            {"CompareExpression", "CompareExpressionSuffix"},
+            {"EqualityExpression", "EqualityExpressionSuffix"},
+            {"BitwiseAndExpression", "BitwiseAndExpressionSuffix"},
+            {"BitwiseXorExpression", "BitwiseXorExpressionSuffix"},
+            {"BitwiseOrExpression", "BitwiseOrExpressionSuffix"},
+            {"BitwiseLogicalAndExpression", "BitwiseLogicalAndExpressionSuffix"},
+            {"BitwiseLogicalOrExpression", "BitwiseLogicalOrExpressionSuffix"},
+    };
+
+    /**
+     * 二元运算表达式后缀的产生式（名称+非终结符名，与AstBuilder的构造器命名相同）对应的运算符
+     */
+    private static final HashMap<String, BinaryExpressionOperator> binaryOperatorMapping = new HashMap<String, BinaryExpressionOperator>() {{
+        put("ProductMultiplyingExpressionSuffix", BinaryExpressionOperator.PROD);
+        put("DivisionMultiplyingExpressionSuffix", BinaryExpressionOperator.DIV);
+        put("ModMultiplyingExpressionSuffix", BinaryExpressionOperator.MOD);
+        put("PlusLinearExpressionSuffix", BinaryExpressionOperator.PLUS);
+        put("SubLinearExpressionSuffix", BinaryExpressionOperator.SUB);
+        put("ShiftLeftShiftExpressionSuffix", BinaryExpressionOperator.SHL);
+        put("ShiftRightShiftExpressionSuffix", BinaryExpressionOperator.SHR);
+        put("LessThanCompareExpressionSuffix", BinaryExpressionOperator.LT);
+        put("GreaterThanCompareExpressionSuffix", BinaryExpressionOperator.GT);
+        put("LessThanOrEqualCompareExpressionSuffix", BinaryExpressionOperator.LTE);
+        put("GreaterThanOrEqualCompareExpressionSuffix", BinaryExpressionOperator.GTE);
+        put("IsEqualEqualityExpressionSuffix", BinaryExpressionOperator.IS_EQ);
+        put("IsNotEqualEqualityExpressionSuffix", BinaryExpressionOperator.IS_NEQ);
+        put("AndBitwiseAndExpressionSuffix", BinaryExpressionOperator.AND);
+        put("XorBitwiseXorExpressionSuffix", BinaryExpressionOperator.XOR);
+        put("OrBitwiseOrExpressionSuffix", BinaryExpressionOperator.OR);
+        put("LogicalAndBitwiseLogicalAndExpressionSuffix", BinaryExpressionOperator.LAND);
+        put("LogicalOrBitwiseLogicalOrExpressionSuffix", BinaryExpressionOperator.LOR);
+    }};
+
+    /*
+     * 文法中不传递给AST构造器的终结符
+     */
+    private static final int KIND_FUNC = TokenKind.of("FUNC");
+    private static final int KIND_VAR = TokenKind.of("VAR");
+    private static final int KIND_IF = TokenKind.of("IF");
+    private static final int KIND_ELSE = TokenKind.of("ELSE");
+    private static final int KIND_FOR = TokenKind.of("FOR");
+    private static final int KIND_WHILE = TokenKind.of("WHILE");
+    private static final int KIND_BREAK = TokenKind.of("BREAK");
+    private static final int KIND_CONTINUE = TokenKind.of("CONTINUE");
+    private static final int KIND_PRINTK = TokenKind.of("PRINTK");
+    private static final int KIND_SVM = TokenKind.of("__SVM__");
+    private static final int KIND_RET = TokenKind.of("RET");
+    private static final int KIND_SIZEOF = TokenKind.of("SIZEOF");
+    private static final int KIND_AND = TokenKind.of("AND");
+    private static final int KIND_SUB = TokenKind.of("SUB");
+    private static final int KIND_NOT = TokenKind.of("NOT");
+    private static final int KIND_EQ = TokenKind.of("EQ");
+    private static final int KIND_TRUE = TokenKind.of("TRUE");
+    private static final int KIND_FALSE = TokenKind.of("FALSE");
+    private static final int KIND_LEFT_PAREN = TokenKind.of("(");
+    private static final int KIND_RIGHT_PAREN = TokenKind.of(")");
+    private static final int KIND_LEFT_BRACKET = TokenKind.of("[");
+    private static final int KIND_RIGHT_BRACKET = TokenKind.of("]");
+    private static final int KIND_LEFT_BRACE = TokenKind.of("{");
+    private static final int KIND_RIGHT_BRACE = TokenKind.of("}");
+    private static final int KIND_COMMA = TokenKind.of(",");
+    private static final int KIND_SEMICOLON = TokenKind.of(";");
+
+    private TokenStream tokenStream;
+    private PredictTable predictTable;
+    private AstBuilder astBuilder;
+    /**
+     * 是否延迟分析被导入模块的函数体
+     */
+    private boolean lazyLibraries = false;
+
+    /**
+     * 产生式编号对应的动作
+     */
+    private int[] actions;
+    /**
+     * 运算符优先级表，下标为Token种类
+     * 优先级为binaryExpressions中的下标，0为最高，不是二元运算符的Token种类为-1
+     */
+    private int[] precedences;
+    private BinaryExpressionOperator[] binaryOperators;
+
+    /*
+     * 非终结符编号
+     */
+    private int start;
+    private int program;
+    private int element;
+    private int formalParameterList;
+    private int formalParameterListSuffix;
+    private int formalParameterDeclarator;
+    private int functionBody;
+    private int statements;
+    private int compoundStatement;
+    private int statement;
+    private int variableDeclaratorList;
+    private int variableDeclaratorListSuffix;
+    private int variableDeclarator;
+    private int variableArraySizeDeclarator;
+    private int initializerDeclarator;
+    private int arrayDimension;
+    private int elseStatement;
+    private int opcodeParam;
+    private int returnValue;
+    private int primaryExpression;
+    private int commaSeparatedExpression;
+    private int commaSeparatedExpressionSuffix;
+    private int memberExpressionSuffix;
+    private int arrayMemberExpressionSuffix;
+    private int unaryExpression;
+    private int binaryExpressionSuffix;
+    private int assignExpression;
+    private int assignExpressionSuffix;
+    private int expression;
+    private int expressionOpt;
+
+    public AstParser(TokenStream tokenStream, PredictTable predictTable, boolean lazyLibraries) {
+        this(tokenStream, predictTable);
+        this.lazyLibraries = lazyLibraries;
+    }
+
+    public AstParser(TokenStream tokenStream, PredictTable predictTable) {
+        this.tokenStream = tokenStream;
+        this.predictTable = predictTable;
+        this.astBuilder = new AstBuilder(predictTable);
+
+        // 启动时检查每个产生式都有对应的动作，文法变化后不会在分析到一半时才发现
+        this.actions = new int[predictTable.getProductionCount()];
+        for (int i = 0; i < this.actions.length; i++) {
+            Production production = predictTable.getProduction(i);
+            String builderName = String.format("%s%s", production.getName(), production.getLeftHandSide().name);
+            if (AstParser.binaryOperatorMapping.containsKey(builderName)) {
+                this.actions[i] = BINARY;
+            } else if (AstParser.actionMapping.containsKey(production.getName())) {
+                this.actions[i] = AstParser.actionMapping.get(production.getName());
+            } else {
+                Panic panic = new Panic(String.format("AST: No building action for production %s", builderName), new CodeAxis());
+                panic.show();
+            }
+        }
+
+        HashMap<String, Integer> nonTerminalIds = new HashMap<>();
+        for (int i = 0; i < predictTable.getNonTerminalCount(); i++) {
+            nonTerminalIds.put(predictTable.getNonTerminal(i).name, i);
+        }
+        this.start = this.nonTerminal(nonTerminalIds, "SLang");
+        this.program = this.nonTerminal(nonTerminalIds, "Program");
+        this.element = this.nonTerminal(nonTerminalIds, "Element");
+        this.formalParameterList = this.nonTerminal(nonTerminalIds, "FormalParameterList");
+        this.formalParameterListSuffix = this.nonTerminal(nonTerminalIds, "FormalParameterListSuffix");
+        this.formalParameterDeclarator = this.nonTerminal(nonTerminalIds, "FormalParameterDeclarator");
+        this.functionBody = this.nonTerminal(nonTerminalIds, "FunctionBody");
+        this.statements = this.nonTerminal(nonTerminalIds, "Statements");
+        this.compoundStatement = this.nonTerminal(nonTerminalIds, "CompoundStatement");
+        this.statement = this.nonTerminal(nonTerminalIds, "Statement");
+        this.variableDeclaratorList = this.nonTerminal(nonTerminalIds, "VariableDeclaratorList");
+        this.variableDeclaratorListSuffix = this.nonTerminal(nonTerminalIds, "VariableDeclaratorListSuffix");
+        this.variableDeclarator = this.nonTerminal(nonTerminalIds, "VariableDeclarator");
+        this.variableArraySizeDeclarator = this.nonTerminal(nonTerminalIds, "VariableArraySizeDeclarator");
+        this.initializerDeclarator = this.nonTerminal(nonTerminalIds, "InitializerDeclarator");
+        this.arrayDimension = this.nonTerminal(nonTerminalIds, "ArrayDimension");
+        this.elseStatement = this.nonTerminal(nonTerminalIds, "ElseStatement");
+        this.opcodeParam = this.nonTerminal(nonTerminalIds, "OpcodeParam");
+        this.returnValue = this.nonTerminal(nonTerminalIds, "ReturnValue");
+        this.primaryExpression = this.nonTerminal(nonTerminalIds, "PrimaryExpression");
+        this.commaSeparatedExpression = this.nonTerminal(nonTerminalIds, "CommaSeparatedExpression");
+        this.commaSeparatedExpressionSuffix = this.nonTerminal(nonTerminalIds, "CommaSeparatedExpressionSuffix");
+        this.memberExpressionSuffix = this.nonTerminal(nonTerminalIds, "MemberExpressionSuffix");
+        this.arrayMemberExpressionSuffix = this.nonTerminal(nonTerminalIds, "ArrayMemberExpressionSuffix");
+        this.unaryExpression = this.nonTerminal(nonTerminalIds, "UnaryExpression");
+        this.binaryExpressionSuffix = this.nonTerminal(nonTerminalIds, binaryExpressions[0][1]);
+        this.buildPrecedenceTable(nonTerminalIds);
+        this.assignExpression = this.nonTerminal(nonTerminalIds, "AssignExpression");
+        this.assignExpressionSuffix = this.nonTerminal(nonTerminalIds, "AssignExpressionSuffix");
+        this.expression = this.nonTerminal(nonTerminalIds, "Expression");
+        this.expressionOpt = this.nonTerminal(nonTerminalIds, "ExpressionOpt");
+    }
+
+    /**
+     * 根据二元运算表达式后缀的产生式生成运算符优先级表
+     */
+    private void buildPrecedenceTable(HashMap<String, Integer> nonTerminalIds) {
+        this.precedences = new int[TokenKind.count()];
+        this.binaryOperators = new BinaryExpressionOperator[TokenKind.count()];
+        Arrays.fill(this.precedences, -1);
+        byte[] symbolTypes = this.predictTable.getSymbolTypes();
+        int[] symbolIds = this.predictTable.getSymbolIds();
+        for (int level = 0; level < binaryExpressions.length; level++) {
+            this.nonTerminal(nonTerminalIds, binaryExpressions[level][0]);
+            int suffix = this.nonTerminal(nonTerminalIds, binaryExpressions[level][1]);
+            for (int i = 0; i < this.actions.length; i++) {
+                Production production = this.predictTable.getProduction(i);
+                if (this.actions[i] != BINARY || !production.getLeftHandSide().equals(this.predictTable.getNonTerminal(suffix))) {
+                    continue;
+                }
+                int operator = this.predictTable.getRightHandSide(i)[0];
+                if (symbolTypes[operator] != PredictTable.SYMBOL_TERMINAL) {
+                    Panic panic = new Panic(String.format("AST: Production %s does not begin with an operator", production), new CodeAxis());
+                    panic.show();
+                }
+                int kind = symbolIds[operator];
+                this.precedences[kind] = level;
+                this.binaryOperators[kind] = AstParser.binaryOperatorMapping.get(String.format("%s%s", production.getName(), production.getLeftHandSide().name));
+            }
+        }
+    }
+
+    private int nonTerminal(HashMap<String, Integer> nonTerminalIds, String name) {
+        if (!nonTerminalIds.containsKey(name)) {
+            Panic panic = new Panic(String.format("AST: Non-terminal %s does not exist in the grammar", name), new CodeAxis());
+            panic.show();
+        }
+        return nonTerminalIds.get(name);
+    }
+
+    /**
+     * 选择产生式
+     * @param nonTerminal 非终结符编号
+     * @return 产生式编号
+     */
+    private int predict(int nonTerminal) {
+        int production = this.predictTable.predict(nonTerminal, this.tokenStream.lookAheadKind());
+        if (production == -1) {
+            Token lookAhead = this.tokenStream.lookAhead();
+            Panic panic = new Panic(String.format("Unexpected token: %s", lookAhead.getName()), lookAhead.getPosition());
+            panic.show();
+        }
+        return production;
+    }
+
+    /**
+     * 选择产生式
+     * @param nonTerminal 非终结符编号
+     * @return 产生式对应的动作
+     */
+    private int action(int nonTerminal) {
+        return this.actions[this.predict(nonTerminal)];
+    }
+
+    private void expect(int kind) {
+        if (this.tokenStream.lookAheadKind() != kind) {
+            Token token = this.tokenStream.lookAhead();
+            Panic panic = new Panic(String.format("Unexpected token: %s, expected %s", token.getName(), TokenKind.getName(kind)), token.getPosition());
+            panic.show();
+        }
+    }
+
+    /**
+     * 匹配一个终结符
+     * @return 匹配的Token
+     */
+    private Token match(int kind) {
+        this.expect(kind);
+        return this.tokenStream.next();
+    }
+
+    /**
+     * 匹配一个不需要传递给语义动作的终结符
+     */
+    private void skip(int kind) {
+        this.expect(kind);
+        this.tokenStream.skip();
+    }
+
+    /**
+     * 分析整个源文件
+     * @return AST的根结点
+     */
+    public Node build() {
+        this.predict(this.start);
+        Statements statements = new Statements();
+        while (this.action(this.program) == MAIN) {
+            Node element = this.parseElement();
+            if (element != null) {
+                assert element instanceof Statement;
+                statements.addStatement((Statement) element);
+            }
+        }
+
+        if (!tokenStream.isFinished()) {
+            Token lastToken = tokenStream.next();
+            while (!tokenStream.isFinished()) lastToken = tokenStream.next();
+            Panic panic = new Panic(String.format("Unexpected token %s at the end of the file", lastToken.toString()), lastToken.getPosition());
+            panic.show();
+        }
+
+        return statements;
+    }
+
+    private Node parseElement() {
+        if (this.action(this.element) == COMMON) {
+            return this.parseStatement();
+        }
+        return this.parseFunctionDeclaration();
+    }
+
+    /*
+     * FunctionDeclaration <Element> ::== FUNC [ID] [ID] ( <FormalParameterList> ) <FunctionBody>
+     */
+    private Node parseFunctionDeclaration() {
+        this.skip(KIND_FUNC);
+        Token returnTypeToken = this.match(TokenKind.ID);
+        Token identifierToken = this.match(TokenKind.ID);
+        Type returnType = this.astBuilder.functionReturnType(returnTypeToken, identifierToken);
+        this.skip(KIND_LEFT_PAREN);
+        ArrayList<Type> paramTypeList = new ArrayList<>();
+        ArrayList<Integer> paramIdentifiersList = new ArrayList<>();
+        if (this.action(this.formalParameterList) == MAIN) {
+            this.parseFormalParameterDeclarator(paramTypeList, paramIdentifiersList);
+            while (this.action(this.formalParameterListSuffix) == MAIN) {
+                this.skip(KIND_COMMA);
+                this.parseFormalParameterDeclarator(paramTypeList, paramIdentifiersList);
+            }
+        }
+        this.skip(KIND_RIGHT_PAREN);
+        Type functionType = TypeFactory.type(paramTypeList);
+        Symbol symbol = this.astBuilder.declareFunction(returnTypeToken, identifierToken, functionType, returnType);
+
+        TokenStream bodyStream = this.lazyLibraries ? this.tokenStream.skipBlock(KIND_LEFT_BRACE, KIND_RIGHT_BRACE) : null;
+        if (bodyStream != null) {
+            LazyFunctionBody lazyBody = new LazyFunctionBody(bodyStream, returnType, paramTypeList, paramIdentifiersList, this.astBuilder.visibleSymbols());
+            // 与分析函数体时相同，进入函数体会更新当前函数的返回值类型
+            ArrayList<Symbol> paramIdentifersSymbols = this.astBuilder.enterFunction(returnType, paramTypeList, paramIdentifiersList);
+            FunctionDeclarationStatement declaration = (FunctionDeclarationStatement) this.astBuilder.leaveFunction(identifierToken, symbol, functionType, returnType, null, paramIdentifersSymbols);
+            declaration.lazyBody = lazyBody;
+            return declaration;
+        }
+
+        ArrayList<Symbol> paramIdentifersSymbols = this.astBuilder.enterFunction(returnType, paramTypeList, paramIdentifiersList);
+        Statement body = null;
+        if (this.action(this.functionBody) == MAIN) {
+            body = (Statement) this.parseStatement();
+        } else {
+            this.skip(KIND_SEMICOLON);
+        }
+        return this.astBuilder.leaveFunction(identifierToken, symbol, functionType, returnType, body, paramIdentifersSymbols);
+    }
+
+    /**
+     * 跳过的函数体
+     * 分析时在模块自身的Token上进行，只能看到函数声明之前的全局符号，语义检查与按顺序分析时相同
+     */
+    private class LazyFunctionBody implements FunctionDeclarationStatement.LazyBody {
+        TokenStream tokenStream;
+        Type returnType;
+        ArrayList<Type> paramTypeList;
+        ArrayList<Integer> paramIdentifiersList;
+        int visibleOrder;
+
+        LazyFunctionBody(TokenStream tokenStream, Type returnType, ArrayList<Type> paramTypeList, ArrayList<Integer> paramIdentifiersList, int visibleOrder) {
+            this.tokenStream = tokenStream;
+            this.returnType = returnType;
+            this.paramTypeList = paramTypeList;
+            this.paramIdentifiersList = paramIdentifiersList;
+            this.visibleOrder = visibleOrder;
+        }
+
+        @Override
+        public void parse(FunctionDeclarationStatement statement) {
+            TokenStream tokenStream = AstParser.this.tokenStream;
+            AstParser.this.tokenStream = this.tokenStream;
+            int visibleOrder = AstParser.this.astBuilder.restrictSymbols(this.visibleOrder);
+            statement.paramIdentifiers = AstParser.this.astBuilder.enterFunction(this.returnType, this.paramTypeList, this.paramIdentifiersList);
+            AstParser.this.predict(AstParser.this.functionBody);
+            statement.body = (Statement) AstParser.this.parseStatement();
+            AstParser.this.astBuilder.leaveScope();
+            AstParser.this.astBuilder.restrictSymbols(visibleOrder);
+            AstParser.this.tokenStream = tokenStream;
+            this.tokenStream = null;
+        }
+    }
+
+    private void parseFormalParameterDeclarator(ArrayList<Type> paramTypeList, ArrayList<Integer> paramIdentifiersList) {
+        this.predict(this.formalParameterDeclarator);
+        Token typeToken = this.match(TokenKind.ID);
+        Token identifierToken = this.match(TokenKind.ID);
+        ArrayList<Token> dims = new ArrayList<>();
+        while (this.action(this.variableArraySizeDeclarator) == MAIN) {
+            this.skip(KIND_LEFT_BRACKET);
+            dims.add(this.action(this.arrayDimension) == MAIN ? this.match(TokenKind.NUMBER_LITERAL) : null);
+            this.skip(KIND_RIGHT_BRACKET);
+        }
+        paramTypeList.add(this.astBuilder.parameterType(typeToken, dims));
+        paramIdentifiersList.add(identifierToken.getValueId());
+    }
+
+    /*
+     * 语句
+     */
+    private Node parseStatement() {
+        switch (this.action(this.statement)) {
+            case COMPOUND:
+                return this.parseCompoundStatement();
+            case VARIABLE_DECLARATION:
+                return this.parseVariableDeclarationStatement();
+            case IF:
+                return this.parseIfStatement();
+            case FOR:
+                return this.parseForStatement();
+            case WHILE:
+                return this.parseWhileStatement();
+            case BREAK: {
+                Token token = this.match(KIND_BREAK);
+                this.skip(KIND_SEMICOLON);
+                return this.astBuilder.flowControl(FlowControlType.BREAK, token);
+            }
+            case CONTINUE: {
+                Token token = this.match(KIND_CONTINUE);
+                this.skip(KIND_SEMICOLON);
+                return this.astBuilder.flowControl(FlowControlType.CONTINUE, token);
+            }
+            case EXPRESSION: {
+                Expression expression = this.parseExpression();
+                this.skip(KIND_SEMICOLON);
+                return new ExpressionStatement(expression);
+            }
+            case PRINTK: {
+                this.skip(KIND_PRINTK);
+                Expression expression = this.parseExpression();
+                this.skip(KIND_SEMICOLON);
+                return new PrintkStatement(expression);
+            }
+            case WRITE_OPCODE:
+                return this.parseWriteOpcodeStatement();
+            default:
+                return this.parseReturnStatement();
+        }
+    }
+
+    // Main <CompoundStatement> ::== { <Statements> }
+    private Node parseCompoundStatement() {
+        this.predict(this.compoundStatement);
+        this.skip(KIND_LEFT_BRACE);
+        Statements statements = new Statements();
+        while (this.action(this.statements) == MAIN) {
+            Node statementNode = this.parseStatement();
+            if (statementNode != null) {
+                assert statementNode instanceof Statement;
+                statements.addStatement((Statement) statementNode);
+            }
+        }
+        this.skip(KIND_RIGHT_BRACE);
+        return statements;
+    }
+
+    // VariableDeclaration <Statement> ::== VAR [ID] <VariableDeclaratorList> ;
+    private Node parseVariableDeclarationStatement() {
+        this.skip(KIND_VAR);
+        BasicType type = this.astBuilder.variableType(this.match(TokenKind.ID));
+        VariableDeclarationStatement variableDeclarationStatement = new VariableDeclarationStatement();
+        this.predict(this.variableDeclaratorList);
+        this.parseVariableDeclarator(variableDeclarationStatement, type);
+        while (this.action(this.variableDeclaratorListSuffix) == MAIN) {
+            this.skip(KIND_COMMA);
+            this.parseVariableDeclarator(variableDeclarationStatement, type);
+        }
+        this.skip(KIND_SEMICOLON);
+        return variableDeclarationStatement;
+    }
+
+    // Main <VariableDeclarator> ::== [ID] <VariableArraySizeDeclarator> <InitializerDeclarator>
+    private void parseVariableDeclarator(VariableDeclarationStatement variableDeclarationStatement, BasicType type) {
+        this.predict(this.variableDeclarator);
+        Token token = this.match(TokenKind.ID);
+        this.astBuilder.checkNewVariable(token);
+        ArrayList<Integer> dim = new ArrayList<>();
+        while (this.action(this.variableArraySizeDeclarator) == MAIN) {
+            this.skip(KIND_LEFT_BRACKET);
+            dim.add(this.action(this.arrayDimension) == MAIN ? this.astBuilder.arrayDimension(this.match(TokenKind.NUMBER_LITERAL)) : null);
+            this.skip(KIND_RIGHT_BRACKET);
+        }
+        Expression initializerExpression = null;
+        if (this.action(this.initializerDeclarator) == MAIN) {
+            this.skip(KIND_EQ);
+            initializerExpression = this.parseExpression();
+        }
+        this.astBuilder.declareVariable(variableDeclarationStatement, type, token, dim, initializerExpression);
+    }
+
+    // If <Statement> ::== [IF] ( <Expression> ) <Statement> <ElseStatement>
+    private Node parseIfStatement() {
+        Token token = this.match(KIND_IF);
+        this.skip(KIND_LEFT_PAREN);
+        Expression condition = this.parseExpression();
+        this.skip(KIND_RIGHT_PAREN);
+
+        this.astBuilder.enterScope();
+        Statement trueBlock = (Statement) this.parseStatement();
+        this.astBuilder.leaveScope();
+
+        this.astBuilder.enterScope();
+        Statement falseBlock = null;
+        if (this.action(this.elseStatement) == MAIN) {
+            this.skip(KIND_ELSE);
+            falseBlock = (Statement) this.parseStatement();
+        }
+        this.astBuilder.leaveScope();
+
+        return new IfStatement(condition, trueBlock, falseBlock, token.getPosition());
+    }
+
+    // For <Statement> ::== FOR ( <ExpressionOpt> ; <ExpressionOpt> ; <ExpressionOpt> ) <Statement>
+    private Node parseForStatement() {
+        this.skip(KIND_FOR);
+        this.skip(KIND_LEFT_PAREN);
+        this.astBuilder.enterScope();
+        Expression begin = this.parseExpressionOpt();
+        this.skip(KIND_SEMICOLON);
+        Expression condition = this.parseExpressionOpt();
+        this.skip(KIND_SEMICOLON);
+        Expression delta = this.parseExpressionOpt();
+        this.skip(KIND_RIGHT_PAREN);
+        LoopStatement forStatement = new ForStatement(begin, condition, delta);
+        this.astBuilder.enterLoop(forStatement);
+        forStatement.setLoopBody((Statement) this.parseStatement());
+        this.astBuilder.leaveLoop();
+        this.astBuilder.leaveScope();
+        return forStatement;
+    }
+
+    // While <Statement> ::== WHILE ( <Expression> ) <Statement>
+    private Node parseWhileStatement() {
+        this.skip(KIND_WHILE);
+        this.skip(KIND_LEFT_PAREN);
+        this.astBuilder.enterScope();
+        LoopStatement whileStatement = new WhileStatement(this.parseExpression());
+        this.skip(KIND_RIGHT_PAREN);
+        this.astBuilder.enterLoop(whileStatement);
+        whileStatement.setLoopBody((Statement) this.parseStatement());
+        this.astBuilder.leaveLoop();
+        this.astBuilder.leaveScope();
+        return whileStatement;
+    }
+
+    // WriteOpcode <Statement> ::== __SVM__ [ID] <OpcodeParam> ;
+    private Node parseWriteOpcodeStatement() {
+        this.skip(KIND_SVM);
+        Token opcodeToken = this.match(TokenKind.ID);
+        Node opcodeStatement;
+        switch (this.action(this.opcodeParam)) {
+            case MAIN:
+                opcodeStatement = this.astBuilder.opcodeStatement(opcodeToken, this.match(TokenKind.NUMBER_LITERAL));
+                break;
+            case GET_ADDR:
+                this.skip(KIND_AND);
+                opcodeStatement = this.astBuilder.opcodeAddressStatement(opcodeToken, this.match(TokenKind.ID));
+                break;
+            default:
+                opcodeStatement = this.astBuilder.opcodeStatement(opcodeToken);
+        }
+        this.skip(KIND_SEMICOLON);
+        return opcodeStatement;
+    }
+
+    // Return <Statement> ::== [RET] <ReturnValue> ;
+    private Node parseReturnStatement() {
+        Token token = this.match(KIND_RET);
+        this.astBuilder.checkReturn(token);
+        Expression expression = null;
+        if (this.action(this.returnValue) == MAIN) {
+            expression = this.parseExpression();
+        }
+        this.skip(KIND_SEMICOLON);
+        return this.astBuilder.returnStatement(token, expression);
+    }
+
+    /*
+     * 表达式
+     */
+    private Expression parseExpressionOpt() {
+        if (this.action(this.expressionOpt) == MAIN) {
+            return this.parseExpression();
+        }
+        return null;
+    }
+
+    private Expression parseExpression() {
+        this.predict(this.expression);
+        this.predict(this.assignExpression);
+        return this.parseAssignExpressionSuffix(this.parseBinaryExpression(binaryExpressions.length - 1));
+    }
+
+    /**
+     * 赋值表达式（注意：右结合性）
+     * Assign <AssignExpressionSuffix> ::== [EQ] <BitwiseLogicalOrExpression> <AssignExpressionSuffix>
+     * @param leftHandSide 已经分析的左侧表达式
+     */
+    private Expression parseAssignExpressionSuffix(Expression leftHandSide) {
+        if (this.action(this.assignExpressionSuffix) == EPSILON) {
+            return leftHandSide;
+        }
+        long operatorPosition = this.match(KIND_EQ).getPosition();
+        this.astBuilder.checkAssignable(leftHandSide, operatorPosition);
+        Expression rightHandSide = this.parseBinaryExpression(binaryExpressions.length - 1);
+        return new AssignExpression((Identifier) leftHandSide, this.parseAssignExpressionSuffix(rightHandSide), operatorPosition);
+    }
+
+    /**
+     * 二元运算表达式（左结合），优先级爬升法
+     * 先分析一个一元表达式作为左操作数，之后只要向前看Token是优先级不低于level的运算符，
+     * 就以比它高一级的优先级分析右操作数，再与左侧已经构造好的表达式结合
+     * @param level 允许的最低优先级，0为最高
+     */
+    private Expression parseBinaryExpression(int level) {
+        Expression combination = this.parseUnaryExpression();
+        while (true) {
+            int kind = this.tokenStream.lookAheadKind();
+            int precedence = kind < this.precedences.length ? this.precedences[kind] : -1;
+            if (precedence == -1) {
+                // 与逐级展开时相同，不能跟在操作数之后的Token在优先级最高的后缀处报错
+                this.predict(this.binaryExpressionSuffix);
+                return combination;
+            }
+            if (precedence > level) {
+                return combination;
+            }
+            Token token = this.tokenStream.next();
+            Expression rightOperand = this.parseBinaryExpression(precedence - 1);
+            combination = new BinaryExpression(this.binaryOperators[kind], combination, rightOperand, token.getPosition());
+        }
+    }
+
+    private Expression parseUnaryExpression() {
+        switch (this.action(this.unaryExpression)) {
+            case NEGATIVE: {
+                Token token = this.match(KIND_SUB);
+                return new UnaryExpression(UnaryExpressionOperator.NEGATIVE, this.parseUnaryExpression(), token.getPosition());
+            }
+            case NOT: {
+                Token token = this.match(KIND_NOT);
+                return new UnaryExpression(UnaryExpressionOperator.NOT, this.parseUnaryExpression(), token.getPosition());
+            }
+            default:
+                return this.parsePrimaryExpression();
+        }
+    }
+
+    private Expression parsePrimaryExpression() {
+        switch (this.action(this.primaryExpression)) {
+            case NUMBER_LITERAL: {
+                Token token = this.match(TokenKind.NUMBER_LITERAL);
+                return new Constant(ConstantOperator.NUMBER_LITERAL, token.getLongValue(), token.getPosition());
+            }
+            case FLOAT_LITERAL: {
+                Token token = this.match(TokenKind.FLOAT_LITERAL);
+                return new Constant(token.getDoubleValue(), token.getPosition());
+            }
+            case STRING_LITERAL:
+                return (Expression) this.astBuilder.stringLiteral(this.match(TokenKind.STRING_LITERAL));
+            case CHAR_LITERAL: {
+                Token token = this.match(TokenKind.CHAR_LITERAL);
+                return new Constant(ConstantOperator.CHAR_LITERAL, token.getLongValue(), token.getPosition());
+            }
+            case TRUE_LITERAL:
+                return new Constant(ConstantOperator.TRUE, 1, this.match(KIND_TRUE).getPosition());
+            case FALSE_LITERAL:
+                return new Constant(ConstantOperator.FALSE, 0, this.match(KIND_FALSE).getPosition());
+            case IDENTIFIER:
+                return this.parseMemberExpressionSuffix(this.match(TokenKind.ID));
+            case BRACKETS: {
+                this.skip(KIND_LEFT_PAREN);
+                Expression expression = this.parseExpression();
+                this.skip(KIND_RIGHT_PAREN);
+                return expression;
+            }
+            case ARRAY: {
+                Token token = this.match(KIND_LEFT_BRACKET);
+                ArrayList<Expression> expressions = this.parseCommaSeparatedExpression();
+                this.skip(KIND_RIGHT_BRACKET);
+                return new ArrayExpression(expressions, token.getPosition());
+            }
+            default: {
+                this.skip(KIND_SIZEOF);
+                this.skip(KIND_LEFT_PAREN);
+                Expression expression = this.parsePrimaryExpression();
+                this.skip(KIND_RIGHT_PAREN);
+                return new SizeOfExpression(expression);
+            }
+        }
+    }
+
+    private ArrayList<Expression> parseCommaSeparatedExpression() {
+        ArrayList<Expression> expressions = new ArrayList<>();
+        if (this.action(this.commaSeparatedExpression) == MAIN) {
+            expressions.add(this.parseExpression());
+            while (this.action(this.commaSeparatedExpressionSuffix) == MAIN) {
+                this.skip(KIND_COMMA);
+                expressions.add(this.parseExpression());
+            }
+        }
+        return expressions;
+    }
+
+    /*
+     * 成员表达式(MemberExpression)
+     */
+    private Expression parseMemberExpressionSuffix(Token identifierToken) {
+        switch (this.action(this.memberExpressionSuffix)) {
+            case ARRAY: {
+                Symbol symbol = this.astBuilder.arraySymbol(identifierToken);
+                ArrayList<Expression> expressions = new ArrayList<>();
+                do {
+                    this.skip(KIND_LEFT_BRACKET);
+                    Expression expression = this.parseExpression();
+                    this.astBuilder.checkArrayIndex(identifierToken, expression);
+                    expressions.add(expression);
+                    this.skip(KIND_RIGHT_BRACKET);
+                } while (this.action(this.arrayMemberExpressionSuffix) == MAIN);
+                return (Expression) this.astBuilder.arrayMember(identifierToken, symbol, expressions);
+            }
+            case FUNCTION_ARGS: {
+                Symbol symbol = this.astBuilder.functionSymbol(identifierToken);
+                this.skip(KIND_LEFT_PAREN);
+                ArrayList<Expression> expressions = this.parseCommaSeparatedExpression();
+                this.skip(KIND_RIGHT_PAREN);
+                return (Expression) this.astBuilder.functionCall(identifierToken, symbol, expressions);
+            }
+            default:
+                return (Expression) this.astBuilder.variable(identifierToken);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.slang.semantic.ast;
+
+import com.slang.parser.ParseTreeNode;
+import com.slang.parser.PredictTable;
+import com.slang.parser.symbol.NonTerminal;
+import com.slang.semantic.ast.node.Node;
+import com.slang.semantic.ast.node.expression.Expression;
+import com.slang.semantic.ast.node.statement.FunctionDeclarationStatement;
+import com.slang.semantic.ast.node.statement.Statement;
+import com.slang.semantic.ast.node.statement.Statements;
+import com.slang.semantic.ast.node.statement.VariableDeclarationStatement;
+import com.slang.semantic.symbol.Symbol;
+import com.slang.utils.Pair;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * 增量构造AST
+ * 与IncrementalParser配合使用：语法树中没有被替换的<Element>结点在两次构造之间保持不变，它们的AST结点可以直接复用。
+ * 一个Element的AST只取决于它自身和在它之前声明的全局符号，因此只要它之前的全局声明（函数的签名、全局变量的类型）
+ * 与上一次构造时完全相同，就只需要在符号表中重新声明它的全局符号，其余的Element照常构造。
+ * 代码生成按名字（标识符、作用域层级和重载的序号）而不是按Symbol对象区分符号，因此复用的结点中引用的Symbol与新构造的等价。
+ * 复用的结点不会重复报告警告
+ */
+public class IncrementalAstBuilder {
+    /**
+     * 一个顶层Element上一次构造的结果
+     */
+    private static class Element {
+        Node node;
+        /**
+         * 在它之前的全局声明的个数
+         */
+        int declarationIndex;
+        /**
+         * 它声明的全局符号
+         */
+        ArrayList<String> declarations;
+
+        Element(Node node, int declarationIndex, ArrayList<String> declarations) {
+            this.node = node;
+            this.declarationIndex = declarationIndex;
+            this.declarations = declarations;
+        }
+    }
+
+    private PredictTable predictTable;
+    private IdentityHashMap<ParseTreeNode, Element> elements = new IdentityHashMap<>();
+    /**
+     * 上一次构造时依次声明的全局符号
+     */
+    private ArrayList<String> declarations = new ArrayList<>();
+    private int reusedCount = 0;
+
+    /**
+     * @param predictTable 生成语法树的预测分析表，见AstBuilder
+     */
+    public IncrementalAstBuilder(PredictTable predictTable) {
+        this.predictTable = predictTable;
+    }
+
+    /**
+     * 获取上一次构造时复用的Element个数
+     */
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * 全局声明的签名，两个声明的签名相同时它们在符号表中登记的内容相同
+     */
+    private static ArrayList<String> declarationsOf(Node node) {
+        ArrayList<String> declarations = new ArrayList<>();
+        if (node instanceof FunctionDeclarationStatement) {
+            FunctionDeclarationStatement declaration = (FunctionDeclarationStatement) node;
+            declarations.add(String.format("%s %s %s", declaration.identifier, declaration.returnType.toString(), declaration.types.toString()));
+        } else if (node instanceof VariableDeclarationStatement) {
+            for (Pair<Symbol, Expression> declaration : ((VariableDeclarationStatement) node).declarations) {
+                declarations.add(String.format("%s %s", declaration.first.identifier, declaration.first.type.toString()));
+            }
+        }
+        return declarations;
+    }
+
+    /**
+     * 构造整个程序的AST，尽可能复用上一次构造的结点
+     * @param root 语法树的根结点
+     * @return 程序的语句序列
+     */
+    public Statements build(ParseTreeNode root) {
+        AstBuilder astBuilder = new AstBuilder(this.predictTable);
+        IdentityHashMap<ParseTreeNode, Element> elements = new IdentityHashMap<>();
+        ArrayList<String> declarations = new ArrayList<>();
+        // 到目前为止的全局声明是否与上一次构造时相同
+        boolean agree = true;
+        this.reusedCount = 0;
+
+        ParseTreeNode program = root;
+        while (!((NonTerminal) program.getGrammarSymbol()).name.equals("Program")) {
+            program = program.getChildren().get(0);
+        }
+        Statements statements = new Statements();
+        for (; !program.isFinal(); program = program.getChildren().get(1)) {
+            ParseTreeNode elementNode = program.getChildren().get(0);
+            Element element = this.elements.get(elementNode);
+            if (element != null && agree && element.declarationIndex == declarations.size()) {
+                astBuilder.redeclare(element.node);
+                this.reusedCount++;
+            } else {
+                Node node = astBuilder.invokeAstBuilderMethod(elementNode);
+                element = new Element(node, declarations.size(), IncrementalAstBuilder.declarationsOf(node));
+            }
+            for (String declaration : element.declarations) {
+                agree = agree && declarations.size() < this.declarations.size() && this.declarations.get(declarations.size()).equals(declaration);
+                declarations.add(declaration);
+            }
+            elements.put(elementNode, element);
+            if (element.node != null) {
+                statements.addStatement((Statement) element.node);
+            }
+        }
+        this.elements = elements;
+        this.declarations = declarations;
+        return statements;
+    }
+}
@@ -7,4 +7,9 @@ import java.util.ArrayList;
 public interface Node {
     ArrayList<Pair<String, Object>> getReadableProperties();
     String getReadableOperator();
+
+    /**
+     * 调用访问者中与该结点对应的visit方法
+     */
+    <R> R accept(NodeVisitor<R> visitor);
 }
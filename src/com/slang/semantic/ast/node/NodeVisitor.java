@@ -0,0 +1,52 @@
+package com.slang.semantic.ast.node;
+
+import com.slang.semantic.ast.node.expression.*;
+import com.slang.semantic.ast.node.statement.*;
+
+/**
+ * AST的访问者
+ * 每种结点的accept()调用与它对应的visit方法，遍历AST的各个阶段（如代码生成）实现该接口，
+ * 按结点类型分派只需要一次虚方法调用，不再需要instanceof判断
+ * @param <R> 访问结点的结果类型
+ */
+public interface NodeVisitor<R> {
+    R visitArrayExpression(ArrayExpression arrayExpression);
+
+    R visitArrayMember(ArrayMember arrayMember);
+
+    R visitAssignExpression(AssignExpression assignExpression);
+
+    R visitBinaryExpression(BinaryExpression binaryExpression);
+
+    R visitConstant(Constant constant);
+
+    R visitFunctionExpression(FunctionExpression functionExpression);
+
+    R visitIdentifier(Identifier identifier);
+
+    R visitSizeOfExpression(SizeOfExpression sizeOfExpression);
+
+    R visitUnaryExpression(UnaryExpression unaryExpression);
+
+    R visitExpressionStatement(ExpressionStatement expressionStatement);
+
+    R visitFlowControlStatement(FlowControlStatement flowControlStatement);
+
+    R visitForStatement(ForStatement forStatement);
+
+    R visitFunctionDeclarationStatement(FunctionDeclarationStatement functionDeclarationStatement);
+
+    R visitIfStatement(IfStatement ifStatement);
+
+    R visitOpcodeStatement(OpcodeStatement opcodeStatement);
+
+    R visitPrintkStatement(PrintkStatement printkStatement);
+
+    R visitReturnStatement(ReturnStatement returnStatement);
+
+    R visitStatements(Statements statements);
+
+    R visitVariableDeclarationStatement(VariableDeclarationStatement variableDeclarationStatement);
+
+    R visitWhileStatement(WhileStatement whileStatement);
+}
@@ -1,6 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.type.Type;
 import com.slang.semantic.type.TypeFactory;
 import com.slang.utils.Pair;
@@ -12,7 +12,7 @@ public class ArrayExpression implements Expression {
     public Type type;
     public ArrayList<Expression> elements;
 
-    public ArrayExpression(ArrayList<Expression> elements, CodeAxis codeAxis) {
+    public ArrayExpression(ArrayList<Expression> elements, long position) {
         int nonArrayElementCount = 0;
         Type elementType = null;
         ArrayList<Integer> dim = new ArrayList<>();
@@ -31,13 +31,13 @@ public class ArrayExpression implements Expression {
             } else if (elementType != compareType && compareType != null) {
                 // 类型不一致的情况报错
                 Panic panic = new Panic(String.format("Each element in the array must be of the same type, unexpected %s (expected %s)",
-                        compareType.toString(), elementType.toString()), codeAxis);
+                        compareType.toString(), elementType.toString()), position);
                 panic.show();
             }
         }
         // 要么全是数组元素，要么全是非数组元素
         if (nonArrayElementCount != 0 && nonArrayElementCount != elements.size()) {
-            Panic panic = new Panic("Wrong array initializer, Non-Array element occurred in the array sequence", codeAxis);
+            Panic panic = new Panic("Wrong array initializer, Non-Array element occurred in the array sequence", position);
             panic.show();
         }
         dim.add(elements.size());
@@ -47,7 +47,7 @@ public class ArrayExpression implements Expression {
                 int dimSize = ((ArrayExpression) elements.get(0)).type.dim.size();
                 for (Expression element : elements) {
                     if (((ArrayExpression) element).type.dim.size() != dimSize) {
-                        Panic panic = new Panic("Wrong array dimension in array expression", codeAxis);
+                        Panic panic = new Panic("Wrong array dimension in array expression", position);
                         panic.show();
                     }
                 }
@@ -90,4 +90,9 @@ public class ArrayExpression implements Expression {
     public String getReadableOperator() {
         return "ArrayExpression";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitArrayExpression(this);
+    }
 }
@@ -1,6 +1,7 @@
 package com.slang.semantic.ast.node.expression;
 
 import com.slang.semantic.ast.node.Node;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.utils.Pair;
 
 import java.util.ArrayList;
@@ -27,4 +28,9 @@ public class ArrayMember implements Node {
     public String getReadableOperator() {
         return "ArrayMember";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitArrayMember(this);
+    }
 }
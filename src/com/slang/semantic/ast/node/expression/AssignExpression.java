@@ -1,6 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.type.Type;
 import com.slang.semantic.type.TypeEvaluator;
 import com.slang.utils.Pair;
@@ -10,13 +10,13 @@ import java.util.ArrayList;
 public class AssignExpression implements Expression {
     public Identifier leftHandSide;
     public Expression rightHandSide;
-    public CodeAxis codeAxis;
+    public long position;
 
-    public AssignExpression(Identifier leftHandSide, Expression rightHandSide, CodeAxis operatorCodeAxis) {
+    public AssignExpression(Identifier leftHandSide, Expression rightHandSide, long operatorPosition) {
         this.leftHandSide = leftHandSide;
         this.rightHandSide = rightHandSide;
-        this.codeAxis = operatorCodeAxis;
-        TypeEvaluator.checkAssignExpression(leftHandSide, rightHandSide, operatorCodeAxis);
+        this.position = operatorPosition;
+        TypeEvaluator.checkAssignExpression(leftHandSide, rightHandSide, operatorPosition);
     }
 
     @Override
@@ -37,4 +37,9 @@ public class AssignExpression implements Expression {
     public Type getType() {
         return this.rightHandSide.getType();
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitAssignExpression(this);
+    }
 }
@@ -1,6 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.type.Type;
 import com.slang.semantic.type.TypeEvaluator;
 import com.slang.utils.Pair;
@@ -13,7 +13,7 @@ public class BinaryExpression implements Expression {
     public Expression leftOperand;
     public Expression rightOperand;
     public Type type;
-    public CodeAxis operatorCodeAxis;
+    public long operatorPosition;
     public static HashMap<BinaryExpressionOperator, String> supportedOperators = new HashMap<>() {{
         put(BinaryExpressionOperator.PLUS, "BinExpr +");
         put(BinaryExpressionOperator.SUB, "BinExpr -");
@@ -35,12 +35,12 @@ public class BinaryExpression implements Expression {
         put(BinaryExpressionOperator.MOD, "BinExpr MOD");
     }};
 
-    public BinaryExpression(BinaryExpressionOperator operator, Expression leftOperand, Expression rightOperand, CodeAxis operatorCodeAxis) {
+    public BinaryExpression(BinaryExpressionOperator operator, Expression leftOperand, Expression rightOperand, long operatorPosition) {
         this.leftOperand = leftOperand;
         this.operator = operator;
         this.rightOperand = rightOperand;
-        this.type = TypeEvaluator.binaryExpressionType(operator, leftOperand, rightOperand, operatorCodeAxis);
-        this.operatorCodeAxis = operatorCodeAxis;
+        this.type = TypeEvaluator.binaryExpressionType(operator, leftOperand, rightOperand, operatorPosition);
+        this.operatorPosition = operatorPosition;
     }
 
     @Override
@@ -61,4 +61,9 @@ public class BinaryExpression implements Expression {
     public String getReadableOperator() {
         return supportedOperators.get(this.operator);
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitBinaryExpression(this);
+    }
 }
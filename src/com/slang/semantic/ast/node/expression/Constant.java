@@ -1,18 +1,26 @@
 package com.slang.semantic.ast.node.expression;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.type.BasicType;
 import com.slang.semantic.type.Type;
 import com.slang.semantic.type.TypeFactory;
 import com.slang.utils.Pair;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 public class Constant implements Expression {
     public ConstantOperator op;
-    public String value;
-    public CodeAxis codeAxis;
+    /**
+     * 整数、字符（字符的编码）和布尔（1或0）常量的值
+     */
+    public long value;
+    /**
+     * 浮点数常量的值
+     */
+    public double floatValue;
+    public long position;
     public Type type;
     public static HashMap<ConstantOperator, String> supportedOperators = new HashMap<>() {{
         put(ConstantOperator.NUMBER_LITERAL, "Number literal");
@@ -21,14 +29,13 @@ public class Constant implements Expression {
         put(ConstantOperator.FALSE, "Boolean literal False");
     }};
 
-    public Constant(ConstantOperator op, String value, CodeAxis codeAxis) {
+    public Constant(ConstantOperator op, long value, long position) {
         this.op = op;
         this.value = value;
-        this.codeAxis = codeAxis;
+        this.position = position;
         switch (this.op) {
             case NUMBER_LITERAL:
-                if (this.value.indexOf('.') == -1) this.type = TypeFactory.type(BasicType.INT);
-                else this.type = TypeFactory.type(BasicType.FLOAT);
+                this.type = TypeFactory.type(BasicType.INT);
                 break;
             case CHAR_LITERAL:
                 this.type = TypeFactory.type(BasicType.CHAR);
@@ -40,10 +47,52 @@ public class Constant implements Expression {
         }
     }
 
+    /**
+     * 浮点数常量
+     * @param floatValue 值
+     * @param position 位置
+     */
+    public Constant(double floatValue, long position) {
+        this.op = ConstantOperator.NUMBER_LITERAL;
+        this.floatValue = floatValue;
+        this.position = position;
+        this.type = TypeFactory.type(BasicType.FLOAT);
+    }
+
+    /**
+     * 把浮点数格式化为不带指数的十进制形式，整数值保留一位小数
+     * @param value 浮点数
+     * @return 文本形式
+     */
+    public static String formatFloat(double value) {
+        String literal = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        return literal.indexOf('.') == -1 ? literal + ".0" : literal;
+    }
+
+    /**
+     * 获取常量值的文本形式
+     * @return 文本形式
+     */
+    public String getLiteral() {
+        switch (this.op) {
+            case NUMBER_LITERAL:
+                if (this.type.is(BasicType.FLOAT)) {
+                    return Constant.formatFloat(this.floatValue);
+                }
+                return Long.toString(this.value);
+            case CHAR_LITERAL:
+                return Character.toString((char) this.value);
+            case TRUE:
+                return "true";
+            default:
+                return "false";
+        }
+    }
+
     @Override
     public ArrayList<Pair<String, Object>> getReadableProperties() {
         ArrayList<Pair<String, Object>> properties = new ArrayList<>();
-        properties.add(new Pair<>("value", this.value));
+        properties.add(new Pair<>("value", this.getLiteral()));
         properties.add(new Pair<>("type", this.type));
         return properties;
     }
@@ -57,4 +106,9 @@ public class Constant implements Expression {
     public Type getType() {
         return this.type;
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitConstant(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.symbol.Symbol;
 import com.slang.semantic.type.Type;
 import com.slang.utils.Pair;
@@ -44,4 +45,9 @@ public class FunctionExpression implements Expression {
     public String getReadableOperator() {
         return "FunctionExpression";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitFunctionExpression(this);
+    }
 }
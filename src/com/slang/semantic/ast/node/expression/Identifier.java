@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.symbol.Symbol;
 import com.slang.semantic.type.Type;
 import com.slang.utils.Pair;
@@ -43,4 +44,9 @@ public class Identifier implements Expression {
         }
         return this.symbol.type.elementType;
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitIdentifier(this);
+    }
 }
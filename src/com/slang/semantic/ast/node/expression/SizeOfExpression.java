@@ -0,0 +1,40 @@
+package com.slang.semantic.ast.node.expression;
+
+import com.slang.semantic.ast.node.NodeVisitor;
+import com.slang.semantic.type.BasicType;
+import com.slang.semantic.type.Type;
+import com.slang.semantic.type.TypeFactory;
+import com.slang.utils.Pair;
+
+import java.util.ArrayList;
+
+public class SizeOfExpression implements Expression {
+    public Expression expression;
+    public Type type = TypeFactory.type(BasicType.INT);
+
+    public SizeOfExpression(Expression expression) {
+        this.expression = expression;
+    }
+
+    @Override
+    public ArrayList<Pair<String, Object>> getReadableProperties() {
+        ArrayList<Pair<String, Object>> properties = new ArrayList<>();
+        properties.add(new Pair<>("expression", this.expression));
+        return properties;
+    }
+
+    @Override
+    public String getReadableOperator() {
+        return "SizeOf";
+    }
+
+    @Override
+    public Type getType() {
+        return this.type;
+    }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitSizeOfExpression(this);
+    }
+}
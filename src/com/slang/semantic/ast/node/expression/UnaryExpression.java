@@ -1,6 +1,6 @@
 package com.slang.semantic.ast.node.expression;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.type.Type;
 import com.slang.semantic.type.TypeEvaluator;
 import com.slang.utils.Pair;
@@ -11,7 +11,7 @@ import java.util.HashMap;
 public class UnaryExpression implements Expression {
     public UnaryExpressionOperator operator;
     public Expression operand;
-    public CodeAxis operatorCodeAxis;
+    public long operatorPosition;
     public Type type;
 
     public static HashMap<UnaryExpressionOperator, String> supportedOperators = new HashMap<>() {{
@@ -19,11 +19,11 @@ public class UnaryExpression implements Expression {
         put(UnaryExpressionOperator.NEGATIVE, "UnaryExpr NEGATIVE");
     }};
 
-    public UnaryExpression(UnaryExpressionOperator operator, Expression operand, CodeAxis operatorCodeAxis) {
+    public UnaryExpression(UnaryExpressionOperator operator, Expression operand, long operatorPosition) {
         this.operator = operator;
         this.operand = operand;
-        this.operatorCodeAxis = operatorCodeAxis;
-        this.type = TypeEvaluator.unaryExpressionType(operator, operand, operatorCodeAxis);
+        this.operatorPosition = operatorPosition;
+        this.type = TypeEvaluator.unaryExpressionType(operator, operand, operatorPosition);
     }
 
     @Override
@@ -43,4 +43,9 @@ public class UnaryExpression implements Expression {
     public Type getType() {
         return this.type;
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitUnaryExpression(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.ast.node.expression.Expression;
 import com.slang.utils.Pair;
 
@@ -23,4 +24,9 @@ public class ExpressionStatement implements Statement {
     public String getReadableOperator() {
         return "ExpressionStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitExpressionStatement(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.utils.Pair;
 
 import java.util.ArrayList;
@@ -36,4 +37,9 @@ public class FlowControlStatement implements Statement {
     public String getReadableOperator() {
         return "FlowControlStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitFlowControlStatement(this);
+    }
 }
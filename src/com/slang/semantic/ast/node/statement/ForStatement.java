@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.ast.node.expression.Expression;
 import com.slang.utils.Pair;
 
@@ -36,4 +37,9 @@ public class ForStatement implements LoopStatement {
     public void setLoopBody(Statement body) {
         this.body = body;
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitForStatement(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.symbol.Symbol;
 import com.slang.semantic.type.Type;
 import com.slang.utils.Pair;
@@ -13,6 +14,21 @@ public class FunctionDeclarationStatement implements Statement {
     public Statement body;
     public ArrayList<Symbol> paramIdentifiers;
     public Symbol symbol;
+    /**
+     * 尚未分析的函数体，没有时为null
+     */
+    public LazyBody lazyBody = null;
+
+    /**
+     * 延迟分析的函数体
+     * 被导入模块中的函数体可以先跳过，在代码生成第一次需要时才进行语法分析和语义检查
+     */
+    public interface LazyBody {
+        /**
+         * 分析函数体，设置函数声明的body和paramIdentifiers
+         */
+        void parse(FunctionDeclarationStatement statement);
+    }
 
     public FunctionDeclarationStatement(String identifier, Symbol symbol, Type types, Type returnType, Statement body, ArrayList<Symbol> paramIdentifiers) {
         this.identifier = identifier;
@@ -23,6 +39,15 @@ public class FunctionDeclarationStatement implements Statement {
         this.symbol = symbol;
     }
 
+    // 函数体尚未分析时进行分析
+    public void parseBody() {
+        if (this.lazyBody != null) {
+            LazyBody lazyBody = this.lazyBody;
+            this.lazyBody = null;
+            lazyBody.parse(this);
+        }
+    }
+
     public String getFunctionName() {
         return this.symbol.getName(this.types);
     }
@@ -40,4 +65,9 @@ public class FunctionDeclarationStatement implements Statement {
     public String getReadableOperator() {
         return "FunctionDeclarationStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitFunctionDeclarationStatement(this);
+    }
 }
@@ -1,6 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.ast.node.expression.Expression;
 import com.slang.semantic.type.BasicType;
 import com.slang.utils.Pair;
@@ -12,17 +12,17 @@ public class IfStatement implements Statement {
     public Expression condition;
     public Statement trueBlock;
     public Statement falseBlock;
-    public CodeAxis codeAxis;
+    public long position;
 
-    public IfStatement(Expression condition, Statement trueBlock, Statement falseBlock, CodeAxis codeAxis) {
+    public IfStatement(Expression condition, Statement trueBlock, Statement falseBlock, long position) {
         if (!condition.getType().is(BasicType.BOOLEAN)) {
-            Panic panic = new Panic(String.format("The condition expression of the If statement must be Boolean type, got %s", condition.getType()), codeAxis);
+            Panic panic = new Panic(String.format("The condition expression of the If statement must be Boolean type, got %s", condition.getType()), position);
             panic.show();
         }
         this.condition = condition;
         this.trueBlock = trueBlock;
         this.falseBlock = falseBlock;
-        this.codeAxis = codeAxis;
+        this.position = position;
     }
 
     @Override
@@ -40,4 +40,9 @@ public class IfStatement implements Statement {
     public String getReadableOperator() {
         return "IfStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitIfStatement(this);
+    }
 }
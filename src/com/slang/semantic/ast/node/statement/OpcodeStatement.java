@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.symbol.Symbol;
 import com.slang.utils.Pair;
 
@@ -41,4 +42,9 @@ public class OpcodeStatement implements Statement {
     public String getReadableOperator() {
         return "OpcodeStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitOpcodeStatement(this);
+    }
 }
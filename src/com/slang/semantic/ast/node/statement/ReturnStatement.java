@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.semantic.ast.node.expression.Expression;
 import com.slang.utils.Pair;
 
@@ -26,4 +27,9 @@ public class ReturnStatement implements Statement {
     public String getReadableOperator() {
         return "ReturnStatement";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitReturnStatement(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.ast.node.statement;
 
+import com.slang.semantic.ast.node.NodeVisitor;
 import com.slang.utils.Pair;
 
 import java.util.ArrayList;
@@ -24,4 +25,9 @@ public class Statements implements Statement {
     public String getReadableOperator() {
         return "Statements";
     }
+
+    @Override
+    public <R> R accept(NodeVisitor<R> visitor) {
+        return visitor.visitStatements(this);
+    }
 }
@@ -1,5 +1,6 @@
 package com.slang.semantic.symbol;
 
+import com.slang.lexer.StringPool;
 import com.slang.semantic.type.Type;
 import com.slang.utils.Pair;
 
@@ -7,23 +8,31 @@ import java.util.ArrayList;
 
 public class Symbol {
     public String identifier;
+    // 标识符在字符串池中的编号
+    public int identifierId;
     public SymbolType symbolType;
 
     // 变量特性
     public int level = 0;
     public Type type;
+    // 声明的顺序，由SymbolTableManager分配
+    public int order = 0;
 
     // 函数特性
     public ArrayList<Pair<Type, Type>> overloadableTypes;
+    // 各个重载声明的顺序，与overloadableTypes一一对应
+    public ArrayList<Integer> overloadOrders = new ArrayList<>();
 
-    public Symbol(String identifier, Type type) {
-        this.identifier = identifier;
+    public Symbol(int identifierId, Type type) {
+        this.identifierId = identifierId;
+        this.identifier = StringPool.get(identifierId);
         this.type = type;
         this.symbolType = SymbolType.VARIABLE;
     }
 
-    public Symbol(String identifier, ArrayList<Pair<Type, Type>> overloadableTypes) {
-        this.identifier = identifier;
+    public Symbol(int identifierId, ArrayList<Pair<Type, Type>> overloadableTypes) {
+        this.identifierId = identifierId;
+        this.identifier = StringPool.get(identifierId);
         this.overloadableTypes = overloadableTypes;
         this.symbolType = SymbolType.FUNCTION;
     }
@@ -33,6 +42,11 @@ public class Symbol {
         return String.format("%s_%s", this.identifier, this.level);
     }
 
+    // for variables，与getName()对应，由标识符编号和作用域层级组成，代码生成时以它为键
+    public long getNameId() {
+        return ((long) this.level << 32) | this.identifierId;
+    }
+
     // for functions
     public String getName(Type types) {
         for (int i = 0; i < overloadableTypes.size(); i++) {
@@ -43,10 +57,11 @@ public class Symbol {
         return null;
     }
 
-    public void newOverload(Type types, Type returnType) {
+    public void newOverload(Type types, Type returnType, int order) {
         assert this.overloadableTypes != null;
         if (this.getOverload(types) == null) {
             this.overloadableTypes.add(new Pair<>(types, returnType));
+            this.overloadOrders.add(order);
         }
     }
 
@@ -58,4 +73,14 @@ public class Symbol {
         }
         return null;
     }
+
+    // 只查找在给定顺序之前声明的重载
+    public Pair<Type, Type> getOverload(Type types, int visibleOrder) {
+        for (int i = 0; i < overloadableTypes.size(); i++) {
+            if (overloadOrders.get(i) < visibleOrder && overloadableTypes.get(i).first.equals(types)) {
+                return overloadableTypes.get(i);
+            }
+        }
+        return null;
+    }
 }
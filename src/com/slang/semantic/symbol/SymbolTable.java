@@ -1,20 +1,21 @@
 package com.slang.semantic.symbol;
 
-import java.util.HashMap;
+import com.slang.utils.LongHashMap;
 
 public class SymbolTable {
-    private HashMap<String, Symbol> symbols = new HashMap<>();
+    // 以标识符在字符串池中的编号为键
+    private LongHashMap<Symbol> symbols = new LongHashMap<>();
     public SymbolTable next = null;
 
-    public boolean hasSymbol(String identifier) {
-        return this.symbols.containsKey(identifier);
+    public boolean hasSymbol(int identifierId) {
+        return this.symbols.containsKey(identifierId);
     }
 
-    public Symbol getSymbol(String identifier) {
-        return this.symbols.get(identifier);
+    public Symbol getSymbol(int identifierId) {
+        return this.symbols.get(identifierId);
     }
 
-    public void addSymbol(String identifier, Symbol symbol) {
-        this.symbols.put(identifier, symbol);
+    public void addSymbol(int identifierId, Symbol symbol) {
+        this.symbols.put(identifierId, symbol);
     }
 }
@@ -1,19 +1,46 @@
 package com.slang.semantic.symbol;
 
-import com.slang.lexer.CodeAxis;
+import com.slang.lexer.StringPool;
+import com.slang.semantic.type.Type;
+import com.slang.utils.Pair;
 import com.slang.utils.Panic;
 
 public class SymbolTableManager {
     private SymbolTable currentSymbolTable = new SymbolTable();
     private int level = 0;
+    /**
+     * 下一个声明的顺序，全局作用域中的符号和函数的重载按声明的顺序编号
+     * 延迟分析的函数体在整个程序分析完之后才分析，只能看到在函数之前声明的全局符号，与按顺序分析时相同
+     */
+    private int order = 0;
+    private int visibleOrder = Integer.MAX_VALUE;
 
     public SymbolTable getCurrentSymbolTable() {
         return currentSymbolTable;
     }
 
-    public boolean hasSymbol(String identifier) {
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * 设置可见的全局符号
+     * @param visibleOrder 只有在该顺序之前声明的全局符号和函数重载可见
+     * @return 原来的设置
+     */
+    public int setVisibleOrder(int visibleOrder) {
+        int previous = this.visibleOrder;
+        this.visibleOrder = visibleOrder;
+        return previous;
+    }
+
+    private boolean isVisible(Symbol symbol) {
+        return symbol.level > 0 || symbol.order < this.visibleOrder;
+    }
+
+    public boolean hasSymbol(int identifierId) {
         SymbolTable symbolTable = this.currentSymbolTable;
-        while (!symbolTable.hasSymbol(identifier)) {
+        while (!symbolTable.hasSymbol(identifierId) || !this.isVisible(symbolTable.getSymbol(identifierId))) {
             if (symbolTable.next == null) {
                 return false;
             }
@@ -22,28 +49,44 @@ public class SymbolTableManager {
         return true;
     }
 
-    public boolean hasSymbolInCurrentScope(String identifier) {
-        return this.currentSymbolTable.hasSymbol(identifier);
+    public boolean hasSymbolInCurrentScope(int identifierId) {
+        return this.currentSymbolTable.hasSymbol(identifierId);
     }
 
-    public Symbol findSymbol(String identifier, CodeAxis codeAxis) {
+    public Symbol findSymbol(int identifierId, long position) {
         SymbolTable symbolTable = this.currentSymbolTable;
-        while (!symbolTable.hasSymbol(identifier)) {
+        Symbol symbol = symbolTable.getSymbol(identifierId);
+        while (symbol == null || !this.isVisible(symbol)) {
             if (symbolTable.next == null) {
-                Panic panic = new Panic(String.format("Undeclared identifier %s", identifier), codeAxis);
+                Panic panic = new Panic(String.format("Undeclared identifier %s", StringPool.get(identifierId)), position);
                 panic.show();
             }
             symbolTable = symbolTable.next;
+            symbol = symbolTable.getSymbol(identifierId);
         }
-        return symbolTable.getSymbol(identifier);
+        return symbol;
     }
 
-    public Symbol addSymbol(String identifier, Symbol symbol) {
+    public Symbol addSymbol(int identifierId, Symbol symbol) {
         symbol.level = this.level;
-        this.currentSymbolTable.addSymbol(identifier, symbol);
+        symbol.order = this.order++;
+        if (symbol.symbolType == SymbolType.FUNCTION) {
+            symbol.overloadOrders.add(symbol.order);
+        }
+        this.currentSymbolTable.addSymbol(identifierId, symbol);
         return symbol;
     }
 
+    // 为已有的函数增加一个重载
+    public void newOverload(Symbol symbol, Type types, Type returnType) {
+        symbol.newOverload(types, returnType, this.order++);
+    }
+
+    // 函数在当前可见的重载
+    public Pair<Type, Type> getOverload(Symbol symbol, Type types) {
+        return symbol.getOverload(types, this.visibleOrder);
+    }
+
     public void enterScope() {
         SymbolTable newSymbolTable = new SymbolTable();
         newSymbolTable.next = this.currentSymbolTable;
@@ -1,6 +1,5 @@
 package com.slang.semantic.type;
 
-import com.slang.lexer.CodeAxis;
 import com.slang.semantic.ast.node.expression.BinaryExpressionOperator;
 import com.slang.semantic.ast.node.expression.Expression;
 import com.slang.semantic.ast.node.expression.Identifier;
@@ -29,9 +28,9 @@ public class TypeEvaluator {
         return t.is(BasicType.INT) || t.is(BasicType.FLOAT);
     }
 
-    private static Type higherSizeNumericType(Expression e1, Expression e2, CodeAxis operatorCodeAxis) {
+    private static Type higherSizeNumericType(Expression e1, Expression e2, long operatorPosition) {
         if (!TypeEvaluator.isNumericType(e1) || !TypeEvaluator.isNumericType(e2)) {
-            Panic panic = new Panic("Unsupported binary-operator between non-numeric expressions", operatorCodeAxis);
+            Panic panic = new Panic("Unsupported binary-operator between non-numeric expressions", operatorPosition);
             panic.show();
         }
         // INT + INT = INT
@@ -42,19 +41,19 @@ public class TypeEvaluator {
         return TypeFactory.type(BasicType.FLOAT);
     }
 
-    public static Type binaryExpressionType(BinaryExpressionOperator operator, Expression leftOperand, Expression rightOperand, CodeAxis operatorCodeAxis) {
+    public static Type binaryExpressionType(BinaryExpressionOperator operator, Expression leftOperand, Expression rightOperand, long operatorPosition) {
         switch (operator) {
             case PLUS:
             case SUB:
             case PROD:
             case DIV:
-                return TypeEvaluator.higherSizeNumericType(leftOperand, rightOperand, operatorCodeAxis);
+                return TypeEvaluator.higherSizeNumericType(leftOperand, rightOperand, operatorPosition);
             case LT:
             case GT:
             case LTE:
             case GTE:
                 if (!TypeEvaluator.isNumericType(leftOperand) || !TypeEvaluator.isNumericType(rightOperand)) {
-                    Panic panic = new Panic("Unsupported compare operator between non-numeric expressions", operatorCodeAxis);
+                    Panic panic = new Panic("Unsupported compare operator between non-numeric expressions", operatorPosition);
                     panic.show();
                 }
                 return TypeFactory.type(BasicType.BOOLEAN);
@@ -65,14 +64,14 @@ public class TypeEvaluator {
             case SHL:
             case SHR:
                 if (!(leftOperand.getType().is(BasicType.INT) && rightOperand.getType().is(BasicType.INT))) {
-                    Panic panic = new Panic("Operands should be integer type", operatorCodeAxis);
+                    Panic panic = new Panic("Operands should be integer type", operatorPosition);
                     panic.show();
                 }
                 return TypeFactory.type(BasicType.INT);
             case LAND:
             case LOR:
                 if (!(leftOperand.getType().is(BasicType.BOOLEAN) && rightOperand.getType().is(BasicType.BOOLEAN))) {
-                    Panic panic = new Panic("Operands should be boolean type", operatorCodeAxis);
+                    Panic panic = new Panic("Operands should be boolean type", operatorPosition);
                     panic.show();
                 }
                 return TypeFactory.type(BasicType.BOOLEAN);
@@ -83,17 +82,17 @@ public class TypeEvaluator {
         return null;
     }
 
-    public static Type unaryExpressionType(UnaryExpressionOperator operator, Expression operand, CodeAxis operatorCodeAxis) {
+    public static Type unaryExpressionType(UnaryExpressionOperator operator, Expression operand, long operatorPosition) {
         switch (operator) {
             case NOT:
                 if (!operand.getType().is(BasicType.BOOLEAN)) {
-                    Panic panic = new Panic("Operator ! can not be applied to such expression, only boolean expression is supported", operatorCodeAxis);
+                    Panic panic = new Panic("Operator ! can not be applied to such expression, only boolean expression is supported", operatorPosition);
                     panic.show();
                 }
                 return TypeFactory.type(BasicType.BOOLEAN);
             case NEGATIVE:
                 if (!TypeEvaluator.isNumericType(operand)) {
-                    Panic panic = new Panic("Operator - can not be applied to such expression, only numeric expression is supported", operatorCodeAxis);
+                    Panic panic = new Panic("Operator - can not be applied to such expression, only numeric expression is supported", operatorPosition);
                     panic.show();
                 }
                 return operand.getType();
@@ -101,9 +100,9 @@ public class TypeEvaluator {
         return null;
     }
 
-    public static void checkAssignExpression(Identifier leftHandSide, Expression rightHandSide, CodeAxis operatorCodeAxis) {
+    public static void checkAssignExpression(Identifier leftHandSide, Expression rightHandSide, long operatorPosition) {
         if (!leftHandSide.getType().compatibleWith(rightHandSide.getType())) {
-            Panic panic = new Panic(String.format("Invalid assign statement, type %s and %s is not compatible.", leftHandSide.symbol.type.toString(), rightHandSide.getType().toString()), operatorCodeAxis);
+            Panic panic = new Panic(String.format("Invalid assign statement, type %s and %s is not compatible.", leftHandSide.symbol.type.toString(), rightHandSide.getType().toString()), operatorPosition);
             panic.show();
         }
     }
@@ -0,0 +1,85 @@
+package com.slang.utils;
+
+import java.util.Arrays;
+
+/**
+ * 以long为键的哈希表
+ * 使用开放定址法，键不需要装箱，适合以字符串池编号等整数作为键的符号表
+ */
+public class LongHashMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * 查找键所在的槽位，不存在时返回应当插入的空槽位
+     */
+    private int slot(long key) {
+        int mask = this.keys.length - 1;
+        int slot = LongHashMap.hash(key) & mask;
+        while (this.used[slot] && this.keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    public boolean containsKey(long key) {
+        return this.used[this.slot(key)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = this.slot(key);
+        return this.used[slot] ? (V) this.values[slot] : null;
+    }
+
+    public void put(long key, V value) {
+        int slot = this.slot(key);
+        if (!this.used[slot]) {
+            // 装载因子超过1/2时扩容
+            if ((this.size + 1) * 2 > this.keys.length) {
+                this.resize(this.keys.length << 1);
+                slot = this.slot(key);
+            }
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.values[slot] = value;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        Arrays.fill(this.used, false);
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.used = new boolean[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = this.slot(oldKeys[i]);
+                this.used[slot] = true;
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
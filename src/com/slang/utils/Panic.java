@@ -11,21 +11,78 @@ public class Panic {
     }
     private ErrorLevel errorLevel = ErrorLevel.ERROR;
 
+    private long position = CodeAxis.NO_POSITION;
+
+    /**
+     * 当前线程是否延迟报告错误
+     * 并行进行语法分析时，各个任务中的错误不能立即输出并退出，否则报告的不一定是源文件中最靠前的错误。
+     * 延迟报告时错误以Deferred异常的形式抛出，由调用者按源文件中的顺序决定报告哪一个
+     */
+    private static final ThreadLocal<Boolean> deferred = ThreadLocal.withInitial(() -> false);
+
+    public static class Deferred extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public final Panic panic;
+
+        public Deferred(Panic panic) {
+            super(panic.message, null, false, false);
+            this.panic = panic;
+        }
+    }
+
+    /**
+     * 设置当前线程是否延迟报告错误
+     * @param defer 是否延迟
+     * @return 原来的设置
+     */
+    public static boolean setDeferred(boolean defer) {
+        boolean previous = Panic.deferred.get();
+        Panic.deferred.set(defer);
+        return previous;
+    }
+
     public Panic(String message, CodeAxis codeAxis) {
         this.message = message;
         this.codeAxis = codeAxis;
     }
 
+    public Panic(String message, long position) {
+        this.message = message;
+        this.position = position;
+    }
+
+    public void setErrorLevel(ErrorLevel errorLevel) {
+        this.errorLevel = errorLevel;
+    }
+
     public void show() {
-        String header;
-        boolean exit;
-        if (this.errorLevel == ErrorLevel.WARNING) {
-            header = "Warning";
-            exit = false;
-        } else {
-            header = "Error";
-            exit = true;
+        if (this.errorLevel == ErrorLevel.ERROR && Panic.deferred.get()) {
+            throw new Deferred(this);
+        }
+        this.print();
+        if (this.errorLevel == ErrorLevel.ERROR) {
+            System.out.println("Terminated.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 把位置换算为代码坐标
+     * 行号和字符位置只在报错时才计算，延迟的错误需要在源文件被注销之前换算
+     */
+    public void locate() {
+        if (this.codeAxis == null) {
+            this.codeAxis = CodeAxis.of(this.position);
         }
+    }
+
+    /**
+     * 只输出错误信息，不退出，用于报告延迟的错误之后继续运行
+     */
+    public void print() {
+        String header = this.errorLevel == ErrorLevel.WARNING ? "Warning" : "Error";
+        this.locate();
         if (this.codeAxis.path == null) {
             System.out.println(String.format("slang: %s: %s", header, this.message));
         } else if (this.codeAxis.line == -1) {
@@ -35,10 +92,5 @@ public class Panic {
         } else {
             System.out.println(String.format("slang: %s: %s at %s [%d:%d]", header, this.message, this.codeAxis.path, this.codeAxis.line, this.codeAxis.charPos));
         }
-
-        if (exit) {
-            System.out.println("Terminated.");
-            System.exit(1);
-        }
     }
 }